@@ -18,6 +18,9 @@ package org.apache.nifi.registry.bundle.extract;
 
 import org.apache.nifi.registry.bundle.model.BundleDetails;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -33,4 +36,28 @@ public interface BundleExtractor {
      */
     BundleDetails extract(InputStream inputStream) throws IOException;
 
+    /**
+     * Extracts the bundle metadata from a bundle that has already been written to the given file.
+     *
+     * The default implementation reads the whole file using {@link #extract(InputStream)}. Implementations that can read
+     * only the parts of the bundle they need should override this method along with {@link #supportsRandomAccess()}.
+     *
+     * @param bundleFile the file containing the binary bundle
+     * @return the bundle metadata extracted from the file
+     * @throws IOException if an error occurs reading from the file
+     */
+    default BundleDetails extract(final File bundleFile) throws IOException {
+        try (final InputStream in = new BufferedInputStream(new FileInputStream(bundleFile))) {
+            return extract(in);
+        }
+    }
+
+    /**
+     * @return true if {@link #extract(File)} reads only the parts of the bundle it needs, making it cheaper to write a
+     *         bundle to a file and extract from the file than to extract while the bundle is being read
+     */
+    default boolean supportsRandomAccess() {
+        return false;
+    }
+
 }
@@ -27,6 +27,7 @@ import org.apache.nifi.registry.extension.component.manifest.ExtensionManifest;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -34,12 +35,15 @@ import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
 import java.util.jar.Manifest;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipException;
 
 /**
  * Implementation of ExtensionBundleExtractor for NAR bundles.
@@ -71,27 +75,48 @@ public class NarBundleExtractor implements BundleExtractor {
     @Override
     public BundleDetails extract(final InputStream inputStream) throws IOException {
         try (final JarInputStream jarInputStream = new JarInputStream(inputStream)) {
-            final Manifest manifest = jarInputStream.getManifest();
-            if (manifest == null) {
-                throw new BundleException("NAR bundles must contain a valid MANIFEST");
-            }
-
-            final Attributes attributes = manifest.getMainAttributes();
-            final BundleIdentifier bundleIdentifier = getBundleCoordinate(attributes);
-            final BundleIdentifier dependencyCoordinate = getDependencyBundleCoordinate(attributes);
-            final BuildInfo buildInfo = getBuildInfo(attributes);
-
-            final BundleDetails.Builder builder = new BundleDetails.Builder()
-                    .coordinate(bundleIdentifier)
-                    .addDependencyCoordinate(dependencyCoordinate)
-                    .buildInfo(buildInfo);
-
+            final BundleDetails.Builder builder = createBuilder(jarInputStream.getManifest());
             parseExtensionDocs(jarInputStream, builder);
+            return builder.build();
+        }
+    }
 
+    /**
+     * Reads the MANIFEST, extension descriptor, and additional details directly from their entries in the NAR, using
+     * the ZIP central directory to find them so that none of the other entries need to be read or inflated.
+     */
+    @Override
+    public BundleDetails extract(final File bundleFile) throws IOException {
+        try (final JarFile jarFile = new JarFile(bundleFile, false)) {
+            final BundleDetails.Builder builder = createBuilder(jarFile.getManifest());
+            parseExtensionDocs(jarFile, builder);
             return builder.build();
+        } catch (final ZipException e) {
+            throw new BundleException("Unable to read NAR bundle due to: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public boolean supportsRandomAccess() {
+        return true;
+    }
+
+    private BundleDetails.Builder createBuilder(final Manifest manifest) {
+        if (manifest == null) {
+            throw new BundleException("NAR bundles must contain a valid MANIFEST");
+        }
+
+        final Attributes attributes = manifest.getMainAttributes();
+        final BundleIdentifier bundleIdentifier = getBundleCoordinate(attributes);
+        final BundleIdentifier dependencyCoordinate = getDependencyBundleCoordinate(attributes);
+        final BuildInfo buildInfo = getBuildInfo(attributes);
+
+        return new BundleDetails.Builder()
+                .coordinate(bundleIdentifier)
+                .addDependencyCoordinate(dependencyCoordinate)
+                .buildInfo(buildInfo);
+    }
+
     private BundleIdentifier getBundleCoordinate(final Attributes attributes) {
         try {
             final String groupId = attributes.getValue(NarManifestEntry.NAR_GROUP.getManifestName());
@@ -161,19 +186,8 @@ public class NarBundleExtractor implements BundleExtractor {
         while((jarEntry = jarInputStream.getNextJarEntry()) != null) {
             final String jarEntryName = jarEntry.getName();
             if (EXTENSION_DESCRIPTOR_ENTRY.equals(jarEntryName)) {
-                try {
-                    final byte[] rawDocsContent = toByteArray(jarInputStream);
-                    final ExtensionManifestParser docsParser = new JacksonExtensionManifestParser();
-                    final InputStream inputStream = new NonCloseableInputStream(new ByteArrayInputStream(rawDocsContent));
-
-                    final ExtensionManifest extensionManifest = docsParser.parse(inputStream);
-                    builder.addExtensions(extensionManifest.getExtensions());
-                    builder.systemApiVersion(extensionManifest.getSystemApiVersion());
-
-                    foundExtensionDocs = true;
-                } catch (Exception e) {
-                    throw new BundleException("Unable to obtain extension info for bundle due to: " + e.getMessage(), e);
-                }
+                parseExtensionDescriptor(jarInputStream, builder);
+                foundExtensionDocs = true;
             } else {
                 final Matcher matcher = ADDITIONAL_DETAILS_ENTRY_PATTERN.matcher(jarEntryName);
                 if (matcher.matches()) {
@@ -185,11 +199,53 @@ public class NarBundleExtractor implements BundleExtractor {
         }
 
         if (!foundExtensionDocs) {
-            throw new BundleException("Unable to find descriptor at '" + EXTENSION_DESCRIPTOR_ENTRY + "'. " +
-                    "This NAR may need to be rebuilt with the latest version of the NiFi NAR Maven Plugin.");
+            throw createMissingDescriptorException();
         }
     }
 
+    private void parseExtensionDocs(final JarFile jarFile, final BundleDetails.Builder builder) throws IOException {
+        final JarEntry descriptorEntry = jarFile.getJarEntry(EXTENSION_DESCRIPTOR_ENTRY);
+        if (descriptorEntry == null) {
+            throw createMissingDescriptorException();
+        }
+
+        try (final InputStream descriptorInputStream = jarFile.getInputStream(descriptorEntry)) {
+            parseExtensionDescriptor(descriptorInputStream, builder);
+        }
+
+        final Enumeration<JarEntry> jarEntries = jarFile.entries();
+        while (jarEntries.hasMoreElements()) {
+            final JarEntry jarEntry = jarEntries.nextElement();
+            final Matcher matcher = ADDITIONAL_DETAILS_ENTRY_PATTERN.matcher(jarEntry.getName());
+            if (matcher.matches()) {
+                final String extensionName = matcher.group(1);
+                try (final InputStream additionalDetailsInputStream = jarFile.getInputStream(jarEntry)) {
+                    final String additionalDetailsContent = new String(toByteArray(additionalDetailsInputStream), StandardCharsets.UTF_8);
+                    builder.addAdditionalDetails(extensionName, additionalDetailsContent);
+                }
+            }
+        }
+    }
+
+    private void parseExtensionDescriptor(final InputStream descriptorInputStream, final BundleDetails.Builder builder) {
+        try {
+            final byte[] rawDocsContent = toByteArray(descriptorInputStream);
+            final ExtensionManifestParser docsParser = new JacksonExtensionManifestParser();
+            final InputStream inputStream = new NonCloseableInputStream(new ByteArrayInputStream(rawDocsContent));
+
+            final ExtensionManifest extensionManifest = docsParser.parse(inputStream);
+            builder.addExtensions(extensionManifest.getExtensions());
+            builder.systemApiVersion(extensionManifest.getSystemApiVersion());
+        } catch (Exception e) {
+            throw new BundleException("Unable to obtain extension info for bundle due to: " + e.getMessage(), e);
+        }
+    }
+
+    private BundleException createMissingDescriptorException() {
+        return new BundleException("Unable to find descriptor at '" + EXTENSION_DESCRIPTOR_ENTRY + "'. " +
+                "This NAR may need to be rebuilt with the latest version of the NiFi NAR Maven Plugin.");
+    }
+
     private byte[] toByteArray(final InputStream input) throws IOException {
         final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.bundle.extract.nar;
+
+import org.apache.nifi.registry.bundle.model.BundleDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Benchmarks extracting the details of large NARs by reading the whole NAR through a JarInputStream compared to reading
+ * only the needed entries through the ZIP central directory.
+ *
+ * The NARs are generated from the MANIFEST and docs of nifi-hadoop-nar.nar, padded with bundled jars of random content
+ * until they reach the requested size. Run from the module directory after compiling the tests:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.nifi.registry.bundle.extract.nar.NarBundleExtractorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NarBundleExtractorBenchmark {
+
+    private static final String SOURCE_NAR = "src/test/resources/nars/nifi-hadoop-nar.nar";
+    private static final int BUNDLED_JAR_SIZE = 1024 * 1024;
+
+    @Param({"50", "300"})
+    public int narSizeMb;
+
+    private NarBundleExtractor extractor;
+    private File narFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        extractor = new NarBundleExtractor();
+        narFile = createNar(narSizeMb);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (narFile != null) {
+            narFile.delete();
+        }
+    }
+
+    @Benchmark
+    public BundleDetails extractFromStream() throws IOException {
+        try (final InputStream in = new BufferedInputStream(new FileInputStream(narFile))) {
+            return extractor.extract(in);
+        }
+    }
+
+    @Benchmark
+    public BundleDetails extractFromFile() throws IOException {
+        return extractor.extract(narFile);
+    }
+
+    static File createNar(final int sizeMb) throws IOException {
+        final File nar = File.createTempFile("nar-benchmark-" + sizeMb + "mb-", ".nar");
+        nar.deleteOnExit();
+
+        final Random random = new Random(sizeMb);
+        final byte[] bundledJar = new byte[BUNDLED_JAR_SIZE];
+
+        try (final JarFile sourceNar = new JarFile(SOURCE_NAR);
+             final JarOutputStream out = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(nar)), sourceNar.getManifest())) {
+
+            // place the docs first as the NAR Maven Plugin does, the benefit of random access is even larger when they come last
+            final Enumeration<JarEntry> sourceEntries = sourceNar.entries();
+            while (sourceEntries.hasMoreElements()) {
+                final JarEntry sourceEntry = sourceEntries.nextElement();
+                if (sourceEntry.isDirectory() || JarFile.MANIFEST_NAME.equals(sourceEntry.getName())) {
+                    continue;
+                }
+
+                out.putNextEntry(new JarEntry(sourceEntry.getName()));
+                try (final InputStream in = sourceNar.getInputStream(sourceEntry)) {
+                    final byte[] buffer = new byte[8192];
+                    int count;
+                    while ((count = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, count);
+                    }
+                }
+                out.closeEntry();
+            }
+
+            // bundled jars are already compressed, so random content is a reasonable stand-in
+            final int bundledJarCount = (int) ((sizeMb * 1024L * 1024L) / BUNDLED_JAR_SIZE);
+            for (int i = 0; i < bundledJarCount; i++) {
+                random.nextBytes(bundledJar);
+                out.putNextEntry(new JarEntry("NAR-INF/bundled-dependencies/dependency-" + i + ".jar"));
+                out.write(bundledJar);
+                out.closeEntry();
+            }
+        }
+
+        return nar;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(NarBundleExtractorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
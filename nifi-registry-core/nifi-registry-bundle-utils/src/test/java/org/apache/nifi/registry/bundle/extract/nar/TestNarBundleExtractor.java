@@ -24,9 +24,12 @@ import org.apache.nifi.registry.extension.bundle.BuildInfo;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
@@ -151,4 +154,49 @@ public class TestNarBundleExtractor {
         }
     }
 
+    @Test
+    public void testExtractFromFileMatchesExtractFromStream() throws IOException {
+        final String[] narFiles = {
+                "src/test/resources/nars/nifi-framework-nar.nar",
+                "src/test/resources/nars/nifi-foo-nar.nar",
+                "src/test/resources/nars/nifi-hadoop-nar.nar"
+        };
+
+        assertTrue(extractor.supportsRandomAccess());
+
+        for (final String narFile : narFiles) {
+            final BundleDetails streamDetails;
+            try (final InputStream in = new FileInputStream(narFile)) {
+                streamDetails = extractor.extract(in);
+            }
+
+            final BundleDetails fileDetails = extractor.extract(new File(narFile));
+            assertNotNull(fileDetails);
+            assertEquals(streamDetails.getBundleIdentifier(), fileDetails.getBundleIdentifier());
+            assertEquals(streamDetails.getDependencies(), fileDetails.getDependencies());
+            assertEquals(streamDetails.getSystemApiVersion(), fileDetails.getSystemApiVersion());
+            assertEquals(streamDetails.getBuildInfo().getBuilt(), fileDetails.getBuildInfo().getBuilt());
+            assertEquals(streamDetails.getExtensions().size(), fileDetails.getExtensions().size());
+            assertEquals(streamDetails.getAdditionalDetails(), fileDetails.getAdditionalDetails());
+        }
+    }
+
+    @Test(expected = BundleException.class)
+    public void testExtractFromFileMissingManifest() throws IOException {
+        extractor.extract(new File("src/test/resources/nars/nifi-missing-manifest.nar"));
+    }
+
+    @Test(expected = BundleException.class)
+    public void testExtractFromFileMissingExtensionDescriptor() throws IOException {
+        extractor.extract(new File("src/test/resources/nars/nifi-foo-nar-missing-extension-descriptor.nar"));
+    }
+
+    @Test(expected = BundleException.class)
+    public void testExtractFromFileNotZip() throws IOException {
+        final File notZip = File.createTempFile("not-a-nar", ".nar");
+        notZip.deleteOnExit();
+        Files.write(notZip.toPath(), "not a NAR".getBytes(StandardCharsets.UTF_8));
+        extractor.extract(notZip);
+    }
+
 }
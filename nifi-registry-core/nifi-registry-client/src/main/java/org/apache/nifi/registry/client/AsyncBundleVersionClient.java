@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client;
+
+import org.apache.nifi.registry.extension.bundle.BundleType;
+import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
+import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
+import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link BundleVersionClient}.
+ *
+ * Failures complete the returned future exceptionally with the NiFiRegistryException or IOException the blocking
+ * client would have thrown. Streams returned by the content methods must be closed by the caller, as with the
+ * blocking client.
+ */
+public interface AsyncBundleVersionClient {
+
+    /**
+     * Uploads a version of an extension bundle where the bundle content comes from an InputStream.
+     *
+     * @param bucketId the bucket where the extension bundle will leave
+     * @param bundleType the type of bundle being uploaded
+     * @param bundleContentStream the input stream with the binary content of the bundle
+     * @param sha256 the optional SHA-256 in hex form
+     * @return a future for the BundleVersion entity
+     */
+    CompletableFuture<BundleVersion> create(String bucketId, BundleType bundleType, InputStream bundleContentStream, String sha256);
+
+    /**
+     * Uploads a version of an extension bundle where the bundle content comes from a File.
+     *
+     * @param bucketId the bucket where the extension bundle will leave
+     * @param bundleType the type of bundle being uploaded
+     * @param bundleFile the file with the binary content of the bundle
+     * @param sha256 the optional SHA-256 in hex form
+     * @return a future for the BundleVersion entity
+     */
+    CompletableFuture<BundleVersion> create(String bucketId, BundleType bundleType, File bundleFile, String sha256);
+
+    /**
+     * Retrieves all of the bundle versions visible to the user with the given filter params.
+     *
+     * @param filterParams the filter params
+     * @return a future for the list of bundle version metadata
+     */
+    CompletableFuture<List<BundleVersionMetadata>> getBundleVersions(BundleVersionFilterParams filterParams);
+
+    /**
+     * Retrieves the bundle versions for the given bundle.
+     *
+     * @param bundleId the bundle id
+     * @return a future for the list of bundle version metadata
+     */
+    CompletableFuture<List<BundleVersionMetadata>> getBundleVersions(String bundleId);
+
+    /**
+     * Retrieves the given bundle version.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @return a future for the bundle version
+     */
+    CompletableFuture<BundleVersion> getBundleVersion(String bundleId, String version);
+
+    /**
+     * Retrieves the extension metadata for the given bundle version.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @return a future for the list of extension metadata
+     */
+    CompletableFuture<List<ExtensionMetadata>> getExtensions(String bundleId, String version);
+
+    /**
+     * Retrieves the dependency graph for the given bundle version.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @return a future for the dependency graph
+     */
+    CompletableFuture<BundleVersionDependencyGraph> getDependencyGraph(String bundleId, String version);
+
+    /**
+     * Retrieves the extension with the given name in the given bundle version.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @param name the extension name
+     * @return a future for the extension
+     */
+    CompletableFuture<Extension> getExtension(String bundleId, String version, String name);
+
+    /**
+     * Retrieves the documentation for the given extension.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @param name the extension name
+     * @return a future for the stream of the documentation HTML
+     */
+    CompletableFuture<InputStream> getExtensionDocs(String bundleId, String version, String name);
+
+    /**
+     * Retrieves the binary content of the given bundle version.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @return a future for the stream of the binary content
+     */
+    CompletableFuture<InputStream> getBundleVersionContent(String bundleId, String version);
+
+    /**
+     * Writes the binary content of the given bundle version to a file in the given directory.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @param directory the directory to write to
+     * @return a future for the written file
+     */
+    CompletableFuture<File> writeBundleVersionContent(String bundleId, String version, File directory);
+
+    /**
+     * Deletes the given bundle version.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @return a future for the deleted bundle version
+     */
+    CompletableFuture<BundleVersion> delete(String bundleId, String version);
+
+}
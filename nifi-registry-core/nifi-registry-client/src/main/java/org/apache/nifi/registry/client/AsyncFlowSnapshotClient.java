@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client;
+
+import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link FlowSnapshotClient}.
+ *
+ * Each method returns immediately with a future that completes once the registry has answered. Failures complete the
+ * future exceptionally with the same NiFiRegistryException or IOException the blocking client would have thrown.
+ */
+public interface AsyncFlowSnapshotClient {
+
+    /**
+     * Creates a new snapshot/version for the given flow.
+     *
+     * @param snapshot the new snapshot
+     * @return a future for the created snapshot
+     */
+    CompletableFuture<VersionedFlowSnapshot> create(VersionedFlowSnapshot snapshot);
+
+    /**
+     * Gets the snapshot for the given bucket, flow, and version.
+     *
+     * @param bucketId the bucket id
+     * @param flowId the flow id
+     * @param version the version
+     * @return a future for the snapshot with the given version of the given flow in the given bucket
+     */
+    CompletableFuture<VersionedFlowSnapshot> get(String bucketId, String flowId, int version);
+
+    /**
+     * Gets the snapshot for the given flow and version.
+     *
+     * @param flowId the flow id
+     * @param version the version
+     * @return a future for the snapshot with the given version of the given flow
+     */
+    CompletableFuture<VersionedFlowSnapshot> get(String flowId, int version);
+
+    /**
+     * Gets the latest snapshot for the given flow.
+     *
+     * @param bucketId the bucket id
+     * @param flowId the flow id
+     * @return a future for the snapshot with the latest version for the given flow
+     */
+    CompletableFuture<VersionedFlowSnapshot> getLatest(String bucketId, String flowId);
+
+    /**
+     * Gets the latest snapshot for the given flow.
+     *
+     * @param flowId the flow id
+     * @return a future for the snapshot with the latest version for the given flow
+     */
+    CompletableFuture<VersionedFlowSnapshot> getLatest(String flowId);
+
+    /**
+     * Gets the metadata for the latest snapshot of the given flow.
+     *
+     * @param bucketId the bucket id
+     * @param flowId the flow id
+     * @return a future for the metadata of the latest snapshot of the given flow
+     */
+    CompletableFuture<VersionedFlowSnapshotMetadata> getLatestMetadata(String bucketId, String flowId);
+
+    /**
+     * Gets the metadata for the latest snapshot of the given flow.
+     *
+     * @param flowId the flow id
+     * @return a future for the metadata of the latest snapshot of the given flow
+     */
+    CompletableFuture<VersionedFlowSnapshotMetadata> getLatestMetadata(String flowId);
+
+    /**
+     * Gets the metadata for the latest snapshot of each of the given flows.
+     *
+     * @param flowIds the flow ids
+     * @return a future for the metadata of the latest snapshot of each flow the user can read
+     */
+    CompletableFuture<List<VersionedFlowSnapshotMetadata>> getLatestMetadata(Set<String> flowIds);
+
+    /**
+     * Gets a list of the metadata for all snapshots of a given flow.
+     *
+     * @param bucketId the bucket id
+     * @param flowId the flow id
+     * @return a future for the list of snapshot metadata
+     */
+    CompletableFuture<List<VersionedFlowSnapshotMetadata>> getSnapshotMetadata(String bucketId, String flowId);
+
+    /**
+     * Gets a list of the metadata for all snapshots of a given flow.
+     *
+     * @param flowId the flow id
+     * @return a future for the list of snapshot metadata
+     */
+    CompletableFuture<List<VersionedFlowSnapshotMetadata>> getSnapshotMetadata(String flowId);
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client;
+
+import org.apache.nifi.registry.bucket.BucketItem;
+import org.apache.nifi.registry.field.Fields;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link ItemsClient}.
+ *
+ * Failures complete the returned future exceptionally with the NiFiRegistryException or IOException the blocking
+ * client would have thrown.
+ */
+public interface AsyncItemsClient {
+
+    /**
+     * Gets all bucket items in the registry.
+     *
+     * @return a future for the list of all bucket items
+     */
+    CompletableFuture<List<BucketItem>> getAll();
+
+    /**
+     * Gets all bucket items for the given bucket.
+     *
+     * @param bucketId the bucket id
+     * @return a future for the list of items in the given bucket
+     */
+    CompletableFuture<List<BucketItem>> getByBucket(String bucketId);
+
+    /**
+     * Gets the field info for bucket items.
+     *
+     * @return a future for the field info
+     */
+    CompletableFuture<Fields> getFields();
+
+}
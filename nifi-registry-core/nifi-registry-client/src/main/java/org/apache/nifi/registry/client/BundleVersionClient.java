@@ -18,6 +18,7 @@ package org.apache.nifi.registry.client;
 
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
@@ -143,6 +144,18 @@ public interface BundleVersionClient {
      */
     List<ExtensionMetadata> getExtensions(String bundleId, String version) throws IOException, NiFiRegistryException;
 
+    /**
+     * Resolves every direct and transitive dependency of the given bundle version in a single request.
+     *
+     * @param bundleId the bundle id
+     * @param version the bundle version
+     * @return the dependency graph, including any dependencies that could not be found
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws NiFiRegistryException if an non I/O error occurs
+     */
+    BundleVersionDependencyGraph getDependencyGraph(String bundleId, String version) throws IOException, NiFiRegistryException;
+
     /**
      * Retrieves the full extension info for the extension with the given name in the given bundle version.
      *
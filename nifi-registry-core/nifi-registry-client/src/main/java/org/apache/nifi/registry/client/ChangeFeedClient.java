@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client;
+
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+
+import java.io.IOException;
+
+/**
+ * Client for following the changes to buckets, flows and extension bundles.
+ *
+ * Each change carries a sequence number that serves as the cursor, so a consumer that remembers the last cursor it
+ * processed can resume where it left off instead of polling every resource it tracks.
+ */
+public interface ChangeFeedClient {
+
+    /**
+     * Gets the changes after the given cursor, waiting on the server up to the given timeout when there are none yet.
+     *
+     * @param after the cursor of the previous page, or null to start from the newest change
+     * @param timeoutMillis the maximum number of milliseconds the server waits for a change
+     * @return the page of changes along with the cursor to continue from
+     * @throws NiFiRegistryException if an error is encountered other than IOException
+     * @throws IOException if an I/O error is encountered
+     */
+    ChangeFeedPage getChanges(Long after, long timeoutMillis) throws NiFiRegistryException, IOException;
+
+    /**
+     * Follows the changes after the given cursor on a background thread, handing them to the listener in order.
+     *
+     * Failed requests are retried from the same cursor with a growing delay. The subscription stops after a number of
+     * consecutive failures, or when it or the NiFiRegistryClient it came from is closed.
+     *
+     * @param after the cursor to start after, or null to start from the newest change
+     * @param listener the listener to notify
+     * @return the subscription, which must be closed to stop following the changes
+     */
+    ChangeSubscription subscribe(Long after, ChangeListener listener);
+
+}
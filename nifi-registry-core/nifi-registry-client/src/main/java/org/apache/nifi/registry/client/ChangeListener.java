@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client;
+
+import org.apache.nifi.registry.changes.ChangeEvent;
+
+import java.util.List;
+
+/**
+ * Receives the changes of a {@link ChangeSubscription}.
+ *
+ * All methods are called from the subscription's thread, one at a time.
+ */
+public interface ChangeListener {
+
+    /**
+     * Called with the next changes, ordered by sequence.
+     *
+     * @param changes the changes
+     */
+    void onChanges(List<ChangeEvent> changes);
+
+    /**
+     * Called when changes may have been missed, either because the registry no longer retains them or because it
+     * restarted. The listener should re-read the state it tracks, subsequent changes follow the given cursor.
+     *
+     * @param cursor the cursor the subscription continues from
+     */
+    void onReset(long cursor);
+
+    /**
+     * Called when a request for changes fails, before it is retried.
+     *
+     * @param e the failure
+     */
+    default void onError(Exception e) {
+    }
+
+    /**
+     * Called when the subscription stops because its requests kept failing, after the last failure was passed to
+     * {@link #onError(Exception)}. The consumer may subscribe again from the subscription's cursor.
+     *
+     * @param e the last failure
+     */
+    default void onRetriesExhausted(Exception e) {
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client;
+
+import java.io.Closeable;
+
+/**
+ * A running subscription to the change feed created by {@link ChangeFeedClient#subscribe(Long, ChangeListener)}.
+ */
+public interface ChangeSubscription extends Closeable {
+
+    /**
+     * @return the cursor of the last change handed to the listener, which can be persisted to resume later
+     */
+    Long getCursor();
+
+    /**
+     * @return true if the subscription was closed, either by the caller or because its retries were exhausted
+     */
+    boolean isClosed();
+
+    /**
+     * Stops following the changes. A request that is already waiting on the server is abandoned when it completes.
+     */
+    @Override
+    void close();
+
+}
@@ -18,6 +18,7 @@ package org.apache.nifi.registry.client;
 
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadataContainer;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
 
@@ -51,6 +52,19 @@ public interface ExtensionClient {
      */
     ExtensionMetadataContainer findExtensions(ProvidedServiceAPI providedServiceAPI) throws IOException, NiFiRegistryException;
 
+    /**
+     * Searches extensions by name, display name, description, tags, property names, and provided service APIs.
+     *
+     * @param query the words to search for
+     * @param filterParams the optional filter params
+     * @param limit the maximum number of extensions to return
+     * @return the most relevant extensions along with facet counts for all matching extensions
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws NiFiRegistryException if an non I/O error occurs
+     */
+    ExtensionSearchResults searchExtensions(String query, ExtensionFilterParams filterParams, int limit) throws IOException, NiFiRegistryException;
+
     /**
      * @return all of the tags known the registry with their corresponding counts
      *
@@ -21,6 +21,7 @@ import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Client for interacting with snapshots.
@@ -105,6 +106,19 @@ public interface FlowSnapshotClient {
      */
     VersionedFlowSnapshotMetadata getLatestMetadata(String flowId) throws NiFiRegistryException, IOException;
 
+    /**
+     * Gets the latest snapshot metadata for each of the given flows.
+     *
+     * Flows that do not exist, have no versions, or are located in buckets the user is not authorized to read are not
+     * part of the response. Large sets of flows are split across as many requests as the registry requires.
+     *
+     * @param flowIds the flow ids
+     * @return the snapshot metadata for the latest version of each of the given flows
+     * @throws NiFiRegistryException if an error is encountered other than IOException
+     * @throws IOException if an I/O error is encountered
+     */
+    List<VersionedFlowSnapshotMetadata> getLatestMetadata(Set<String> flowIds) throws NiFiRegistryException, IOException;
+
     /**
      * Gets a list of the metadata for all snapshots of a given flow.
      *
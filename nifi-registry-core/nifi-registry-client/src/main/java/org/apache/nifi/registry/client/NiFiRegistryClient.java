@@ -251,6 +251,52 @@ public interface NiFiRegistryClient extends Closeable {
 
     //-------------------------------------------------------------------------------------------
 
+    /**
+     * Subscriptions created through the returned client are closed when this client is closed.
+     *
+     * @return the client for following changes to buckets, flows and extension bundles
+     */
+    ChangeFeedClient getChangeFeedClient();
+
+    /**
+     * @return the client for following changes to buckets, flows and extension bundles using the given request config
+     */
+    ChangeFeedClient getChangeFeedClient(RequestConfig requestConfig);
+
+    //-------------------------------------------------------------------------------------------
+
+    /**
+     * @return the non-blocking client for interacting with flows/snapshots
+     */
+    AsyncFlowSnapshotClient getAsyncFlowSnapshotClient();
+
+    /**
+     * @return the non-blocking client for interacting with flows/snapshots using the given request config
+     */
+    AsyncFlowSnapshotClient getAsyncFlowSnapshotClient(RequestConfig requestConfig);
+
+    /**
+     * @return the non-blocking client for interacting with bucket items
+     */
+    AsyncItemsClient getAsyncItemsClient();
+
+    /**
+     * @return the non-blocking client for interacting with bucket items using the given request config
+     */
+    AsyncItemsClient getAsyncItemsClient(RequestConfig requestConfig);
+
+    /**
+     * @return the non-blocking client for interacting with bundle versions
+     */
+    AsyncBundleVersionClient getAsyncBundleVersionClient();
+
+    /**
+     * @return the non-blocking client for interacting with bundle versions using the given request config
+     */
+    AsyncBundleVersionClient getAsyncBundleVersionClient(RequestConfig requestConfig);
+
+    //-------------------------------------------------------------------------------------------
+
     /**
      * The builder interface that implementations should provide for obtaining the client.
      */
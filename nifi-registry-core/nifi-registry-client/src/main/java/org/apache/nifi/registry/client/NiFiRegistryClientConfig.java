@@ -31,6 +31,7 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.security.KeyStore;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Configuration for a NiFiRegistryClient.
@@ -39,6 +40,26 @@ public class NiFiRegistryClientConfig {
 
     public static final String DEFAULT_PROTOCOL = CertificateUtils.getHighestCurrentSupportedTlsProtocolVersion();
 
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    /**
+     * The HTTP transports a client can be created with.
+     */
+    public enum Connector {
+
+        /**
+         * The JDK HttpURLConnection, which relies on the JVM wide keep-alive cache (see the http.maxConnections system property).
+         */
+        URL_CONNECTION,
+
+        /**
+         * Apache HttpClient with a connection pool sized by maxConnections and maxConnectionsPerRoute.
+         */
+        APACHE_HTTP_CLIENT
+
+    }
+
     private final String baseUrl;
     private final SSLContext sslContext;
     private final String keystoreFilename;
@@ -52,7 +73,12 @@ public class NiFiRegistryClientConfig {
     private final HostnameVerifier hostnameVerifier;
     private final Integer readTimeout;
     private final Integer connectTimeout;
-
+    private final Connector connector;
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final Long connectionTimeToLive;
+    private final boolean compressionEnabled;
+    private final ExecutorService asyncExecutor;
 
     private NiFiRegistryClientConfig(final Builder builder) {
         this.baseUrl = builder.baseUrl;
@@ -68,6 +94,16 @@ public class NiFiRegistryClientConfig {
         this.hostnameVerifier = builder.hostnameVerifier;
         this.readTimeout = builder.readTimeout;
         this.connectTimeout = builder.connectTimeout;
+        this.connector = builder.connector == null ? Connector.URL_CONNECTION : builder.connector;
+        this.maxConnections = builder.maxConnections == null ? DEFAULT_MAX_CONNECTIONS : builder.maxConnections;
+        this.maxConnectionsPerRoute = builder.maxConnectionsPerRoute == null ? DEFAULT_MAX_CONNECTIONS_PER_ROUTE : builder.maxConnectionsPerRoute;
+        this.connectionTimeToLive = builder.connectionTimeToLive;
+        this.compressionEnabled = builder.compressionEnabled == null ? true : builder.compressionEnabled;
+        this.asyncExecutor = builder.asyncExecutor;
+
+        if (maxConnections < 1 || maxConnectionsPerRoute < 1) {
+            throw new IllegalArgumentException("Max connections and max connections per route must be greater than zero");
+        }
     }
 
     public String getBaseUrl() {
@@ -180,6 +216,36 @@ public class NiFiRegistryClientConfig {
         return connectTimeout;
     }
 
+    public Connector getConnector() {
+        return connector;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * @return the maximum time in milliseconds a pooled connection is kept alive, or null to keep it for as long as the server allows
+     */
+    public Long getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * @return the executor async clients run requests on, or null if the client should manage its own
+     */
+    public ExecutorService getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
     /**
      * Builder for client configuration.
      */
@@ -198,6 +264,12 @@ public class NiFiRegistryClientConfig {
         private HostnameVerifier hostnameVerifier;
         private Integer readTimeout;
         private Integer connectTimeout;
+        private Connector connector;
+        private Integer maxConnections;
+        private Integer maxConnectionsPerRoute;
+        private Long connectionTimeToLive;
+        private Boolean compressionEnabled;
+        private ExecutorService asyncExecutor;
 
         public Builder baseUrl(final String baseUrl) {
             this.baseUrl = baseUrl;
@@ -264,6 +336,36 @@ public class NiFiRegistryClientConfig {
             return this;
         }
 
+        public Builder connector(final Connector connector) {
+            this.connector = connector;
+            return this;
+        }
+
+        public Builder maxConnections(final Integer maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder maxConnectionsPerRoute(final Integer maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        public Builder connectionTimeToLive(final Long connectionTimeToLive) {
+            this.connectionTimeToLive = connectionTimeToLive;
+            return this;
+        }
+
+        public Builder compressionEnabled(final Boolean compressionEnabled) {
+            this.compressionEnabled = compressionEnabled;
+            return this;
+        }
+
+        public Builder asyncExecutor(final ExecutorService asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
         public NiFiRegistryClientConfig build() {
             return new NiFiRegistryClientConfig(this);
         }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.client.NiFiRegistryException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Base class for the async clients, which run the calls of a blocking client on an executor.
+ */
+public class AbstractAsyncClient {
+
+    private final Executor executor;
+
+    public AbstractAsyncClient(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the given call on the executor.
+     *
+     * @param call the blocking call to run
+     * @param <T> the return type of the call
+     * @return a future that completes with the result of the call, or exceptionally with whatever the call threw
+     */
+    protected <T> CompletableFuture<T> supplyAsync(final NiFiRegistryCall<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (final Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (final Exception e) {
+            // the executor rejected the task, most likely because the client has been closed
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * A call on a blocking client with the given return type.
+     *
+     * @param <T> the return type of the call
+     */
+    protected interface NiFiRegistryCall<T> {
+
+        T call() throws NiFiRegistryException, IOException;
+
+    }
+
+}
@@ -22,6 +22,7 @@ import org.apache.nifi.registry.client.NiFiRegistryException;
 import org.apache.nifi.registry.client.RequestConfig;
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
@@ -238,6 +239,28 @@ public class JerseyBundleVersionClient extends AbstractJerseyClient implements B
         });
     }
 
+    @Override
+    public BundleVersionDependencyGraph getDependencyGraph(final String bundleId, final String version)
+            throws IOException, NiFiRegistryException {
+
+        if (StringUtils.isBlank(bundleId)) {
+            throw new IllegalArgumentException("Bundle id cannot be null or blank");
+        }
+
+        if (StringUtils.isBlank(version)) {
+            throw new IllegalArgumentException("Version cannot be null or blank");
+        }
+
+        return executeAction("Error getting extension bundle dependencies", () -> {
+            final WebTarget target = extensionBundlesTarget
+                    .path("{bundleId}/versions/{version}/dependencies")
+                    .resolveTemplate("bundleId", bundleId)
+                    .resolveTemplate("version", version);
+
+            return getRequestBuilder(target).get(BundleVersionDependencyGraph.class);
+        });
+    }
+
     @Override
     public Extension getExtension(final String bundleId, final String version, final String name) throws IOException, NiFiRegistryException {
         if (StringUtils.isBlank(bundleId)) {
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.client.ChangeFeedClient;
+import org.apache.nifi.registry.client.ChangeListener;
+import org.apache.nifi.registry.client.ChangeSubscription;
+import org.apache.nifi.registry.client.NiFiRegistryException;
+import org.apache.nifi.registry.client.RequestConfig;
+import org.glassfish.jersey.client.ClientProperties;
+
+import javax.ws.rs.client.WebTarget;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Jersey implementation of ChangeFeedClient that long-polls the change feed.
+ */
+public class JerseyChangeFeedClient extends AbstractJerseyClient implements ChangeFeedClient {
+
+    static final long DEFAULT_POLL_TIMEOUT_MILLIS = 30000;
+
+    // the server holds the request open for the poll timeout, so the read timeout has to outlast it
+    static final long READ_TIMEOUT_MARGIN_MILLIS = 10000;
+
+    private final WebTarget changesTarget;
+    private final Set<ChangeSubscription> openSubscriptions;
+
+    public JerseyChangeFeedClient(final WebTarget baseTarget) {
+        this(baseTarget, null);
+    }
+
+    public JerseyChangeFeedClient(final WebTarget baseTarget, final RequestConfig requestConfig) {
+        this(baseTarget, requestConfig, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * @param baseTarget the base target of the registry
+     * @param requestConfig the request config, or null
+     * @param openSubscriptions the set that running subscriptions are kept in, so the owner can close them
+     */
+    public JerseyChangeFeedClient(final WebTarget baseTarget, final RequestConfig requestConfig, final Set<ChangeSubscription> openSubscriptions) {
+        super(requestConfig);
+        this.changesTarget = baseTarget.path("/changes");
+        this.openSubscriptions = openSubscriptions;
+    }
+
+    @Override
+    public ChangeFeedPage getChanges(final Long after, final long timeoutMillis) throws NiFiRegistryException, IOException {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout cannot be negative");
+        }
+
+        return executeAction("Error retrieving changes", () -> {
+            WebTarget target = changesTarget.queryParam("timeout", timeoutMillis);
+            if (after != null) {
+                target = target.queryParam("after", after);
+            }
+
+            return getRequestBuilder(target)
+                    .property(ClientProperties.READ_TIMEOUT, (int) (timeoutMillis + READ_TIMEOUT_MARGIN_MILLIS))
+                    .get(ChangeFeedPage.class);
+        });
+    }
+
+    @Override
+    public ChangeSubscription subscribe(final Long after, final ChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+
+        final StandardChangeSubscription subscription = new StandardChangeSubscription(this, after, DEFAULT_POLL_TIMEOUT_MILLIS, listener, openSubscriptions);
+        subscription.start();
+        return subscription;
+    }
+
+}
@@ -23,6 +23,7 @@ import org.apache.nifi.registry.client.RequestConfig;
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadataContainer;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -52,27 +53,7 @@ public class JerseyExtensionClient extends AbstractJerseyClient implements Exten
             throws IOException, NiFiRegistryException {
 
         return executeAction("Error retrieving extensions", () -> {
-            WebTarget target = extensionsTarget;
-
-            if (filterParams != null) {
-                final BundleType bundleType = filterParams.getBundleType();
-                if (bundleType != null) {
-                    target = target.queryParam("bundleType", bundleType.toString());
-                }
-
-                final ExtensionType extensionType = filterParams.getExtensionType();
-                if (extensionType != null) {
-                    target = target.queryParam("extensionType", extensionType.toString());
-                }
-
-                final Set<String> tags = filterParams.getTags();
-                if (tags != null) {
-                    for (final String tag : tags) {
-                        target = target.queryParam("tag", tag);
-                    }
-                }
-            }
-
+            final WebTarget target = addFilterParams(extensionsTarget, filterParams);
             return getRequestBuilder(target).get(ExtensionMetadataContainer.class);
         });
     }
@@ -98,6 +79,22 @@ public class JerseyExtensionClient extends AbstractJerseyClient implements Exten
         });
     }
 
+    @Override
+    public ExtensionSearchResults searchExtensions(final String query, final ExtensionFilterParams filterParams, final int limit)
+            throws IOException, NiFiRegistryException {
+
+        return executeAction("Error searching extensions", () -> {
+            WebTarget target = extensionsTarget.path("search").queryParam("limit", limit);
+
+            if (!StringUtils.isBlank(query)) {
+                target = target.queryParam("q", query);
+            }
+
+            target = addFilterParams(target, filterParams);
+            return getRequestBuilder(target).get(ExtensionSearchResults.class);
+        });
+    }
+
     @Override
     public List<TagCount> getTagCounts() throws IOException, NiFiRegistryException {
         return executeAction("Error retrieving tag counts", () -> {
@@ -108,4 +105,29 @@ public class JerseyExtensionClient extends AbstractJerseyClient implements Exten
         });
     }
 
+    private WebTarget addFilterParams(final WebTarget baseTarget, final ExtensionFilterParams filterParams) {
+        WebTarget target = baseTarget;
+
+        if (filterParams != null) {
+            final BundleType bundleType = filterParams.getBundleType();
+            if (bundleType != null) {
+                target = target.queryParam("bundleType", bundleType.toString());
+            }
+
+            final ExtensionType extensionType = filterParams.getExtensionType();
+            if (extensionType != null) {
+                target = target.queryParam("extensionType", extensionType.toString());
+            }
+
+            final Set<String> tags = filterParams.getTags();
+            if (tags != null) {
+                for (final String tag : tags) {
+                    target = target.queryParam("tag", tag);
+                }
+            }
+        }
+
+        return target;
+    }
+
 }
@@ -27,17 +27,23 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Jersey implementation of FlowSnapshotClient.
  */
 public class JerseyFlowSnapshotClient extends AbstractJerseyClient implements FlowSnapshotClient {
 
+    // the most flow ids the registry accepts in one latest metadata request
+    static final int MAX_LATEST_METADATA_FLOWS = 1000;
+
     final WebTarget bucketFlowSnapshotTarget;
     final WebTarget flowsFlowSnapshotTarget;
+    final WebTarget latestMetadataTarget;
 
     public JerseyFlowSnapshotClient(final WebTarget baseTarget) {
         this(baseTarget, null);
@@ -47,6 +53,7 @@ public class JerseyFlowSnapshotClient extends AbstractJerseyClient implements Fl
         super(requestConfig);
         this.bucketFlowSnapshotTarget = baseTarget.path("/buckets/{bucketId}/flows/{flowId}/versions");
         this.flowsFlowSnapshotTarget = baseTarget.path("/flows/{flowId}/versions");
+        this.latestMetadataTarget = baseTarget.path("/flows/versions/latest/metadata");
     }
 
     @Override
@@ -199,6 +206,27 @@ public class JerseyFlowSnapshotClient extends AbstractJerseyClient implements Fl
         });
     }
 
+    @Override
+    public List<VersionedFlowSnapshotMetadata> getLatestMetadata(final Set<String> flowIds) throws NiFiRegistryException, IOException {
+        if (flowIds == null) {
+            throw new IllegalArgumentException("Flow Identifiers cannot be null");
+        }
+
+        final List<VersionedFlowSnapshotMetadata> latestMetadata = new ArrayList<>();
+        final List<String> remainingFlowIds = new ArrayList<>(flowIds);
+        for (int i = 0; i < remainingFlowIds.size(); i += MAX_LATEST_METADATA_FLOWS) {
+            final List<String> batch = remainingFlowIds.subList(i, Math.min(i + MAX_LATEST_METADATA_FLOWS, remainingFlowIds.size()));
+
+            latestMetadata.addAll(executeAction("Error retrieving latest snapshot metadata", () -> {
+                final VersionedFlowSnapshotMetadata[] snapshots = getRequestBuilder(latestMetadataTarget)
+                        .post(Entity.entity(batch, MediaType.APPLICATION_JSON), VersionedFlowSnapshotMetadata[].class);
+
+                return snapshots == null ? Collections.<VersionedFlowSnapshotMetadata>emptyList() : Arrays.asList(snapshots);
+            }));
+        }
+        return latestMetadata;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<VersionedFlowSnapshotMetadata> getSnapshotMetadata(final String bucketId, final String flowId)
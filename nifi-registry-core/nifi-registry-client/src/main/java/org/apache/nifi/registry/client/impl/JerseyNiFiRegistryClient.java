@@ -22,11 +22,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
 import org.apache.nifi.registry.bucket.BucketItem;
 import org.apache.nifi.registry.client.AccessClient;
+import org.apache.nifi.registry.client.AsyncBundleVersionClient;
+import org.apache.nifi.registry.client.AsyncFlowSnapshotClient;
+import org.apache.nifi.registry.client.AsyncItemsClient;
 import org.apache.nifi.registry.client.BucketClient;
 import org.apache.nifi.registry.client.BundleClient;
 import org.apache.nifi.registry.client.BundleVersionClient;
+import org.apache.nifi.registry.client.ChangeFeedClient;
+import org.apache.nifi.registry.client.ChangeSubscription;
 import org.apache.nifi.registry.client.ExtensionClient;
 import org.apache.nifi.registry.client.ExtensionRepoClient;
 import org.apache.nifi.registry.client.FlowClient;
@@ -39,11 +51,15 @@ import org.apache.nifi.registry.client.RequestConfig;
 import org.apache.nifi.registry.client.TenantsClient;
 import org.apache.nifi.registry.client.UserClient;
 import org.apache.nifi.registry.client.impl.request.ProxiedEntityRequestConfig;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.client.filter.EncodingFilter;
 import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.glassfish.jersey.message.GZipEncoder;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
@@ -52,6 +68,15 @@ import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A NiFiRegistryClient that uses Jersey Client.
@@ -61,6 +86,7 @@ public class JerseyNiFiRegistryClient implements NiFiRegistryClient {
     static final String NIFI_REGISTRY_CONTEXT = "nifi-registry-api";
     static final int DEFAULT_CONNECT_TIMEOUT = 10000;
     static final int DEFAULT_READ_TIMEOUT = 10000;
+    static final long ASYNC_THREAD_KEEP_ALIVE_SECONDS = 60;
 
     private final Client client;
     private final WebTarget baseTarget;
@@ -69,6 +95,11 @@ public class JerseyNiFiRegistryClient implements NiFiRegistryClient {
     private final FlowClient flowClient;
     private final FlowSnapshotClient flowSnapshotClient;
     private final ItemsClient itemsClient;
+    private final Set<ChangeSubscription> changeSubscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService configuredAsyncExecutor;
+    private final int asyncThreads;
+    private ExecutorService asyncExecutor;
 
     private JerseyNiFiRegistryClient(final NiFiRegistryClient.Builder builder) {
         final NiFiRegistryClientConfig registryClientConfig = builder.getConfig();
@@ -114,6 +145,18 @@ public class JerseyNiFiRegistryClient implements NiFiRegistryClient {
         clientConfig.property(ClientProperties.READ_TIMEOUT, readTimeout);
         clientConfig.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED);
         clientConfig.register(jacksonJaxbJsonProvider());
+
+        if (registryClientConfig.getConnector() == NiFiRegistryClientConfig.Connector.APACHE_HTTP_CLIENT) {
+            // the connector closes the connection manager when the client is closed
+            clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, createConnectionManager(registryClientConfig, sslContext, hostnameVerifier));
+            clientConfig.connectorProvider(new ApacheConnectorProvider());
+        }
+
+        if (registryClientConfig.isCompressionEnabled()) {
+            // advertises gzip in Accept-Encoding and decodes compressed responses, request bodies are still sent as-is
+            clientConfig.register(EncodingFilter.class);
+            clientConfig.register(GZipEncoder.class);
+        }
         clientBuilder.withConfig(clientConfig);
 
         this.client = clientBuilder
@@ -125,6 +168,48 @@ public class JerseyNiFiRegistryClient implements NiFiRegistryClient {
         this.flowClient = new JerseyFlowClient(baseTarget);
         this.flowSnapshotClient = new JerseyFlowSnapshotClient(baseTarget);
         this.itemsClient = new JerseyItemsClient(baseTarget);
+
+        this.configuredAsyncExecutor = registryClientConfig.getAsyncExecutor();
+        this.asyncThreads = registryClientConfig.getMaxConnectionsPerRoute();
+    }
+
+    private static PoolingHttpClientConnectionManager createConnectionManager(final NiFiRegistryClientConfig registryClientConfig,
+                                                                              final SSLContext sslContext, final HostnameVerifier hostnameVerifier) {
+        // supplying a connection manager means the connector no longer applies the SSLContext of the client builder
+        final SSLContext socketSslContext = sslContext == null ? SSLContexts.createDefault() : sslContext;
+        final HostnameVerifier socketHostnameVerifier = hostnameVerifier == null ? SSLConnectionSocketFactory.getDefaultHostnameVerifier() : hostnameVerifier;
+
+        final Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(socketSslContext, socketHostnameVerifier))
+                .build();
+
+        final Long timeToLive = registryClientConfig.getConnectionTimeToLive();
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                socketFactoryRegistry, null, null, null, timeToLive == null ? -1 : timeToLive, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(registryClientConfig.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(registryClientConfig.getMaxConnectionsPerRoute());
+        return connectionManager;
+    }
+
+    private synchronized Executor getAsyncExecutor() {
+        if (configuredAsyncExecutor != null) {
+            return configuredAsyncExecutor;
+        }
+
+        if (asyncExecutor == null) {
+            // one thread per pooled connection to the registry, released again when the client sits idle
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(asyncThreads, asyncThreads, ASYNC_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        final Thread thread = new Thread(runnable, "NiFi Registry Client Async-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            asyncExecutor = executor;
+        }
+        return asyncExecutor;
     }
 
     @Override
@@ -308,8 +393,59 @@ public class JerseyNiFiRegistryClient implements NiFiRegistryClient {
         return new JerseyAccessClient(baseTarget);
     }
 
+    @Override
+    public ChangeFeedClient getChangeFeedClient() {
+        return new JerseyChangeFeedClient(baseTarget, null, changeSubscriptions);
+    }
+
+    @Override
+    public ChangeFeedClient getChangeFeedClient(RequestConfig requestConfig) {
+        return new JerseyChangeFeedClient(baseTarget, requestConfig, changeSubscriptions);
+    }
+
+    @Override
+    public AsyncFlowSnapshotClient getAsyncFlowSnapshotClient() {
+        return new StandardAsyncFlowSnapshotClient(flowSnapshotClient, getAsyncExecutor());
+    }
+
+    @Override
+    public AsyncFlowSnapshotClient getAsyncFlowSnapshotClient(RequestConfig requestConfig) {
+        return new StandardAsyncFlowSnapshotClient(getFlowSnapshotClient(requestConfig), getAsyncExecutor());
+    }
+
+    @Override
+    public AsyncItemsClient getAsyncItemsClient() {
+        return new StandardAsyncItemsClient(itemsClient, getAsyncExecutor());
+    }
+
+    @Override
+    public AsyncItemsClient getAsyncItemsClient(RequestConfig requestConfig) {
+        return new StandardAsyncItemsClient(getItemsClient(requestConfig), getAsyncExecutor());
+    }
+
+    @Override
+    public AsyncBundleVersionClient getAsyncBundleVersionClient() {
+        return new StandardAsyncBundleVersionClient(getBundleVersionClient(), getAsyncExecutor());
+    }
+
+    @Override
+    public AsyncBundleVersionClient getAsyncBundleVersionClient(RequestConfig requestConfig) {
+        return new StandardAsyncBundleVersionClient(getBundleVersionClient(requestConfig), getAsyncExecutor());
+    }
+
     @Override
     public void close() throws IOException {
+        for (final ChangeSubscription changeSubscription : new ArrayList<>(changeSubscriptions)) {
+            changeSubscription.close();
+        }
+
+        synchronized (this) {
+            // an executor supplied through the config belongs to the caller and is left running
+            if (asyncExecutor != null) {
+                asyncExecutor.shutdown();
+            }
+        }
+
         if (this.client != null) {
             try {
                 this.client.close();
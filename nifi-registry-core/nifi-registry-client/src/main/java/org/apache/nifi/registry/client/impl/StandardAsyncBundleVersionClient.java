@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.client.AsyncBundleVersionClient;
+import org.apache.nifi.registry.client.BundleVersionClient;
+import org.apache.nifi.registry.extension.bundle.BundleType;
+import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
+import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
+import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * AsyncBundleVersionClient that runs the calls of a BundleVersionClient on an executor.
+ */
+public class StandardAsyncBundleVersionClient extends AbstractAsyncClient implements AsyncBundleVersionClient {
+
+    private final BundleVersionClient bundleVersionClient;
+
+    public StandardAsyncBundleVersionClient(final BundleVersionClient bundleVersionClient, final Executor executor) {
+        super(executor);
+        this.bundleVersionClient = bundleVersionClient;
+    }
+
+    @Override
+    public CompletableFuture<BundleVersion> create(final String bucketId, final BundleType bundleType, final InputStream bundleContentStream, final String sha256) {
+        return supplyAsync(() -> bundleVersionClient.create(bucketId, bundleType, bundleContentStream, sha256));
+    }
+
+    @Override
+    public CompletableFuture<BundleVersion> create(final String bucketId, final BundleType bundleType, final File bundleFile, final String sha256) {
+        return supplyAsync(() -> bundleVersionClient.create(bucketId, bundleType, bundleFile, sha256));
+    }
+
+    @Override
+    public CompletableFuture<List<BundleVersionMetadata>> getBundleVersions(final BundleVersionFilterParams filterParams) {
+        return supplyAsync(() -> bundleVersionClient.getBundleVersions(filterParams));
+    }
+
+    @Override
+    public CompletableFuture<List<BundleVersionMetadata>> getBundleVersions(final String bundleId) {
+        return supplyAsync(() -> bundleVersionClient.getBundleVersions(bundleId));
+    }
+
+    @Override
+    public CompletableFuture<BundleVersion> getBundleVersion(final String bundleId, final String version) {
+        return supplyAsync(() -> bundleVersionClient.getBundleVersion(bundleId, version));
+    }
+
+    @Override
+    public CompletableFuture<List<ExtensionMetadata>> getExtensions(final String bundleId, final String version) {
+        return supplyAsync(() -> bundleVersionClient.getExtensions(bundleId, version));
+    }
+
+    @Override
+    public CompletableFuture<BundleVersionDependencyGraph> getDependencyGraph(final String bundleId, final String version) {
+        return supplyAsync(() -> bundleVersionClient.getDependencyGraph(bundleId, version));
+    }
+
+    @Override
+    public CompletableFuture<Extension> getExtension(final String bundleId, final String version, final String name) {
+        return supplyAsync(() -> bundleVersionClient.getExtension(bundleId, version, name));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> getExtensionDocs(final String bundleId, final String version, final String name) {
+        return supplyAsync(() -> bundleVersionClient.getExtensionDocs(bundleId, version, name));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> getBundleVersionContent(final String bundleId, final String version) {
+        return supplyAsync(() -> bundleVersionClient.getBundleVersionContent(bundleId, version));
+    }
+
+    @Override
+    public CompletableFuture<File> writeBundleVersionContent(final String bundleId, final String version, final File directory) {
+        return supplyAsync(() -> bundleVersionClient.writeBundleVersionContent(bundleId, version, directory));
+    }
+
+    @Override
+    public CompletableFuture<BundleVersion> delete(final String bundleId, final String version) {
+        return supplyAsync(() -> bundleVersionClient.delete(bundleId, version));
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.client.AsyncFlowSnapshotClient;
+import org.apache.nifi.registry.client.FlowSnapshotClient;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * AsyncFlowSnapshotClient that runs the calls of a FlowSnapshotClient on an executor.
+ */
+public class StandardAsyncFlowSnapshotClient extends AbstractAsyncClient implements AsyncFlowSnapshotClient {
+
+    private final FlowSnapshotClient flowSnapshotClient;
+
+    public StandardAsyncFlowSnapshotClient(final FlowSnapshotClient flowSnapshotClient, final Executor executor) {
+        super(executor);
+        this.flowSnapshotClient = flowSnapshotClient;
+    }
+
+    @Override
+    public CompletableFuture<VersionedFlowSnapshot> create(final VersionedFlowSnapshot snapshot) {
+        return supplyAsync(() -> flowSnapshotClient.create(snapshot));
+    }
+
+    @Override
+    public CompletableFuture<VersionedFlowSnapshot> get(final String bucketId, final String flowId, final int version) {
+        return supplyAsync(() -> flowSnapshotClient.get(bucketId, flowId, version));
+    }
+
+    @Override
+    public CompletableFuture<VersionedFlowSnapshot> get(final String flowId, final int version) {
+        return supplyAsync(() -> flowSnapshotClient.get(flowId, version));
+    }
+
+    @Override
+    public CompletableFuture<VersionedFlowSnapshot> getLatest(final String bucketId, final String flowId) {
+        return supplyAsync(() -> flowSnapshotClient.getLatest(bucketId, flowId));
+    }
+
+    @Override
+    public CompletableFuture<VersionedFlowSnapshot> getLatest(final String flowId) {
+        return supplyAsync(() -> flowSnapshotClient.getLatest(flowId));
+    }
+
+    @Override
+    public CompletableFuture<VersionedFlowSnapshotMetadata> getLatestMetadata(final String bucketId, final String flowId) {
+        return supplyAsync(() -> flowSnapshotClient.getLatestMetadata(bucketId, flowId));
+    }
+
+    @Override
+    public CompletableFuture<VersionedFlowSnapshotMetadata> getLatestMetadata(final String flowId) {
+        return supplyAsync(() -> flowSnapshotClient.getLatestMetadata(flowId));
+    }
+
+    @Override
+    public CompletableFuture<List<VersionedFlowSnapshotMetadata>> getLatestMetadata(final Set<String> flowIds) {
+        return supplyAsync(() -> flowSnapshotClient.getLatestMetadata(flowIds));
+    }
+
+    @Override
+    public CompletableFuture<List<VersionedFlowSnapshotMetadata>> getSnapshotMetadata(final String bucketId, final String flowId) {
+        return supplyAsync(() -> flowSnapshotClient.getSnapshotMetadata(bucketId, flowId));
+    }
+
+    @Override
+    public CompletableFuture<List<VersionedFlowSnapshotMetadata>> getSnapshotMetadata(final String flowId) {
+        return supplyAsync(() -> flowSnapshotClient.getSnapshotMetadata(flowId));
+    }
+
+}
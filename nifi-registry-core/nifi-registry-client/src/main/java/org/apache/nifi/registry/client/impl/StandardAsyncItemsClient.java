@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.bucket.BucketItem;
+import org.apache.nifi.registry.client.AsyncItemsClient;
+import org.apache.nifi.registry.client.ItemsClient;
+import org.apache.nifi.registry.field.Fields;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * AsyncItemsClient that runs the calls of an ItemsClient on an executor.
+ */
+public class StandardAsyncItemsClient extends AbstractAsyncClient implements AsyncItemsClient {
+
+    private final ItemsClient itemsClient;
+
+    public StandardAsyncItemsClient(final ItemsClient itemsClient, final Executor executor) {
+        super(executor);
+        this.itemsClient = itemsClient;
+    }
+
+    @Override
+    public CompletableFuture<List<BucketItem>> getAll() {
+        return supplyAsync(itemsClient::getAll);
+    }
+
+    @Override
+    public CompletableFuture<List<BucketItem>> getByBucket(final String bucketId) {
+        return supplyAsync(() -> itemsClient.getByBucket(bucketId));
+    }
+
+    @Override
+    public CompletableFuture<Fields> getFields() {
+        return supplyAsync(itemsClient::getFields);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.client.ChangeFeedClient;
+import org.apache.nifi.registry.client.ChangeListener;
+import org.apache.nifi.registry.client.ChangeSubscription;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ChangeSubscription that long-polls a ChangeFeedClient on a daemon thread.
+ */
+public class StandardChangeSubscription implements ChangeSubscription, Runnable {
+
+    static final long INITIAL_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final int MAX_RETRIES = 10;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final ChangeFeedClient changeFeedClient;
+    private final long pollTimeoutMillis;
+    private final ChangeListener listener;
+    private final long initialRetryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final int maxRetries;
+    private final Set<ChangeSubscription> openSubscriptions;
+    private final Thread thread;
+
+    private volatile Long cursor;
+    private volatile boolean closed;
+
+    /**
+     * @param changeFeedClient the client to poll
+     * @param after the cursor to start after, or null to start from the newest change
+     * @param pollTimeoutMillis the maximum number of milliseconds the server waits for a change
+     * @param listener the listener to notify
+     * @param openSubscriptions the subscriptions to close along with the client, this subscription is in the set while it runs
+     */
+    public StandardChangeSubscription(final ChangeFeedClient changeFeedClient, final Long after, final long pollTimeoutMillis, final ChangeListener listener,
+                                      final Set<ChangeSubscription> openSubscriptions) {
+        this(changeFeedClient, after, pollTimeoutMillis, listener, openSubscriptions, INITIAL_RETRY_DELAY_MILLIS, MAX_RETRY_DELAY_MILLIS, MAX_RETRIES);
+    }
+
+    StandardChangeSubscription(final ChangeFeedClient changeFeedClient, final Long after, final long pollTimeoutMillis, final ChangeListener listener,
+                               final Set<ChangeSubscription> openSubscriptions, final long initialRetryDelayMillis, final long maxRetryDelayMillis,
+                               final int maxRetries) {
+        this.changeFeedClient = changeFeedClient;
+        this.cursor = after;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.listener = listener;
+        this.openSubscriptions = openSubscriptions;
+        this.initialRetryDelayMillis = initialRetryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        this.maxRetries = maxRetries;
+
+        this.thread = new Thread(this, "NiFi Registry Change Feed-" + threadCount.incrementAndGet());
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        openSubscriptions.add(this);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        long retryDelayMillis = initialRetryDelayMillis;
+        int retries = 0;
+
+        while (!closed) {
+            try {
+                final ChangeFeedPage page = changeFeedClient.getChanges(cursor, pollTimeoutMillis);
+                if (closed) {
+                    return;
+                }
+
+                if (page.isReset()) {
+                    listener.onReset(page.getCursor());
+                } else if (page.getEvents() != null && !page.getEvents().isEmpty()) {
+                    listener.onChanges(page.getEvents());
+                }
+
+                // only advance once the listener has handled the page, so a failing listener sees the changes again
+                cursor = page.getCursor();
+                retryDelayMillis = initialRetryDelayMillis;
+                retries = 0;
+            } catch (final Exception e) {
+                if (closed) {
+                    return;
+                }
+
+                listener.onError(e);
+                if (++retries > maxRetries) {
+                    close();
+                    listener.onRetriesExhausted(e);
+                    return;
+                }
+
+                if (!sleep(retryDelayMillis)) {
+                    return;
+                }
+                retryDelayMillis = Math.min(retryDelayMillis * 2, maxRetryDelayMillis);
+            }
+        }
+    }
+
+    private boolean sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public Long getCursor() {
+        return cursor;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        openSubscriptions.remove(this);
+        if (Thread.currentThread() != thread) {
+            thread.interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.bucket.BucketItem;
+import org.apache.nifi.registry.client.AsyncFlowSnapshotClient;
+import org.apache.nifi.registry.client.AsyncItemsClient;
+import org.apache.nifi.registry.client.FlowSnapshotClient;
+import org.apache.nifi.registry.client.ItemsClient;
+import org.apache.nifi.registry.client.NiFiRegistryException;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestStandardAsyncClients {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCompletesWithResultOfBlockingClient() throws Exception {
+        final VersionedFlowSnapshot snapshot = new VersionedFlowSnapshot();
+        final FlowSnapshotClient flowSnapshotClient = mock(FlowSnapshotClient.class);
+        when(flowSnapshotClient.get("bucket", "flow", 2)).thenReturn(snapshot);
+
+        final AsyncFlowSnapshotClient asyncClient = new StandardAsyncFlowSnapshotClient(flowSnapshotClient, executor);
+        assertSame(snapshot, asyncClient.get("bucket", "flow", 2).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCompletesExceptionallyWithExceptionOfBlockingClient() throws Exception {
+        final NiFiRegistryException notFound = new NiFiRegistryException("Not found");
+        final IOException connectionRefused = new IOException("Connection refused");
+
+        final ItemsClient itemsClient = mock(ItemsClient.class);
+        when(itemsClient.getByBucket("missing")).thenThrow(notFound);
+        when(itemsClient.getAll()).thenThrow(connectionRefused);
+
+        final AsyncItemsClient asyncClient = new StandardAsyncItemsClient(itemsClient, executor);
+        assertSame(notFound, getFailure(asyncClient.getByBucket("missing")));
+        assertSame(connectionRefused, getFailure(asyncClient.getAll()));
+    }
+
+    @Test
+    public void testCallsDoNotBlockCaller() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ItemsClient itemsClient = mock(ItemsClient.class);
+        when(itemsClient.getAll()).thenAnswer(invocation -> {
+            release.await();
+            return Collections.<BucketItem>emptyList();
+        });
+
+        final CompletableFuture<List<BucketItem>> first = new StandardAsyncItemsClient(itemsClient, executor).getAll();
+        final CompletableFuture<List<BucketItem>> second = new StandardAsyncItemsClient(itemsClient, executor).getAll();
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).isEmpty());
+        assertTrue(second.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    public void testRejectedCallCompletesExceptionally() {
+        executor.shutdown();
+
+        final AsyncItemsClient asyncClient = new StandardAsyncItemsClient(mock(ItemsClient.class), executor);
+        final CompletableFuture<List<BucketItem>> future = asyncClient.getAll();
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    private static Throwable getFailure(final CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected the future to complete exceptionally");
+            return null;
+        } catch (final ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+}
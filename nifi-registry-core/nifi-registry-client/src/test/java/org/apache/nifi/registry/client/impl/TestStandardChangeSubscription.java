@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.client.impl;
+
+import org.apache.nifi.registry.changes.ChangeEvent;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.client.ChangeFeedClient;
+import org.apache.nifi.registry.client.ChangeListener;
+import org.apache.nifi.registry.client.ChangeSubscription;
+import org.apache.nifi.registry.client.NiFiRegistryClient;
+import org.apache.nifi.registry.client.NiFiRegistryClientConfig;
+import org.apache.nifi.registry.client.NiFiRegistryException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestStandardChangeSubscription {
+
+    private final Set<ChangeSubscription> openSubscriptions = ConcurrentHashMap.newKeySet();
+    private StandardChangeSubscription subscription;
+
+    @After
+    public void teardown() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    @Test
+    public void testHandsChangesToListenerAndAdvancesCursor() throws Exception {
+        final QueuedChangeFeedClient client = new QueuedChangeFeedClient();
+        client.respond(createPage(7, false, createChange(6), createChange(7)));
+
+        final RecordingListener listener = new RecordingListener();
+        subscription = new StandardChangeSubscription(client, 5L, 1000, listener, openSubscriptions, 10, 10, 3);
+        subscription.start();
+
+        assertEquals("changes:6,7", listener.next());
+        assertEquals(Long.valueOf(5), client.nextCursor());
+        assertEquals(Long.valueOf(7), client.nextCursor());
+        assertEquals(Long.valueOf(7), subscription.getCursor());
+    }
+
+    @Test
+    public void testNotifiesListenerOfReset() throws Exception {
+        final QueuedChangeFeedClient client = new QueuedChangeFeedClient();
+        client.respond(createPage(100, true));
+        client.respond(createPage(101, false, createChange(101)));
+
+        final RecordingListener listener = new RecordingListener();
+        subscription = new StandardChangeSubscription(client, 5L, 1000, listener, openSubscriptions, 10, 10, 3);
+        subscription.start();
+
+        assertEquals("reset:100", listener.next());
+        assertEquals("changes:101", listener.next());
+        assertEquals(Long.valueOf(5), client.nextCursor());
+        assertEquals(Long.valueOf(100), client.nextCursor());
+    }
+
+    @Test
+    public void testRetriesFromSameCursorAfterFailure() throws Exception {
+        final QueuedChangeFeedClient client = new QueuedChangeFeedClient();
+        client.fail(new IOException("connection refused"));
+        client.respond(createPage(3, false, createChange(3)));
+
+        final RecordingListener listener = new RecordingListener();
+        subscription = new StandardChangeSubscription(client, null, 1000, listener, openSubscriptions, 10, 10, 3);
+        subscription.start();
+
+        assertEquals("error:connection refused", listener.next());
+        assertEquals("changes:3", listener.next());
+        assertNull(client.nextCursor());
+        assertNull(client.nextCursor());
+        assertEquals(Long.valueOf(3), client.nextCursor());
+    }
+
+    @Test
+    public void testStopsPollingWhenClosed() throws Exception {
+        final QueuedChangeFeedClient client = new QueuedChangeFeedClient();
+        client.respond(createPage(1, false, createChange(1)));
+
+        final RecordingListener listener = new RecordingListener();
+        subscription = new StandardChangeSubscription(client, 0L, 1000, listener, openSubscriptions, 10, 10, 3);
+        subscription.start();
+        assertEquals("changes:1", listener.next());
+
+        subscription.close();
+        client.respond(createPage(2, false, createChange(2)));
+        assertNull(listener.changes.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testTracksOpenSubscription() throws Exception {
+        final QueuedChangeFeedClient client = new QueuedChangeFeedClient();
+
+        subscription = new StandardChangeSubscription(client, 0L, 1000, new RecordingListener(), openSubscriptions, 10, 10, 3);
+        subscription.start();
+        assertTrue(openSubscriptions.contains(subscription));
+        assertFalse(subscription.isClosed());
+
+        subscription.close();
+        assertFalse(openSubscriptions.contains(subscription));
+        assertTrue(subscription.isClosed());
+    }
+
+    @Test
+    public void testStopsAfterRetriesExhausted() throws Exception {
+        final QueuedChangeFeedClient client = new QueuedChangeFeedClient();
+        for (int i = 0; i < 5; i++) {
+            client.fail(new IOException("connection refused " + i));
+        }
+
+        final RecordingListener listener = new RecordingListener();
+        subscription = new StandardChangeSubscription(client, 0L, 1000, listener, openSubscriptions, 10, 10, 2);
+        subscription.start();
+
+        assertEquals("error:connection refused 0", listener.next());
+        assertEquals("error:connection refused 1", listener.next());
+        assertEquals("error:connection refused 2", listener.next());
+        assertEquals("exhausted:connection refused 2", listener.next());
+        assertNull(listener.changes.poll(200, TimeUnit.MILLISECONDS));
+
+        assertTrue(subscription.isClosed());
+        assertFalse(openSubscriptions.contains(subscription));
+    }
+
+    @Test
+    public void testClosedWithRegistryClient() throws Exception {
+        final NiFiRegistryClientConfig config = new NiFiRegistryClientConfig.Builder()
+                .baseUrl("http://localhost:1")
+                .build();
+        final NiFiRegistryClient registryClient = new JerseyNiFiRegistryClient.Builder().config(config).build();
+
+        final ChangeSubscription registrySubscription = registryClient.getChangeFeedClient().subscribe(null, new RecordingListener());
+        assertFalse(registrySubscription.isClosed());
+
+        registryClient.close();
+        assertTrue(registrySubscription.isClosed());
+    }
+
+    private static ChangeEvent createChange(final long sequence) {
+        final ChangeEvent change = new ChangeEvent();
+        change.setSequence(sequence);
+        return change;
+    }
+
+    private static ChangeFeedPage createPage(final long cursor, final boolean reset, final ChangeEvent... changes) {
+        final ChangeFeedPage page = new ChangeFeedPage();
+        page.setCursor(cursor);
+        page.setReset(reset);
+        page.setEvents(changes.length == 0 ? Collections.emptyList() : Arrays.asList(changes));
+        return page;
+    }
+
+    /**
+     * Answers each request with the next queued response, blocking like a long-poll until one is queued.
+     */
+    private static class QueuedChangeFeedClient implements ChangeFeedClient {
+
+        private final BlockingQueue<Object> responses = new LinkedBlockingQueue<>();
+        private final List<Long> cursors = new CopyOnWriteArrayList<>();
+        private int cursorsRead;
+
+        void respond(final ChangeFeedPage page) {
+            responses.add(page);
+        }
+
+        void fail(final Exception e) {
+            responses.add(e);
+        }
+
+        Long nextCursor() throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (cursors.size() <= cursorsRead && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue("Expected another request", cursors.size() > cursorsRead);
+            return cursors.get(cursorsRead++);
+        }
+
+        @Override
+        public ChangeFeedPage getChanges(final Long after, final long timeoutMillis) throws NiFiRegistryException, IOException {
+            cursors.add(after);
+            final Object response;
+            try {
+                response = responses.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+
+            if (response instanceof IOException) {
+                throw (IOException) response;
+            }
+            return (ChangeFeedPage) response;
+        }
+
+        @Override
+        public ChangeSubscription subscribe(final Long after, final ChangeListener listener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class RecordingListener implements ChangeListener {
+
+        private final BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+
+        String next() throws InterruptedException {
+            return changes.poll(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void onChanges(final List<ChangeEvent> events) {
+            final StringBuilder builder = new StringBuilder("changes:");
+            for (int i = 0; i < events.size(); i++) {
+                builder.append(i == 0 ? "" : ",").append(events.get(i).getSequence());
+            }
+            changes.add(builder.toString());
+        }
+
+        @Override
+        public void onReset(final long cursor) {
+            changes.add("reset:" + cursor);
+        }
+
+        @Override
+        public void onError(final Exception e) {
+            changes.add("error:" + e.getMessage());
+        }
+
+        @Override
+        public void onRetriesExhausted(final Exception e) {
+            changes.add("exhausted:" + e.getMessage());
+        }
+    }
+
+}
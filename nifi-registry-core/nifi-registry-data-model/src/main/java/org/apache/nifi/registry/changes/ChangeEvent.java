@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.changes;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * A change to a bucket, flow or extension bundle, as published on the change feed.
+ */
+@ApiModel
+public class ChangeEvent {
+
+    private long sequence;
+    private long timestamp;
+    private String eventType;
+    private String bucketIdentifier;
+    private String flowIdentifier;
+    private String bundleIdentifier;
+    private String version;
+    private String user;
+
+    @ApiModelProperty(value = "The position of this change on the feed. Sequences increase but are not guaranteed to be contiguous.", readOnly = true)
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    @ApiModelProperty(value = "The timestamp of the change, as milliseconds since epoch.", readOnly = true)
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @ApiModelProperty(value = "The type of the change, such as CREATE_FLOW_VERSION or CREATE_EXTENSION_BUNDLE_VERSION.", readOnly = true)
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    @ApiModelProperty(value = "The identifier of the bucket the change happened in.", readOnly = true)
+    public String getBucketIdentifier() {
+        return bucketIdentifier;
+    }
+
+    public void setBucketIdentifier(String bucketIdentifier) {
+        this.bucketIdentifier = bucketIdentifier;
+    }
+
+    @ApiModelProperty(value = "The identifier of the flow that changed, if the change concerns a flow.", readOnly = true)
+    public String getFlowIdentifier() {
+        return flowIdentifier;
+    }
+
+    public void setFlowIdentifier(String flowIdentifier) {
+        this.flowIdentifier = flowIdentifier;
+    }
+
+    @ApiModelProperty(value = "The identifier of the extension bundle that changed, if the change concerns a bundle.", readOnly = true)
+    public String getBundleIdentifier() {
+        return bundleIdentifier;
+    }
+
+    public void setBundleIdentifier(String bundleIdentifier) {
+        this.bundleIdentifier = bundleIdentifier;
+    }
+
+    @ApiModelProperty(value = "The flow or bundle version that was created or deleted, if the change concerns a version.", readOnly = true)
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    @ApiModelProperty(value = "The user that made the change.", readOnly = true)
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+}
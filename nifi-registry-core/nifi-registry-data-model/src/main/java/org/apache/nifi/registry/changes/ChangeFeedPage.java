@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.changes;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+/**
+ * The changes read from the change feed after a given cursor.
+ */
+@ApiModel
+public class ChangeFeedPage {
+
+    private List<ChangeEvent> events;
+    private long cursor;
+    private boolean reset;
+
+    @ApiModelProperty(value = "The changes after the requested cursor that the user is authorized to see, ordered by sequence.", readOnly = true)
+    public List<ChangeEvent> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<ChangeEvent> events) {
+        this.events = events;
+    }
+
+    @ApiModelProperty(value = "The cursor to pass on the next request to continue after the changes in this page.", readOnly = true)
+    public long getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(long cursor) {
+        this.cursor = cursor;
+    }
+
+    @ApiModelProperty(value = "Whether changes may have been missed since the requested cursor, either because they are no longer retained "
+            + "or because the registry restarted. Consumers should re-read the state they track before continuing from the new cursor.", readOnly = true)
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.extension.bundle;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+@ApiModel
+public class BundleVersionDependencyGraph {
+
+    private BundleInfo bundle;
+    private List<ResolvedBundleVersionDependency> dependencies;
+    private List<BundleVersionDependency> missingDependencies;
+    private boolean cyclic;
+
+    @ApiModelProperty("The bundle version whose dependencies were resolved")
+    public BundleInfo getBundle() {
+        return bundle;
+    }
+
+    public void setBundle(BundleInfo bundle) {
+        this.bundle = bundle;
+    }
+
+    @ApiModelProperty("Every direct and transitive dependency of the bundle version, in breadth-first order")
+    public List<ResolvedBundleVersionDependency> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<ResolvedBundleVersionDependency> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    @ApiModelProperty("The dependencies that could not be found in any bucket the user is authorized to read")
+    public List<BundleVersionDependency> getMissingDependencies() {
+        return missingDependencies;
+    }
+
+    public void setMissingDependencies(List<BundleVersionDependency> missingDependencies) {
+        this.missingDependencies = missingDependencies;
+    }
+
+    @ApiModelProperty("Whether the dependencies of the bundle version contain a cycle")
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    public void setCyclic(boolean cyclic) {
+        this.cyclic = cyclic;
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.extension.bundle;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+@ApiModel
+public class ResolvedBundleVersionDependency {
+
+    private BundleVersionDependency coordinate;
+    private int depth;
+    private BundleInfo bundle;
+    private List<BundleVersionDependency> dependencies;
+
+    @ApiModelProperty("The group id, artifact id, and version of the dependency")
+    public BundleVersionDependency getCoordinate() {
+        return coordinate;
+    }
+
+    public void setCoordinate(BundleVersionDependency coordinate) {
+        this.coordinate = coordinate;
+    }
+
+    @ApiModelProperty("The number of dependency hops from the root bundle version, where 1 is a direct dependency")
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    @ApiModelProperty("The bundle version the dependency resolved to, or null if the dependency is missing")
+    public BundleInfo getBundle() {
+        return bundle;
+    }
+
+    public void setBundle(BundleInfo bundle) {
+        this.bundle = bundle;
+    }
+
+    @ApiModelProperty("The direct dependencies of the resolved bundle version")
+    public List<BundleVersionDependency> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<BundleVersionDependency> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+}
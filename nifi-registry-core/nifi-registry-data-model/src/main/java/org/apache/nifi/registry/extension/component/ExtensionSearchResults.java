@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.extension.component;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+@ApiModel
+public class ExtensionSearchResults {
+
+    private String query;
+    private ExtensionFilterParams filterParams;
+    private int numResults;
+    private List<ExtensionMetadata> extensions;
+    private List<FacetCount> extensionTypes;
+    private List<FacetCount> bundleTypes;
+    private List<FacetCount> tags;
+
+    @ApiModelProperty("The search query submitted for the request")
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    @ApiModelProperty("The filter parameters submitted for the request")
+    public ExtensionFilterParams getFilterParams() {
+        return filterParams;
+    }
+
+    public void setFilterParams(ExtensionFilterParams filterParams) {
+        this.filterParams = filterParams;
+    }
+
+    @ApiModelProperty("The total number of extensions matching the query, which may be more than the number of extensions returned")
+    public int getNumResults() {
+        return numResults;
+    }
+
+    public void setNumResults(int numResults) {
+        this.numResults = numResults;
+    }
+
+    @ApiModelProperty("The metadata for the matching extensions, ordered from most to least relevant")
+    public List<ExtensionMetadata> getExtensions() {
+        return extensions;
+    }
+
+    public void setExtensions(List<ExtensionMetadata> extensions) {
+        this.extensions = extensions;
+    }
+
+    @ApiModelProperty("The number of matching extensions of each extension type")
+    public List<FacetCount> getExtensionTypes() {
+        return extensionTypes;
+    }
+
+    public void setExtensionTypes(List<FacetCount> extensionTypes) {
+        this.extensionTypes = extensionTypes;
+    }
+
+    @ApiModelProperty("The number of matching extensions of each bundle type")
+    public List<FacetCount> getBundleTypes() {
+        return bundleTypes;
+    }
+
+    public void setBundleTypes(List<FacetCount> bundleTypes) {
+        this.bundleTypes = bundleTypes;
+    }
+
+    @ApiModelProperty("The number of matching extensions with each tag")
+    public List<FacetCount> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<FacetCount> tags) {
+        this.tags = tags;
+    }
+}
@@ -23,8 +23,13 @@ import org.apache.nifi.registry.db.migration.FlowSnapshotEntityV1;
 import org.apache.nifi.registry.db.migration.LegacyDataSourceFactory;
 import org.apache.nifi.registry.db.migration.LegacyDatabaseService;
 import org.apache.nifi.registry.db.migration.LegacyEntityMapper;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.serialization.ExtensionSerializer;
+import org.apache.nifi.registry.serialization.SerializationException;
+import org.apache.nifi.registry.serialization.Serializer;
 import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
 import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.FlywayException;
 import org.slf4j.Logger;
@@ -39,6 +44,7 @@ import java.io.File;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,17 +52,29 @@ import java.util.List;
  * 0.1.0 release, to the new database. The data migration will be triggered when it is determined that new database
  * is brand new AND the legacy DB properties are specified. If the primary database already contains the 'BUCKET' table,
  * or if the legacy database properties are not specified, then no data migration is performed.
+ *
+ * After the schema is migrated, the metadata of any extensions created before the EXTENSION.METADATA column existed
+ * is populated from their serialized content.
  */
 @Component
 public class CustomFlywayMigrationStrategy implements FlywayMigrationStrategy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CustomFlywayMigrationStrategy.class);
 
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
     private NiFiRegistryProperties properties;
 
+    private final int backfillBatchSize;
+
     @Autowired
     public CustomFlywayMigrationStrategy(final NiFiRegistryProperties properties) {
+        this(properties, BACKFILL_BATCH_SIZE);
+    }
+
+    CustomFlywayMigrationStrategy(final NiFiRegistryProperties properties, final int backfillBatchSize) {
         this.properties = properties;
+        this.backfillBatchSize = backfillBatchSize;
     }
 
     @Override
@@ -93,6 +111,10 @@ public class CustomFlywayMigrationStrategy implements FlywayMigrationStrategy {
             final DataSource primaryDataSource = flyway.getConfiguration().getDataSource();
             migrateData(legacyDataSource, primaryDataSource);
         }
+
+        if (!newDatabase) {
+            backfillExtensionMetadata(flyway.getConfiguration().getDataSource());
+        }
     }
 
     /**
@@ -154,4 +176,61 @@ public class CustomFlywayMigrationStrategy implements FlywayMigrationStrategy {
         LOGGER.info("Data migration complete!");
     }
 
+    /**
+     * Populates the METADATA column of any extensions that do not have it yet, so that listing extensions never
+     * needs to load and deserialize the full CONTENT.
+     *
+     * @param dataSource the primary DataSource
+     */
+    private void backfillExtensionMetadata(final DataSource dataSource) {
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        final Integer extensionCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM EXTENSION WHERE metadata IS NULL", Integer.class);
+        if (extensionCount == null || extensionCount == 0) {
+            return;
+        }
+
+        LOGGER.info("Populating metadata for {} extensions...", new Object[]{extensionCount});
+
+        // extensions are read and updated a batch at a time, in id order, so that failed extensions are not read again
+        final JdbcTemplate batchTemplate = new JdbcTemplate(dataSource);
+        batchTemplate.setMaxRows(backfillBatchSize);
+
+        final Serializer<Extension> extensionSerializer = new ExtensionSerializer();
+        int populated = 0;
+        int failed = 0;
+        String lastExtensionId = "";
+
+        while (true) {
+            final List<String[]> extensions = batchTemplate.query(
+                    "SELECT id, content FROM EXTENSION WHERE metadata IS NULL AND id > ? ORDER BY id",
+                    (rs, rowNum) -> new String[]{rs.getString("id"), rs.getString("content")},
+                    lastExtensionId);
+            if (extensions.isEmpty()) {
+                break;
+            }
+
+            final List<Object[]> updates = new ArrayList<>(extensions.size());
+            for (final String[] extension : extensions) {
+                try {
+                    final String metadata = ExtensionMappings.mapToMetadataContent(extension[1], extensionSerializer);
+                    updates.add(new Object[]{metadata, extension[0]});
+                } catch (final SerializationException e) {
+                    // leaving the metadata empty means this extension continues to be listed from its full content
+                    LOGGER.warn("Unable to populate metadata for extension {}: {}", new Object[]{extension[0], e.getMessage()});
+                    failed++;
+                }
+            }
+
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE EXTENSION SET metadata = ? WHERE id = ?", updates);
+                populated += updates.size();
+            }
+
+            lastExtensionId = extensions.get(extensions.size() - 1)[0];
+        }
+
+        LOGGER.info("Populated metadata for {} extensions, {} failed", new Object[]{populated, failed});
+    }
+
 }
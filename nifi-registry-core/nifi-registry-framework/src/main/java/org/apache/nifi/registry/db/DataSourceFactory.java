@@ -19,6 +19,7 @@ package org.apache.nifi.registry.db;
 import com.zaxxer.hikari.HikariDataSource;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,8 @@ public class DataSourceFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceFactory.class);
 
+    private static final String POOL_NAME = "nifi-registry";
+
     private final NiFiRegistryProperties properties;
 
     private DataSource dataSource;
@@ -89,6 +92,16 @@ public class DataSourceFactory {
         if (dataSource instanceof HikariDataSource) {
             LOGGER.info("Setting maximum pool size on HikariDataSource to {}", new Object[]{properties.getDatabaseMaxConnections()});
             ((HikariDataSource)dataSource).setMaximumPoolSize(properties.getDatabaseMaxConnections());
+
+            // the pool name is the 'pool' tag of the hikaricp metrics, which Spring Boot binds to the MeterRegistry
+            ((HikariDataSource)dataSource).setPoolName(POOL_NAME);
+
+            // requests on virtual threads are not bounded by the size of the web server's thread pool
+            if (properties.isVirtualThreadsEnabled() && VirtualThreads.isSupported()) {
+                LOGGER.info("Limiting the number of requests using the database at once to {}", new Object[]{properties.getDatabaseMaxConnections()});
+                return new ConcurrencyLimitingDataSource(dataSource, properties.getDatabaseMaxConnections(),
+                        ((HikariDataSource)dataSource).getConnectionTimeout());
+            }
         }
 
         return dataSource;
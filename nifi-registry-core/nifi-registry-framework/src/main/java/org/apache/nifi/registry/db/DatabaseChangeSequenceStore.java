@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.db;
+
+import org.apache.nifi.registry.event.ChangeSequenceStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DatabaseChangeSequenceStore implements ChangeSequenceStore {
+
+    static final int MAX_ATTEMPTS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatabaseChangeSequenceStore(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long reserve(final int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be greater than zero");
+        }
+
+        // compare-and-set so that registries sharing a database never hand out the same block
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            final long nextSequence = jdbcTemplate.queryForObject("SELECT NEXT_SEQUENCE FROM CHANGE_SEQUENCE WHERE ID = 1", Long.class);
+            final int updated = jdbcTemplate.update("UPDATE CHANGE_SEQUENCE SET NEXT_SEQUENCE = ? WHERE ID = 1 AND NEXT_SEQUENCE = ?",
+                    nextSequence + blockSize, nextSequence);
+            if (updated == 1) {
+                return nextSequence;
+            }
+        }
+
+        throw new IllegalStateException("Unable to reserve change sequence numbers after " + MAX_ATTEMPTS + " attempts");
+    }
+
+}
@@ -49,6 +49,7 @@ import org.apache.nifi.registry.service.MetadataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
@@ -61,6 +62,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
 public class DatabaseMetadataService implements MetadataService {
@@ -259,22 +261,32 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public FlowEntity createFlow(final FlowEntity flow) {
-        final String itemSql = "INSERT INTO BUCKET_ITEM (ID, NAME, DESCRIPTION, CREATED, MODIFIED, ITEM_TYPE, BUCKET_ID) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-        jdbcTemplate.update(itemSql,
-                flow.getId(),
-                flow.getName(),
-                flow.getDescription(),
-                flow.getCreated(),
-                flow.getModified(),
-                flow.getType().toString(),
-                flow.getBucketId());
+        createFlows(Collections.singletonList(flow));
+        return flow;
+    }
 
+    @Override
+    public void createFlows(final Collection<FlowEntity> flows) {
+        final String itemSql = "INSERT INTO BUCKET_ITEM (ID, NAME, DESCRIPTION, CREATED, MODIFIED, ITEM_TYPE, BUCKET_ID) VALUES (?, ?, ?, ?, ?, ?, ?)";
         final String flowSql = "INSERT INTO FLOW (ID) VALUES (?)";
 
-        jdbcTemplate.update(flowSql, flow.getId());
+        final List<Object[]> itemArgs = new ArrayList<>();
+        final List<Object[]> flowArgs = new ArrayList<>();
+        for (final FlowEntity flow : flows) {
+            itemArgs.add(new Object[] {
+                    flow.getId(),
+                    flow.getName(),
+                    flow.getDescription(),
+                    flow.getCreated(),
+                    flow.getModified(),
+                    flow.getType().toString(),
+                    flow.getBucketId()
+            });
+            flowArgs.add(new Object[] {flow.getId()});
+        }
 
-        return flow;
+        batchUpdate(itemSql, itemArgs);
+        batchUpdate(flowSql, flowArgs);
     }
 
     @Override
@@ -350,16 +362,26 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public FlowSnapshotEntity createFlowSnapshot(final FlowSnapshotEntity flowSnapshot) {
+        createFlowSnapshots(Collections.singletonList(flowSnapshot));
+        return flowSnapshot;
+    }
+
+    @Override
+    public void createFlowSnapshots(final Collection<FlowSnapshotEntity> flowSnapshots) {
         final String sql = "INSERT INTO FLOW_SNAPSHOT (FLOW_ID, VERSION, CREATED, CREATED_BY, COMMENTS) VALUES (?, ?, ?, ?, ?)";
 
-        jdbcTemplate.update(sql,
-                flowSnapshot.getFlowId(),
-                flowSnapshot.getVersion(),
-                flowSnapshot.getCreated(),
-                flowSnapshot.getCreatedBy(),
-                flowSnapshot.getComments());
+        final List<Object[]> flowSnapshotArgs = new ArrayList<>();
+        for (final FlowSnapshotEntity flowSnapshot : flowSnapshots) {
+            flowSnapshotArgs.add(new Object[] {
+                    flowSnapshot.getFlowId(),
+                    flowSnapshot.getVersion(),
+                    flowSnapshot.getCreated(),
+                    flowSnapshot.getCreatedBy(),
+                    flowSnapshot.getComments()
+            });
+        }
 
-        return flowSnapshot;
+        batchUpdate(sql, flowSnapshotArgs);
     }
 
     @Override
@@ -400,6 +422,44 @@ public class DatabaseMetadataService implements MetadataService {
         }
     }
 
+    @Override
+    public Map<String, List<FlowSnapshotEntity>> getLatestSnapshots(final Set<String> bucketIdentifiers, final Set<String> flowIdentifiers) {
+        if (bucketIdentifiers == null || bucketIdentifiers.isEmpty() || flowIdentifiers == null || flowIdentifiers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // a single grouped query picks the highest version per flow, instead of one ORDER BY ... LIMIT 1 query per flow
+        final StringBuilder sqlBuilder = new StringBuilder(
+                "SELECT " +
+                        "fs.flow_id, " +
+                        "fs.version, " +
+                        "fs.created, " +
+                        "fs.created_by, " +
+                        "fs.comments, " +
+                        "item.bucket_id " +
+                "FROM " +
+                        "FLOW_SNAPSHOT fs " +
+                "INNER JOIN (" +
+                        "SELECT flow_id, MAX(version) AS max_version FROM FLOW_SNAPSHOT WHERE ");
+        addIdentifiersInClause(sqlBuilder, "flow_id", flowIdentifiers);
+        sqlBuilder.append("GROUP BY flow_id" +
+                ") latest ON fs.flow_id = latest.flow_id AND fs.version = latest.max_version " +
+                "INNER JOIN BUCKET_ITEM item ON item.id = fs.flow_id");
+
+        // the query is narrowed by the requested flows only, since the set of buckets can be much larger than the set
+        // of flows, and the buckets of the few flows that are found are checked as the rows are read
+        final FlowSnapshotEntityRowMapper rowMapper = new FlowSnapshotEntityRowMapper();
+        final Map<String, List<FlowSnapshotEntity>> latestSnapshots = new HashMap<>();
+        jdbcTemplate.query(sqlBuilder.toString(), flowIdentifiers.toArray(), (RowCallbackHandler) (rs) -> {
+            final String bucketIdentifier = rs.getString("BUCKET_ID");
+            if (bucketIdentifiers.contains(bucketIdentifier)) {
+                final FlowSnapshotEntity snapshot = rowMapper.mapRow(rs, rs.getRow());
+                latestSnapshots.computeIfAbsent(bucketIdentifier, k -> new ArrayList<>()).add(snapshot);
+            }
+        });
+        return latestSnapshots;
+    }
+
     @Override
     public List<FlowSnapshotEntity> getSnapshots(final String flowIdentifier) {
         final String sql =
@@ -639,6 +699,12 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public BundleVersionEntity createBundleVersion(final BundleVersionEntity extensionBundleVersion) {
+        createBundleVersions(Collections.singletonList(extensionBundleVersion));
+        return extensionBundleVersion;
+    }
+
+    @Override
+    public void createBundleVersions(final Collection<BundleVersionEntity> extensionBundleVersions) {
         final String sql =
                 "INSERT INTO BUNDLE_VERSION (" +
                     "ID, " +
@@ -660,26 +726,30 @@ public class DatabaseMetadataService implements MetadataService {
                     "BUILT_BY" +
                 ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        jdbcTemplate.update(sql,
-                extensionBundleVersion.getId(),
-                extensionBundleVersion.getBundleId(),
-                extensionBundleVersion.getVersion(),
-                extensionBundleVersion.getCreated(),
-                extensionBundleVersion.getCreatedBy(),
-                extensionBundleVersion.getDescription(),
-                extensionBundleVersion.getSha256Hex(),
-                extensionBundleVersion.getSha256Supplied() ? 1 : 0,
-                extensionBundleVersion.getContentSize(),
-                extensionBundleVersion.getSystemApiVersion(),
-                extensionBundleVersion.getBuildTool(),
-                extensionBundleVersion.getBuildFlags(),
-                extensionBundleVersion.getBuildBranch(),
-                extensionBundleVersion.getBuildTag(),
-                extensionBundleVersion.getBuildRevision(),
-                extensionBundleVersion.getBuilt(),
-                extensionBundleVersion.getBuiltBy());
+        final List<Object[]> bundleVersionArgs = new ArrayList<>();
+        for (final BundleVersionEntity extensionBundleVersion : extensionBundleVersions) {
+            bundleVersionArgs.add(new Object[] {
+                    extensionBundleVersion.getId(),
+                    extensionBundleVersion.getBundleId(),
+                    extensionBundleVersion.getVersion(),
+                    extensionBundleVersion.getCreated(),
+                    extensionBundleVersion.getCreatedBy(),
+                    extensionBundleVersion.getDescription(),
+                    extensionBundleVersion.getSha256Hex(),
+                    extensionBundleVersion.getSha256Supplied() ? 1 : 0,
+                    extensionBundleVersion.getContentSize(),
+                    extensionBundleVersion.getSystemApiVersion(),
+                    extensionBundleVersion.getBuildTool(),
+                    extensionBundleVersion.getBuildFlags(),
+                    extensionBundleVersion.getBuildBranch(),
+                    extensionBundleVersion.getBuildTag(),
+                    extensionBundleVersion.getBuildRevision(),
+                    extensionBundleVersion.getBuilt(),
+                    extensionBundleVersion.getBuiltBy()
+            });
+        }
 
-        return extensionBundleVersion;
+        batchUpdate(sql, bundleVersionArgs);
     }
 
     private static final String BASE_EXTENSION_BUNDLE_VERSION_SQL =
@@ -783,6 +853,12 @@ public class DatabaseMetadataService implements MetadataService {
         sqlBuilder.append(") ");
     }
 
+    private void batchUpdate(final String sql, final List<Object[]> batchArgs) {
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batchArgs);
+        }
+    }
+
     @Override
     public List<BundleVersionEntity> getBundleVersions(final String extensionBundleId) {
         final String sql = BASE_EXTENSION_BUNDLE_VERSION_SQL + " AND ebv.bundle_id = ?";
@@ -825,25 +901,35 @@ public class DatabaseMetadataService implements MetadataService {
 
     //------------ Extension Bundle Version Dependencies ------------
 
+    private static final String INSERT_DEPENDENCY_SQL =
+            "INSERT INTO BUNDLE_VERSION_DEPENDENCY (" +
+                "ID, " +
+                "BUNDLE_VERSION_ID, " +
+                "GROUP_ID, " +
+                "ARTIFACT_ID, " +
+                "VERSION " +
+            ") VALUES (?, ?, ?, ?, ?)";
+
     @Override
     public BundleVersionDependencyEntity createDependency(final BundleVersionDependencyEntity dependencyEntity) {
-        final String dependencySql =
-                "INSERT INTO BUNDLE_VERSION_DEPENDENCY (" +
-                    "ID, " +
-                    "BUNDLE_VERSION_ID, " +
-                    "GROUP_ID, " +
-                    "ARTIFACT_ID, " +
-                    "VERSION " +
-                ") VALUES (?, ?, ?, ?, ?)";
+        createDependencies(Collections.singletonList(dependencyEntity));
+        return dependencyEntity;
+    }
 
-        jdbcTemplate.update(dependencySql,
-                dependencyEntity.getId(),
-                dependencyEntity.getExtensionBundleVersionId(),
-                dependencyEntity.getGroupId(),
-                dependencyEntity.getArtifactId(),
-                dependencyEntity.getVersion());
+    @Override
+    public void createDependencies(final Collection<BundleVersionDependencyEntity> dependencyEntities) {
+        final List<Object[]> dependencyArgs = new ArrayList<>();
+        for (final BundleVersionDependencyEntity dependencyEntity : dependencyEntities) {
+            dependencyArgs.add(new Object[] {
+                    dependencyEntity.getId(),
+                    dependencyEntity.getExtensionBundleVersionId(),
+                    dependencyEntity.getGroupId(),
+                    dependencyEntity.getArtifactId(),
+                    dependencyEntity.getVersion()
+            });
+        }
 
-        return dependencyEntity;
+        batchUpdate(INSERT_DEPENDENCY_SQL, dependencyArgs);
     }
 
     @Override
@@ -853,17 +939,17 @@ public class DatabaseMetadataService implements MetadataService {
         return jdbcTemplate.query(sql, args, new BundleVersionDependencyEntityRowMapper());
     }
 
+    @Override
+    public List<BundleVersionDependencyEntity> getAllDependencies() {
+        final String sql = "SELECT * FROM BUNDLE_VERSION_DEPENDENCY";
+        return jdbcTemplate.query(sql, new BundleVersionDependencyEntityRowMapper());
+    }
+
 
     //----------------- Extensions ---------------------------------
 
-    private static String BASE_EXTENSION_SQL =
-            "SELECT " +
-                "e.id AS ID, " +
-                "e.bundle_version_id AS BUNDLE_VERSION_ID, " +
-                "e.name AS NAME, " +
-                "e.display_name AS DISPLAY_NAME, " +
-                "e.type AS TYPE, " +
-                "e.content AS CONTENT," +
+    // columns from the joined tables and the join conditions shared by all extension queries
+    private static final String BASE_EXTENSION_JOIN_SQL =
                 "e.has_additional_details AS HAS_ADDITIONAL_DETAILS, " +
                 "eb.id AS BUNDLE_ID, " +
                 "eb.group_id AS GROUP_ID, " +
@@ -883,59 +969,137 @@ public class DatabaseMetadataService implements MetadataService {
                     "ebv.bundle_id = eb.id AND " +
                     "eb.bucket_id = b.id ";
 
+    // used when retrieving individual extensions where the full content is needed
+    private static final String BASE_EXTENSION_SQL =
+            "SELECT " +
+                "e.id AS ID, " +
+                "e.bundle_version_id AS BUNDLE_VERSION_ID, " +
+                "e.name AS NAME, " +
+                "e.display_name AS DISPLAY_NAME, " +
+                "e.type AS TYPE, " +
+                "e.content AS CONTENT, " +
+                "e.metadata AS METADATA, " +
+                BASE_EXTENSION_JOIN_SQL;
+
+    // used when listing extensions where only the metadata is needed, the potentially large content is only loaded
+    // for extensions created before the metadata column existed that have not been backfilled yet
+    private static final String BASE_EXTENSION_METADATA_SQL =
+            "SELECT " +
+                "e.id AS ID, " +
+                "e.bundle_version_id AS BUNDLE_VERSION_ID, " +
+                "e.name AS NAME, " +
+                "e.display_name AS DISPLAY_NAME, " +
+                "e.type AS TYPE, " +
+                "CASE WHEN e.metadata IS NULL THEN e.content ELSE NULL END AS CONTENT, " +
+                "e.metadata AS METADATA, " +
+                BASE_EXTENSION_JOIN_SQL;
+
+    private static final String INSERT_EXTENSION_SQL =
+            "INSERT INTO EXTENSION (" +
+                "ID, " +
+                "BUNDLE_VERSION_ID, " +
+                "NAME, " +
+                "DISPLAY_NAME, " +
+                "TYPE, " +
+                "CONTENT, " +
+                "METADATA, " +
+                "ADDITIONAL_DETAILS, " +
+                "HAS_ADDITIONAL_DETAILS " +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EXTENSION_TAG_SQL = "INSERT INTO EXTENSION_TAG (EXTENSION_ID, TAG) VALUES (?, ?)";
+
+    private static final String INSERT_EXTENSION_PROVIDED_SERVICE_API_SQL =
+            "INSERT INTO EXTENSION_PROVIDED_SERVICE_API (" +
+                "ID, " +
+                "EXTENSION_ID, " +
+                "CLASS_NAME, " +
+                "GROUP_ID, " +
+                "ARTIFACT_ID, " +
+                "VERSION) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EXTENSION_RESTRICTION_SQL =
+            "INSERT INTO EXTENSION_RESTRICTION (" +
+                "ID, " +
+                "EXTENSION_ID, " +
+                "REQUIRED_PERMISSION, " +
+                "EXPLANATION) " +
+            "VALUES (?, ?, ?, ?)";
+
     @Override
     public ExtensionEntity createExtension(final ExtensionEntity extension) {
-        final String insertExtensionSql =
-                "INSERT INTO EXTENSION (" +
-                    "ID, " +
-                    "BUNDLE_VERSION_ID, " +
-                    "NAME, " +
-                    "DISPLAY_NAME, " +
-                    "TYPE, " +
-                    "CONTENT, " +
-                    "ADDITIONAL_DETAILS, " +
-                    "HAS_ADDITIONAL_DETAILS " +
-                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-        jdbcTemplate.update(insertExtensionSql,
-                extension.getId(),
-                extension.getBundleVersionId(),
-                extension.getName(),
-                extension.getDisplayName(),
-                extension.getExtensionType().name(),
-                extension.getContent(),
-                extension.getAdditionalDetails(),
-                extension.getAdditionalDetails() != null ? 1 : 0
-        );
-
-        // insert tags...
-        final String insertTagSql = "INSERT INTO EXTENSION_TAG (EXTENSION_ID, TAG) VALUES (?, ?);";
-
-        final Set<String> tags = extension.getTags();
-        if (tags != null) {
-            for (final String tag : tags) {
-                if (tag != null) {
-                    final String normalizedTag = tag.trim().toLowerCase();
-                    if (!normalizedTag.isEmpty()) {
-                        jdbcTemplate.update(insertTagSql, extension.getId(), normalizedTag);
+        createExtensions(Collections.singletonList(extension));
+        return extension;
+    }
+
+    @Override
+    public void createExtensions(final Collection<ExtensionEntity> extensions) {
+        final List<Object[]> extensionArgs = new ArrayList<>();
+        final List<Object[]> tagArgs = new ArrayList<>();
+        final List<Object[]> providedServiceApiArgs = new ArrayList<>();
+        final List<Object[]> restrictionArgs = new ArrayList<>();
+
+        for (final ExtensionEntity extension : extensions) {
+            extensionArgs.add(new Object[] {
+                    extension.getId(),
+                    extension.getBundleVersionId(),
+                    extension.getName(),
+                    extension.getDisplayName(),
+                    extension.getExtensionType().name(),
+                    extension.getContent(),
+                    extension.getMetadata(),
+                    extension.getAdditionalDetails(),
+                    extension.getAdditionalDetails() != null ? 1 : 0
+            });
+
+            // tags are stored trimmed and lower-cased, so different spellings of the same tag are only stored once
+            final Set<String> tags = extension.getTags();
+            if (tags != null) {
+                final Set<String> normalizedTags = new LinkedHashSet<>();
+                for (final String tag : tags) {
+                    if (tag != null) {
+                        final String normalizedTag = tag.trim().toLowerCase();
+                        if (!normalizedTag.isEmpty()) {
+                            normalizedTags.add(normalizedTag);
+                        }
                     }
                 }
+                normalizedTags.forEach(t -> tagArgs.add(new Object[] {extension.getId(), t}));
             }
-        }
 
-        // insert provided service APIs...
-        final Set<ExtensionProvidedServiceApiEntity> providedServiceApis = extension.getProvidedServiceApis();
-        if (providedServiceApis != null) {
-            providedServiceApis.forEach(p -> createProvidedServiceApi(p));
-        }
+            final Set<ExtensionProvidedServiceApiEntity> providedServiceApis = extension.getProvidedServiceApis();
+            if (providedServiceApis != null) {
+                for (final ExtensionProvidedServiceApiEntity providedServiceApi : providedServiceApis) {
+                    providedServiceApiArgs.add(new Object[] {
+                            providedServiceApi.getId(),
+                            providedServiceApi.getExtensionId(),
+                            providedServiceApi.getClassName(),
+                            providedServiceApi.getGroupId(),
+                            providedServiceApi.getArtifactId(),
+                            providedServiceApi.getVersion()
+                    });
+                }
+            }
 
-        // insert restrictions...
-        final Set<ExtensionRestrictionEntity> restrictions = extension.getRestrictions();
-        if (restrictions != null) {
-            restrictions.forEach(r -> createRestriction(r));
+            final Set<ExtensionRestrictionEntity> restrictions = extension.getRestrictions();
+            if (restrictions != null) {
+                for (final ExtensionRestrictionEntity restriction : restrictions) {
+                    restrictionArgs.add(new Object[] {
+                            restriction.getId(),
+                            restriction.getExtensionId(),
+                            restriction.getRequiredPermission(),
+                            restriction.getExplanation()
+                    });
+                }
+            }
         }
 
-        return extension;
+        // insert all of the extensions before any of the rows that reference them
+        batchUpdate(INSERT_EXTENSION_SQL, extensionArgs);
+        batchUpdate(INSERT_EXTENSION_TAG_SQL, tagArgs);
+        batchUpdate(INSERT_EXTENSION_PROVIDED_SERVICE_API_SQL, providedServiceApiArgs);
+        batchUpdate(INSERT_EXTENSION_RESTRICTION_SQL, restrictionArgs);
     }
 
     @Override
@@ -982,7 +1146,7 @@ public class DatabaseMetadataService implements MetadataService {
 
         final List<Object> args = new ArrayList<>();
 
-        final StringBuilder sqlBuilder = new StringBuilder(BASE_EXTENSION_SQL);
+        final StringBuilder sqlBuilder = new StringBuilder(BASE_EXTENSION_METADATA_SQL);
         sqlBuilder.append(" AND ");
         addIdentifiersInClause(sqlBuilder, "eb.bucket_id", bucketIdentifiers);
         args.addAll(bucketIdentifiers);
@@ -1031,7 +1195,7 @@ public class DatabaseMetadataService implements MetadataService {
 
         final List<Object> args = new ArrayList<>();
 
-        final StringBuilder sqlBuilder = new StringBuilder(BASE_EXTENSION_SQL);
+        final StringBuilder sqlBuilder = new StringBuilder(BASE_EXTENSION_METADATA_SQL);
         sqlBuilder.append(" AND ");
         addIdentifiersInClause(sqlBuilder, "eb.bucket_id", bucketIdentifiers);
         args.addAll(bucketIdentifiers);
@@ -1055,11 +1219,17 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public List<ExtensionEntity> getExtensionsByBundleVersionId(final String bundleVersionId) {
-        final String selectSql = BASE_EXTENSION_SQL + " AND e.bundle_version_id = ?";
+        final String selectSql = BASE_EXTENSION_METADATA_SQL + " AND e.bundle_version_id = ?";
         final Object[] args = { bundleVersionId };
         return jdbcTemplate.query(selectSql, args, new ExtensionEntityRowMapper());
     }
 
+    @Override
+    public void forEachExtension(final Consumer<ExtensionEntity> handler) {
+        final ExtensionEntityRowMapper rowMapper = new ExtensionEntityRowMapper();
+        jdbcTemplate.query(BASE_EXTENSION_SQL, (RowCallbackHandler) (rs) -> handler.accept(rowMapper.mapRow(rs, 0)));
+    }
+
     @Override
     public List<TagCountEntity> getAllExtensionTags() {
         final String selectSql =
@@ -1078,51 +1248,6 @@ public class DatabaseMetadataService implements MetadataService {
         jdbcTemplate.update(deleteSql, extension.getId());
     }
 
-    //----------------- Extension Provided Service APIs --------------------
-
-    private ExtensionProvidedServiceApiEntity createProvidedServiceApi(final ExtensionProvidedServiceApiEntity providedServiceApi) {
-        final String sql =
-                "INSERT INTO EXTENSION_PROVIDED_SERVICE_API (" +
-                    "ID, " +
-                    "EXTENSION_ID, " +
-                    "CLASS_NAME, " +
-                    "GROUP_ID, " +
-                    "ARTIFACT_ID, " +
-                    "VERSION) " +
-                "VALUES (?, ?, ?, ?, ?, ?)";
-
-        jdbcTemplate.update(sql,
-                providedServiceApi.getId(),
-                providedServiceApi.getExtensionId(),
-                providedServiceApi.getClassName(),
-                providedServiceApi.getGroupId(),
-                providedServiceApi.getArtifactId(),
-                providedServiceApi.getVersion()
-        );
-
-        return providedServiceApi;
-    }
-
-    //----------------- Extension Restrictions --------------------
-
-    private ExtensionRestrictionEntity createRestriction(final ExtensionRestrictionEntity restriction) {
-        final String sql =
-                "INSERT INTO EXTENSION_RESTRICTION (" +
-                    "ID, " +
-                    "EXTENSION_ID, " +
-                    "REQUIRED_PERMISSION, " +
-                    "EXPLANATION) " +
-                "VALUES (?, ?, ?, ?)";
-
-        jdbcTemplate.update(sql,
-                restriction.getId(),
-                restriction.getExtensionId(),
-                restriction.getRequiredPermission(),
-                restriction.getExplanation());
-
-        return restriction;
-    }
-
     //----------------- Fields ---------------------------------
 
     @Override
@@ -32,6 +32,10 @@ public class ExtensionEntity {
     // serialized content of Extension
     private String content;
 
+    // serialized content of Extension limited to the fields needed for ExtensionMetadata, not populated for
+    // extensions created before it was introduced until they are backfilled
+    private String metadata;
+
     // populated during creation if provided, but typically won't be populated on retrieval
     private String additionalDetails;
 
@@ -103,6 +107,14 @@ public class ExtensionEntity {
         this.content = content;
     }
 
+    public String getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(String metadata) {
+        this.metadata = metadata;
+    }
+
     public String getAdditionalDetails() {
         return additionalDetails;
     }
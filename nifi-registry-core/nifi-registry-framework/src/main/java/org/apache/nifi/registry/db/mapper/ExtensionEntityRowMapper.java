@@ -37,6 +37,7 @@ public class ExtensionEntityRowMapper implements RowMapper<ExtensionEntity> {
         entity.setDisplayName(rs.getString("DISPLAY_NAME"));
         entity.setExtensionType(ExtensionType.valueOf(rs.getString("TYPE")));
         entity.setContent(rs.getString("CONTENT"));
+        entity.setMetadata(rs.getString("METADATA"));
         entity.setHasAdditionalDetails(rs.getInt("HAS_ADDITIONAL_DETAILS") == 1 ? true : false);
 
         // fields from joined tables that we know will be there...
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event;
+
+import org.apache.nifi.registry.changes.ChangeEvent;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventField;
+import org.apache.nifi.registry.hook.EventFieldName;
+import org.apache.nifi.registry.hook.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the most recent changes to buckets, flows and extension bundles so that consumers can follow them from a
+ * cursor instead of polling the REST API.
+ *
+ * Changes are numbered from blocks reserved in the ChangeSequenceStore, so sequence numbers keep increasing across
+ * restarts. A cursor that falls behind the retained changes, or that was issued before a restart, is reported as a
+ * reset so the consumer knows to re-read the state it tracks.
+ *
+ * The feed is held in memory and only contains the changes made through this instance. Registries that share a
+ * database draw their sequence numbers from the same store, but a consumer has to follow a single instance to see
+ * every change made through it.
+ */
+@Service
+public class ChangeFeedService {
+
+    static final int CHANGE_FEED_CAPACITY = 10_000;
+    static final int SEQUENCE_BLOCK_SIZE = 100;
+
+    static final Set<EventType> CHANGE_EVENT_TYPES = Collections.unmodifiableSet(EnumSet.of(
+            EventType.CREATE_BUCKET,
+            EventType.UPDATE_BUCKET,
+            EventType.DELETE_BUCKET,
+            EventType.CREATE_FLOW,
+            EventType.UPDATE_FLOW,
+            EventType.DELETE_FLOW,
+            EventType.CREATE_FLOW_VERSION,
+            EventType.CREATE_EXTENSION_BUNDLE,
+            EventType.DELETE_EXTENSION_BUNDLE,
+            EventType.CREATE_EXTENSION_BUNDLE_VERSION,
+            EventType.DELETE_EXTENSION_BUNDLE_VERSION));
+
+    private final ChangeSequenceStore sequenceStore;
+    private final int capacity;
+    private final Deque<ChangeEvent> changes;
+
+    // a ReentrantLock rather than synchronized so that waiting subscribers do not pin a carrier thread when the
+    // server runs requests on virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changeAppended = lock.newCondition();
+
+    private boolean initialized;
+    private long nextSequence;
+    private long reservedUntil;
+    private long lastSequence;
+    private long lowWatermark;
+
+    @Autowired
+    public ChangeFeedService(final ChangeSequenceStore sequenceStore) {
+        this(sequenceStore, CHANGE_FEED_CAPACITY);
+    }
+
+    ChangeFeedService(final ChangeSequenceStore sequenceStore, final int capacity) {
+        this.sequenceStore = sequenceStore;
+        this.capacity = capacity;
+        this.changes = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * @param eventType the type of an event
+     * @return true if events of the given type are published on the change feed
+     */
+    public boolean isChangeEvent(final EventType eventType) {
+        return eventType != null && CHANGE_EVENT_TYPES.contains(eventType);
+    }
+
+    /**
+     * Appends the given event to the feed if it is a change event, evicting the oldest change if the feed is full.
+     *
+     * @param event the event
+     */
+    public void append(final Event event) {
+        if (event == null || !isChangeEvent(event.getEventType())) {
+            return;
+        }
+
+        final ChangeEvent change = new ChangeEvent();
+        change.setTimestamp(System.currentTimeMillis());
+        change.setEventType(event.getEventType().name());
+        change.setBucketIdentifier(getFieldValue(event, EventFieldName.BUCKET_ID));
+        change.setFlowIdentifier(getFieldValue(event, EventFieldName.FLOW_ID));
+        change.setBundleIdentifier(getFieldValue(event, EventFieldName.EXTENSION_BUNDLE_ID));
+        change.setVersion(getFieldValue(event, EventFieldName.VERSION));
+        change.setUser(getFieldValue(event, EventFieldName.USER));
+
+        lock.lock();
+        try {
+            initialize();
+
+            if (nextSequence >= reservedUntil) {
+                reserveBlock();
+            }
+            change.setSequence(nextSequence++);
+
+            if (changes.size() >= capacity) {
+                lowWatermark = changes.removeFirst().getSequence();
+            }
+            changes.addLast(change);
+            lastSequence = change.getSequence();
+
+            changeAppended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a change was lost before it could be appended, such as when the event queue is full. The gap takes
+     * the next sequence number and every consumer with an earlier cursor is reset, since it cannot be told what it
+     * missed.
+     */
+    public void appendGap() {
+        lock.lock();
+        try {
+            initialize();
+
+            if (nextSequence >= reservedUntil) {
+                reserveBlock();
+            }
+
+            final long gapSequence = nextSequence++;
+            changes.clear();
+            lowWatermark = gapSequence;
+            lastSequence = gapSequence;
+
+            changeAppended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to the given timeout for a change, or a gap, after the given sequence.
+     *
+     * @param after the sequence to wait past
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return the sequence of the newest change or gap, which is not greater than after if the wait timed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public long awaitChange(final long after, final long timeout, final TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            initialize();
+
+            long remainingNanos = unit.toNanos(timeout);
+            while (lastSequence <= after && remainingNanos > 0) {
+                remainingNanos = changeAppended.awaitNanos(remainingNanos);
+            }
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the changes after the given cursor, waiting up to the given timeout for a change that passes the filter.
+     *
+     * @param after the sequence of the last change the consumer has seen, or null to start from the newest change
+     * @param maxChanges the maximum number of changes to return
+     * @param timeout the maximum time to wait for a change
+     * @param unit the unit of the timeout
+     * @param filter decides which changes the consumer may see, evaluated outside of the feed's lock
+     * @return the changes after the cursor along with the cursor to continue from
+     */
+    public ChangeFeedPage getChanges(final Long after, final int maxChanges, final long timeout, final TimeUnit unit, final Predicate<ChangeEvent> filter) {
+        if (maxChanges < 1) {
+            throw new IllegalArgumentException("Max changes must be greater than zero");
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final List<ChangeEvent> visibleChanges = new ArrayList<>();
+
+        long cursor;
+        lock.lock();
+        try {
+            initialize();
+
+            if (after == null) {
+                cursor = lastSequence;
+            } else if (after < lowWatermark || after > lastSequence) {
+                return createPage(visibleChanges, lastSequence, true);
+            } else {
+                cursor = after;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        while (true) {
+            final List<ChangeEvent> candidates;
+            lock.lock();
+            try {
+                long remainingNanos = deadline - System.nanoTime();
+                while (lastSequence <= cursor && remainingNanos > 0) {
+                    remainingNanos = changeAppended.awaitNanos(remainingNanos);
+                }
+
+                // the consumer fell behind while it was filtering the previous candidates
+                if (cursor < lowWatermark) {
+                    return createPage(Collections.emptyList(), lastSequence, true);
+                }
+
+                candidates = getChangesAfter(cursor);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return createPage(visibleChanges, cursor, false);
+            } finally {
+                lock.unlock();
+            }
+
+            for (final ChangeEvent candidate : candidates) {
+                if (visibleChanges.size() >= maxChanges) {
+                    break;
+                }
+                if (filter == null || filter.test(candidate)) {
+                    visibleChanges.add(candidate);
+                }
+                cursor = candidate.getSequence();
+            }
+
+            if (!visibleChanges.isEmpty() || System.nanoTime() - deadline >= 0) {
+                return createPage(visibleChanges, cursor, false);
+            }
+        }
+    }
+
+    private List<ChangeEvent> getChangesAfter(final long cursor) {
+        final List<ChangeEvent> newerChanges = new ArrayList<>();
+        final Iterator<ChangeEvent> newestFirst = changes.descendingIterator();
+        while (newestFirst.hasNext()) {
+            final ChangeEvent change = newestFirst.next();
+            if (change.getSequence() <= cursor) {
+                break;
+            }
+            newerChanges.add(change);
+        }
+        Collections.reverse(newerChanges);
+        return newerChanges;
+    }
+
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+
+        // everything numbered before this instance's first block happened before the restart and is not retained
+        reserveBlock();
+        lowWatermark = nextSequence - 1;
+        lastSequence = lowWatermark;
+        initialized = true;
+    }
+
+    private void reserveBlock() {
+        nextSequence = sequenceStore.reserve(SEQUENCE_BLOCK_SIZE);
+        reservedUntil = nextSequence + SEQUENCE_BLOCK_SIZE;
+    }
+
+    private static ChangeFeedPage createPage(final List<ChangeEvent> changes, final long cursor, final boolean reset) {
+        final ChangeFeedPage page = new ChangeFeedPage();
+        page.setEvents(changes);
+        page.setCursor(cursor);
+        page.setReset(reset);
+        return page;
+    }
+
+    private static String getFieldValue(final Event event, final EventFieldName fieldName) {
+        final EventField field = event.getField(fieldName);
+        return field == null ? null : field.getValue();
+    }
+
+}
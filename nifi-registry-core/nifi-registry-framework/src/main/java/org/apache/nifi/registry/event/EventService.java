@@ -16,8 +16,10 @@
  */
 package org.apache.nifi.registry.event;
 
+import io.micrometer.core.instrument.Gauge;
 import org.apache.nifi.registry.hook.Event;
 import org.apache.nifi.registry.hook.EventHookProvider;
+import org.apache.nifi.registry.metrics.RegistryMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -34,7 +36,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Service used for publishing events and passing events to the hook providers.
+ * Service used for publishing events and passing events to the change feed and the hook providers.
  */
 @Service
 public class EventService implements DisposableBean {
@@ -47,12 +49,18 @@ public class EventService implements DisposableBean {
     private final BlockingQueue<Event> eventQueue;
     private final ExecutorService scheduledExecutorService;
     private final List<EventHookProvider> eventHookProviders;
+    private final ChangeFeedService changeFeedService;
 
     @Autowired
-    public EventService(final List<EventHookProvider> eventHookProviders) {
+    public EventService(final List<EventHookProvider> eventHookProviders, final ChangeFeedService changeFeedService, final RegistryMetrics registryMetrics) {
         this.eventQueue = new LinkedBlockingQueue<>(EVENT_QUEUE_SIZE);
         this.scheduledExecutorService = Executors.newSingleThreadExecutor();
         this.eventHookProviders = new ArrayList<>(eventHookProviders);
+        this.changeFeedService = changeFeedService;
+
+        Gauge.builder(RegistryMetrics.EVENT_QUEUE_SIZE_GAUGE, eventQueue, BlockingQueue::size)
+                .description("The number of events waiting to be passed to the event hook providers")
+                .register(registryMetrics.getMeterRegistry());
     }
 
     @PostConstruct
@@ -67,6 +75,12 @@ public class EventService implements DisposableBean {
                         continue;
                     }
 
+                    try {
+                        changeFeedService.append(event);
+                    } catch (Exception e) {
+                        LOGGER.error("Error appending event to the change feed", e);
+                    }
+
                     // event was available so notify each provider, contain errors per-provider
                     for(final EventHookProvider provider : eventHookProviders) {
                         try {
@@ -106,6 +120,11 @@ public class EventService implements DisposableBean {
             final boolean queued = eventQueue.offer(event);
             if (!queued) {
                 LOGGER.error("Unable to queue event because queue is full");
+
+                // let change feed consumers know they missed a change rather than losing it silently
+                if (changeFeedService.isChangeEvent(event.getEventType())) {
+                    changeFeedService.appendGap();
+                }
             }
         } catch (IllegalStateException e) {
             LOGGER.error("Invalid event due to: " + e.getMessage(), e);
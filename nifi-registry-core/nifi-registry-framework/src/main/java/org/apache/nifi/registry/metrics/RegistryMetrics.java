@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.Validate;
+import org.apache.nifi.registry.trace.RequestTrace;
+import org.apache.nifi.registry.trace.Span;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Names and records the metrics of the registry's hot paths.
+ *
+ * Metrics are recorded to the MeterRegistry of the application context, which is exported in Prometheus format at
+ * /actuator/prometheus. When the application context has no MeterRegistry, such as in tests, metrics are recorded to
+ * the global registry which discards them unless a registry has been added to it.
+ *
+ * Each timed operation is also recorded as a span of the current request's trace, if there is one.
+ */
+@Component
+public class RegistryMetrics {
+
+    public static final String FLOW_PERSISTENCE_TIMER = "nifi.registry.flow.persistence";
+    public static final String BUNDLE_PERSISTENCE_TIMER = "nifi.registry.bundle.persistence";
+    public static final String FLOW_SERIALIZATION_TIMER = "nifi.registry.flow.serialization";
+    public static final String FLOW_COMPARISON_TIMER = "nifi.registry.flow.comparison";
+    public static final String AUTHORIZATION_TIMER = "nifi.registry.authorization";
+    public static final String EVENT_QUEUE_SIZE_GAUGE = "nifi.registry.event.queue.size";
+    public static final String METADATA_SYNC_ITEMS_GAUGE = "nifi.registry.metadata.sync.items";
+
+    public static final String OPERATION_TAG = "operation";
+    public static final String RESULT_TAG = "result";
+    public static final String TYPE_TAG = "type";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RegistryMetrics(final ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this(meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public RegistryMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = Validate.notNull(meterRegistry);
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    /**
+     * Times the given operation of the flow persistence provider.
+     */
+    public void timeFlowPersistence(final String operation, final Runnable runnable) {
+        record(timer(FLOW_PERSISTENCE_TIMER, operation), RequestTrace.LAYER_PROVIDER, "FlowPersistenceProvider." + operation, runnable);
+    }
+
+    public <T> T timeFlowPersistence(final String operation, final Supplier<T> supplier) {
+        return record(timer(FLOW_PERSISTENCE_TIMER, operation), RequestTrace.LAYER_PROVIDER, "FlowPersistenceProvider." + operation, supplier);
+    }
+
+    /**
+     * Times the given operation of the bundle persistence provider.
+     */
+    public void timeBundlePersistence(final String operation, final Runnable runnable) {
+        record(timer(BUNDLE_PERSISTENCE_TIMER, operation), RequestTrace.LAYER_PROVIDER, "BundlePersistenceProvider." + operation, runnable);
+    }
+
+    /**
+     * Times the serialization or deserialization of flow content.
+     */
+    public void timeFlowSerialization(final String operation, final Runnable runnable) {
+        record(timer(FLOW_SERIALIZATION_TIMER, operation), RequestTrace.LAYER_SERIALIZATION, "FlowContentSerializer." + operation, runnable);
+    }
+
+    public <T> T timeFlowSerialization(final String operation, final Supplier<T> supplier) {
+        return record(timer(FLOW_SERIALIZATION_TIMER, operation), RequestTrace.LAYER_SERIALIZATION, "FlowContentSerializer." + operation, supplier);
+    }
+
+    /**
+     * Times the comparison of two flow snapshots.
+     */
+    public <T> T timeFlowComparison(final Supplier<T> supplier) {
+        return record(meterRegistry.timer(FLOW_COMPARISON_TIMER), RequestTrace.LAYER_SERVICE, "FlowComparator.compare", supplier);
+    }
+
+    /**
+     * Records an authorization decision. Authorizables are not managed by Spring, so decisions are always recorded
+     * to the global registry to which Spring Boot adds the MeterRegistry of the application context.
+     *
+     * @param result the result of the decision
+     * @param durationNanos how long the authorizer took to make the decision
+     */
+    public static void recordAuthorization(final String result, final long durationNanos) {
+        Metrics.timer(AUTHORIZATION_TIMER, RESULT_TAG, result).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(final String name, final String operation) {
+        return meterRegistry.timer(name, OPERATION_TAG, operation);
+    }
+
+    private static void record(final Timer timer, final String layer, final String spanName, final Runnable runnable) {
+        try (final Span span = RequestTrace.span(layer, spanName)) {
+            timer.record(runnable);
+        }
+    }
+
+    private static <T> T record(final Timer timer, final String layer, final String spanName, final Supplier<T> supplier) {
+        try (final Span span = RequestTrace.span(layer, spanName)) {
+            return timer.record(supplier);
+        }
+    }
+
+}
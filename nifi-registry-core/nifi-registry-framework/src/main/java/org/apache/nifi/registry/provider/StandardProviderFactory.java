@@ -21,6 +21,7 @@ import org.apache.nifi.registry.extension.ExtensionManager;
 import org.apache.nifi.registry.flow.FlowPersistenceProvider;
 import org.apache.nifi.registry.hook.EventHookProvider;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.provider.generated.ExtensionBundleProvider;
 import org.apache.nifi.registry.provider.generated.Property;
 import org.apache.nifi.registry.provider.generated.Providers;
 import org.slf4j.Logger;
@@ -232,37 +233,55 @@ public class StandardProviderFactory implements ProviderFactory, DisposableBean
             }
 
             final Providers providers = providersHolder.get();
-            final org.apache.nifi.registry.provider.generated.Provider jaxbExtensionBundleProvider = providers.getExtensionBundlePersistenceProvider();
-            final String extensionBundleProviderClassName = jaxbExtensionBundleProvider.getClazz();
+            final ExtensionBundleProvider jaxbExtensionBundleProvider = providers.getExtensionBundlePersistenceProvider();
 
-            try {
-                final ClassLoader classLoader = extensionManager.getExtensionClassLoader(extensionBundleProviderClassName);
-                if (classLoader == null) {
-                    throw new IllegalStateException("Extension not found in any of the configured class loaders: " + extensionBundleProviderClassName);
-                }
+            // a delegate is created and configured first so that it can be injected into the provider that wraps it
+            BundlePersistenceProvider delegateProvider = null;
+            if (jaxbExtensionBundleProvider.getDelegate() != null) {
+                delegateProvider = createBundlePersistenceProvider(jaxbExtensionBundleProvider.getDelegate(), null);
+            }
 
-                final Class<?> rawProviderClass = Class.forName(extensionBundleProviderClassName, true, classLoader);
+            bundlePersistenceProvider = createBundlePersistenceProvider(jaxbExtensionBundleProvider, delegateProvider);
+        }
 
-                final Class<? extends BundlePersistenceProvider> extensionBundleProviderClass =
-                        rawProviderClass.asSubclass(BundlePersistenceProvider.class);
+        return bundlePersistenceProvider;
+    }
 
-                final Constructor constructor = extensionBundleProviderClass.getConstructor();
-                bundlePersistenceProvider = (BundlePersistenceProvider) constructor.newInstance();
+    private BundlePersistenceProvider createBundlePersistenceProvider(final org.apache.nifi.registry.provider.generated.Provider jaxbExtensionBundleProvider,
+                                                                      final BundlePersistenceProvider delegateProvider) {
+        final String extensionBundleProviderClassName = jaxbExtensionBundleProvider.getClazz();
 
-                performMethodInjection(bundlePersistenceProvider, extensionBundleProviderClass);
+        final BundlePersistenceProvider provider;
+        try {
+            final ClassLoader classLoader = extensionManager.getExtensionClassLoader(extensionBundleProviderClassName);
+            if (classLoader == null) {
+                throw new IllegalStateException("Extension not found in any of the configured class loaders: " + extensionBundleProviderClassName);
+            }
 
-                LOGGER.info("Instantiated BundlePersistenceProvider with class name {}", new Object[] {extensionBundleProviderClassName});
-            } catch (Exception e) {
-                LOGGER.error(e.getMessage(), e);
-                throw new ProviderFactoryException("Error creating BundlePersistenceProvider with class name: " + extensionBundleProviderClassName, e);
+            final Class<?> rawProviderClass = Class.forName(extensionBundleProviderClassName, true, classLoader);
+
+            final Class<? extends BundlePersistenceProvider> extensionBundleProviderClass =
+                    rawProviderClass.asSubclass(BundlePersistenceProvider.class);
+
+            final Constructor constructor = extensionBundleProviderClass.getConstructor();
+            provider = (BundlePersistenceProvider) constructor.newInstance();
+
+            final boolean delegateInjected = performMethodInjection(provider, extensionBundleProviderClass, delegateProvider);
+            if (delegateProvider != null && !delegateInjected) {
+                throw new IllegalStateException("A delegate was configured, but " + extensionBundleProviderClassName + " does not accept a delegate");
             }
 
-            final ProviderConfigurationContext configurationContext = createConfigurationContext(jaxbExtensionBundleProvider.getProperty());
-            bundlePersistenceProvider.onConfigured(configurationContext);
-            LOGGER.info("Configured BundlePersistenceProvider with class name {}", new Object[] {extensionBundleProviderClassName});
+            LOGGER.info("Instantiated BundlePersistenceProvider with class name {}", new Object[] {extensionBundleProviderClassName});
+        } catch (Exception e) {
+            LOGGER.error(e.getMessage(), e);
+            throw new ProviderFactoryException("Error creating BundlePersistenceProvider with class name: " + extensionBundleProviderClassName, e);
         }
 
-        return bundlePersistenceProvider;
+        final ProviderConfigurationContext configurationContext = createConfigurationContext(jaxbExtensionBundleProvider.getProperty());
+        provider.onConfigured(configurationContext);
+        LOGGER.info("Configured BundlePersistenceProvider with class name {}", new Object[] {extensionBundleProviderClassName});
+
+        return provider;
     }
 
     @Override
@@ -293,6 +312,15 @@ public class StandardProviderFactory implements ProviderFactory, DisposableBean
     }
 
     private void performMethodInjection(final Object instance, final Class providerClass) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        performMethodInjection(instance, providerClass, null);
+    }
+
+    /**
+     * @return true if the given delegate provider was injected into the instance
+     */
+    private boolean performMethodInjection(final Object instance, final Class providerClass, final BundlePersistenceProvider delegateProvider)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        boolean delegateInjected = false;
         for (final Method method : providerClass.getMethods()) {
             if (method.isAnnotationPresent(ProviderContext.class)) {
                 // make the method accessible
@@ -306,9 +334,12 @@ public class StandardProviderFactory implements ProviderFactory, DisposableBean
                     if (argumentTypes.length == 1) {
                         final Class<?> argumentType = argumentTypes[0];
 
-                        // look for well known types, currently we only support injecting the DataSource
+                        // look for well known types, currently we support injecting the DataSource and a delegate bundle provider
                         if (DataSource.class.isAssignableFrom(argumentType)) {
                             method.invoke(instance, dataSource);
+                        } else if (delegateProvider != null && BundlePersistenceProvider.class.isAssignableFrom(argumentType)) {
+                            method.invoke(instance, delegateProvider);
+                            delegateInjected = true;
                         }
                     }
                 } finally {
@@ -319,8 +350,10 @@ public class StandardProviderFactory implements ProviderFactory, DisposableBean
 
         final Class parentClass = providerClass.getSuperclass();
         if (parentClass != null && Provider.class.isAssignableFrom(parentClass)) {
-            performMethodInjection(instance, parentClass);
+            delegateInjected |= performMethodInjection(instance, parentClass, delegateProvider);
         }
+
+        return delegateInjected;
     }
 
 }
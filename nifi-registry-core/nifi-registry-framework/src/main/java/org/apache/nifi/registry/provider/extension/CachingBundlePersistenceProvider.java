@@ -0,0 +1,452 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.provider.extension;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.registry.extension.BundleCoordinate;
+import org.apache.nifi.registry.extension.BundlePersistenceContext;
+import org.apache.nifi.registry.extension.BundlePersistenceException;
+import org.apache.nifi.registry.extension.BundlePersistenceProvider;
+import org.apache.nifi.registry.extension.BundleVersionCoordinate;
+import org.apache.nifi.registry.provider.ProviderConfigurationContext;
+import org.apache.nifi.registry.provider.ProviderContext;
+import org.apache.nifi.registry.provider.ProviderCreationException;
+import org.apache.nifi.registry.util.DataUnit;
+import org.apache.nifi.registry.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A {@link BundlePersistenceProvider} that wraps another provider, configured as its delegate, and keeps a size-bounded,
+ * least-recently-used cache of bundle content on local disk.
+ *
+ * Bundle content is read through the cache and written directly to the delegate. Concurrent reads of a bundle version
+ * that is not cached result in a single retrieval from the delegate. Content retrieved from the delegate is verified
+ * against the SHA-256 recorded by the registry before it is cached, and a cached copy is only served while its SHA-256
+ * matches the one recorded by the registry, so content that was overwritten through another registry instance sharing
+ * the delegate is retrieved again.
+ *
+ * The cache is cleared when the provider is configured.
+ */
+public class CachingBundlePersistenceProvider implements BundlePersistenceProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingBundlePersistenceProvider.class);
+
+    static final String CACHE_DIR_PROP = "Cache Directory";
+    static final String CACHE_MAX_SIZE_PROP = "Cache Max Size";
+
+    static final String DEFAULT_CACHE_MAX_SIZE = "10 GB";
+
+    static final String CACHE_FILE_EXTENSION = ".bundle";
+    static final String PARTIAL_FILE_EXTENSION = ".part";
+
+    private volatile BundlePersistenceProvider delegate;
+    private volatile File cacheDir;
+    private volatile long maxCacheSize;
+
+    // access ordered, so iteration starts from the least recently used entry
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // guarded by entries
+    private long cacheSize = 0;
+
+    // guarded by entries, incremented on every invalidation so that a load that overlaps an invalidation is not cached
+    private long invalidationCount = 0;
+
+    private final ConcurrentMap<String, CompletableFuture<CacheEntry>> loads = new ConcurrentHashMap<>();
+
+    @ProviderContext
+    public void setDelegate(final BundlePersistenceProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    public BundlePersistenceProvider getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onConfigured(final ProviderConfigurationContext configurationContext) throws ProviderCreationException {
+        if (delegate == null) {
+            throw new ProviderCreationException("A delegate provider must be configured for " + getClass().getSimpleName());
+        }
+
+        final Map<String,String> props = configurationContext.getProperties();
+        final String cacheDirValue = props.get(CACHE_DIR_PROP);
+        if (StringUtils.isBlank(cacheDirValue)) {
+            throw new ProviderCreationException("The property " + CACHE_DIR_PROP + " cannot be null or blank");
+        }
+
+        final String maxCacheSizeValue = props.get(CACHE_MAX_SIZE_PROP);
+        try {
+            maxCacheSize = DataUnit.parseDataSize(StringUtils.isBlank(maxCacheSizeValue) ? DEFAULT_CACHE_MAX_SIZE : maxCacheSizeValue.trim(),
+                    DataUnit.B).longValue();
+        } catch (IllegalArgumentException e) {
+            throw new ProviderCreationException("The property " + CACHE_MAX_SIZE_PROP + " must be a data size such as '10 GB'", e);
+        }
+
+        try {
+            cacheDir = new File(cacheDirValue);
+            FileUtils.ensureDirectoryExistAndCanReadAndWrite(cacheDir);
+            FileUtils.deleteFilesInDirectory(cacheDir,
+                    (dir, name) -> name.endsWith(CACHE_FILE_EXTENSION) || name.endsWith(PARTIAL_FILE_EXTENSION), LOGGER);
+            LOGGER.info("Configured CachingBundlePersistenceProvider with Cache Directory {} and Cache Max Size {}",
+                    new Object[] {cacheDir.getAbsolutePath(), maxCacheSize});
+        } catch (IOException e) {
+            throw new ProviderCreationException(e);
+        }
+    }
+
+    @Override
+    public void createBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) throws BundlePersistenceException {
+        delegate.createBundleVersion(context, contentStream);
+        invalidate(context.getCoordinate());
+    }
+
+    @Override
+    public void updateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) throws BundlePersistenceException {
+        delegate.updateBundleVersion(context, contentStream);
+        invalidate(context.getCoordinate());
+    }
+
+    @Override
+    public void getBundleVersionContent(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream)
+            throws BundlePersistenceException {
+        final String key = getKey(versionCoordinate);
+
+        final CacheEntry cachedEntry = getCachedEntry(key, versionCoordinate.getSha256());
+        if (cachedEntry != null && writeEntry(cachedEntry, outputStream)) {
+            LOGGER.debug("Served {} from the bundle cache", new Object[] {versionCoordinate});
+            return;
+        }
+
+        final CompletableFuture<CacheEntry> load = new CompletableFuture<>();
+        final CompletableFuture<CacheEntry> existingLoad = loads.putIfAbsent(key, load);
+        if (existingLoad != null) {
+            // another thread is already retrieving this bundle version, so wait for it rather than retrieving it again
+            final CacheEntry loadedEntry = waitForLoad(existingLoad, versionCoordinate);
+            if (!loadedEntry.isCached() || !writeEntry(loadedEntry, outputStream)) {
+                delegate.getBundleVersionContent(versionCoordinate, outputStream);
+            }
+            return;
+        }
+
+        final CacheEntry loadedEntry;
+        try {
+            loadedEntry = loadEntry(key, versionCoordinate);
+            load.complete(loadedEntry);
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+
+        try {
+            if (!writeEntry(loadedEntry, outputStream)) {
+                delegate.getBundleVersionContent(versionCoordinate, outputStream);
+            }
+        } finally {
+            if (!loadedEntry.isCached()) {
+                FileUtils.deleteFile(loadedEntry.getFile(), LOGGER);
+            }
+        }
+    }
+
+    @Override
+    public void deleteBundleVersion(final BundleVersionCoordinate versionCoordinate) throws BundlePersistenceException {
+        delegate.deleteBundleVersion(versionCoordinate);
+        invalidate(versionCoordinate);
+    }
+
+    @Override
+    public void deleteAllBundleVersions(final BundleCoordinate bundleCoordinate) throws BundlePersistenceException {
+        delegate.deleteAllBundleVersions(bundleCoordinate);
+
+        final List<CacheEntry> removedEntries = new ArrayList<>();
+        synchronized (entries) {
+            invalidationCount++;
+
+            final Iterator<CacheEntry> entryIterator = entries.values().iterator();
+            while (entryIterator.hasNext()) {
+                final CacheEntry entry = entryIterator.next();
+                if (entry.isVersionOf(bundleCoordinate)) {
+                    entryIterator.remove();
+                    cacheSize -= entry.getSize();
+                    removedEntries.add(entry);
+                }
+            }
+        }
+
+        removedEntries.forEach(e -> FileUtils.deleteFile(e.getFile(), LOGGER));
+    }
+
+    @Override
+    public void preDestruction() {
+        delegate.preDestruction();
+    }
+
+    /**
+     * @return the total size in bytes of the cached bundle content
+     */
+    long getCacheSize() {
+        synchronized (entries) {
+            return cacheSize;
+        }
+    }
+
+    /**
+     * @return the number of cached bundle versions
+     */
+    int getCachedCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private CacheEntry getCachedEntry(final String key, final String expectedSha256) {
+        CacheEntry staleEntry = null;
+        synchronized (entries) {
+            final CacheEntry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+
+            if (expectedSha256 == null || expectedSha256.equalsIgnoreCase(entry.getSha256())) {
+                return entry;
+            }
+
+            entries.remove(key);
+            cacheSize -= entry.getSize();
+            staleEntry = entry;
+        }
+
+        LOGGER.debug("Removing cached content for {} because it does not match the SHA-256 recorded by the registry", new Object[] {key});
+        FileUtils.deleteFile(staleEntry.getFile(), LOGGER);
+        return null;
+    }
+
+    private CacheEntry loadEntry(final String key, final BundleVersionCoordinate versionCoordinate) throws BundlePersistenceException {
+        final long startingInvalidationCount;
+        synchronized (entries) {
+            startingInvalidationCount = invalidationCount;
+        }
+
+        final String filename = UUID.randomUUID().toString();
+        final File partialFile = new File(cacheDir, filename + PARTIAL_FILE_EXTENSION);
+        final File cacheFile = new File(cacheDir, filename + CACHE_FILE_EXTENSION);
+
+        final MessageDigest sha256Digest = DigestUtils.getSha256Digest();
+        try (final OutputStream fileOut = new FileOutputStream(partialFile);
+             final OutputStream bufferedOut = new BufferedOutputStream(fileOut);
+             final OutputStream digestOut = new DigestOutputStream(bufferedOut, sha256Digest)) {
+            delegate.getBundleVersionContent(versionCoordinate, digestOut);
+        } catch (IOException e) {
+            FileUtils.deleteFile(partialFile, LOGGER);
+            throw new BundlePersistenceException("Unable to write bundle content to the cache due to " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            FileUtils.deleteFile(partialFile, LOGGER);
+            throw e;
+        }
+
+        final String sha256 = Hex.encodeHexString(sha256Digest.digest());
+        final String expectedSha256 = versionCoordinate.getSha256();
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256)) {
+            FileUtils.deleteFile(partialFile, LOGGER);
+            throw new BundlePersistenceException("Content retrieved for " + versionCoordinate + " has a SHA-256 of " + sha256
+                    + ", but the registry recorded " + expectedSha256);
+        }
+
+        if (!partialFile.renameTo(cacheFile)) {
+            FileUtils.deleteFile(partialFile, LOGGER);
+            throw new BundlePersistenceException("Unable to move bundle content into the cache at " + cacheFile.getAbsolutePath());
+        }
+
+        final CacheEntry entry = new CacheEntry(key, versionCoordinate, cacheFile, cacheFile.length(), sha256);
+
+        final List<CacheEntry> evictedEntries = new ArrayList<>();
+        synchronized (entries) {
+            // an entry that is larger than the whole cache, or that was invalidated while it was loading, is only used for this read
+            if (entry.getSize() > maxCacheSize || invalidationCount != startingInvalidationCount) {
+                return entry;
+            }
+
+            entry.setCached(true);
+            cacheSize += entry.getSize();
+
+            final CacheEntry replacedEntry = entries.put(key, entry);
+            if (replacedEntry != null) {
+                cacheSize -= replacedEntry.getSize();
+                evictedEntries.add(replacedEntry);
+            }
+
+            final Iterator<CacheEntry> leastRecentlyUsed = entries.values().iterator();
+            while (cacheSize > maxCacheSize && leastRecentlyUsed.hasNext()) {
+                final CacheEntry evictedEntry = leastRecentlyUsed.next();
+                if (evictedEntry == entry) {
+                    continue;
+                }
+
+                leastRecentlyUsed.remove();
+                cacheSize -= evictedEntry.getSize();
+                evictedEntries.add(evictedEntry);
+            }
+        }
+
+        evictedEntries.forEach(e -> {
+            LOGGER.debug("Evicting {} from the bundle cache", new Object[] {e.getKey()});
+            FileUtils.deleteFile(e.getFile(), LOGGER);
+        });
+
+        return entry;
+    }
+
+    private CacheEntry waitForLoad(final CompletableFuture<CacheEntry> load, final BundleVersionCoordinate versionCoordinate) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BundlePersistenceException("Interrupted while waiting for content of " + versionCoordinate, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BundlePersistenceException) {
+                throw (BundlePersistenceException) e.getCause();
+            }
+            throw new BundlePersistenceException("Unable to retrieve content of " + versionCoordinate + " due to " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * @return false if the cached file no longer exists, which happens when the entry was evicted before it could be read
+     */
+    private boolean writeEntry(final CacheEntry entry, final OutputStream outputStream) throws BundlePersistenceException {
+        final InputStream in;
+        try {
+            in = new FileInputStream(entry.getFile());
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+
+        try (final InputStream bufIn = new BufferedInputStream(in)) {
+            IOUtils.copy(bufIn, outputStream);
+            outputStream.flush();
+            return true;
+        } catch (IOException e) {
+            throw new BundlePersistenceException("Error reading cached extension bundle content", e);
+        }
+    }
+
+    private void invalidate(final BundleVersionCoordinate versionCoordinate) {
+        final CacheEntry removedEntry;
+        synchronized (entries) {
+            invalidationCount++;
+
+            removedEntry = entries.remove(getKey(versionCoordinate));
+            if (removedEntry != null) {
+                cacheSize -= removedEntry.getSize();
+            }
+        }
+
+        if (removedEntry != null) {
+            FileUtils.deleteFile(removedEntry.getFile(), LOGGER);
+        }
+    }
+
+    private static String getKey(final BundleVersionCoordinate versionCoordinate) {
+        return versionCoordinate.getBucketId() + "/" + versionCoordinate.getGroupId() + "/" + versionCoordinate.getArtifactId()
+                + "/" + versionCoordinate.getVersion() + "/" + versionCoordinate.getType();
+    }
+
+    /**
+     * A bundle version whose content is stored in a file in the cache directory.
+     */
+    private static class CacheEntry {
+
+        private final String key;
+        private final String bucketId;
+        private final String groupId;
+        private final String artifactId;
+        private final File file;
+        private final long size;
+        private final String sha256;
+
+        private volatile boolean cached = false;
+
+        CacheEntry(final String key, final BundleVersionCoordinate versionCoordinate, final File file, final long size, final String sha256) {
+            this.key = key;
+            this.bucketId = versionCoordinate.getBucketId();
+            this.groupId = versionCoordinate.getGroupId();
+            this.artifactId = versionCoordinate.getArtifactId();
+            this.file = file;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        String getSha256() {
+            return sha256;
+        }
+
+        boolean isCached() {
+            return cached;
+        }
+
+        void setCached(final boolean cached) {
+            this.cached = cached;
+        }
+
+        boolean isVersionOf(final BundleCoordinate bundleCoordinate) {
+            return bucketId.equals(bundleCoordinate.getBucketId())
+                    && groupId.equals(bundleCoordinate.getGroupId())
+                    && artifactId.equals(bundleCoordinate.getArtifactId());
+        }
+    }
+}
@@ -40,6 +40,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * An {@link BundlePersistenceProvider} that uses local file-system for storage.
@@ -53,6 +55,11 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
     static final String NAR_EXTENSION = ".nar";
     static final String CPP_EXTENSION = ".cpp";
 
+    // bundles may be read concurrently, and waiting on the lock does not pin the carrier of a virtual thread
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
     private File bundleStorageDir;
 
     @Override
@@ -79,18 +86,28 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
     }
 
     @Override
-    public synchronized void createBundleVersion(final BundlePersistenceContext context, final InputStream contentStream)
+    public void createBundleVersion(final BundlePersistenceContext context, final InputStream contentStream)
             throws BundlePersistenceException {
         saveOrUpdateBundleVersion(context, contentStream, false);
     }
 
     @Override
-    public synchronized void updateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) throws BundlePersistenceException {
+    public void updateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) throws BundlePersistenceException {
         saveOrUpdateBundleVersion(context, contentStream, true);
     }
 
-    private synchronized void saveOrUpdateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream,
-                                                       final boolean overwrite) throws BundlePersistenceException {
+    private void saveOrUpdateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream,
+                                           final boolean overwrite) throws BundlePersistenceException {
+        writeLock.lock();
+        try {
+            writeBundleVersion(context, contentStream, overwrite);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeBundleVersion(final BundlePersistenceContext context, final InputStream contentStream,
+                                    final boolean overwrite) throws BundlePersistenceException {
         final BundleVersionCoordinate versionCoordinate = context.getCoordinate();
         final File bundleVersionDir = getBundleVersionDirectory(bundleStorageDir, versionCoordinate);
         try {
@@ -119,7 +136,17 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
     }
 
     @Override
-    public synchronized void getBundleVersionContent(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream)
+    public void getBundleVersionContent(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream)
+            throws BundlePersistenceException {
+        readLock.lock();
+        try {
+            readBundleVersion(versionCoordinate, outputStream);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void readBundleVersion(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream)
             throws BundlePersistenceException {
 
         final File bundleFile = getBundleFile(versionCoordinate);
@@ -139,7 +166,16 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
     }
 
     @Override
-    public synchronized void deleteBundleVersion(final BundleVersionCoordinate versionCoordinate) throws BundlePersistenceException {
+    public void deleteBundleVersion(final BundleVersionCoordinate versionCoordinate) throws BundlePersistenceException {
+        writeLock.lock();
+        try {
+            deleteBundleFile(versionCoordinate);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void deleteBundleFile(final BundleVersionCoordinate versionCoordinate) throws BundlePersistenceException {
         final File bundleFile = getBundleFile(versionCoordinate);
         if (!bundleFile.exists()) {
             LOGGER.warn("Extension bundle content does not exist at {}", new Object[] {bundleFile.getAbsolutePath()});
@@ -157,7 +193,16 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
     }
 
     @Override
-    public synchronized void deleteAllBundleVersions(final BundleCoordinate bundleCoordinate) throws BundlePersistenceException {
+    public void deleteAllBundleVersions(final BundleCoordinate bundleCoordinate) throws BundlePersistenceException {
+        writeLock.lock();
+        try {
+            deleteBundleDirectory(bundleCoordinate);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void deleteBundleDirectory(final BundleCoordinate bundleCoordinate) throws BundlePersistenceException {
         final File bundleDir = getBundleDirectory(bundleStorageDir, bundleCoordinate);
         if (!bundleDir.exists()) {
             LOGGER.warn("Extension bundle directory does not exist at {}", new Object[] {bundleDir.getAbsolutePath()});
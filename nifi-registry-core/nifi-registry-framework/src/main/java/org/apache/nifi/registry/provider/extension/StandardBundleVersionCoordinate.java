@@ -29,6 +29,7 @@ public class StandardBundleVersionCoordinate implements BundleVersionCoordinate
     private final String artifactId;
     private final String version;
     private final BundleVersionType type;
+    private final String sha256;
 
     private StandardBundleVersionCoordinate(final Builder builder) {
         this.bucketId = builder.bucketId;
@@ -36,6 +37,7 @@ public class StandardBundleVersionCoordinate implements BundleVersionCoordinate
         this.artifactId = builder.artifactId;
         this.version = builder.version;
         this.type = builder.type;
+        this.sha256 = builder.sha256;
         Validate.notBlank(this.bucketId, "Bucket Id is required");
         Validate.notBlank(this.groupId, "Group Id is required");
         Validate.notBlank(this.artifactId, "Artifact Id is required");
@@ -68,11 +70,17 @@ public class StandardBundleVersionCoordinate implements BundleVersionCoordinate
         return type;
     }
 
+    @Override
+    public String getSha256() {
+        return sha256;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         final StandardBundleVersionCoordinate that = (StandardBundleVersionCoordinate) o;
+        // the SHA-256 describes the content rather than identifying the bundle version, so it is not compared
         return bucketId.equals(that.bucketId)
                 && groupId.equals(that.groupId)
                 && artifactId.equals(that.artifactId)
@@ -103,6 +111,7 @@ public class StandardBundleVersionCoordinate implements BundleVersionCoordinate
         private String artifactId;
         private String version;
         private BundleVersionType type;
+        private String sha256;
 
         public Builder bucketId(final String bucketId) {
             this.bucketId = bucketId;
@@ -129,6 +138,11 @@ public class StandardBundleVersionCoordinate implements BundleVersionCoordinate
             return this;
         }
 
+        public Builder sha256(final String sha256) {
+            this.sha256 = sha256;
+            return this;
+        }
+
         public StandardBundleVersionCoordinate build() {
             return new StandardBundleVersionCoordinate(this);
         }
@@ -27,6 +27,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A FlowPersistenceProvider that uses a database table for storage. The intent is to use the same database as the rest
@@ -54,6 +55,28 @@ public class DatabaseFlowPersistenceProvider implements FlowPersistenceProvider
         jdbcTemplate.update(sql, context.getBucketId(), context.getFlowId(), context.getVersion(), content);
     }
 
+    /**
+     * Saves the content of several flow versions with a single batched statement, for bulk loads such as migrating
+     * from another provider.
+     *
+     * @param contents the content of each flow version keyed by its context
+     * @throws FlowPersistenceException if the content could not be saved
+     */
+    public void saveFlowContent(final Map<FlowSnapshotContext, byte[]> contents) throws FlowPersistenceException {
+        if (contents == null || contents.isEmpty()) {
+            return;
+        }
+
+        final List<Object[]> batchArgs = new ArrayList<>(contents.size());
+        for (final Map.Entry<FlowSnapshotContext, byte[]> entry : contents.entrySet()) {
+            final FlowSnapshotContext context = entry.getKey();
+            batchArgs.add(new Object[] {context.getBucketId(), context.getFlowId(), context.getVersion(), entry.getValue()});
+        }
+
+        final String sql = "INSERT INTO FLOW_PERSISTENCE_PROVIDER (BUCKET_ID, FLOW_ID, VERSION, FLOW_CONTENT) VALUES (?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
     @Override
     public byte[] getFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
         final List<byte[]> results = new ArrayList<>();
@@ -34,6 +34,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * A FlowPersistenceProvider that uses the local filesystem for storage.
@@ -46,6 +48,11 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
 
     static final String SNAPSHOT_EXTENSION = ".snapshot";
 
+    // a lock rather than synchronized methods so that virtual threads waiting on file I/O do not pin their carriers
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
     private File flowStorageDir;
 
     @Override
@@ -70,7 +77,16 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
     }
 
     @Override
-    public synchronized void saveFlowContent(final FlowSnapshotContext context, final byte[] content) throws FlowPersistenceException {
+    public void saveFlowContent(final FlowSnapshotContext context, final byte[] content) throws FlowPersistenceException {
+        writeLock.lock();
+        try {
+            writeSnapshot(context, content);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeSnapshot(final FlowSnapshotContext context, final byte[] content) throws FlowPersistenceException {
         final File bucketDir = new File(flowStorageDir, context.getBucketId());
         try {
             FileUtils.ensureDirectoryExistAndCanReadAndWrite(bucketDir);
@@ -111,7 +127,16 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
     }
 
     @Override
-    public synchronized byte[] getFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+    public byte[] getFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+        readLock.lock();
+        try {
+            return readSnapshot(bucketId, flowId, version);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private byte[] readSnapshot(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
         final File snapshotFile = getSnapshotFile(bucketId, flowId, version);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Retrieving snapshot with filename {}", new Object[] {snapshotFile.getAbsolutePath()});
@@ -129,7 +154,16 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
     }
 
     @Override
-    public synchronized void deleteAllFlowContent(final String bucketId, final String flowId) throws FlowPersistenceException {
+    public void deleteAllFlowContent(final String bucketId, final String flowId) throws FlowPersistenceException {
+        writeLock.lock();
+        try {
+            deleteFlowDirectory(bucketId, flowId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void deleteFlowDirectory(final String bucketId, final String flowId) throws FlowPersistenceException {
         final File flowDir = new File(flowStorageDir, bucketId + "/" + flowId);
         if (!flowDir.exists()) {
             LOGGER.debug("Snapshot directory does not exist at {}", new Object[] {flowDir.getAbsolutePath()});
@@ -161,7 +195,16 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
     }
 
     @Override
-    public synchronized void deleteFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+    public void deleteFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+        writeLock.lock();
+        try {
+            deleteSnapshot(bucketId, flowId, version);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void deleteSnapshot(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
         final File snapshotFile = getSnapshotFile(bucketId, flowId, version);
         if (!snapshotFile.exists()) {
             LOGGER.debug("Snapshot file does not exist at {}", new Object[] {snapshotFile.getAbsolutePath()});
@@ -16,6 +16,8 @@
  */
 package org.apache.nifi.registry.provider.flow;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.nifi.registry.db.entity.BucketEntity;
 import org.apache.nifi.registry.db.entity.BucketItemEntityType;
 import org.apache.nifi.registry.db.entity.FlowEntity;
@@ -25,39 +27,115 @@ import org.apache.nifi.registry.flow.MetadataAwareFlowPersistenceProvider;
 import org.apache.nifi.registry.metadata.BucketMetadata;
 import org.apache.nifi.registry.metadata.FlowMetadata;
 import org.apache.nifi.registry.metadata.FlowSnapshotMetadata;
+import org.apache.nifi.registry.metrics.RegistryMetrics;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.extension.ExtensionRepoTree;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Rebuilds an empty metadata database from a metadata-aware flow persistence provider.
+ *
+ * Each bucket is loaded in its own transaction using batched inserts, and buckets are loaded in parallel. If any bucket
+ * fails, the buckets that were already loaded are deleted so that the database is empty again on the next start, unless
+ * they were modified after they were loaded.
+ *
+ * By default the synchronization completes before the registry starts serving requests. When it is configured to run
+ * in the background, the registry serves requests that do not modify anything while the synchronization is
+ * {@link State#WARMING}, see {@link #isAcceptingChanges()}.
+ */
 @Component
 public class FlowMetadataSynchronizer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowMetadataSynchronizer.class);
 
-    private MetadataService metadataService;
-    private FlowPersistenceProvider persistenceProvider;
+    static final int BATCH_SIZE = 500;
+
+    public enum State {
+        NOT_STARTED,
+        SKIPPED,
+        WARMING,
+        COMPLETE,
+        FAILED
+    }
+
+    private final MetadataService metadataService;
+    private final FlowPersistenceProvider persistenceProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final ExtensionRepoTree extensionRepoTree;
+    private final boolean background;
+    private final int threads;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.NOT_STARTED);
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final AtomicLong synchronizedBuckets = new AtomicLong();
+    private final AtomicLong synchronizedFlows = new AtomicLong();
+    private final AtomicLong synchronizedVersions = new AtomicLong();
 
     @Autowired
     public FlowMetadataSynchronizer(final MetadataService metadataService,
-                                    final FlowPersistenceProvider persistenceProvider) {
+                                    final FlowPersistenceProvider persistenceProvider,
+                                    final PlatformTransactionManager transactionManager,
+                                    final NiFiRegistryProperties properties,
+                                    final RegistryMetrics registryMetrics,
+                                    final ExtensionRepoTree extensionRepoTree) {
         this.metadataService = metadataService;
         this.persistenceProvider = persistenceProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.extensionRepoTree = extensionRepoTree;
+        this.background = properties.isProvidersMetadataSyncInBackground();
+        this.threads = Math.max(1, properties.getProvidersMetadataSyncThreads());
+
+        final MeterRegistry meterRegistry = registryMetrics.getMeterRegistry();
+        registerGauge(meterRegistry, "bucket", synchronizedBuckets);
+        registerGauge(meterRegistry, "flow", synchronizedFlows);
+        registerGauge(meterRegistry, "version", synchronizedVersions);
+    }
+
+    private static void registerGauge(final MeterRegistry meterRegistry, final String type, final AtomicLong count) {
+        Gauge.builder(RegistryMetrics.METADATA_SYNC_ITEMS_GAUGE, count, AtomicLong::get)
+                .description("The number of items synchronized from the metadata-aware flow persistence provider")
+                .tag(RegistryMetrics.TYPE_TAG, type)
+                .register(meterRegistry);
     }
 
     @EventListener(ContextRefreshedEvent.class)
     public void synchronize() {
+        // the context may be refreshed more than once, only the first refresh synchronizes
+        if (!state.compareAndSet(State.NOT_STARTED, State.WARMING)) {
+            return;
+        }
+
         LOGGER.info("**************************************************");
 
         if (!(persistenceProvider instanceof MetadataAwareFlowPersistenceProvider)) {
             LOGGER.info("*  FlowPersistenceProvider is not metadata-aware, nothing to synchronize");
             LOGGER.info("**************************************************");
+            state.set(State.SKIPPED);
             return;
         } else {
             LOGGER.info("*  Found metadata-aware FlowPersistenceProvider...");
@@ -66,33 +144,122 @@ public class FlowMetadataSynchronizer {
         if (!metadataService.getAllBuckets().isEmpty()) {
             LOGGER.info("*  Found existing buckets, will not synchronize metadata");
             LOGGER.info("**************************************************");
+            state.set(State.SKIPPED);
             return;
         }
 
-        final MetadataAwareFlowPersistenceProvider metadataAwareFlowPersistenceProvider = (MetadataAwareFlowPersistenceProvider) persistenceProvider;
-        LOGGER.info("*  Synchronizing metadata from FlowPersistenceProvider to metadata database...");
+        if (background) {
+            LOGGER.info("*  Synchronizing metadata from FlowPersistenceProvider to metadata database in the background...");
+            LOGGER.info("**************************************************");
+
+            final Thread thread = new Thread(() -> {
+                try {
+                    synchronizeMetadata();
+                } catch (final Exception e) {
+                    LOGGER.error("Unable to synchronize metadata from FlowPersistenceProvider", e);
+                }
+            }, "Flow Metadata Synchronizer");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            LOGGER.info("*  Synchronizing metadata from FlowPersistenceProvider to metadata database...");
+            synchronizeMetadata();
+            LOGGER.info("**************************************************");
+        }
+    }
+
+    private void synchronizeMetadata() {
+        final long startNanos = System.nanoTime();
+        try {
+            final List<BucketMetadata> metadata = ((MetadataAwareFlowPersistenceProvider) persistenceProvider).getMetadata();
+            bucketCount.set(metadata.size());
+            LOGGER.info("*  Synchronizing {} bucket(s)", new Object[]{metadata.size()});
 
-        final List<BucketMetadata> metadata = metadataAwareFlowPersistenceProvider.getMetadata();
-        LOGGER.info("*  Synchronizing {} bucket(s)", new Object[]{metadata.size()});
+            createBuckets(metadata);
 
-        for (final BucketMetadata bucketMetadata : metadata) {
-            final BucketEntity bucketEntity = new BucketEntity();
-            bucketEntity.setId(bucketMetadata.getIdentifier());
-            bucketEntity.setName(bucketMetadata.getName());
-            bucketEntity.setDescription(bucketMetadata.getDescription());
-            bucketEntity.setCreated(new Date());
-            metadataService.createBucket(bucketEntity);
-            createFlows(bucketMetadata);
+            // the buckets are inserted directly, so the tree may have been built before they existed
+            if (!metadata.isEmpty()) {
+                extensionRepoTree.rebuild();
+            }
+        } catch (final RuntimeException e) {
+            state.set(State.FAILED);
+            throw e;
         }
 
-        LOGGER.info("*  Done synchronizing metadata!");
-        LOGGER.info("**************************************************");
+        state.set(State.COMPLETE);
+        LOGGER.info("*  Done synchronizing metadata! Synchronized {} bucket(s), {} flow(s) and {} version(s) in {} ms",
+                new Object[]{synchronizedBuckets.get(), synchronizedFlows.get(), synchronizedVersions.get(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)});
+    }
+
+    private void createBuckets(final List<BucketMetadata> metadata) {
+        if (metadata.isEmpty()) {
+            return;
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, metadata.size()), runnable -> {
+            final Thread thread = new Thread(runnable, "Flow Metadata Synchronizer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            final List<Future<BucketEntity>> futures = new ArrayList<>(metadata.size());
+            for (final BucketMetadata bucketMetadata : metadata) {
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> createBucket(bucketMetadata))));
+            }
+
+            final Map<BucketEntity, BucketMetadata> createdBuckets = new LinkedHashMap<>();
+            IllegalStateException failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    createdBuckets.put(futures.get(i).get(), metadata.get(i));
+                } catch (final ExecutionException e) {
+                    final IllegalStateException bucketFailure = new IllegalStateException(
+                            "Unable to synchronize metadata for bucket " + metadata.get(i).getIdentifier(), e.getCause());
+                    if (failure == null) {
+                        failure = bucketFailure;
+                    } else {
+                        failure.addSuppressed(bucketFailure);
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = new IllegalStateException("Interrupted while synchronizing metadata", e);
+                    break;
+                }
+            }
+
+            if (failure != null) {
+                deleteBuckets(createdBuckets);
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
-    private void createFlows(final BucketMetadata bucketMetadata) {
-        LOGGER.info("*  Synchronizing {} flow(s) for bucket {}",
+    private BucketEntity createBucket(final BucketMetadata bucketMetadata) {
+        final BucketEntity bucketEntity = new BucketEntity();
+        bucketEntity.setId(bucketMetadata.getIdentifier());
+        bucketEntity.setName(bucketMetadata.getName());
+        bucketEntity.setDescription(bucketMetadata.getDescription());
+        bucketEntity.setCreated(new Date());
+        metadataService.createBucket(bucketEntity);
+
+        createFlows(bucketMetadata, bucketEntity.getCreated());
+
+        synchronizedBuckets.incrementAndGet();
+        LOGGER.info("*  Synchronized bucket {} ({} of {})",
+                new Object[]{bucketMetadata.getIdentifier(), synchronizedBuckets.get(), bucketCount.get()});
+        return bucketEntity;
+    }
+
+    private void createFlows(final BucketMetadata bucketMetadata, final Date synchronizedAt) {
+        LOGGER.debug("Synchronizing {} flow(s) for bucket {}",
                 new Object[]{bucketMetadata.getFlowMetadata().size(), bucketMetadata.getIdentifier()});
 
+        final List<FlowEntity> flowEntities = new ArrayList<>();
         for (final FlowMetadata flowMetadata : bucketMetadata.getFlowMetadata()) {
             final FlowEntity flowEntity = new FlowEntity();
             flowEntity.setType(BucketItemEntityType.FLOW);
@@ -100,39 +267,126 @@ public class FlowMetadataSynchronizer {
             flowEntity.setName(flowMetadata.getName());
             flowEntity.setDescription(flowMetadata.getDescription());
             flowEntity.setBucketId(bucketMetadata.getIdentifier());
-            flowEntity.setCreated(new Date());
-            flowEntity.setModified(new Date());
-            metadataService.createFlow(flowEntity);
+            flowEntity.setCreated(synchronizedAt);
+            flowEntity.setModified(synchronizedAt);
+            flowEntities.add(flowEntity);
+        }
+        metadataService.createFlows(flowEntities);
+        synchronizedFlows.addAndGet(flowEntities.size());
 
-            createFlowSnapshots(flowMetadata);
+        final List<FlowSnapshotEntity> snapshotEntities = new ArrayList<>();
+        for (final FlowMetadata flowMetadata : bucketMetadata.getFlowMetadata()) {
+            for (final FlowSnapshotMetadata snapshotMetadata : flowMetadata.getFlowSnapshotMetadata()) {
+                snapshotEntities.add(createFlowSnapshot(flowMetadata, snapshotMetadata));
+                if (snapshotEntities.size() >= BATCH_SIZE) {
+                    createFlowSnapshots(snapshotEntities);
+                }
+            }
         }
+        createFlowSnapshots(snapshotEntities);
     }
 
-    private void createFlowSnapshots(final FlowMetadata flowMetadata) {
-        LOGGER.info("*  Synchronizing {} version(s) for flow {}",
-                new Object[]{flowMetadata.getFlowSnapshotMetadata().size(),
-                        flowMetadata.getIdentifier()});
+    private void createFlowSnapshots(final List<FlowSnapshotEntity> snapshotEntities) {
+        if (!snapshotEntities.isEmpty()) {
+            metadataService.createFlowSnapshots(snapshotEntities);
+            synchronizedVersions.addAndGet(snapshotEntities.size());
+            snapshotEntities.clear();
+        }
+    }
 
-        for (final FlowSnapshotMetadata snapshotMetadata : flowMetadata.getFlowSnapshotMetadata()) {
-            final FlowSnapshotEntity snapshotEntity = new FlowSnapshotEntity();
-            snapshotEntity.setFlowId(flowMetadata.getIdentifier());
-            snapshotEntity.setVersion(snapshotMetadata.getVersion());
-            snapshotEntity.setComments(snapshotMetadata.getComments());
+    private FlowSnapshotEntity createFlowSnapshot(final FlowMetadata flowMetadata, final FlowSnapshotMetadata snapshotMetadata) {
+        final FlowSnapshotEntity snapshotEntity = new FlowSnapshotEntity();
+        snapshotEntity.setFlowId(flowMetadata.getIdentifier());
+        snapshotEntity.setVersion(snapshotMetadata.getVersion());
+        snapshotEntity.setComments(snapshotMetadata.getComments());
 
-            String author = snapshotMetadata.getAuthor();
-            if (author == null) {
-                author = "unknown";
-            }
-            snapshotEntity.setCreatedBy(author);
+        String author = snapshotMetadata.getAuthor();
+        if (author == null) {
+            author = "unknown";
+        }
+        snapshotEntity.setCreatedBy(author);
 
-            Long created = snapshotMetadata.getCreated();
-            if (created == null) {
-                created = Long.valueOf(System.currentTimeMillis());
+        Long created = snapshotMetadata.getCreated();
+        if (created == null) {
+            created = Long.valueOf(System.currentTimeMillis());
+        }
+        snapshotEntity.setCreated(new Date(created));
+
+        return snapshotEntity;
+    }
+
+    private void deleteBuckets(final Map<BucketEntity, BucketMetadata> bucketEntities) {
+        // remove the buckets that were synchronized so that the synchronization is attempted again on the next start
+        for (final Map.Entry<BucketEntity, BucketMetadata> bucketEntity : bucketEntities.entrySet()) {
+            try {
+                if (isModifiedSinceSynchronized(bucketEntity.getKey(), bucketEntity.getValue())) {
+                    LOGGER.warn("Not deleting bucket {} after the synchronization failed since it was modified after it was synchronized",
+                            new Object[]{bucketEntity.getKey().getId()});
+                } else {
+                    metadataService.deleteBucket(bucketEntity.getKey());
+                }
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to delete bucket {} after the synchronization failed", new Object[]{bucketEntity.getKey().getId()}, e);
             }
-            snapshotEntity.setCreated(new Date(created));
+        }
+    }
+
+    private boolean isModifiedSinceSynchronized(final BucketEntity synchronizedBucket, final BucketMetadata bucketMetadata) {
+        final BucketEntity bucketEntity = metadataService.getBucketById(synchronizedBucket.getId());
+        if (bucketEntity == null) {
+            // deleted since, so there is nothing left to delete
+            return true;
+        }
 
-            metadataService.createFlowSnapshot(snapshotEntity);
+        if (!Objects.equals(bucketEntity.getName(), synchronizedBucket.getName())
+                || !Objects.equals(bucketEntity.getDescription(), synchronizedBucket.getDescription())
+                || !metadataService.getBundlesByBucket(synchronizedBucket.getId()).isEmpty()) {
+            return true;
         }
+
+        final Set<String> synchronizedFlowIds = new HashSet<>();
+        for (final FlowMetadata flowMetadata : bucketMetadata.getFlowMetadata()) {
+            synchronizedFlowIds.add(flowMetadata.getIdentifier());
+        }
+
+        // adding a version to a flow updates its modified date
+        for (final FlowEntity flowEntity : metadataService.getFlowsByBucket(synchronizedBucket.getId())) {
+            if (!synchronizedFlowIds.contains(flowEntity.getId()) || flowEntity.getModified().after(synchronizedBucket.getCreated())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Changes made while the synchronization is running could be deleted if it then fails, and buckets created before
+     * it has completed would keep it from running again on the next start, so they are only accepted once it is done.
+     *
+     * @return true if the metadata may be changed
+     */
+    public boolean isAcceptingChanges() {
+        final State currentState = state.get();
+        return currentState != State.WARMING && currentState != State.FAILED;
+    }
+
+    public int getBucketCount() {
+        return bucketCount.get();
+    }
+
+    public long getSynchronizedBuckets() {
+        return synchronizedBuckets.get();
+    }
+
+    public long getSynchronizedFlows() {
+        return synchronizedFlows.get();
+    }
+
+    public long getSynchronizedVersions() {
+        return synchronizedVersions.get();
     }
 
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.registry.security.authorization.resource;
 
+import org.apache.nifi.registry.metrics.RegistryMetrics;
 import org.apache.nifi.registry.security.authorization.AuthorizationAuditor;
 import org.apache.nifi.registry.security.authorization.AuthorizationRequest;
 import org.apache.nifi.registry.security.authorization.AuthorizationResult;
@@ -26,6 +27,8 @@ import org.apache.nifi.registry.security.authorization.Resource;
 import org.apache.nifi.registry.security.authorization.UserContextKeys;
 import org.apache.nifi.registry.security.authorization.exception.AccessDeniedException;
 import org.apache.nifi.registry.security.authorization.user.NiFiUser;
+import org.apache.nifi.registry.trace.RequestTrace;
+import org.apache.nifi.registry.trace.Span;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -121,7 +124,13 @@ public interface Authorizable {
                 .build();
 
         // perform the authorization
-        final AuthorizationResult result = authorizer.authorize(request);
+        final long authorizationStart = System.nanoTime();
+        final AuthorizationResult result;
+        try (final Span span = RequestTrace.span(RequestTrace.LAYER_AUTHORIZATION, "Authorizer.authorize")) {
+            span.setAttribute("resource", resource.getIdentifier());
+            result = authorizer.authorize(request);
+        }
+        RegistryMetrics.recordAuthorization(result.getResult().name(), System.nanoTime() - authorizationStart);
 
         // verify the results
         if (Result.ResourceNotFound.equals(result.getResult())) {
@@ -232,7 +241,13 @@ public interface Authorizable {
                 })
                 .build();
 
-        final AuthorizationResult result = authorizer.authorize(request);
+        final long authorizationStart = System.nanoTime();
+        final AuthorizationResult result;
+        try (final Span span = RequestTrace.span(RequestTrace.LAYER_AUTHORIZATION, "Authorizer.authorize")) {
+            span.setAttribute("resource", resource.getIdentifier());
+            result = authorizer.authorize(request);
+        }
+        RegistryMetrics.recordAuthorization(result.getResult().name(), System.nanoTime() - authorizationStart);
         if (Result.ResourceNotFound.equals(result.getResult())) {
             final Authorizable parent = getParentAuthorizable();
             if (parent == null) {
@@ -36,6 +36,13 @@ class NssShellCommands implements ShellCommandsProvider {
         return "getent group | cut -f 1,3 -d ':'";
     }
 
+    /**
+     * @return Shell command string that will return a list of groups and their members.
+     */
+    public String getGroupsListWithMembers() {
+        return "getent group | cut -f 1,3,4 -d ':'";
+    }
+
     /**
      * @param groupName name of group.
      * @return Shell command string that will return a list of users for a group.
@@ -37,6 +37,15 @@ class OsxShellCommands implements ShellCommandsProvider {
         return "dscl . -list /Groups PrimaryGroupID  | grep -v '^_' | sed 's/ \\{1,\\}/:/g'";
     }
 
+    /**
+     * Listing groups with their members is not supported by dscl in a single command.
+     *
+     * @return null
+     */
+    public String getGroupsListWithMembers() {
+        return null;
+    }
+
     /**
      *
      * @param groupName name of group.
@@ -51,6 +51,11 @@ class RemoteShellCommands implements ShellCommandsProvider {
         return String.format(remoteCommand, innerProvider.getGroupsList(), privateKeyPath, remotePort, remoteHost);
     }
 
+    public String getGroupsListWithMembers() {
+        final String command = innerProvider.getGroupsListWithMembers();
+        return command == null ? null : String.format(remoteCommand, command, privateKeyPath, remotePort, remoteHost);
+    }
+
     public String getGroupMembers(String groupName) {
         return String.format(remoteCommand, innerProvider.getGroupMembers(groupName), privateKeyPath, remotePort, remoteHost);
     }
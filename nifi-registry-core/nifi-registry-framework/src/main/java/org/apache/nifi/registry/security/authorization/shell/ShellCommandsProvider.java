@@ -43,6 +43,19 @@ interface ShellCommandsProvider {
      */
     String getGroupsList();
 
+    /**
+     * Gets the command for listing groups along with their members in a single pass.  Implementations may return
+     * null if listing groups with their members is not supported, in which case the members of each group are read
+     * with `getGroupMembers`.
+     *
+     * When executed, this command should output one record per line in this format:
+     *
+     * `group-name:group-id:user-name-1,user-name-2,user-name-n`
+     *
+     * @return Shell command string that will return a list of groups and their members.
+     */
+    String getGroupsListWithMembers();
+
     /**
      * Gets the command for listing the members of a group.
      *
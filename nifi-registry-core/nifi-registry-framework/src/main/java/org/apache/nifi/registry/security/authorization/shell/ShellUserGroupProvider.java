@@ -31,7 +31,12 @@ import org.apache.nifi.registry.util.PropertyValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -67,10 +72,25 @@ public class ShellUserGroupProvider implements UserGroupProvider {
 
     private static final String DEFAULT_COMMAND_TIMEOUT = "60 seconds";
 
+    public static final String ENUMERATION_MODE_PROPERTY = "Enumeration Mode";
+    public static final String PASSWD_FILE_PROPERTY = "Passwd File";
+    public static final String GROUP_FILE_PROPERTY = "Group File";
+
+    private static final String DEFAULT_PASSWD_FILE = "/etc/passwd";
+    private static final String DEFAULT_GROUP_FILE = "/etc/group";
+    private static final int UNKNOWN_IDENTITY_CACHE_SIZE = 10000;
+
     private long fixedDelay;
     private Pattern excludeUsers;
     private Pattern excludeGroups;
     private int timeoutSeconds;
+    private EnumerationMode enumerationMode;
+    private File passwdFile;
+    private File groupFile;
+
+    // Identities and identifiers that could not be found, remembered until the next refresh at the latest:
+    private final UnknownIdentityCache unknownUserIdentities = new UnknownIdentityCache(UNKNOWN_IDENTITY_CACHE_SIZE);
+    private final UnknownIdentityCache unknownGroupIdentifiers = new UnknownIdentityCache(UNKNOWN_IDENTITY_CACHE_SIZE);
 
     // Our scheduler has one thread for users, one for groups:
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
@@ -135,9 +155,18 @@ public class ShellUserGroupProvider implements UserGroupProvider {
             user = usersByName.get(identity);
         }
 
-        if (user == null) {
-            refreshOneUser(selectedShellCommands.getUserByName(identity), "Get Single User by Name");
-            user = usersByName.get(identity);
+        if (user == null && !unknownUserIdentities.contains(identity)) {
+            if (enumerationMode != EnumerationMode.FILES) {
+                refreshOneUser(selectedShellCommands.getUserByName(identity), "Get Single User by Name");
+            }
+
+            synchronized (usersByName) {
+                user = usersByName.get(identity);
+            }
+
+            if (user == null) {
+                unknownUserIdentities.add(identity);
+            }
         }
 
         if (user == null) {
@@ -177,9 +206,18 @@ public class ShellUserGroupProvider implements UserGroupProvider {
             group = groupsById.get(identifier);
         }
 
-        if (group == null) {
-            refreshOneGroup(selectedShellCommands.getGroupById(identifier), "Get Single Group by Id");
-            group = groupsById.get(identifier);
+        if (group == null && !unknownGroupIdentifiers.contains(identifier)) {
+            if (enumerationMode != EnumerationMode.FILES) {
+                refreshOneGroup(selectedShellCommands.getGroupById(identifier), "Get Single Group by Id");
+            }
+
+            synchronized (groupsById) {
+                group = groupsById.get(identifier);
+            }
+
+            if (group == null) {
+                unknownGroupIdentifiers.add(identifier);
+            }
         }
 
         if (group == null) {
@@ -249,26 +287,47 @@ public class ShellUserGroupProvider implements UserGroupProvider {
         logger.info("Configuring ShellUserGroupProvider");
 
         fixedDelay = getDelayProperty(configurationContext, REFRESH_DELAY_PROPERTY, "5 mins");
+        unknownUserIdentities.setTimeToLive(fixedDelay, TimeUnit.MILLISECONDS);
+        unknownGroupIdentifiers.setTimeToLive(fixedDelay, TimeUnit.MILLISECONDS);
         timeoutSeconds = getTimeoutProperty(configurationContext, COMMAND_TIMEOUT_PROPERTY, DEFAULT_COMMAND_TIMEOUT);
         shellRunner = new ShellRunner(timeoutSeconds);
         logger.debug("Configured ShellRunner with command timeout of '{}' seconds", new Object[]{timeoutSeconds});
 
+        enumerationMode = getEnumerationModeProperty(configurationContext, ENUMERATION_MODE_PROPERTY, EnumerationMode.COMMAND);
+        logger.debug("Configured enumeration mode of '{}'", new Object[]{enumerationMode});
 
-        // Our next init step is to select the command set based on the operating system name:
-        ShellCommandsProvider commands = getCommandsProvider();
+        if (enumerationMode == EnumerationMode.FILES) {
+            // No commands are run in this mode, so the only check is that both files can be read:
+            passwdFile = new File(getProperty(configurationContext, PASSWD_FILE_PROPERTY, DEFAULT_PASSWD_FILE));
+            groupFile = new File(getProperty(configurationContext, GROUP_FILE_PROPERTY, DEFAULT_GROUP_FILE));
 
-        if (commands == null) {
-            commands = getCommandsProviderFromName(null);
-            setCommandsProvider(commands);
-        }
+            for (final File file : new File[]{passwdFile, groupFile}) {
+                if (!file.isFile() || !file.canRead()) {
+                    throw new SecurityProviderCreationException(String.format("The file '%s' does not exist or cannot be read.", file.getAbsolutePath()));
+                }
+            }
+        } else {
+            // Our next init step is to select the command set based on the operating system name:
+            ShellCommandsProvider commands = getCommandsProvider();
 
-        // Our next init step is to run the system check from that command set to determine if the other commands
-        // will work on this host or not.
-        try {
-            shellRunner.runShell(commands.getSystemCheck());
-        } catch (final Exception e) {
-            logger.error("initialize exception: " + e + " system check command: " + commands.getSystemCheck());
-            throw new SecurityProviderCreationException(SYS_CHECK_ERROR, e);
+            if (commands == null) {
+                commands = getCommandsProviderFromName(null);
+                setCommandsProvider(commands);
+            }
+
+            // Our next init step is to run the system check from that command set to determine if the other commands
+            // will work on this host or not.
+            try {
+                shellRunner.runShell(commands.getSystemCheck());
+            } catch (final Exception e) {
+                logger.error("initialize exception: " + e + " system check command: " + commands.getSystemCheck());
+                throw new SecurityProviderCreationException(SYS_CHECK_ERROR, e);
+            }
+
+            if (enumerationMode == EnumerationMode.BULK && commands.getGroupsListWithMembers() == null) {
+                logger.warn("Bulk enumeration is not supported by the selected command set, falling back to command enumeration");
+                enumerationMode = EnumerationMode.COMMAND;
+            }
         }
 
         // The next step is to add the user and group exclude regexes:
@@ -325,6 +384,17 @@ public class ShellUserGroupProvider implements UserGroupProvider {
 
     }
 
+    private EnumerationMode getEnumerationModeProperty(AuthorizerConfigurationContext authContext, String propertyName, EnumerationMode defaultValue) {
+        final String propertyValue = getProperty(authContext, propertyName, defaultValue.name());
+
+        try {
+            return EnumerationMode.valueOf(propertyValue.trim().toUpperCase());
+        } catch (final IllegalArgumentException ignored) {
+            throw new SecurityProviderCreationException(String.format("The %s '%s' is not valid. Expected one of %s.",
+                    propertyName, propertyValue, Arrays.toString(EnumerationMode.values())));
+        }
+    }
+
     private long getDelayProperty(AuthorizerConfigurationContext authContext, String propertyName, String defaultValue) {
         final PropertyValue intervalProperty = authContext.getProperty(propertyName);
         final String propertyValue;
@@ -444,7 +514,11 @@ public class ShellUserGroupProvider implements UserGroupProvider {
 
             try {
                 groupLines = shellRunner.runShell(command, description);
-                rebuildGroups(groupLines, gidToGroup);
+                if (enumerationMode == EnumerationMode.BULK) {
+                    rebuildGroupsWithMembers(groupLines, gidToGroup);
+                } else {
+                    rebuildGroups(groupLines, gidToGroup);
+                }
             } catch (final IOException ioexc) {
                 logger.error("refreshOneGroup shell exception: " + ioexc);
             }
@@ -460,9 +534,10 @@ public class ShellUserGroupProvider implements UserGroupProvider {
     }
 
     /**
-     * This is our entry point for user and group refresh.  This method runs the top-level
-     * `getUserList()` and `getGroupsList()` shell commands, then passes those results to the
-     * other methods for record parse, extract, and object construction.
+     * This is our entry point for user and group refresh.  Depending on the enumeration mode, this method
+     * runs the top-level `getUserList()` and `getGroupsList()` (or `getGroupsListWithMembers()`) shell commands,
+     * or reads the passwd and group files, then passes those results to the other methods for record parse,
+     * extract, and object construction.  The results are then reconciled with the current caches.
      */
     private void refreshUsersAndGroups() {
         final long startTime = System.currentTimeMillis();
@@ -476,20 +551,35 @@ public class ShellUserGroupProvider implements UserGroupProvider {
         List<String> groupLines;
 
         try {
-            userLines = shellRunner.runShell(selectedShellCommands.getUsersList(), "Get Users List");
-            groupLines = shellRunner.runShell(selectedShellCommands.getGroupsList(), "Get Groups List");
+            switch (enumerationMode) {
+                case FILES:
+                    userLines = readPasswdFile(passwdFile);
+                    groupLines = readGroupFile(groupFile);
+                    break;
+                case BULK:
+                    userLines = shellRunner.runShell(selectedShellCommands.getUsersList(), "Get Users List");
+                    groupLines = shellRunner.runShell(selectedShellCommands.getGroupsListWithMembers(), "Get Groups List with Members");
+                    break;
+                default:
+                    userLines = shellRunner.runShell(selectedShellCommands.getUsersList(), "Get Users List");
+                    groupLines = shellRunner.runShell(selectedShellCommands.getGroupsList(), "Get Groups List");
+                    break;
+            }
         } catch (final IOException ioexc) {
-            logger.error("refreshUsersAndGroups shell exception: " + ioexc);
+            logger.error("refreshUsersAndGroups exception: " + ioexc);
             return;
         }
 
         rebuildUsers(userLines, uidToUser, usernameToUser, gidToUser);
-        rebuildGroups(groupLines, gidToGroup);
+        if (enumerationMode == EnumerationMode.COMMAND) {
+            rebuildGroups(groupLines, gidToGroup);
+        } else {
+            rebuildGroupsWithMembers(groupLines, gidToGroup);
+        }
         reconcilePrimaryGroups(gidToUser, gidToGroup);
 
         synchronized (usersById) {
-            usersById.clear();
-            usersById.putAll(uidToUser);
+            reconcileCache(usersById, uidToUser, "users");
 
             if (logger.isTraceEnabled()) {
                 logger.trace("=== Users by id...");
@@ -500,14 +590,12 @@ public class ShellUserGroupProvider implements UserGroupProvider {
         }
 
         synchronized (usersByName) {
-            usersByName.clear();
-            usersByName.putAll(usernameToUser);
+            reconcileCache(usersByName, usernameToUser, "user names");
             logger.debug("users now size: " + usersByName.size());
         }
 
         synchronized (groupsById) {
-            groupsById.clear();
-            groupsById.putAll(gidToGroup);
+            reconcileCache(groupsById, gidToGroup, "groups");
             logger.debug("groups now size: " + groupsById.size());
 
             if (logger.isTraceEnabled()) {
@@ -518,10 +606,70 @@ public class ShellUserGroupProvider implements UserGroupProvider {
             }
         }
 
+        // Anything previously unknown may have been created since the last refresh:
+        unknownUserIdentities.clear();
+        unknownGroupIdentifiers.clear();
+
         final long endTime = System.currentTimeMillis();
         logger.info("Refreshed users and groups, took {} seconds", (endTime - startTime) / 1000);
     }
 
+    /**
+     * Updates the given cache in place to match the refreshed entries, replacing entries present in both,
+     * adding new entries, and removing entries that are no longer present.
+     */
+    private static <T> void reconcileCache(final Map<String, T> cache, final Map<String, T> refreshed, final String description) {
+        final int previousSize = cache.size();
+        int added = 0;
+
+        for (final Map.Entry<String, T> entry : refreshed.entrySet()) {
+            if (cache.put(entry.getKey(), entry.getValue()) == null) {
+                added++;
+            }
+        }
+
+        cache.keySet().retainAll(refreshed.keySet());
+
+        final int removed = previousSize + added - cache.size();
+        logger.debug("Reconciled {}: {} added, {} removed, {} total", new Object[]{description, added, removed, cache.size()});
+    }
+
+    /**
+     * Reads a file in the `/etc/passwd` format, `user-name:password:user-id:primary-group-id:...`, and returns
+     * its records in the format produced by the `getUsersList()` shell command.
+     */
+    static List<String> readPasswdFile(final File file) throws IOException {
+        return readColonSeparatedFile(file, 0, 2, 3);
+    }
+
+    /**
+     * Reads a file in the `/etc/group` format, `group-name:password:group-id:user-name-1,user-name-2`, and returns
+     * its records in the format produced by the `getGroupsListWithMembers()` shell command.
+     */
+    static List<String> readGroupFile(final File file) throws IOException {
+        return readColonSeparatedFile(file, 0, 2, 3);
+    }
+
+    private static List<String> readColonSeparatedFile(final File file, final int... fields) throws IOException {
+        final List<String> records = new ArrayList<>();
+
+        for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            final String[] values = trimmed.split(":", -1);
+            final List<String> selected = new ArrayList<>(fields.length);
+            for (final int field : fields) {
+                selected.add(field < values.length ? values[field] : "");
+            }
+            records.add(String.join(":", selected));
+        }
+
+        return records;
+    }
+
     /**
      * This method parses the output of the `getUsersList()` shell command, where we expect the output
      * to look like `user-name:user-id:primary-group-id`.
@@ -591,22 +739,7 @@ public class ShellUserGroupProvider implements UserGroupProvider {
                     List<String> memberLines = shellRunner.runShell(groupMembersCommand);
                     // Use the first line only, and log if the line count isn't exactly one:
                     if (!memberLines.isEmpty()) {
-                        String memberLine = memberLines.get(0);
-                        if (!StringUtils.isBlank(memberLine)) {
-                            String[] members = memberLine.split(",");
-                            for (String userIdentity : members) {
-                                if (!StringUtils.isBlank(userIdentity)) {
-                                    User tempUser = new User.Builder()
-                                            .identity(userIdentity)
-                                            .identifierGenerateFromSeed(getUserIdentifierSeed(userIdentity))
-                                            .build();
-                                    users.add(tempUser.getIdentifier());
-                                    logger.debug("Added temp user {} for group {}", new Object[]{tempUser, groupName});
-                                }
-                            }
-                        } else {
-                            logger.debug("list membership returned no members");
-                        }
+                        addGroupMembers(memberLines.get(0), groupName, users);
                     } else {
                         logger.debug("list membership returned zero lines.");
                     }
@@ -618,23 +751,72 @@ public class ShellUserGroupProvider implements UserGroupProvider {
                     logger.error("list membership shell exception: " + ioexc);
                 }
 
-                if (!StringUtils.isBlank(groupIdentifier) && !StringUtils.isBlank(groupName) && !excludeGroups.matcher(groupName).matches()) {
-                    Group group = new Group.Builder()
-                            .name(groupName)
-                            .identifierGenerateFromSeed(getGroupIdentifierSeed(groupIdentifier))
-                            .addUsers(users)
-                            .build();
-                    groupsById.put(group.getIdentifier(), group);
-                    logger.debug("Refreshed group {}", new Object[] {group});
-                } else {
-                    logger.warn("Null, empty, or skipped group name: " + groupName + " or id: " + groupIdentifier);
-                }
+                addGroup(groupName, groupIdentifier, users, groupsById);
             } else {
                 logger.warn("Unexpected record format.  Expected 1 or more comma separated values.");
             }
         });
     }
 
+    /**
+     * This method parses the output of the `getGroupsListWithMembers()` shell command, or the records read
+     * from the group file, where we expect the output to look like `group-name:group-id:user-name-1,user-name-2`.
+     * <p>
+     * Unlike `rebuildGroups`, the members of each group are read from the same record, so no additional
+     * command is run per group.
+     */
+    private void rebuildGroupsWithMembers(List<String> groupLines, Map<String, Group> groupsById) {
+        groupLines.forEach(line -> {
+            logger.trace("Processing group: {}", new Object[]{line});
+
+            String[] record = line.split(":", -1);
+            if (record.length > 1) {
+                Set<String> users = new HashSet<>();
+                String groupName = record[0], groupIdentifier = record[1];
+
+                if (record.length > 2) {
+                    addGroupMembers(record[2], groupName, users);
+                }
+
+                addGroup(groupName, groupIdentifier, users, groupsById);
+            } else {
+                logger.warn("Unexpected record format.  Expected 2 or more colon separated values per line.");
+            }
+        });
+    }
+
+    private void addGroupMembers(String memberLine, String groupName, Set<String> users) {
+        if (!StringUtils.isBlank(memberLine)) {
+            String[] members = memberLine.split(",");
+            for (String userIdentity : members) {
+                if (!StringUtils.isBlank(userIdentity)) {
+                    User tempUser = new User.Builder()
+                            .identity(userIdentity)
+                            .identifierGenerateFromSeed(getUserIdentifierSeed(userIdentity))
+                            .build();
+                    users.add(tempUser.getIdentifier());
+                    logger.debug("Added temp user {} for group {}", new Object[]{tempUser, groupName});
+                }
+            }
+        } else {
+            logger.debug("list membership returned no members");
+        }
+    }
+
+    private void addGroup(String groupName, String groupIdentifier, Set<String> users, Map<String, Group> groupsById) {
+        if (!StringUtils.isBlank(groupIdentifier) && !StringUtils.isBlank(groupName) && !excludeGroups.matcher(groupName).matches()) {
+            Group group = new Group.Builder()
+                    .name(groupName)
+                    .identifierGenerateFromSeed(getGroupIdentifierSeed(groupIdentifier))
+                    .addUsers(users)
+                    .build();
+            groupsById.put(group.getIdentifier(), group);
+            logger.debug("Refreshed group {}", new Object[] {group});
+        } else {
+            logger.warn("Null, empty, or skipped group name: " + groupName + " or id: " + groupIdentifier);
+        }
+    }
+
     /**
      * This method parses the output of the `getGroupsList()` shell command, where we expect the output
      * to look like `group-name:group-id`.
@@ -701,6 +883,9 @@ public class ShellUserGroupProvider implements UserGroupProvider {
         synchronized (groupsById) {
             groupsById.clear();
         }
+
+        unknownUserIdentities.clear();
+        unknownGroupIdentifiers.clear();
     }
 
     /**
@@ -716,4 +901,23 @@ public class ShellUserGroupProvider implements UserGroupProvider {
     public int groupCacheSize() {
         return groupsById.size();
     }
+
+    /**
+     * @return The enumeration mode in use.
+     */
+    EnumerationMode getEnumerationMode() {
+        return enumerationMode;
+    }
+
+    /**
+     * The strategies available for enumerating users and groups during a refresh.
+     */
+    enum EnumerationMode {
+        // Run the list commands, then one command per group to read its members
+        COMMAND,
+        // Run the list commands once, reading the group members from the same output
+        BULK,
+        // Parse the passwd and group files directly without running any commands
+        FILES
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization.shell;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers identities that could not be found so that repeated lookups of unknown users and groups do not run a
+ * command on every request.
+ *
+ * Entries expire after the given time to live and at most the given number of entries are held, identities looked up
+ * once the cache is full are simply not remembered.
+ */
+class UnknownIdentityCache {
+
+    private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongSupplier nanoTime;
+    private volatile long timeToLiveNanos;
+
+    UnknownIdentityCache(final int maxSize) {
+        this(maxSize, System::nanoTime);
+    }
+
+    UnknownIdentityCache(final int maxSize, final LongSupplier nanoTime) {
+        this.maxSize = maxSize;
+        this.nanoTime = nanoTime;
+    }
+
+    void setTimeToLive(final long timeToLive, final TimeUnit timeUnit) {
+        this.timeToLiveNanos = timeUnit.toNanos(timeToLive);
+    }
+
+    boolean contains(final String identity) {
+        final Long expiration = expirations.get(identity);
+        if (expiration == null) {
+            return false;
+        }
+
+        if (nanoTime.getAsLong() - expiration >= 0) {
+            expirations.remove(identity, expiration);
+            return false;
+        }
+        return true;
+    }
+
+    void add(final String identity) {
+        final long now = nanoTime.getAsLong();
+        if (expirations.size() >= maxSize) {
+            expirations.values().removeIf(expiration -> now - expiration >= 0);
+            if (expirations.size() >= maxSize) {
+                return;
+            }
+        }
+        expirations.put(identity, now + timeToLiveNanos);
+    }
+
+    void clear() {
+        expirations.clear();
+    }
+
+    int size() {
+        return expirations.size();
+    }
+}
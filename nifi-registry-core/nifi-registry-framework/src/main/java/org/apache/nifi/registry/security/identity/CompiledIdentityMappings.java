@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.identity;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.nifi.registry.properties.util.IdentityMapping;
+import org.apache.nifi.registry.properties.util.IdentityMapping.Transform;
+import org.apache.nifi.registry.properties.util.IdentityMappingUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies a list of identity mappings with the same semantics as {@link IdentityMappingUtil#mapIdentity(String, List)}, but with
+ * the replacement values prepared up front, a literal prefilter in front of each pattern, and a bounded cache of results.
+ *
+ * The prefilter of a mapping is the longest run of literal characters that every match of its pattern must contain. Identities
+ * that do not contain it are rejected with a substring search instead of a regular expression evaluation, which makes mapping an
+ * identity against many rules that each target a specific OU, realm, or domain considerably cheaper.
+ */
+class CompiledIdentityMappings {
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String SIMPLE_ESCAPES = "dDsSwWbBAzZGhHvVRXtnrfae";
+
+    private final List<CompiledMapping> mappings;
+    private final Cache<String, String> cache;
+
+    /**
+     * @param identityMappings the mappings in the order they should be evaluated
+     * @param cacheSize the maximum number of mapped identities to cache, or zero to disable caching
+     */
+    CompiledIdentityMappings(final List<IdentityMapping> identityMappings, final int cacheSize) {
+        final List<CompiledMapping> compiledMappings = new ArrayList<>(identityMappings.size());
+        for (final IdentityMapping identityMapping : identityMappings) {
+            compiledMappings.add(new CompiledMapping(identityMapping));
+        }
+        this.mappings = Collections.unmodifiableList(compiledMappings);
+
+        if (cacheSize > 0 && !mappings.isEmpty()) {
+            this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Maps the given identity using the first mapping whose pattern matches it.
+     *
+     * @param identity the identity to map
+     * @return the mapped identity, or the same identity if no mappings matched
+     */
+    String map(final String identity) {
+        if (identity == null || mappings.isEmpty()) {
+            return identity;
+        }
+
+        if (cache == null) {
+            return mapUncached(identity);
+        }
+
+        final String cachedIdentity = cache.getIfPresent(identity);
+        if (cachedIdentity != null) {
+            return cachedIdentity;
+        }
+
+        final String mappedIdentity = mapUncached(identity);
+        cache.put(identity, mappedIdentity);
+        return mappedIdentity;
+    }
+
+    private String mapUncached(final String identity) {
+        for (final CompiledMapping mapping : mappings) {
+            if (mapping.requiredLiteral != null && !identity.contains(mapping.requiredLiteral)) {
+                continue;
+            }
+
+            final Matcher matcher = mapping.pattern.matcher(identity);
+            if (matcher.matches()) {
+                return mapping.apply(matcher);
+            }
+        }
+
+        return identity;
+    }
+
+    /**
+     * Returns the number of mappings that have a literal prefilter.
+     */
+    int getPrefilteredCount() {
+        int count = 0;
+        for (final CompiledMapping mapping : mappings) {
+            if (mapping.requiredLiteral != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determines the longest run of literal characters that any string fully matching the given pattern must contain. Only
+     * characters outside of groups, character classes, and alternations are considered, and a character followed by a quantifier
+     * is not required, so the result is conservative. Patterns using flags, quoting, or alternation have no required literal.
+     *
+     * @param pattern the pattern
+     * @return the required literal, or null if none could be determined
+     */
+    static String getRequiredLiteral(final Pattern pattern) {
+        final String regex = pattern.pattern();
+        if (pattern.flags() != 0 || regex.contains("|") || regex.contains("(?") || regex.contains("\\Q")) {
+            return null;
+        }
+
+        String longest = null;
+        final StringBuilder current = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            final int next;
+            Character literal = null;
+
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    return null;
+                }
+                final char escaped = regex.charAt(i + 1);
+                if (!Character.isLetterOrDigit(escaped)) {
+                    literal = escaped;
+                } else if (SIMPLE_ESCAPES.indexOf(escaped) < 0) {
+                    // escapes such as \x41, \u0041, \p{Lu} or back references span more than two characters
+                    return null;
+                }
+                next = i + 2;
+            } else if (c == '(') {
+                depth++;
+                next = i + 1;
+            } else if (c == ')') {
+                depth--;
+                next = i + 1;
+            } else if (c == '[') {
+                int start = i + 1;
+                if (start < regex.length() && regex.charAt(start) == '^') {
+                    start++;
+                }
+                final int end = regex.indexOf(']', start + 1);
+                if (end < 0 || regex.substring(i + 1, end).contains("[") || regex.substring(i + 1, end).contains("\\")) {
+                    return null;
+                }
+                next = end + 1;
+            } else if (c == '{') {
+                final int end = regex.indexOf('}', i);
+                if (end < 0) {
+                    return null;
+                }
+                next = end + 1;
+            } else {
+                if (METACHARACTERS.indexOf(c) < 0) {
+                    literal = c;
+                }
+                next = i + 1;
+            }
+
+            final boolean quantified = next < regex.length() && "?*+{".indexOf(regex.charAt(next)) >= 0;
+            if (literal != null && depth == 0 && !quantified) {
+                current.append(literal.charValue());
+            } else {
+                longest = longer(longest, current);
+                current.setLength(0);
+            }
+
+            i = next;
+        }
+
+        return longer(longest, current);
+    }
+
+    private static String longer(final String longest, final StringBuilder current) {
+        if (current.length() == 0 || (longest != null && longest.length() >= current.length())) {
+            return longest;
+        }
+        return current.toString();
+    }
+
+    private static class CompiledMapping {
+        private final Pattern pattern;
+        private final String requiredLiteral;
+        private final String replacementValue;
+        private final Transform transform;
+
+        private CompiledMapping(final IdentityMapping identityMapping) {
+            this.pattern = identityMapping.getPattern();
+            this.requiredLiteral = getRequiredLiteral(pattern);
+            this.replacementValue = IdentityMappingUtil.escapeLiteralBackReferences(
+                    identityMapping.getReplacementValue(), pattern.matcher("").groupCount());
+            this.transform = identityMapping.getTransform();
+        }
+
+        private String apply(final Matcher matcher) {
+            final String replacement = matcher.replaceAll(replacementValue);
+
+            if (Transform.UPPER.equals(transform)) {
+                return replacement.toUpperCase();
+            } else if (Transform.LOWER.equals(transform)) {
+                return replacement.toLowerCase();
+            } else {
+                return replacement;
+            }
+        }
+    }
+
+}
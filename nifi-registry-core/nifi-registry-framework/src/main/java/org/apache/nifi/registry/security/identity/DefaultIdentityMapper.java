@@ -31,20 +31,27 @@ public class DefaultIdentityMapper implements IdentityMapper {
     final List<IdentityMapping> userIdentityMappings;
     final List<IdentityMapping> groupMappings;
 
+    private final CompiledIdentityMappings compiledUserIdentityMappings;
+    private final CompiledIdentityMappings compiledGroupMappings;
+
     @Autowired
     public DefaultIdentityMapper(final NiFiRegistryProperties properties) {
         userIdentityMappings = Collections.unmodifiableList(IdentityMappingUtil.getIdentityMappings(properties));
         groupMappings = Collections.unmodifiableList(IdentityMappingUtil.getGroupMappings(properties));
+
+        final int cacheSize = properties.getIdentityMappingCacheSize();
+        compiledUserIdentityMappings = new CompiledIdentityMappings(userIdentityMappings, cacheSize);
+        compiledGroupMappings = new CompiledIdentityMappings(groupMappings, cacheSize);
     }
 
     @Override
     public String mapUser(final String userIdentity) {
-        return IdentityMappingUtil.mapIdentity(userIdentity, userIdentityMappings);
+        return compiledUserIdentityMappings.map(userIdentity);
     }
 
     @Override
     public String mapGroup(final String groupName) {
-        return IdentityMappingUtil.mapIdentity(groupName, groupMappings);
+        return compiledGroupMappings.map(groupName);
     }
 
 }
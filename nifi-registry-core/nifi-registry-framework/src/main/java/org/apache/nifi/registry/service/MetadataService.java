@@ -31,8 +31,11 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * A service for managing metadata about all objects stored by the registry.
@@ -123,6 +126,13 @@ public interface MetadataService {
      */
     FlowEntity createFlow(FlowEntity flow);
 
+    /**
+     * Creates all of the given versioned flows using batched inserts.
+     *
+     * @param flows the versioned flows to create
+     */
+    void createFlows(Collection<FlowEntity> flows);
+
     /**
      * Retrieves the versioned flow with the given id and DOES NOT populate the versionCount.
      *
@@ -190,6 +200,13 @@ public interface MetadataService {
      */
     FlowSnapshotEntity createFlowSnapshot(FlowSnapshotEntity flowSnapshot);
 
+    /**
+     * Creates all of the given versioned flow snapshots using batched inserts.
+     *
+     * @param flowSnapshots the snapshots to create
+     */
+    void createFlowSnapshots(Collection<FlowSnapshotEntity> flowSnapshots);
+
     /**
      * Retrieves the snapshot for the given flow identifier and snapshot version.
      *
@@ -207,6 +224,17 @@ public interface MetadataService {
      */
     FlowSnapshotEntity getLatestSnapshot(String flowIdentifier);
 
+    /**
+     * Retrieves the snapshot with the latest version number for each of the given flows, restricted to flows located in the given buckets.
+     *
+     * Flows that do not exist, have no snapshots, or are located in other buckets are left out of the result.
+     *
+     * @param bucketIdentifiers the ids of the buckets the flows may be located in
+     * @param flowIdentifiers the ids of the flows to retrieve the latest snapshot for
+     * @return the latest snapshots grouped by the id of the bucket the flow is located in
+     */
+    Map<String, List<FlowSnapshotEntity>> getLatestSnapshots(Set<String> bucketIdentifiers, Set<String> flowIdentifiers);
+
     /**
      * Retrieves the snapshots for the given flow in the given bucket.
      *
@@ -297,6 +325,13 @@ public interface MetadataService {
      */
     BundleVersionEntity createBundleVersion(BundleVersionEntity extensionBundleVersion);
 
+    /**
+     * Creates all of the given extension bundle versions using batched inserts.
+     *
+     * @param extensionBundleVersions the bundle versions to create
+     */
+    void createBundleVersions(Collection<BundleVersionEntity> extensionBundleVersions);
+
     /**
      * Retrieves the extension bundle version for the given bundle id and version.
      *
@@ -378,6 +413,13 @@ public interface MetadataService {
      */
     BundleVersionDependencyEntity createDependency(BundleVersionDependencyEntity dependencyEntity);
 
+    /**
+     * Creates all of the given extension bundle version dependencies using batched inserts.
+     *
+     * @param dependencyEntities the dependency entities
+     */
+    void createDependencies(Collection<BundleVersionDependencyEntity> dependencyEntities);
+
     /**
      * Retrieves the bundle dependencies for the given bundle version.
      *
@@ -386,6 +428,13 @@ public interface MetadataService {
      */
     List<BundleVersionDependencyEntity> getDependenciesForBundleVersion(String extensionBundleVersionId);
 
+    /**
+     * Retrieves the bundle dependencies of every bundle version.
+     *
+     * @return the list of dependencies
+     */
+    List<BundleVersionDependencyEntity> getAllDependencies();
+
     // --------------------------------------------------------------------------------------------
 
     /**
@@ -396,6 +445,14 @@ public interface MetadataService {
      */
     ExtensionEntity createExtension(ExtensionEntity extension);
 
+    /**
+     * Creates all of the given extensions, along with their tags, provided service APIs, and restrictions,
+     * using one batched insert per table rather than one statement per row.
+     *
+     * @param extensions the extensions to create
+     */
+    void createExtensions(Collection<ExtensionEntity> extensions);
+
     /**
      * Retrieves the extension with the given id.
      *
@@ -448,6 +505,14 @@ public interface MetadataService {
      */
     List<ExtensionEntity> getExtensionsByBundleVersionId(String extensionBundleVersionId);
 
+    /**
+     * Passes every extension, including its full content, to the given handler one row at a time so that the
+     * extensions do not all need to be held in memory.
+     *
+     * @param handler the handler to receive each extension
+     */
+    void forEachExtension(Consumer<ExtensionEntity> handler);
+
     /**
      * Retrieves the set of all extension tags.
      *
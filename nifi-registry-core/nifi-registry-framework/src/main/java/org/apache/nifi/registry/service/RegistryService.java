@@ -45,11 +45,16 @@ import org.apache.nifi.registry.flow.diff.FlowComparison;
 import org.apache.nifi.registry.flow.diff.FlowDifference;
 import org.apache.nifi.registry.flow.diff.StandardComparableDataFlow;
 import org.apache.nifi.registry.flow.diff.StandardFlowComparator;
+import org.apache.nifi.registry.metrics.RegistryMetrics;
 import org.apache.nifi.registry.provider.extension.StandardBundleCoordinate;
 import org.apache.nifi.registry.provider.flow.StandardFlowSnapshotContext;
 import org.apache.nifi.registry.serialization.FlowContent;
 import org.apache.nifi.registry.serialization.FlowContentSerializer;
 import org.apache.nifi.registry.service.alias.RegistryUrlAliasService;
+import org.apache.nifi.registry.service.extension.BundleDependencyIndex;
+import org.apache.nifi.registry.service.extension.ExtensionRepoTree;
+import org.apache.nifi.registry.service.extension.ExtensionSearchIndex;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocsCache;
 import org.apache.nifi.registry.service.mapper.BucketMappings;
 import org.apache.nifi.registry.service.mapper.ExtensionMappings;
 import org.apache.nifi.registry.service.mapper.FlowMappings;
@@ -88,6 +93,11 @@ public class RegistryService {
     private final FlowContentSerializer flowContentSerializer;
     private final Validator validator;
     private final RegistryUrlAliasService registryUrlAliasService;
+    private final ExtensionSearchIndex extensionSearchIndex;
+    private final ExtensionRepoTree extensionRepoTree;
+    private final BundleDependencyIndex bundleDependencyIndex;
+    private final ExtensionDocsCache extensionDocsCache;
+    private final RegistryMetrics registryMetrics;
 
     @Autowired
     public RegistryService(final MetadataService metadataService,
@@ -95,13 +105,23 @@ public class RegistryService {
                            final BundlePersistenceProvider bundlePersistenceProvider,
                            final FlowContentSerializer flowContentSerializer,
                            final Validator validator,
-                           final RegistryUrlAliasService registryUrlAliasService) {
+                           final RegistryUrlAliasService registryUrlAliasService,
+                           final ExtensionSearchIndex extensionSearchIndex,
+                           final ExtensionRepoTree extensionRepoTree,
+                           final BundleDependencyIndex bundleDependencyIndex,
+                           final ExtensionDocsCache extensionDocsCache,
+                           final RegistryMetrics registryMetrics) {
         this.metadataService = Validate.notNull(metadataService);
         this.flowPersistenceProvider = Validate.notNull(flowPersistenceProvider);
         this.bundlePersistenceProvider = Validate.notNull(bundlePersistenceProvider);
         this.flowContentSerializer = Validate.notNull(flowContentSerializer);
         this.validator = Validate.notNull(validator);
         this.registryUrlAliasService = Validate.notNull(registryUrlAliasService);
+        this.extensionSearchIndex = Validate.notNull(extensionSearchIndex);
+        this.extensionRepoTree = Validate.notNull(extensionRepoTree);
+        this.bundleDependencyIndex = Validate.notNull(bundleDependencyIndex);
+        this.extensionDocsCache = Validate.notNull(extensionDocsCache);
+        this.registryMetrics = Validate.notNull(registryMetrics);
     }
 
     private <T>  void validate(T t, String invalidMessage) {
@@ -137,6 +157,7 @@ public class RegistryService {
         }
 
         final BucketEntity createdBucket = metadataService.createBucket(BucketMappings.map(bucket));
+        extensionRepoTree.putBucket(createdBucket.getId(), createdBucket.getName());
         return BucketMappings.map(createdBucket);
     }
 
@@ -242,6 +263,7 @@ public class RegistryService {
 
         // perform the actual update
         final BucketEntity updatedBucket = metadataService.updateBucket(existingBucketById);
+        extensionRepoTree.putBucket(updatedBucket.getId(), updatedBucket.getName());
         return BucketMappings.map(updatedBucket);
     }
 
@@ -259,7 +281,8 @@ public class RegistryService {
 
         // for each flow in the bucket, delete all snapshots from the flow persistence provider
         for (final FlowEntity flowEntity : metadataService.getFlowsByBucket(existingBucket.getId())) {
-            flowPersistenceProvider.deleteAllFlowContent(bucketIdentifier, flowEntity.getId());
+            registryMetrics.timeFlowPersistence("deleteAll",
+                    () -> flowPersistenceProvider.deleteAllFlowContent(bucketIdentifier, flowEntity.getId()));
         }
 
         // for each bundle in the bucket, delete all versions from the bundle persistence provider
@@ -269,11 +292,15 @@ public class RegistryService {
                     .groupId(bundleEntity.getGroupId())
                     .artifactId(bundleEntity.getArtifactId())
                     .build();
-            bundlePersistenceProvider.deleteAllBundleVersions(bundleCoordinate);
+            registryMetrics.timeBundlePersistence("deleteAll", () -> bundlePersistenceProvider.deleteAllBundleVersions(bundleCoordinate));
         }
 
         // now delete the bucket from the metadata provider, which deletes all flows referencing it
         metadataService.deleteBucket(existingBucket);
+        extensionSearchIndex.removeBucket(existingBucket.getId());
+        extensionRepoTree.removeBucket(existingBucket.getId());
+        bundleDependencyIndex.removeBucket(existingBucket.getId());
+        extensionDocsCache.removeBucket(existingBucket.getId());
 
         return BucketMappings.map(existingBucket);
     }
@@ -526,7 +553,8 @@ public class RegistryService {
         }
 
         // delete all snapshots from the flow persistence provider
-        flowPersistenceProvider.deleteAllFlowContent(existingFlow.getBucketId(), existingFlow.getId());
+        registryMetrics.timeFlowPersistence("deleteAll",
+                () -> flowPersistenceProvider.deleteAllFlowContent(existingFlow.getBucketId(), existingFlow.getId()));
 
         // now delete the flow from the metadata provider
         metadataService.deleteFlow(existingFlow);
@@ -613,14 +641,14 @@ public class RegistryService {
 
         // temporarily remove the metadata so it isn't serialized, but then put it back for returning the response
         flowSnapshot.setSnapshotMetadata(null);
-        flowContentSerializer.serializeFlowContent(flowContent, out);
+        registryMetrics.timeFlowSerialization("serialize", () -> flowContentSerializer.serializeFlowContent(flowContent, out));
         flowSnapshot.setSnapshotMetadata(snapshotMetadata);
 
         // save the serialized snapshot to the persistence provider
         final Bucket bucket = BucketMappings.map(existingBucket);
         final VersionedFlow versionedFlow = FlowMappings.map(existingBucket, existingFlow);
         final FlowSnapshotContext context = new StandardFlowSnapshotContext.Builder(bucket, versionedFlow, snapshotMetadata).build();
-        flowPersistenceProvider.saveFlowContent(context, out.toByteArray());
+        registryMetrics.timeFlowPersistence("save", () -> flowPersistenceProvider.saveFlowContent(context, out.toByteArray()));
 
         // create snapshot in the metadata provider
         metadataService.createFlowSnapshot(FlowMappings.map(snapshotMetadata));
@@ -683,7 +711,8 @@ public class RegistryService {
         }
 
         // get the serialized bytes of the snapshot
-        final byte[] serializedSnapshot = flowPersistenceProvider.getFlowContent(bucketEntity.getId(), flowEntity.getId(), version);
+        final byte[] serializedSnapshot = registryMetrics.timeFlowPersistence("get",
+                () -> flowPersistenceProvider.getFlowContent(bucketEntity.getId(), flowEntity.getId(), version));
 
         if (serializedSnapshot == null || serializedSnapshot.length == 0) {
             throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
@@ -713,12 +742,14 @@ public class RegistryService {
 
         // determine how to do deserialize based on the data model version
         if (flowContentSerializer.isProcessGroupVersion(dataModelVersion)) {
-            final VersionedProcessGroup processGroup = flowContentSerializer.deserializeProcessGroup(dataModelVersion, input);
+            final VersionedProcessGroup processGroup = registryMetrics.timeFlowSerialization("deserialize",
+                    () -> flowContentSerializer.deserializeProcessGroup(dataModelVersion, input));
             final VersionedFlowSnapshot snapshot = new VersionedFlowSnapshot();
             snapshot.setFlowContents(processGroup);
             return snapshot;
         } else {
-            final FlowContent flowContent = flowContentSerializer.deserializeFlowContent(dataModelVersion, input);
+            final FlowContent flowContent = registryMetrics.timeFlowSerialization("deserialize",
+                    () -> flowContentSerializer.deserializeFlowContent(dataModelVersion, input));
             return flowContent.getFlowSnapshot();
         }
     }
@@ -831,6 +862,21 @@ public class RegistryService {
         return FlowMappings.map(existingBucket, latestSnapshot);
     }
 
+    public List<VersionedFlowSnapshotMetadata> getLatestFlowSnapshotMetadata(final Set<String> bucketIdentifiers, final Set<String> flowIdentifiers) {
+        if (bucketIdentifiers == null || bucketIdentifiers.isEmpty()) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null or empty");
+        }
+
+        if (flowIdentifiers == null || flowIdentifiers.isEmpty()) {
+            throw new IllegalArgumentException("Flow identifiers cannot be null or empty");
+        }
+
+        final List<VersionedFlowSnapshotMetadata> latestMetadata = new ArrayList<>();
+        metadataService.getLatestSnapshots(bucketIdentifiers, flowIdentifiers).forEach((bucketIdentifier, snapshots) ->
+                snapshots.forEach(s -> latestMetadata.add(FlowMappings.map(bucketIdentifier, s))));
+        return latestMetadata;
+    }
+
     public VersionedFlowSnapshotMetadata deleteFlowSnapshot(final String bucketIdentifier, final String flowIdentifier, final Integer version) {
         if (StringUtils.isBlank(bucketIdentifier)) {
             throw new IllegalArgumentException("Bucket identifier cannot be null or blank");
@@ -870,7 +916,7 @@ public class RegistryService {
         }
 
         // delete the content of the snapshot
-        flowPersistenceProvider.deleteFlowContent(bucketIdentifier, flowIdentifier, version);
+        registryMetrics.timeFlowPersistence("delete", () -> flowPersistenceProvider.deleteFlowContent(bucketIdentifier, flowIdentifier, version));
 
         // delete the snapshot itself
         metadataService.deleteFlowSnapshot(snapshotEntity);
@@ -904,13 +950,15 @@ public class RegistryService {
         final Integer newer = Math.max(versionA, versionB);
 
         // Get the content for both versions of the flow
-        final byte[] serializedSnapshotA = flowPersistenceProvider.getFlowContent(bucketIdentifier, flowIdentifier, older);
+        final byte[] serializedSnapshotA = registryMetrics.timeFlowPersistence("get",
+                () -> flowPersistenceProvider.getFlowContent(bucketIdentifier, flowIdentifier, older));
         if (serializedSnapshotA == null || serializedSnapshotA.length == 0) {
             throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
                     + flowIdentifier + " and version " + older);
         }
 
-        final byte[] serializedSnapshotB = flowPersistenceProvider.getFlowContent(bucketIdentifier, flowIdentifier, newer);
+        final byte[] serializedSnapshotB = registryMetrics.timeFlowPersistence("get",
+                () -> flowPersistenceProvider.getFlowContent(bucketIdentifier, flowIdentifier, newer));
         if (serializedSnapshotB == null || serializedSnapshotB.length == 0) {
             throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
                     + flowIdentifier + " and version " + newer);
@@ -931,7 +979,7 @@ public class RegistryService {
         // Compare the two versions of the flow
         final FlowComparator flowComparator = new StandardFlowComparator(comparableFlowA, comparableFlowB,
                 null, new ConciseEvolvingDifferenceDescriptor());
-        final FlowComparison flowComparison = flowComparator.compare();
+        final FlowComparison flowComparison = registryMetrics.timeFlowComparison(flowComparator::compare);
 
         final VersionedFlowDifference result = new VersionedFlowDifference();
         result.setBucketId(bucketIdentifier);
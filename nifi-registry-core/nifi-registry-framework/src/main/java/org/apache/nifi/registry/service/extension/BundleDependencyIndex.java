@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionDependencyEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.exception.ResourceNotFoundException;
+import org.apache.nifi.registry.extension.bundle.BundleInfo;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependency;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
+import org.apache.nifi.registry.extension.bundle.ResolvedBundleVersionDependency;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory adjacency index over the dependencies of every bundle version, used to resolve the full transitive
+ * closure of a bundle version's dependencies in a single call.
+ *
+ * Each bundle version maps to the coordinates it depends on, and each set of coordinates to the bundle versions that
+ * have them, so resolving a graph walks the index rather than querying the dependencies of one version at a time. The
+ * index is loaded from the metadata database at startup, and a bundle version is added or removed once its upload or
+ * deletion has been committed.
+ *
+ * Dependencies are declared by group, artifact, and version only, so a dependency resolves to a bundle version with
+ * those coordinates in any of the buckets the caller can read, preferring the bucket of the bundle version being
+ * resolved. Resolved graphs are cached per bundle version and set of readable buckets until the index next changes.
+ */
+@Component
+public class BundleDependencyIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BundleDependencyIndex.class);
+
+    static final int MAX_CACHED_GRAPHS = 1000;
+
+    private final MetadataService metadataService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IndexedVersion> versions = new HashMap<>();
+    private final Map<BundleVersionDependency, List<IndexedVersion>> versionsByCoordinate = new HashMap<>();
+
+    // entries are added while holding the read lock, so access must also be synchronized on the map itself
+    private final Map<GraphKey, BundleVersionDependencyGraph> graphCache = Collections.synchronizedMap(
+            new LinkedHashMap<GraphKey, BundleVersionDependencyGraph>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<GraphKey, BundleVersionDependencyGraph> eldest) {
+                    return size() > MAX_CACHED_GRAPHS;
+                }
+            });
+
+    @Autowired
+    public BundleDependencyIndex(final MetadataService metadataService) {
+        this.metadataService = metadataService;
+    }
+
+    /**
+     * Rebuilds the index from the bundle versions and dependencies in the metadata database.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        final long startTime = System.currentTimeMillis();
+
+        final Set<String> bucketIds = metadataService.getAllBuckets().stream()
+                .map(BucketEntity::getId)
+                .collect(Collectors.toSet());
+
+        final Map<String, BundleEntity> bundlesById = metadataService.getBundles(bucketIds, null).stream()
+                .collect(Collectors.toMap(BundleEntity::getId, Function.identity()));
+
+        final Map<String, List<BundleVersionDependencyEntity>> dependenciesByVersionId = metadataService.getAllDependencies().stream()
+                .collect(Collectors.groupingBy(BundleVersionDependencyEntity::getExtensionBundleVersionId));
+
+        final List<IndexedVersion> indexedVersions = new ArrayList<>();
+        for (final BundleVersionEntity versionEntity : metadataService.getBundleVersions(bucketIds, null)) {
+            final BundleEntity bundleEntity = bundlesById.get(versionEntity.getBundleId());
+            if (bundleEntity != null) {
+                final List<BundleVersionDependencyEntity> dependencyEntities = dependenciesByVersionId.get(versionEntity.getId());
+                indexedVersions.add(createIndexedVersion(versionEntity, bundleEntity,
+                        dependencyEntities == null ? Collections.emptyList() : dependencyEntities));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            versions.clear();
+            versionsByCoordinate.clear();
+            graphCache.clear();
+            indexedVersions.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LOGGER.info("Indexed the dependencies of {} bundle version(s) in {} ms",
+                new Object[]{indexedVersions.size(), System.currentTimeMillis() - startTime});
+    }
+
+    /**
+     * Adds a bundle version and its direct dependencies to the index.
+     *
+     * @param versionEntity the bundle version
+     * @param bundleEntity the bundle the version belongs to
+     * @param dependencyEntities the direct dependencies of the bundle version
+     */
+    public void addBundleVersion(final BundleVersionEntity versionEntity, final BundleEntity bundleEntity,
+                                 final Collection<BundleVersionDependencyEntity> dependencyEntities) {
+        final IndexedVersion indexedVersion = createIndexedVersion(versionEntity, bundleEntity, dependencyEntities);
+
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                add(indexedVersion);
+                graphCache.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @param bundleVersionId the id of the bundle version to remove from the index
+     */
+    public void removeBundleVersion(final String bundleVersionId) {
+        removeMatching(v -> v.id.equals(bundleVersionId));
+    }
+
+    /**
+     * @param bundleId the id of the bundle whose versions should be removed from the index
+     */
+    public void removeBundle(final String bundleId) {
+        removeMatching(v -> v.bundleInfo.getBundleId().equals(bundleId));
+    }
+
+    /**
+     * @param bucketId the id of the bucket whose bundle versions should be removed from the index
+     */
+    public void removeBucket(final String bucketId) {
+        removeMatching(v -> v.bundleInfo.getBucketId().equals(bucketId));
+    }
+
+    /**
+     * @return the number of bundle versions in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return versions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves every direct and transitive dependency of the given bundle version with a breadth-first walk of the
+     * index. Each distinct dependency coordinate appears once, at the depth it was first reached, and the walk does not
+     * continue past a dependency that cannot be resolved or that has already been visited, so cycles terminate.
+     *
+     * The returned graph may be shared with other callers and must not be modified.
+     *
+     * @param bundleVersionId the id of the bundle version to resolve
+     * @param bucketIdentifiers the buckets dependencies may be resolved from
+     * @return the dependency graph of the bundle version
+     * @throws ResourceNotFoundException if the bundle version is not in the index
+     */
+    public BundleVersionDependencyGraph resolve(final String bundleVersionId, final Set<String> bucketIdentifiers) {
+        final GraphKey key = new GraphKey(bundleVersionId, bucketIdentifiers);
+
+        lock.readLock().lock();
+        try {
+            final BundleVersionDependencyGraph cachedGraph = graphCache.get(key);
+            if (cachedGraph != null) {
+                return cachedGraph;
+            }
+
+            final IndexedVersion root = versions.get(bundleVersionId);
+            if (root == null) {
+                throw new ResourceNotFoundException("The specified extension bundle version does not exist");
+            }
+
+            // no updates can be applied while the read lock is held, so the graph is still current when it is cached
+            final BundleVersionDependencyGraph graph = walk(root, key.bucketIdentifiers);
+            graphCache.put(key, graph);
+            return graph;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // must be called while holding the read lock
+    private BundleVersionDependencyGraph walk(final IndexedVersion root, final Set<String> bucketIdentifiers) {
+        final BundleVersionDependency rootCoordinate = getCoordinate(root.bundleInfo);
+
+        final Map<BundleVersionDependency, ResolvedBundleVersionDependency> resolved = new LinkedHashMap<>();
+        final List<BundleVersionDependency> missing = new ArrayList<>();
+
+        final Deque<BundleVersionDependency> queue = new ArrayDeque<>(root.dependencies);
+        final Map<BundleVersionDependency, Integer> depths = new HashMap<>();
+        root.dependencies.forEach(d -> depths.putIfAbsent(d, 1));
+
+        while (!queue.isEmpty()) {
+            final BundleVersionDependency coordinate = queue.poll();
+            if (coordinate.equals(rootCoordinate) || resolved.containsKey(coordinate)) {
+                continue;
+            }
+
+            final int depth = depths.get(coordinate);
+            final IndexedVersion match = findVersion(coordinate, root.bundleInfo.getBucketId(), bucketIdentifiers);
+
+            final ResolvedBundleVersionDependency dependency = new ResolvedBundleVersionDependency();
+            dependency.setCoordinate(coordinate);
+            dependency.setDepth(depth);
+            resolved.put(coordinate, dependency);
+
+            if (match == null) {
+                dependency.setDependencies(Collections.emptyList());
+                missing.add(coordinate);
+                continue;
+            }
+
+            dependency.setBundle(match.bundleInfo);
+            dependency.setDependencies(match.dependencies);
+            for (final BundleVersionDependency next : match.dependencies) {
+                if (depths.putIfAbsent(next, depth + 1) == null) {
+                    queue.add(next);
+                }
+            }
+        }
+
+        final BundleVersionDependencyGraph graph = new BundleVersionDependencyGraph();
+        graph.setBundle(root.bundleInfo);
+        graph.setDependencies(new ArrayList<>(resolved.values()));
+        graph.setMissingDependencies(missing);
+        graph.setCyclic(hasCycle(rootCoordinate, root.dependencies, resolved));
+        return graph;
+    }
+
+    /**
+     * Determines whether the resolved graph contains a cycle by repeatedly removing the nodes that no remaining node
+     * depends on. Any node left over once no more can be removed is part of, or depends on, a cycle.
+     */
+    private static boolean hasCycle(final BundleVersionDependency rootCoordinate, final List<BundleVersionDependency> rootDependencies,
+                                    final Map<BundleVersionDependency, ResolvedBundleVersionDependency> resolved) {
+        final Map<BundleVersionDependency, List<BundleVersionDependency>> edges = new HashMap<>();
+        edges.put(rootCoordinate, rootDependencies);
+        resolved.forEach((coordinate, dependency) -> edges.put(coordinate, dependency.getDependencies()));
+
+        final Map<BundleVersionDependency, Integer> inDegrees = new HashMap<>();
+        edges.keySet().forEach(c -> inDegrees.put(c, 0));
+        edges.values().forEach(targets -> new HashSet<>(targets).forEach(t -> inDegrees.merge(t, 1, Integer::sum)));
+
+        final Deque<BundleVersionDependency> removable = inDegrees.entrySet().stream()
+                .filter(e -> e.getValue() == 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(ArrayDeque::new));
+
+        int removed = 0;
+        while (!removable.isEmpty()) {
+            final BundleVersionDependency coordinate = removable.poll();
+            removed++;
+            for (final BundleVersionDependency target : new HashSet<>(edges.get(coordinate))) {
+                if (inDegrees.merge(target, -1, Integer::sum) == 0) {
+                    removable.add(target);
+                }
+            }
+        }
+
+        return removed < inDegrees.size();
+    }
+
+    // must be called while holding the read lock
+    private IndexedVersion findVersion(final BundleVersionDependency coordinate, final String preferredBucketId,
+                                       final Set<String> bucketIdentifiers) {
+        final List<IndexedVersion> candidates = versionsByCoordinate.get(coordinate);
+        if (candidates == null) {
+            return null;
+        }
+
+        return candidates.stream()
+                .filter(v -> bucketIdentifiers.contains(v.bundleInfo.getBucketId()))
+                .min(Comparator.comparing((IndexedVersion v) -> !v.bundleInfo.getBucketId().equals(preferredBucketId))
+                        .thenComparing(v -> v.bundleInfo.getBucketId()))
+                .orElse(null);
+    }
+
+    private void removeMatching(final Predicate<IndexedVersion> predicate) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                final List<IndexedVersion> matches = versions.values().stream().filter(predicate).collect(Collectors.toList());
+                matches.forEach(this::remove);
+                graphCache.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // must be called while holding the write lock
+    private void add(final IndexedVersion indexedVersion) {
+        final IndexedVersion previous = versions.get(indexedVersion.id);
+        if (previous != null) {
+            remove(previous);
+        }
+
+        versions.put(indexedVersion.id, indexedVersion);
+        versionsByCoordinate.computeIfAbsent(getCoordinate(indexedVersion.bundleInfo), c -> new ArrayList<>()).add(indexedVersion);
+    }
+
+    // must be called while holding the write lock
+    private void remove(final IndexedVersion indexedVersion) {
+        versions.remove(indexedVersion.id);
+
+        final BundleVersionDependency coordinate = getCoordinate(indexedVersion.bundleInfo);
+        final List<IndexedVersion> candidates = versionsByCoordinate.get(coordinate);
+        if (candidates != null) {
+            candidates.removeIf(v -> v.id.equals(indexedVersion.id));
+            if (candidates.isEmpty()) {
+                versionsByCoordinate.remove(coordinate);
+            }
+        }
+    }
+
+    private static IndexedVersion createIndexedVersion(final BundleVersionEntity versionEntity, final BundleEntity bundleEntity,
+                                                       final Collection<BundleVersionDependencyEntity> dependencyEntities) {
+        final BundleInfo bundleInfo = new BundleInfo();
+        bundleInfo.setBucketId(bundleEntity.getBucketId());
+        bundleInfo.setBundleId(bundleEntity.getId());
+        bundleInfo.setBundleType(bundleEntity.getBundleType());
+        bundleInfo.setGroupId(bundleEntity.getGroupId());
+        bundleInfo.setArtifactId(bundleEntity.getArtifactId());
+        bundleInfo.setVersion(versionEntity.getVersion());
+        bundleInfo.setSystemApiVersion(versionEntity.getSystemApiVersion());
+
+        final List<BundleVersionDependency> dependencies = dependencyEntities.stream()
+                .map(ExtensionMappings::map)
+                .distinct()
+                .collect(Collectors.toList());
+
+        return new IndexedVersion(versionEntity.getId(), bundleInfo, Collections.unmodifiableList(dependencies));
+    }
+
+    private static BundleVersionDependency getCoordinate(final BundleInfo bundleInfo) {
+        final BundleVersionDependency coordinate = new BundleVersionDependency();
+        coordinate.setGroupId(bundleInfo.getGroupId());
+        coordinate.setArtifactId(bundleInfo.getArtifactId());
+        coordinate.setVersion(bundleInfo.getVersion());
+        return coordinate;
+    }
+
+    private static class IndexedVersion {
+        private final String id;
+        private final BundleInfo bundleInfo;
+        private final List<BundleVersionDependency> dependencies;
+
+        IndexedVersion(final String id, final BundleInfo bundleInfo, final List<BundleVersionDependency> dependencies) {
+            this.id = id;
+            this.bundleInfo = bundleInfo;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private static class GraphKey {
+        private final String bundleVersionId;
+        private final Set<String> bucketIdentifiers;
+
+        GraphKey(final String bundleVersionId, final Set<String> bucketIdentifiers) {
+            this.bundleVersionId = bundleVersionId;
+            this.bucketIdentifiers = Collections.unmodifiableSet(new HashSet<>(bucketIdentifiers));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bundleVersionId, bucketIdentifiers);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof GraphKey)) {
+                return false;
+            }
+
+            final GraphKey other = (GraphKey) obj;
+            return bundleVersionId.equals(other.bundleVersionId) && bucketIdentifiers.equals(other.bucketIdentifiers);
+        }
+    }
+
+}
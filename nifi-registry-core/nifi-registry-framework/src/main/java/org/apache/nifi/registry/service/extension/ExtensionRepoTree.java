@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.nifi.registry.bucket.Bucket;
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoArtifact;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoBucket;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoGroup;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
+import org.apache.nifi.registry.service.MetadataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory tree of bucket, group, artifact, and version that backs the extension repository navigation methods.
+ *
+ * Browsing the repository reads only this tree rather than querying the database for each level. The tree is loaded
+ * at startup, and again after metadata has been synchronized from a flow persistence provider. The registry and
+ * extension services report each bucket, bundle, and bundle version change to it, and the change is applied once it
+ * has been committed.
+ *
+ * An artifact remains in the tree for as long as its bundle exists, even when all of its versions have been deleted,
+ * which matches what the database would return.
+ */
+@Component
+public class ExtensionRepoTree {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExtensionRepoTree.class);
+
+    private final MetadataService metadataService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, BucketNode> buckets = new HashMap<>();
+
+    @Autowired
+    public ExtensionRepoTree(final MetadataService metadataService) {
+        this.metadataService = metadataService;
+    }
+
+    /**
+     * Rebuilds the tree from the buckets, bundles, and bundle versions in the metadata database.
+     *
+     * Rebuilds are serialized so that one that read the database earlier can not replace the tree built by a later one.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void rebuild() {
+        final long startTime = System.currentTimeMillis();
+
+        final List<BucketEntity> bucketEntities = metadataService.getAllBuckets();
+        final Set<String> bucketIds = bucketEntities.stream().map(BucketEntity::getId).collect(Collectors.toSet());
+        final List<BundleEntity> bundleEntities = metadataService.getBundles(bucketIds, null);
+        final List<BundleVersionEntity> versionEntities = metadataService.getBundleVersions(bucketIds, null);
+
+        final Map<String, BucketNode> loadedBuckets = new HashMap<>();
+        bucketEntities.forEach(b -> loadedBuckets.put(b.getId(), new BucketNode(b.getName())));
+
+        for (final BundleEntity bundleEntity : bundleEntities) {
+            final BucketNode bucketNode = loadedBuckets.get(bundleEntity.getBucketId());
+            if (bucketNode != null) {
+                bucketNode.getOrCreateArtifact(bundleEntity.getGroupId(), bundleEntity.getArtifactId());
+            }
+        }
+
+        for (final BundleVersionEntity versionEntity : versionEntities) {
+            final BucketNode bucketNode = loadedBuckets.get(versionEntity.getBucketId());
+            if (bucketNode != null) {
+                bucketNode.getOrCreateArtifact(versionEntity.getGroupId(), versionEntity.getArtifactId())
+                        .put(versionEntity.getVersion(), new VersionNode(versionEntity.getCreatedBy(), versionEntity.getCreated().getTime()));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            buckets.putAll(loadedBuckets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LOGGER.info("Loaded {} bucket(s), {} bundle(s), and {} bundle version(s) into the extension repository tree in {} ms",
+                new Object[]{bucketEntities.size(), bundleEntities.size(), versionEntities.size(), System.currentTimeMillis() - startTime});
+    }
+
+    /**
+     * Adds a bucket to the tree, or updates the name of the bucket if it is already present.
+     *
+     * @param bucketId the id of the bucket
+     * @param bucketName the name of the bucket
+     */
+    public void putBucket(final String bucketId, final String bucketName) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                final BucketNode bucketNode = buckets.get(bucketId);
+                if (bucketNode == null) {
+                    buckets.put(bucketId, new BucketNode(bucketName));
+                } else {
+                    bucketNode.name = bucketName;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @param bucketId the id of the bucket to remove from the tree, along with all of its bundles
+     */
+    public void removeBucket(final String bucketId) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                buckets.remove(bucketId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Adds a bundle version to the tree, adding its group and artifact if this is the first version of the bundle.
+     *
+     * @param bucketId the id of the bucket containing the bundle
+     * @param groupId the group id of the bundle
+     * @param artifactId the artifact id of the bundle
+     * @param version the version
+     * @param author the identity of the user that created the version
+     * @param timestamp the time the version was created
+     */
+    public void addBundleVersion(final String bucketId, final String groupId, final String artifactId, final String version,
+                                 final String author, final long timestamp) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                final BucketNode bucketNode = buckets.get(bucketId);
+                if (bucketNode != null) {
+                    bucketNode.getOrCreateArtifact(groupId, artifactId).put(version, new VersionNode(author, timestamp));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a bundle version from the tree. The group and artifact of the bundle remain in the tree.
+     *
+     * @param bucketId the id of the bucket containing the bundle
+     * @param groupId the group id of the bundle
+     * @param artifactId the artifact id of the bundle
+     * @param version the version to remove
+     */
+    public void removeBundleVersion(final String bucketId, final String groupId, final String artifactId, final String version) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                final NavigableMap<String, VersionNode> versions = getVersionNodes(bucketId, groupId, artifactId);
+                if (versions != null) {
+                    versions.remove(version);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a bundle and all of its versions from the tree, removing its group if no other bundles remain in it.
+     *
+     * @param bucketId the id of the bucket containing the bundle
+     * @param groupId the group id of the bundle
+     * @param artifactId the artifact id of the bundle
+     */
+    public void removeBundle(final String bucketId, final String groupId, final String artifactId) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                final BucketNode bucketNode = buckets.get(bucketId);
+                if (bucketNode == null) {
+                    return;
+                }
+
+                final NavigableMap<String, NavigableMap<String, VersionNode>> artifacts = bucketNode.groups.get(groupId);
+                if (artifacts != null) {
+                    artifacts.remove(artifactId);
+                    if (artifacts.isEmpty()) {
+                        bucketNode.groups.remove(groupId);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @param bucketIds the ids of the buckets to return
+     * @return the buckets in the tree with the given ids
+     */
+    public SortedSet<ExtensionRepoBucket> getBuckets(final Set<String> bucketIds) {
+        final SortedSet<ExtensionRepoBucket> repoBuckets = new TreeSet<>();
+
+        lock.readLock().lock();
+        try {
+            for (final String bucketId : bucketIds) {
+                final BucketNode bucketNode = buckets.get(bucketId);
+                if (bucketNode != null) {
+                    final ExtensionRepoBucket repoBucket = new ExtensionRepoBucket();
+                    repoBucket.setBucketName(bucketNode.name);
+                    repoBuckets.add(repoBucket);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return repoBuckets;
+    }
+
+    /**
+     * @param bucket the bucket
+     * @return the groups of the bundles in the given bucket
+     */
+    public SortedSet<ExtensionRepoGroup> getGroups(final Bucket bucket) {
+        final SortedSet<ExtensionRepoGroup> repoGroups = new TreeSet<>();
+
+        lock.readLock().lock();
+        try {
+            final BucketNode bucketNode = buckets.get(bucket.getIdentifier());
+            if (bucketNode != null) {
+                for (final String groupId : bucketNode.groups.keySet()) {
+                    final ExtensionRepoGroup repoGroup = new ExtensionRepoGroup();
+                    repoGroup.setBucketName(bucket.getName());
+                    repoGroup.setGroupId(groupId);
+                    repoGroups.add(repoGroup);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return repoGroups;
+    }
+
+    /**
+     * @param bucket the bucket
+     * @param groupId the group id
+     * @return the artifacts of the bundles in the given bucket and group
+     */
+    public SortedSet<ExtensionRepoArtifact> getArtifacts(final Bucket bucket, final String groupId) {
+        final SortedSet<ExtensionRepoArtifact> repoArtifacts = new TreeSet<>();
+
+        lock.readLock().lock();
+        try {
+            final BucketNode bucketNode = buckets.get(bucket.getIdentifier());
+            final NavigableMap<String, NavigableMap<String, VersionNode>> artifacts = bucketNode == null ? null : bucketNode.groups.get(groupId);
+            if (artifacts != null) {
+                for (final String artifactId : artifacts.keySet()) {
+                    final ExtensionRepoArtifact repoArtifact = new ExtensionRepoArtifact();
+                    repoArtifact.setBucketName(bucket.getName());
+                    repoArtifact.setGroupId(groupId);
+                    repoArtifact.setArtifactId(artifactId);
+                    repoArtifacts.add(repoArtifact);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return repoArtifacts;
+    }
+
+    /**
+     * @param bucket the bucket
+     * @param groupId the group id
+     * @param artifactId the artifact id
+     * @return the versions of the bundle with the given group and artifact in the given bucket
+     */
+    public SortedSet<ExtensionRepoVersionSummary> getVersions(final Bucket bucket, final String groupId, final String artifactId) {
+        final SortedSet<ExtensionRepoVersionSummary> repoVersions = new TreeSet<>();
+
+        lock.readLock().lock();
+        try {
+            final NavigableMap<String, VersionNode> versions = getVersionNodes(bucket.getIdentifier(), groupId, artifactId);
+            if (versions != null) {
+                for (final Map.Entry<String, VersionNode> version : versions.entrySet()) {
+                    final ExtensionRepoVersionSummary repoVersion = new ExtensionRepoVersionSummary();
+                    repoVersion.setBucketName(bucket.getName());
+                    repoVersion.setGroupId(groupId);
+                    repoVersion.setArtifactId(artifactId);
+                    repoVersion.setVersion(version.getKey());
+                    repoVersion.setAuthor(version.getValue().author);
+                    repoVersion.setTimestamp(version.getValue().timestamp);
+                    repoVersions.add(repoVersion);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return repoVersions;
+    }
+
+    // must be called while holding the read or write lock
+    private NavigableMap<String, VersionNode> getVersionNodes(final String bucketId, final String groupId, final String artifactId) {
+        final BucketNode bucketNode = buckets.get(bucketId);
+        if (bucketNode == null) {
+            return null;
+        }
+
+        final NavigableMap<String, NavigableMap<String, VersionNode>> artifacts = bucketNode.groups.get(groupId);
+        return artifacts == null ? null : artifacts.get(artifactId);
+    }
+
+    private static class BucketNode {
+        private String name;
+        private final NavigableMap<String, NavigableMap<String, NavigableMap<String, VersionNode>>> groups = new TreeMap<>();
+
+        BucketNode(final String name) {
+            this.name = name;
+        }
+
+        NavigableMap<String, VersionNode> getOrCreateArtifact(final String groupId, final String artifactId) {
+            return groups.computeIfAbsent(groupId, g -> new TreeMap<>()).computeIfAbsent(artifactId, a -> new TreeMap<>());
+        }
+    }
+
+    private static class VersionNode {
+        private final String author;
+        private final long timestamp;
+
+        VersionNode(final String author, final long timestamp) {
+            this.author = author;
+            this.timestamp = timestamp;
+        }
+    }
+
+}
@@ -0,0 +1,510 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.extension.bundle.BundleInfo;
+import org.apache.nifi.registry.extension.bundle.BundleType;
+import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
+import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
+import org.apache.nifi.registry.extension.component.FacetCount;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
+import org.apache.nifi.registry.extension.component.manifest.Property;
+import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory inverted index over the searchable fields of every extension known to the registry.
+ *
+ * The index is built from the metadata database when the application context is refreshed and is then kept up to date
+ * as bundle versions are created and deleted. Updates made within a transaction are only applied once the transaction
+ * commits, so a rolled back upload never becomes searchable.
+ *
+ * Each extension is indexed by the words of its display name, simple class name, tags, provided service API class
+ * names, property names, and description. Camel-case words are also indexed by their parts so that a search for
+ * "kafka" finds "ConsumeKafka". Matches are ranked by the sum of the weight of the field each term matched multiplied
+ * by the inverse document frequency of the term.
+ */
+@Component
+public class ExtensionSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExtensionSearchIndex.class);
+
+    static final float DISPLAY_NAME_WEIGHT = 5.0f;
+    static final float NAME_WEIGHT = 3.0f;
+    static final float TAG_WEIGHT = 2.5f;
+    static final float PROVIDED_SERVICE_API_WEIGHT = 2.0f;
+    static final float PROPERTY_WEIGHT = 1.0f;
+    static final float DESCRIPTION_WEIGHT = 0.5f;
+
+    // a query term that is only a prefix of an indexed term counts for less than an exact match
+    static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern CAMEL_CASE_BOUNDARY = Pattern.compile("(?<=[\\p{Ll}\\p{N}])(?=\\p{Lu})|(?<=\\p{Lu})(?=\\p{Lu}\\p{Ll})");
+
+    private final Serializer<Extension> extensionSerializer;
+    private final MetadataService metadataService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IndexedExtension> extensions = new HashMap<>();
+    private final NavigableMap<String, Map<String, Float>> postings = new TreeMap<>();
+
+    @Autowired
+    public ExtensionSearchIndex(final Serializer<Extension> extensionSerializer, final MetadataService metadataService) {
+        this.extensionSerializer = extensionSerializer;
+        this.metadataService = metadataService;
+    }
+
+    /**
+     * Rebuilds the index from the extensions in the metadata database.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        final long startTime = System.currentTimeMillis();
+
+        final List<IndexedExtension> indexedExtensions = new ArrayList<>();
+        metadataService.forEachExtension(entity -> {
+            final IndexedExtension indexedExtension = createIndexedExtension(entity);
+            if (indexedExtension != null) {
+                indexedExtensions.add(indexedExtension);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            extensions.clear();
+            postings.clear();
+            indexedExtensions.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LOGGER.info("Indexed {} extension(s) for search in {} ms",
+                new Object[]{indexedExtensions.size(), System.currentTimeMillis() - startTime});
+    }
+
+    /**
+     * Adds the given extensions to the index. Each entity must have its content and the fields of the bundle version,
+     * bundle, and bucket it belongs to populated.
+     *
+     * @param extensionEntities the extensions to add
+     */
+    public void addExtensions(final Collection<ExtensionEntity> extensionEntities) {
+        final List<IndexedExtension> indexedExtensions = new ArrayList<>();
+        for (final ExtensionEntity extensionEntity : extensionEntities) {
+            final IndexedExtension indexedExtension = createIndexedExtension(extensionEntity);
+            if (indexedExtension != null) {
+                indexedExtensions.add(indexedExtension);
+            }
+        }
+
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                indexedExtensions.forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @param bundleVersionId the id of the bundle version whose extensions should be removed from the index
+     */
+    public void removeBundleVersion(final String bundleVersionId) {
+        removeMatching(e -> e.bundleVersionId.equals(bundleVersionId));
+    }
+
+    /**
+     * @param bundleId the id of the bundle whose extensions should be removed from the index
+     */
+    public void removeBundle(final String bundleId) {
+        removeMatching(e -> e.metadata.getBundleInfo().getBundleId().equals(bundleId));
+    }
+
+    /**
+     * @param bucketId the id of the bucket whose extensions should be removed from the index
+     */
+    public void removeBucket(final String bucketId) {
+        removeMatching(e -> e.metadata.getBundleInfo().getBucketId().equals(bucketId));
+    }
+
+    /**
+     * @return the number of extensions in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return extensions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * A blank query matches every extension in the given buckets. Otherwise every word of the query must match the
+     * beginning of an indexed word for an extension to be included.
+     *
+     * @param query the words to search for
+     * @param bucketIdentifiers the buckets to search within
+     * @param filterParams optional bundle type, extension type, and tag filters applied to the matches
+     * @param maxResults the maximum number of extensions to return
+     * @return the most relevant matching extensions, along with facet counts over all matches
+     */
+    public ExtensionSearchResults search(final String query, final Set<String> bucketIdentifiers,
+                                         final ExtensionFilterParams filterParams, final int maxResults) {
+        final List<ScoredExtension> matches;
+
+        lock.readLock().lock();
+        try {
+            matches = findMatches(query, bucketIdentifiers, filterParams);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        final Map<String, Integer> extensionTypeCounts = new HashMap<>();
+        final Map<String, Integer> bundleTypeCounts = new HashMap<>();
+        final Map<String, Integer> tagCounts = new HashMap<>();
+        for (final ScoredExtension match : matches) {
+            final ExtensionMetadata metadata = match.extension.metadata;
+            extensionTypeCounts.merge(metadata.getType().name(), 1, Integer::sum);
+            bundleTypeCounts.merge(metadata.getBundleInfo().getBundleType().name(), 1, Integer::sum);
+            match.extension.tags.forEach(t -> tagCounts.merge(t, 1, Integer::sum));
+        }
+
+        matches.sort(Comparator.comparing((ScoredExtension m) -> m.score).reversed()
+                .thenComparing(m -> m.extension.metadata.getDisplayName()));
+
+        final ExtensionSearchResults results = new ExtensionSearchResults();
+        results.setQuery(query);
+        results.setFilterParams(filterParams);
+        results.setNumResults(matches.size());
+        results.setExtensions(matches.stream()
+                .limit(maxResults)
+                .map(m -> copy(m.extension.metadata))
+                .collect(Collectors.toList()));
+        results.setExtensionTypes(toFacetCounts(extensionTypeCounts));
+        results.setBundleTypes(toFacetCounts(bundleTypeCounts));
+        results.setTags(toFacetCounts(tagCounts));
+        return results;
+    }
+
+    private List<ScoredExtension> findMatches(final String query, final Set<String> bucketIdentifiers, final ExtensionFilterParams filterParams) {
+        final Predicate<IndexedExtension> filter = createFilter(bucketIdentifiers, filterParams);
+
+        final List<String> queryTerms = tokenize(query, false);
+        if (queryTerms.isEmpty()) {
+            return extensions.values().stream()
+                    .filter(filter)
+                    .map(e -> new ScoredExtension(e, 0))
+                    .collect(Collectors.toList());
+        }
+
+        // score each query term against the index, only keeping extensions that matched every term
+        Map<String, Float> scores = null;
+        for (final String queryTerm : queryTerms) {
+            final Map<String, Float> termScores = scoreTerm(queryTerm);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+
+            if (scores.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        final List<ScoredExtension> matches = new ArrayList<>();
+        for (final Map.Entry<String, Float> score : scores.entrySet()) {
+            final IndexedExtension extension = extensions.get(score.getKey());
+            if (filter.test(extension)) {
+                matches.add(new ScoredExtension(extension, score.getValue()));
+            }
+        }
+        return matches;
+    }
+
+    private Map<String, Float> scoreTerm(final String queryTerm) {
+        final Map<String, Float> weights = new HashMap<>();
+
+        // every indexed term starting with the query term is a match
+        final NavigableMap<String, Map<String, Float>> matchingTerms = postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        for (final Map.Entry<String, Map<String, Float>> matchingTerm : matchingTerms.entrySet()) {
+            final float factor = matchingTerm.getKey().equals(queryTerm) ? 1.0f : PREFIX_MATCH_FACTOR;
+            for (final Map.Entry<String, Float> posting : matchingTerm.getValue().entrySet()) {
+                weights.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+            }
+        }
+
+        // weight rare terms above common ones
+        final float idf = (float) Math.log(1.0 + ((double) extensions.size() / Math.max(1, weights.size())));
+        weights.replaceAll((id, weight) -> weight * idf);
+        return weights;
+    }
+
+    private static Predicate<IndexedExtension> createFilter(final Set<String> bucketIdentifiers, final ExtensionFilterParams filterParams) {
+        Predicate<IndexedExtension> filter = e -> bucketIdentifiers.contains(e.metadata.getBundleInfo().getBucketId());
+        if (filterParams == null) {
+            return filter;
+        }
+
+        final BundleType bundleType = filterParams.getBundleType();
+        if (bundleType != null) {
+            filter = filter.and(e -> e.metadata.getBundleInfo().getBundleType() == bundleType);
+        }
+
+        final ExtensionType extensionType = filterParams.getExtensionType();
+        if (extensionType != null) {
+            filter = filter.and(e -> e.metadata.getType() == extensionType);
+        }
+
+        final Set<String> tags = filterParams.getTags() == null ? Collections.emptySet() : filterParams.getTags().stream()
+                .filter(StringUtils::isNotBlank)
+                .map(t -> t.trim().toLowerCase())
+                .collect(Collectors.toSet());
+        if (!tags.isEmpty()) {
+            filter = filter.and(e -> e.tags.stream().anyMatch(tags::contains));
+        }
+
+        return filter;
+    }
+
+    // callers are free to modify the returned metadata, such as to populate links, so never hand out the indexed instance
+    private static ExtensionMetadata copy(final ExtensionMetadata metadata) {
+        final BundleInfo bundleInfo = new BundleInfo();
+        bundleInfo.setBucketId(metadata.getBundleInfo().getBucketId());
+        bundleInfo.setBucketName(metadata.getBundleInfo().getBucketName());
+        bundleInfo.setBundleId(metadata.getBundleInfo().getBundleId());
+        bundleInfo.setGroupId(metadata.getBundleInfo().getGroupId());
+        bundleInfo.setArtifactId(metadata.getBundleInfo().getArtifactId());
+        bundleInfo.setVersion(metadata.getBundleInfo().getVersion());
+        bundleInfo.setBundleType(metadata.getBundleInfo().getBundleType());
+        bundleInfo.setSystemApiVersion(metadata.getBundleInfo().getSystemApiVersion());
+
+        final ExtensionMetadata copy = new ExtensionMetadata();
+        copy.setName(metadata.getName());
+        copy.setDisplayName(metadata.getDisplayName());
+        copy.setType(metadata.getType());
+        copy.setDescription(metadata.getDescription());
+        copy.setDeprecationNotice(metadata.getDeprecationNotice());
+        copy.setRestricted(metadata.getRestricted());
+        copy.setProvidedServiceAPIs(metadata.getProvidedServiceAPIs());
+        copy.setTags(metadata.getTags());
+        copy.setBundleInfo(bundleInfo);
+        copy.setHasAdditionalDetails(metadata.getHasAdditionalDetails());
+        return copy;
+    }
+
+    private static List<FacetCount> toFacetCounts(final Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(e -> new FacetCount(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private void removeMatching(final Predicate<IndexedExtension> predicate) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                final Iterator<IndexedExtension> iterator = extensions.values().iterator();
+                while (iterator.hasNext()) {
+                    final IndexedExtension extension = iterator.next();
+                    if (predicate.test(extension)) {
+                        iterator.remove();
+                        removePostings(extension);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // must be called while holding the write lock
+    private void add(final IndexedExtension extension) {
+        final IndexedExtension previous = extensions.put(extension.id, extension);
+        if (previous != null) {
+            removePostings(previous);
+        }
+
+        for (final Map.Entry<String, Float> termWeight : extension.termWeights.entrySet()) {
+            postings.computeIfAbsent(termWeight.getKey(), t -> new HashMap<>()).put(extension.id, termWeight.getValue());
+        }
+    }
+
+    // must be called while holding the write lock
+    private void removePostings(final IndexedExtension extension) {
+        for (final String term : extension.termWeights.keySet()) {
+            final Map<String, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(extension.id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private IndexedExtension createIndexedExtension(final ExtensionEntity entity) {
+        final Extension extension;
+        try {
+            extension = ExtensionMappings.map(entity, extensionSerializer);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to index extension {} with id {}: {}", new Object[]{entity.getName(), entity.getId(), e.getMessage()});
+            return null;
+        }
+
+        final Map<String, Float> termWeights = new HashMap<>();
+        addTerms(termWeights, entity.getDisplayName(), DISPLAY_NAME_WEIGHT);
+        addTerms(termWeights, getSimpleName(extension.getName()), NAME_WEIGHT);
+
+        final Set<String> tags = new LinkedHashSet<>();
+        if (extension.getTags() != null) {
+            extension.getTags().stream()
+                    .filter(StringUtils::isNotBlank)
+                    .map(t -> t.trim().toLowerCase())
+                    .forEach(tags::add);
+        }
+        tags.forEach(t -> addTerms(termWeights, t, TAG_WEIGHT));
+
+        if (extension.getProvidedServiceAPIs() != null) {
+            for (final ProvidedServiceAPI serviceAPI : extension.getProvidedServiceAPIs()) {
+                addTerms(termWeights, getSimpleName(serviceAPI.getClassName()), PROVIDED_SERVICE_API_WEIGHT);
+            }
+        }
+
+        if (extension.getProperties() != null) {
+            for (final Property property : extension.getProperties()) {
+                addTerms(termWeights, property.getName(), PROPERTY_WEIGHT);
+                addTerms(termWeights, property.getDisplayName(), PROPERTY_WEIGHT);
+            }
+        }
+
+        addTerms(termWeights, extension.getDescription(), DESCRIPTION_WEIGHT);
+
+        final ExtensionMetadata metadata = ExtensionMappings.mapToMetadata(entity, extension);
+        return new IndexedExtension(entity.getId(), entity.getBundleVersionId(), metadata, tags, termWeights);
+    }
+
+    private static void addTerms(final Map<String, Float> termWeights, final String text, final float weight) {
+        // a term found in several fields counts with the weight of its most important field
+        tokenize(text, true).forEach(term -> termWeights.merge(term, weight, Math::max));
+    }
+
+    private static String getSimpleName(final String className) {
+        if (className == null) {
+            return null;
+        }
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Splits the given text into lower-case words, ignoring single character words.
+     *
+     * @param text the text to split
+     * @param includeCamelCaseParts whether the parts of a camel-case word should be included in addition to the word itself
+     * @return the distinct words of the text
+     */
+    static List<String> tokenize(final String text, final boolean includeCamelCaseParts) {
+        if (StringUtils.isBlank(text)) {
+            return Collections.emptyList();
+        }
+
+        final Set<String> terms = new LinkedHashSet<>();
+        for (final String word : WORD_SEPARATOR.split(text)) {
+            addTerm(terms, word);
+
+            if (includeCamelCaseParts) {
+                final String[] parts = CAMEL_CASE_BOUNDARY.split(word);
+                if (parts.length > 1) {
+                    for (final String part : parts) {
+                        addTerm(terms, part);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static void addTerm(final Set<String> terms, final String word) {
+        if (word.length() > 1) {
+            terms.add(word.toLowerCase());
+        }
+    }
+
+    private static class IndexedExtension {
+        private final String id;
+        private final String bundleVersionId;
+        private final ExtensionMetadata metadata;
+        private final Set<String> tags;
+        private final Map<String, Float> termWeights;
+
+        IndexedExtension(final String id, final String bundleVersionId, final ExtensionMetadata metadata,
+                         final Set<String> tags, final Map<String, Float> termWeights) {
+            this.id = id;
+            this.bundleVersionId = bundleVersionId;
+            this.metadata = metadata;
+            this.tags = tags;
+            this.termWeights = termWeights;
+        }
+    }
+
+    private static class ScoredExtension {
+        private final IndexedExtension extension;
+        private final float score;
+
+        ScoredExtension(final IndexedExtension extension, final float score) {
+            this.extension = extension;
+            this.score = score;
+        }
+    }
+
+}
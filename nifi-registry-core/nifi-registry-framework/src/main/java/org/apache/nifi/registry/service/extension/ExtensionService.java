@@ -21,17 +21,20 @@ import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoArtifact;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoBucket;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoGroup;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocs;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -150,6 +153,15 @@ public interface ExtensionService {
      */
     BundleVersion deleteBundleVersion(BundleVersion bundleVersion);
 
+    /**
+     * Resolves the direct and transitive dependencies of the given bundle version.
+     *
+     * @param bundleVersion the bundle version
+     * @param bucketIdentifiers the identifiers of the buckets that dependencies may be resolved from
+     * @return the dependency graph of the bundle version
+     */
+    BundleVersionDependencyGraph getBundleVersionDependencyGraph(BundleVersion bundleVersion, Set<String> bucketIdentifiers);
+
     // ----- Extension Methods ------
 
     /**
@@ -172,6 +184,18 @@ public interface ExtensionService {
      */
     SortedSet<ExtensionMetadata> getExtensionMetadata(Set<String> bucketIdentifiers, ProvidedServiceAPI providedServiceAPI);
 
+    /**
+     * Searches the extensions in the given buckets by name, display name, description, tags, property names,
+     * and provided service APIs.
+     *
+     * @param bucketIdentifiers the identifiers of the buckets
+     * @param query the words to search for, a blank query matches all extensions
+     * @param filterParams the optional filter params
+     * @param maxResults the maximum number of extensions to return
+     * @return the most relevant extensions, along with facet counts for all matching extensions
+     */
+    ExtensionSearchResults searchExtensions(Set<String> bucketIdentifiers, String query, ExtensionFilterParams filterParams, int maxResults);
+
     /**
      * Retrieves the set of extensions for the given bundle version.
      *
@@ -190,24 +214,24 @@ public interface ExtensionService {
     Extension getExtension(BundleVersion bundleVersion, String name);
 
     /**
-     * Writes the documentation for the extension with the given name and bundle to the given output stream.
+     * Retrieves the documentation for the extension with the given name and bundle, rendering it if necessary.
      *
      * @param bundleVersion the bundle version
      * @param name the name of the extension
-     * @param outputStream the output stream to write to
-     * @throws IOException if an error occurs writing to the output stream
+     * @return the rendered documentation
+     * @throws IOException if an error occurs rendering the documentation
      */
-    void writeExtensionDocs(BundleVersion bundleVersion, String name, OutputStream outputStream) throws IOException;
+    ExtensionDocs getExtensionDocs(BundleVersion bundleVersion, String name) throws IOException;
 
     /**
-     * Writes the additional details documentation for the extension with the given name and bundle to the given output stream.
+     * Retrieves the additional details documentation for the extension with the given name and bundle.
      *
      * @param bundleVersion the bundle version
      * @param name the name of the extension
-     * @param outputStream the output stream to write to
-     * @throws IOException if an error occurs writing to the output stream
+     * @return the additional details documentation
+     * @throws IOException if an error occurs rendering the documentation
      */
-    void writeAdditionalDetailsDocs(BundleVersion bundleVersion, String name, OutputStream outputStream) throws IOException;
+    ExtensionDocs getAdditionalDetailsDocs(BundleVersion bundleVersion, String name) throws IOException;
 
     /**
      * @return all know tags
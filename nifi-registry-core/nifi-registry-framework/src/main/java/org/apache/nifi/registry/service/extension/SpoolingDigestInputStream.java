@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+
+/**
+ * An InputStream that updates a digest with, and copies to an OutputStream, every byte read from the wrapped stream.
+ *
+ * This allows a bundle to be written to the working directory and have its SHA-256 computed while it is being read by
+ * a BundleExtractor, rather than making a separate pass over the working file for each. Skipped bytes are read so that
+ * they are still digested and copied, and closing this stream does not close the wrapped stream, since extractors close
+ * the stream they are given before the remaining bytes have been {@link #drain() drained}.
+ */
+class SpoolingDigestInputStream extends FilterInputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final MessageDigest digest;
+    private final OutputStream out;
+    private long bytesRead = 0;
+
+    SpoolingDigestInputStream(final InputStream in, final MessageDigest digest, final OutputStream out) {
+        super(in);
+        this.digest = digest;
+        this.out = out;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = in.read();
+        if (b != -1) {
+            digest.update((byte) b);
+            out.write(b);
+            bytesRead++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int count = in.read(b, off, len);
+        if (count > 0) {
+            digest.update(b, off, count);
+            out.write(b, off, count);
+            bytesRead += count;
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(n, 0))];
+        long skipped = 0;
+        while (skipped < n) {
+            final int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (count == -1) {
+                break;
+            }
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(final int readlimit) {
+        // not supported since bytes that were already copied would be copied again after a reset
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() {
+        // the wrapped stream is owned by the caller
+    }
+
+    /**
+     * Reads the remainder of the wrapped stream so that the digest and the copy cover all of its content.
+     *
+     * @throws IOException if the wrapped stream cannot be read or the copy cannot be written
+     */
+    public void drain() throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        while (read(buffer, 0, buffer.length) != -1) {
+            // keep reading
+        }
+    }
+
+    /**
+     * @return the number of bytes read from the wrapped stream
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+}
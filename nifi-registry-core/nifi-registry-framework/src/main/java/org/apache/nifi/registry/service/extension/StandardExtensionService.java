@@ -42,11 +42,13 @@ import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
 import org.apache.nifi.registry.extension.bundle.BundleVersionDependency;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -54,6 +56,7 @@ import org.apache.nifi.registry.extension.repo.ExtensionRepoArtifact;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoBucket;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoGroup;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
+import org.apache.nifi.registry.metrics.RegistryMetrics;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.provider.extension.StandardBundleCoordinate;
 import org.apache.nifi.registry.provider.extension.StandardBundlePersistenceContext;
@@ -63,6 +66,8 @@ import org.apache.nifi.registry.serialization.Serializer;
 import org.apache.nifi.registry.service.MetadataService;
 import org.apache.nifi.registry.service.extension.docs.DocumentationConstants;
 import org.apache.nifi.registry.service.extension.docs.ExtensionDocWriter;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocs;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocsCache;
 import org.apache.nifi.registry.service.mapper.BucketMappings;
 import org.apache.nifi.registry.service.mapper.ExtensionMappings;
 import org.apache.nifi.registry.util.FileUtils;
@@ -75,6 +80,7 @@ import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -82,7 +88,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.util.Collections;
 import java.util.Comparator;
@@ -104,32 +109,52 @@ public class StandardExtensionService implements ExtensionService {
 
     private final Serializer<Extension> extensionSerializer;
     private final ExtensionDocWriter extensionDocWriter;
+    private final ExtensionDocsCache extensionDocsCache;
     private final MetadataService metadataService;
     private final Map<BundleType, BundleExtractor> extractors;
     private final BundlePersistenceProvider bundlePersistenceProvider;
     private final Validator validator;
     private final File extensionsWorkingDir;
+    private final ExtensionSearchIndex extensionSearchIndex;
+    private final ExtensionRepoTree extensionRepoTree;
+    private final BundleDependencyIndex bundleDependencyIndex;
+    private final RegistryMetrics registryMetrics;
 
     @Autowired
     public StandardExtensionService(final Serializer<Extension> extensionSerializer,
                                     final ExtensionDocWriter extensionDocWriter,
+                                    final ExtensionDocsCache extensionDocsCache,
                                     final MetadataService metadataService,
                                     final Map<BundleType, BundleExtractor> extractors,
                                     final BundlePersistenceProvider bundlePersistenceProvider,
                                     final Validator validator,
+                                    final ExtensionSearchIndex extensionSearchIndex,
+                                    final ExtensionRepoTree extensionRepoTree,
+                                    final BundleDependencyIndex bundleDependencyIndex,
+                                    final RegistryMetrics registryMetrics,
                                     final NiFiRegistryProperties properties) {
         this.extensionSerializer = extensionSerializer;
         this.extensionDocWriter = extensionDocWriter;
+        this.extensionDocsCache = extensionDocsCache;
         this.metadataService = metadataService;
         this.extractors = extractors;
         this.bundlePersistenceProvider = bundlePersistenceProvider;
         this.validator = validator;
+        this.extensionSearchIndex = extensionSearchIndex;
+        this.extensionRepoTree = extensionRepoTree;
+        this.bundleDependencyIndex = bundleDependencyIndex;
+        this.registryMetrics = registryMetrics;
         this.extensionsWorkingDir = properties.getExtensionsWorkingDirectory();
         Validate.notNull(this.extensionSerializer);
+        Validate.notNull(this.extensionDocsCache);
         Validate.notNull(this.metadataService);
         Validate.notNull(this.extractors);
         Validate.notNull(this.bundlePersistenceProvider);
         Validate.notNull(this.validator);
+        Validate.notNull(this.extensionSearchIndex);
+        Validate.notNull(this.extensionRepoTree);
+        Validate.notNull(this.bundleDependencyIndex);
+        Validate.notNull(this.registryMetrics);
         Validate.notNull(this.extensionsWorkingDir);
     }
 
@@ -170,11 +195,28 @@ public class StandardExtensionService implements ExtensionService {
         LOGGER.debug("Writing bundle contents to working directory at {}", new Object[]{extensionWorkingFile.getAbsolutePath()});
 
         try {
-            // write the contents of the input stream to a temporary file in the extensions working directory
+            // write the bundle to the working directory while computing its SHA-256, and extract its details at the same time
+            // unless the extractor can read just the parts it needs from the working file, so the upload is only read once
             final MessageDigest sha256Digest = DigestUtils.getSha256Digest();
-            try (final DigestInputStream digestInputStream = new DigestInputStream(inputStream, sha256Digest);
-                 final OutputStream out = new FileOutputStream(extensionWorkingFile)) {
-                IOUtils.copy(digestInputStream, out);
+            final BundleExtractor extractor = extractors.get(bundleType);
+            final boolean extractFromFile = extractor.supportsRandomAccess();
+
+            BundleDetails extractedDetails = null;
+            Exception extractionFailure = null;
+            try (final InputStream bufferedInputStream = new BufferedInputStream(inputStream);
+                 final OutputStream out = new BufferedOutputStream(new FileOutputStream(extensionWorkingFile))) {
+                final SpoolingDigestInputStream spoolingInputStream = new SpoolingDigestInputStream(bufferedInputStream, sha256Digest, out);
+                if (!extractFromFile) {
+                    try {
+                        extractedDetails = extractor.extract(spoolingInputStream);
+                    } catch (final Exception e) {
+                        // hold on to the failure so a SHA-256 mismatch is still reported first, since a truncated upload will usually fail extraction too
+                        extractionFailure = e;
+                    }
+                }
+
+                // read whatever the extractor did not, which is all of it when extracting from the file, to complete the working file and the SHA-256
+                spoolingInputStream.drain();
             }
 
             // get the hex of the SHA-256 computed by the server and compare to the client provided SHA-256, if one was provided
@@ -185,13 +227,13 @@ public class StandardExtensionService implements ExtensionService {
                 throw new IllegalStateException("The SHA-256 of the received extension bundle does not match the SHA-256 provided by the client");
             }
 
-            // extract the details of the bundle from the temp file in the working directory
-            final BundleDetails bundleDetails;
-            try (final InputStream in = new FileInputStream(extensionWorkingFile)) {
-                final BundleExtractor extractor = extractors.get(bundleType);
-                bundleDetails = extractor.extract(in);
+            if (extractionFailure instanceof IOException) {
+                throw (IOException) extractionFailure;
+            } else if (extractionFailure != null) {
+                throw (RuntimeException) extractionFailure;
             }
 
+            final BundleDetails bundleDetails = extractFromFile ? extractor.extract(extensionWorkingFile) : extractedDetails;
             final BundleIdentifier bundleIdentifier = bundleDetails.getBundleIdentifier();
             final BuildInfo buildInfo = bundleDetails.getBuildInfo();
 
@@ -225,6 +267,10 @@ public class StandardExtensionService implements ExtensionService {
                 if (overwriteBundleVersion) {
                     LOGGER.debug("Bundle overwriting allowed, deleting existing version...");
                     metadataService.deleteBundleVersion(existingVersion);
+                    extensionSearchIndex.removeBundleVersion(existingVersion.getId());
+                    extensionRepoTree.removeBundleVersion(bucketIdentifier, groupId, artifactId, version);
+                    bundleDependencyIndex.removeBundleVersion(existingVersion.getId());
+                    extensionDocsCache.removeBundleVersion(existingVersion.getId());
                 } else {
                     LOGGER.warn("The specified version [{}] already exists for extension bundle [{}].", new Object[]{version, bundleEntity.getId()});
                     throw new IllegalStateException("The specified version already exists for the given extension bundle");
@@ -254,11 +300,26 @@ public class StandardExtensionService implements ExtensionService {
 
             // create and persist the version dependencies in the metadata db
             final Set<BundleVersionDependencyEntity> dependencyEntities = getDependencyEntities(versionEntity, bundleDetails);
-            dependencyEntities.forEach(d -> metadataService.createDependency(d));
+            metadataService.createDependencies(dependencyEntities);
+            bundleDependencyIndex.addBundleVersion(versionEntity, bundleEntity, dependencyEntities);
 
             // create and persist extensions in the metadata db
             final Set<ExtensionEntity> extensionEntities = getExtensionEntities(versionEntity, bundleDetails);
-            extensionEntities.forEach(e -> metadataService.createExtension(e));
+            metadataService.createExtensions(extensionEntities);
+
+            // make the extensions searchable, populating the bundle and bucket fields that would normally come from a join
+            extensionEntities.forEach(e -> {
+                e.setBucketId(existingBucket.getId());
+                e.setBucketName(existingBucket.getName());
+                e.setBundleId(bundleEntity.getId());
+                e.setGroupId(groupId);
+                e.setArtifactId(artifactId);
+                e.setBundleType(bundleType);
+                e.setVersion(version);
+                e.setSystemApiVersion(versionEntity.getSystemApiVersion());
+            });
+            extensionSearchIndex.addExtensions(extensionEntities);
+            extensionRepoTree.addBundleVersion(bucketIdentifier, groupId, artifactId, version, userIdentity, currentTime);
 
             // persist the content of the bundle to the persistence provider
             persistBundleVersionContent(bundleType, bundleEntity, versionEntity, extensionWorkingFile, overwriteBundleVersion);
@@ -392,6 +453,7 @@ public class StandardExtensionService implements ExtensionService {
                 .artifactId(bundle.getArtifactId())
                 .version(bundleVersion.getVersion())
                 .type(getProviderBundleType(bundleType))
+                .sha256(bundleVersion.getSha256Hex())
                 .build();
 
         final BundlePersistenceContext context = new StandardBundlePersistenceContext.Builder()
@@ -404,10 +466,10 @@ public class StandardExtensionService implements ExtensionService {
         try (final InputStream in = new FileInputStream(extensionWorkingFile);
              final InputStream bufIn = new BufferedInputStream(in)) {
             if (overwriteBundleVersion) {
-                bundlePersistenceProvider.updateBundleVersion(context, bufIn);
+                registryMetrics.timeBundlePersistence("update", () -> bundlePersistenceProvider.updateBundleVersion(context, bufIn));
                 LOGGER.debug("Bundle version updated in persistence provider - {}", new Object[]{versionCoordinate.toString()});
             } else {
-                bundlePersistenceProvider.createBundleVersion(context, bufIn);
+                registryMetrics.timeBundlePersistence("create", () -> bundlePersistenceProvider.createBundleVersion(context, bufIn));
                 LOGGER.debug("Bundle version created in persistence provider - {}", new Object[]{versionCoordinate.toString()});
             }
         }
@@ -465,6 +527,10 @@ public class StandardExtensionService implements ExtensionService {
 
         // delete the bundle from the database
         metadataService.deleteBundle(bundle.getIdentifier());
+        extensionSearchIndex.removeBundle(bundle.getIdentifier());
+        extensionRepoTree.removeBundle(bundle.getBucketIdentifier(), bundle.getGroupId(), bundle.getArtifactId());
+        bundleDependencyIndex.removeBundle(bundle.getIdentifier());
+        extensionDocsCache.removeBundle(bundle.getIdentifier());
 
         // delete all content associated with the bundle in the persistence provider
         final BundleCoordinate bundleCoordinate = new StandardBundleCoordinate.Builder()
@@ -473,7 +539,7 @@ public class StandardExtensionService implements ExtensionService {
                 .artifactId(bundle.getArtifactId())
                 .build();
 
-        bundlePersistenceProvider.deleteAllBundleVersions(bundleCoordinate);
+        registryMetrics.timeBundlePersistence("deleteAll", () -> bundlePersistenceProvider.deleteAllBundleVersions(bundleCoordinate));
 
         return bundle;
     }
@@ -618,7 +684,7 @@ public class StandardExtensionService implements ExtensionService {
     public void writeBundleVersionContent(final BundleVersion bundleVersion, final OutputStream out) {
         // get the content from the persistence provider and write it to the output stream
         final BundleVersionCoordinate versionCoordinate = getVersionCoordinate(bundleVersion);
-        bundlePersistenceProvider.getBundleVersionContent(versionCoordinate, out);
+        registryMetrics.timeBundlePersistence("get", () -> bundlePersistenceProvider.getBundleVersionContent(versionCoordinate, out));
     }
 
     @Override
@@ -630,14 +696,33 @@ public class StandardExtensionService implements ExtensionService {
         // delete from the metadata db
         final String extensionBundleVersionId = bundleVersion.getVersionMetadata().getId();
         metadataService.deleteBundleVersion(extensionBundleVersionId);
+        extensionSearchIndex.removeBundleVersion(extensionBundleVersionId);
+        bundleDependencyIndex.removeBundleVersion(extensionBundleVersionId);
+        extensionDocsCache.removeBundleVersion(extensionBundleVersionId);
 
-        // delete content associated with the bundle version in the persistence provider
         final BundleVersionCoordinate versionCoordinate = getVersionCoordinate(bundleVersion);
-        bundlePersistenceProvider.deleteBundleVersion(versionCoordinate);
+        extensionRepoTree.removeBundleVersion(versionCoordinate.getBucketId(), versionCoordinate.getGroupId(),
+                versionCoordinate.getArtifactId(), versionCoordinate.getVersion());
+
+        // delete content associated with the bundle version in the persistence provider
+        registryMetrics.timeBundlePersistence("delete", () -> bundlePersistenceProvider.deleteBundleVersion(versionCoordinate));
 
         return bundleVersion;
     }
 
+    @Override
+    public BundleVersionDependencyGraph getBundleVersionDependencyGraph(final BundleVersion bundleVersion, final Set<String> bucketIdentifiers) {
+        if (bundleVersion == null) {
+            throw new IllegalArgumentException("Extension bundle version cannot be null");
+        }
+
+        if (bucketIdentifiers == null) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null");
+        }
+
+        return bundleDependencyIndex.resolve(bundleVersion.getVersionMetadata().getId(), bucketIdentifiers);
+    }
+
     // ------ Extension Methods ----
 
     @Override
@@ -670,6 +755,33 @@ public class StandardExtensionService implements ExtensionService {
         return getExtensionMetadata(extensionEntities);
     }
 
+    @Override
+    public ExtensionSearchResults searchExtensions(final Set<String> bucketIdentifiers, final String query,
+                                                   final ExtensionFilterParams filterParams, final int maxResults) {
+        if (bucketIdentifiers == null) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null");
+        }
+
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("Max results cannot be negative");
+        }
+
+        final ExtensionSearchResults results = extensionSearchIndex.search(query, bucketIdentifiers, filterParams, maxResults);
+
+        // the index holds the bucket name from when the extension was indexed, so use the current names in case a bucket was renamed
+        final Set<String> resultBucketIds = results.getExtensions().stream()
+                .map(e -> e.getBundleInfo().getBucketId())
+                .collect(Collectors.toSet());
+        if (!resultBucketIds.isEmpty()) {
+            final Map<String, String> bucketNames = metadataService.getBuckets(resultBucketIds).stream()
+                    .collect(Collectors.toMap(BucketEntity::getId, BucketEntity::getName));
+            results.getExtensions().forEach(e -> e.getBundleInfo().setBucketName(
+                    bucketNames.getOrDefault(e.getBundleInfo().getBucketId(), e.getBundleInfo().getBucketName())));
+        }
+
+        return results;
+    }
+
     private SortedSet<ExtensionMetadata> getExtensionMetadata(List<ExtensionEntity> extensionEntities) {
         // map to extension metadata and sort by extension name
         final SortedSet<ExtensionMetadata> extensions = new TreeSet<>();
@@ -737,8 +849,7 @@ public class StandardExtensionService implements ExtensionService {
     }
 
     @Override
-    public void writeExtensionDocs(final BundleVersion bundleVersion, final String name, final OutputStream outputStream)
-            throws IOException {
+    public ExtensionDocs getExtensionDocs(final BundleVersion bundleVersion, final String name) throws IOException {
         if (bundleVersion == null) {
             throw new IllegalArgumentException("Bundle version cannot be null");
         }
@@ -751,24 +862,23 @@ public class StandardExtensionService implements ExtensionService {
             throw new IllegalArgumentException("Extension name cannot be null or blank");
         }
 
-        if (outputStream == null) {
-            throw new IllegalArgumentException("Output stream cannot be null");
-        }
-
-        final ExtensionEntity entity = metadataService.getExtensionByName(bundleVersion.getVersionMetadata().getId(), name);
-        if (entity == null) {
-            LOGGER.warn("The specified extension [{}] does not exist in the specified bundle version [{}].",
-                    new Object[]{name, bundleVersion.getVersionMetadata().getId()});
-            throw new ResourceNotFoundException("The specified extension does not exist in this registry.");
-        }
+        final String bundleVersionId = bundleVersion.getVersionMetadata().getId();
+        return extensionDocsCache.get(bundleVersion.getVersionMetadata(), name, false, outputStream -> {
+            final ExtensionEntity entity = metadataService.getExtensionByName(bundleVersionId, name);
+            if (entity == null) {
+                LOGGER.warn("The specified extension [{}] does not exist in the specified bundle version [{}].",
+                        new Object[]{name, bundleVersionId});
+                throw new ResourceNotFoundException("The specified extension does not exist in this registry.");
+            }
 
-        final ExtensionMetadata extensionMetadata = ExtensionMappings.mapToMetadata(entity, extensionSerializer);
-        final Extension extension = ExtensionMappings.map(entity, extensionSerializer);
-        extensionDocWriter.write(extensionMetadata, extension, outputStream);
+            final Extension extension = ExtensionMappings.map(entity, extensionSerializer);
+            final ExtensionMetadata extensionMetadata = ExtensionMappings.mapToMetadata(entity, extension);
+            extensionDocWriter.write(extensionMetadata, extension, outputStream);
+        });
     }
 
     @Override
-    public void writeAdditionalDetailsDocs(final BundleVersion bundleVersion, final String name, final OutputStream outputStream) throws IOException {
+    public ExtensionDocs getAdditionalDetailsDocs(final BundleVersion bundleVersion, final String name) throws IOException {
         if (bundleVersion == null) {
             throw new IllegalArgumentException("Bundle version cannot be null");
         }
@@ -781,32 +891,30 @@ public class StandardExtensionService implements ExtensionService {
             throw new IllegalArgumentException("Extension name cannot be null or blank");
         }
 
-        if (outputStream == null) {
-            throw new IllegalArgumentException("Output stream cannot be null");
-        }
-
-        final ExtensionAdditionalDetailsEntity additionalDetailsEntity = metadataService.getExtensionAdditionalDetails(
-                bundleVersion.getVersionMetadata().getId(), name);
+        final String bundleVersionId = bundleVersion.getVersionMetadata().getId();
+        return extensionDocsCache.get(bundleVersion.getVersionMetadata(), name, true, outputStream -> {
+            final ExtensionAdditionalDetailsEntity additionalDetailsEntity = metadataService.getExtensionAdditionalDetails(bundleVersionId, name);
 
-        if (additionalDetailsEntity == null) {
-            LOGGER.warn("The specified extension [{}] does not exist in the specified bundle version [{}].",
-                    new Object[]{name, bundleVersion.getVersionMetadata().getId()});
-            throw new ResourceNotFoundException("The specified extension does not exist in this registry.");
-        }
+            if (additionalDetailsEntity == null) {
+                LOGGER.warn("The specified extension [{}] does not exist in the specified bundle version [{}].",
+                        new Object[]{name, bundleVersionId});
+                throw new ResourceNotFoundException("The specified extension does not exist in this registry.");
+            }
 
-        if (!additionalDetailsEntity.getAdditionalDetails().isPresent()) {
-            LOGGER.warn("The specified extension [{}] does not have additional details in the specified bundle version [{}].",
-                    new Object[]{name, bundleVersion.getVersionMetadata().getId()});
-            throw new IllegalStateException("The specified extension does not have additional details.");
-        }
+            if (!additionalDetailsEntity.getAdditionalDetails().isPresent()) {
+                LOGGER.warn("The specified extension [{}] does not have additional details in the specified bundle version [{}].",
+                        new Object[]{name, bundleVersionId});
+                throw new IllegalStateException("The specified extension does not have additional details.");
+            }
 
-        final String additionalDetailsContent = additionalDetailsEntity.getAdditionalDetails().get();
+            final String additionalDetailsContent = additionalDetailsEntity.getAdditionalDetails().get();
 
-        // The additional details content may have come from NiFi which has a different path to the css so we need to fix the location
-        final String componentUsageCssRef = DocumentationConstants.CSS_PATH + "component-usage.css";
-        final String updatedContent = additionalDetailsContent.replace("../../../../../css/component-usage.css", componentUsageCssRef);
+            // The additional details content may have come from NiFi which has a different path to the css so we need to fix the location
+            final String componentUsageCssRef = DocumentationConstants.CSS_PATH + "component-usage.css";
+            final String updatedContent = additionalDetailsContent.replace("../../../../../css/component-usage.css", componentUsageCssRef);
 
-        IOUtils.write(updatedContent, outputStream, StandardCharsets.UTF_8);
+            IOUtils.write(updatedContent, outputStream, StandardCharsets.UTF_8);
+        });
     }
 
     @Override
@@ -828,16 +936,7 @@ public class StandardExtensionService implements ExtensionService {
             return new TreeSet<>();
         }
 
-        final SortedSet<ExtensionRepoBucket> repoBuckets = new TreeSet<>();
-
-        final List<BucketEntity> buckets = metadataService.getBuckets(bucketIds);
-        buckets.forEach(b -> {
-            final ExtensionRepoBucket repoBucket = new ExtensionRepoBucket();
-            repoBucket.setBucketName(b.getName());
-            repoBuckets.add(repoBucket);
-        });
-
-        return repoBuckets;
+        return extensionRepoTree.getBuckets(bucketIds);
     }
 
     @Override
@@ -846,17 +945,7 @@ public class StandardExtensionService implements ExtensionService {
             throw new IllegalArgumentException("Bucket cannot be null");
         }
 
-        final SortedSet<ExtensionRepoGroup> repoGroups = new TreeSet<>();
-
-        final List<BundleEntity> bundleEntities = metadataService.getBundlesByBucket(bucket.getIdentifier());
-        bundleEntities.forEach(b -> {
-            final ExtensionRepoGroup repoGroup = new ExtensionRepoGroup();
-            repoGroup.setBucketName(bucket.getName());
-            repoGroup.setGroupId(b.getGroupId());
-            repoGroups.add(repoGroup);
-        });
-
-        return repoGroups;
+        return extensionRepoTree.getGroups(bucket);
     }
 
     @Override
@@ -869,18 +958,7 @@ public class StandardExtensionService implements ExtensionService {
             throw new IllegalArgumentException("Group id cannot be null or blank");
         }
 
-        final SortedSet<ExtensionRepoArtifact> repoArtifacts = new TreeSet<>();
-
-        final List<BundleEntity> bundleEntities = metadataService.getBundlesByBucketAndGroup(bucket.getIdentifier(), groupId);
-        bundleEntities.forEach(b -> {
-            final ExtensionRepoArtifact repoArtifact = new ExtensionRepoArtifact();
-            repoArtifact.setBucketName(bucket.getName());
-            repoArtifact.setGroupId(b.getGroupId());
-            repoArtifact.setArtifactId(b.getArtifactId());
-            repoArtifacts.add(repoArtifact);
-        });
-
-        return repoArtifacts;
+        return extensionRepoTree.getArtifacts(bucket, groupId);
     }
 
     @Override
@@ -897,29 +975,7 @@ public class StandardExtensionService implements ExtensionService {
             throw new IllegalArgumentException("Artifact id cannot be null or blank");
         }
 
-        final SortedSet<ExtensionRepoVersionSummary> repoVersions = new TreeSet<>();
-
-        final List<BundleVersionEntity> versionEntities = metadataService.getBundleVersions(bucket.getIdentifier(), groupId, artifactId);
-        if (!versionEntities.isEmpty()) {
-            final BundleEntity bundleEntity = metadataService.getBundle(bucket.getIdentifier(), groupId, artifactId);
-            if (bundleEntity == null) {
-                // should never happen if the list of versions is not empty, but just in case
-                throw new ResourceNotFoundException("The specified extension bundle does not exist in this bucket");
-            }
-
-            versionEntities.forEach(v -> {
-                final ExtensionRepoVersionSummary repoVersion = new ExtensionRepoVersionSummary();
-                repoVersion.setBucketName(bucket.getName());
-                repoVersion.setGroupId(bundleEntity.getGroupId());
-                repoVersion.setArtifactId(bundleEntity.getArtifactId());
-                repoVersion.setVersion(v.getVersion());
-                repoVersion.setAuthor(v.getCreatedBy());
-                repoVersion.setTimestamp(v.getCreated().getTime());
-                repoVersions.add(repoVersion);
-            });
-        }
-
-        return repoVersions;
+        return extensionRepoTree.getVersions(bucket, groupId, artifactId);
     }
 
     // ------ Helper Methods -------
@@ -935,6 +991,7 @@ public class StandardExtensionService implements ExtensionService {
                 .artifactId(bundle.getArtifactId())
                 .version(bundleVersionMetadata.getVersion())
                 .type(getProviderBundleType(bundle.getBundleType()))
+                .sha256(bundleVersionMetadata.getSha256())
                 .build();
 
         return versionCoordinate;
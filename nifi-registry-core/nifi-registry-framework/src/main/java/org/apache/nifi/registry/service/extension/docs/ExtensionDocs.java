@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension.docs;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered documentation for an extension, held gzip compressed and identified by the SHA-256 digest of its
+ * uncompressed content.
+ */
+public class ExtensionDocs {
+
+    private final String eTag;
+    private final byte[] compressedContent;
+
+    private ExtensionDocs(final String eTag, final byte[] compressedContent) {
+        this.eTag = eTag;
+        this.compressedContent = compressedContent;
+    }
+
+    /**
+     * Renders documentation with the given writer.
+     *
+     * @param writer the writer that produces the uncompressed documentation
+     * @return the rendered documentation
+     * @throws IOException if the writer fails
+     */
+    public static ExtensionDocs render(final Writer writer) throws IOException {
+        final MessageDigest sha256Digest = DigestUtils.getSha256Digest();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        try (final DigestOutputStream out = new DigestOutputStream(new GZIPOutputStream(compressed), sha256Digest)) {
+            writer.write(out);
+        }
+
+        return new ExtensionDocs(Hex.encodeHexString(sha256Digest.digest()), compressed.toByteArray());
+    }
+
+    /**
+     * @return the hex encoded SHA-256 digest of the uncompressed documentation, suitable for use as an entity tag
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return the size in bytes of the compressed documentation
+     */
+    public int getCompressedSize() {
+        return compressedContent.length;
+    }
+
+    /**
+     * @param out the stream to write the uncompressed documentation to
+     * @throws IOException if the documentation cannot be written
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        try (final InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressedContent))) {
+            IOUtils.copy(in, out);
+        }
+    }
+
+    /**
+     * @param out the stream to write the gzip compressed documentation to
+     * @throws IOException if the documentation cannot be written
+     */
+    public void writeCompressedTo(final OutputStream out) throws IOException {
+        out.write(compressedContent);
+    }
+
+    /**
+     * Writes uncompressed documentation to a stream.
+     */
+    public interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+}
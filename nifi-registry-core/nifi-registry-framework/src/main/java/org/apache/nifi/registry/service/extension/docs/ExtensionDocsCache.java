@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension.docs;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.util.DataUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A bounded, in-memory store of rendered extension documentation.
+ *
+ * The documentation of an extension never changes for a given bundle version, so it is rendered on the first request
+ * and then served from the store until it is evicted. Documentation is stored compressed and content-addressed by its
+ * SHA-256 digest, so identical documentation for the same extension in several bundle versions is only held once.
+ * Once the compressed size of the stored documentation exceeds the configured maximum, the least recently requested
+ * documentation is evicted.
+ */
+@Component
+public class ExtensionDocsCache {
+
+    private final long maxSize;
+
+    // access ordered so that iteration starts with the least recently requested docs
+    private final Map<DocsKey, ExtensionDocs> docsByKey = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, StoredDocs> docsByETag = new HashMap<>();
+    private long size;
+
+    @Autowired
+    public ExtensionDocsCache(final NiFiRegistryProperties properties) {
+        this(parseMaxSize(properties.getExtensionDocsCacheSize()));
+    }
+
+    ExtensionDocsCache(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    private static long parseMaxSize(final String maxSize) {
+        final String value = StringUtils.isBlank(maxSize) ? NiFiRegistryProperties.DEFAULT_EXTENSION_DOCS_CACHE_SIZE : maxSize.trim();
+        try {
+            return DataUnit.parseDataSize(value, DataUnit.B).longValue();
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("The property " + NiFiRegistryProperties.EXTENSION_DOCS_CACHE_SIZE
+                    + " must be a data size such as '64 MB'", e);
+        }
+    }
+
+    /**
+     * Returns the stored documentation for the given extension, rendering and storing it first if necessary.
+     *
+     * @param versionMetadata the metadata of the bundle version containing the extension
+     * @param extensionName the name of the extension
+     * @param additionalDetails whether this is the additional details documentation rather than the generated documentation
+     * @param writer the writer used to render the documentation if it is not already stored
+     * @return the documentation
+     * @throws IOException if the documentation has to be rendered and rendering fails
+     */
+    public ExtensionDocs get(final BundleVersionMetadata versionMetadata, final String extensionName, final boolean additionalDetails,
+                             final ExtensionDocs.Writer writer) throws IOException {
+        final DocsKey key = new DocsKey(versionMetadata, extensionName, additionalDetails);
+        synchronized (this) {
+            final ExtensionDocs docs = docsByKey.get(key);
+            if (docs != null) {
+                return docs;
+            }
+        }
+
+        // render outside of the lock, if two requests race the second to finish uses the docs stored by the first
+        final ExtensionDocs renderedDocs = ExtensionDocs.render(writer);
+        if (maxSize <= 0) {
+            return renderedDocs;
+        }
+
+        synchronized (this) {
+            return store(key, renderedDocs);
+        }
+    }
+
+    /**
+     * Removes the documentation of every extension in the given bundle version from the store.
+     *
+     * @param bundleVersionId the id of the bundle version
+     */
+    public synchronized void removeBundleVersion(final String bundleVersionId) {
+        remove(key -> key.bundleVersionId.equals(bundleVersionId));
+    }
+
+    /**
+     * Removes the documentation of every extension in every version of the given bundle from the store.
+     *
+     * @param bundleId the id of the bundle
+     */
+    public synchronized void removeBundle(final String bundleId) {
+        remove(key -> bundleId.equals(key.bundleId));
+    }
+
+    /**
+     * Removes the documentation of every extension in every bundle of the given bucket from the store.
+     *
+     * @param bucketId the id of the bucket
+     */
+    public synchronized void removeBucket(final String bucketId) {
+        remove(key -> bucketId.equals(key.bucketId));
+    }
+
+    /**
+     * @return the compressed size in bytes of the stored documentation
+     */
+    synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of distinct documents in the store
+     */
+    synchronized int getStoredCount() {
+        return docsByETag.size();
+    }
+
+    // must be called while synchronized
+    private ExtensionDocs store(final DocsKey key, final ExtensionDocs renderedDocs) {
+        final ExtensionDocs existingDocs = docsByKey.get(key);
+        if (existingDocs != null) {
+            return existingDocs;
+        }
+
+        StoredDocs storedDocs = docsByETag.get(renderedDocs.getETag());
+        if (storedDocs == null) {
+            storedDocs = new StoredDocs(renderedDocs);
+            docsByETag.put(renderedDocs.getETag(), storedDocs);
+            size += renderedDocs.getCompressedSize();
+        }
+        storedDocs.references++;
+        docsByKey.put(key, storedDocs.docs);
+
+        // evict the least recently requested docs, but always keep the docs that were just stored
+        final Iterator<Map.Entry<DocsKey, ExtensionDocs>> iterator = docsByKey.entrySet().iterator();
+        while (size > maxSize && docsByKey.size() > 1) {
+            final Map.Entry<DocsKey, ExtensionDocs> eldest = iterator.next();
+            iterator.remove();
+            release(eldest.getValue());
+        }
+
+        return storedDocs.docs;
+    }
+
+    // must be called while synchronized
+    private void remove(final Predicate<DocsKey> predicate) {
+        final Iterator<Map.Entry<DocsKey, ExtensionDocs>> iterator = docsByKey.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<DocsKey, ExtensionDocs> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                iterator.remove();
+                release(entry.getValue());
+            }
+        }
+    }
+
+    // must be called while synchronized
+    private void release(final ExtensionDocs docs) {
+        final StoredDocs storedDocs = docsByETag.get(docs.getETag());
+        if (storedDocs != null && --storedDocs.references == 0) {
+            docsByETag.remove(docs.getETag());
+            size -= docs.getCompressedSize();
+        }
+    }
+
+    private static class StoredDocs {
+        private final ExtensionDocs docs;
+        private int references;
+
+        StoredDocs(final ExtensionDocs docs) {
+            this.docs = docs;
+        }
+    }
+
+    // the bucket and bundle ids are only kept for removal, a bundle version id already identifies them
+    private static class DocsKey {
+        private final String bucketId;
+        private final String bundleId;
+        private final String bundleVersionId;
+        private final String extensionName;
+        private final boolean additionalDetails;
+
+        DocsKey(final BundleVersionMetadata versionMetadata, final String extensionName, final boolean additionalDetails) {
+            this.bucketId = versionMetadata.getBucketId();
+            this.bundleId = versionMetadata.getBundleId();
+            this.bundleVersionId = versionMetadata.getId();
+            this.extensionName = extensionName;
+            this.additionalDetails = additionalDetails;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bundleVersionId, extensionName, additionalDetails);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof DocsKey)) {
+                return false;
+            }
+
+            final DocsKey other = (DocsKey) obj;
+            return bundleVersionId.equals(other.bundleVersionId)
+                    && extensionName.equals(other.extensionName)
+                    && additionalDetails == other.additionalDetails;
+        }
+    }
+
+}
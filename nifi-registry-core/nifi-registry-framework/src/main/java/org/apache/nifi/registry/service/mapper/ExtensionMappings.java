@@ -170,13 +170,8 @@ public class ExtensionMappings {
     // -- Map Extension
 
     public static ExtensionEntity map(final Extension extension, final Serializer<Extension> extensionSerializer) {
-        final String extensionContent;
-        try (final ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            extensionSerializer.serialize(extension, out);
-            extensionContent = new String(out.toByteArray(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new SerializationException("Unable to serialize extension", e);
-        }
+        final String extensionContent = serialize(extension, extensionSerializer);
+        final String extensionMetadata = serialize(mapToMetadataExtension(extension), extensionSerializer);
 
         final ExtensionEntity entity = new ExtensionEntity();
         entity.setName(extension.getName());
@@ -197,6 +192,7 @@ public class ExtensionMappings {
 
         entity.setExtensionType(extension.getType());
         entity.setContent(extensionContent);
+        entity.setMetadata(extensionMetadata);
 
         if (extension.getTags() != null) {
             entity.setTags(extension.getTags().stream().collect(Collectors.toSet()));
@@ -224,7 +220,20 @@ public class ExtensionMappings {
     }
 
     public static Extension map(final ExtensionEntity entity, final Serializer<Extension> extensionSerializer) {
-        final byte[] content = entity.getContent().getBytes(StandardCharsets.UTF_8);
+        return deserialize(entity.getContent(), extensionSerializer);
+    }
+
+    private static String serialize(final Extension extension, final Serializer<Extension> extensionSerializer) {
+        try (final ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            extensionSerializer.serialize(extension, out);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to serialize extension", e);
+        }
+    }
+
+    private static Extension deserialize(final String serializedExtension, final Serializer<Extension> extensionSerializer) {
+        final byte[] content = serializedExtension.getBytes(StandardCharsets.UTF_8);
         try (final ByteArrayInputStream input = new ByteArrayInputStream(content)) {
             return extensionSerializer.deserialize(input);
         } catch (IOException e) {
@@ -234,9 +243,44 @@ public class ExtensionMappings {
 
     // -- Map ExtensionMetadata
 
+    /**
+     * Creates a copy of the given extension containing only the fields needed to produce {@link ExtensionMetadata}.
+     *
+     * @param extension the full extension
+     * @return the extension with only the metadata fields populated
+     */
+    public static Extension mapToMetadataExtension(final Extension extension) {
+        final Extension metadataExtension = new Extension();
+        metadataExtension.setName(extension.getName());
+        metadataExtension.setType(extension.getType());
+        metadataExtension.setDescription(extension.getDescription());
+        metadataExtension.setDeprecationNotice(extension.getDeprecationNotice());
+        metadataExtension.setRestricted(extension.getRestricted());
+        metadataExtension.setProvidedServiceAPIs(extension.getProvidedServiceAPIs());
+        metadataExtension.setTags(extension.getTags());
+        return metadataExtension;
+    }
+
+    /**
+     * Produces the serialized metadata of an extension from its serialized full content.
+     *
+     * @param content the serialized extension
+     * @param extensionSerializer the serializer
+     * @return the serialized metadata of the extension
+     */
+    public static String mapToMetadataContent(final String content, final Serializer<Extension> extensionSerializer) {
+        final Extension extension = deserialize(content, extensionSerializer);
+        return serialize(mapToMetadataExtension(extension), extensionSerializer);
+    }
+
     public static ExtensionMetadata mapToMetadata(final ExtensionEntity entity, final Serializer<Extension> extensionSerializer) {
-        final Extension extension = map(entity, extensionSerializer);
+        // extensions created before the metadata column existed only have the full content until they are backfilled
+        final String metadataContent = entity.getMetadata() != null ? entity.getMetadata() : entity.getContent();
+        final Extension extension = deserialize(metadataContent, extensionSerializer);
+        return mapToMetadata(entity, extension);
+    }
 
+    public static ExtensionMetadata mapToMetadata(final ExtensionEntity entity, final Extension extension) {
         final BundleInfo bundleInfo = new BundleInfo();
         bundleInfo.setBucketId(entity.getBucketId());
         bundleInfo.setBucketName(entity.getBucketName());
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports finished request traces to an OpenTelemetry collector using OTLP/HTTP with JSON encoding.
+ *
+ * Exporting is optional and disabled unless an endpoint is configured. Traces are sent one at a time from a background
+ * thread so that requests never wait for the collector, and traces are dropped when the collector cannot keep up.
+ */
+@Component
+public class OtlpTraceExporter implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OtlpTraceExporter.class);
+
+    static final String SERVICE_NAME = "nifi-registry";
+    static final String SCOPE_NAME = "org.apache.nifi.registry";
+    static final String LAYER_ATTRIBUTE = "nifi.registry.layer";
+
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+
+    private static final int MAX_QUEUED_TRACES = 1000;
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URL endpoint;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public OtlpTraceExporter(final NiFiRegistryProperties properties) {
+        this(properties.getWebTraceExporterEndpoint());
+    }
+
+    public OtlpTraceExporter(final String endpoint) {
+        if (StringUtils.isBlank(endpoint)) {
+            this.endpoint = null;
+            this.executor = null;
+            return;
+        }
+
+        try {
+            this.endpoint = new URL(endpoint.trim());
+        } catch (final MalformedURLException e) {
+            throw new IllegalStateException("The property " + NiFiRegistryProperties.WEB_TRACE_EXPORTER_ENDPOINT
+                    + " must be a URL such as 'http://localhost:4318/v1/traces'", e);
+        }
+
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_TRACES), runnable -> {
+            final Thread thread = new Thread(runnable, "Trace Exporter");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+        LOGGER.info("Exporting request traces to {}", this.endpoint);
+    }
+
+    public boolean isEnabled() {
+        return endpoint != null;
+    }
+
+    /**
+     * Queues the given finished trace to be sent to the collector.
+     *
+     * @param trace the trace
+     */
+    public void export(final RequestTrace trace) {
+        if (!isEnabled() || trace == null) {
+            return;
+        }
+        executor.execute(() -> send(trace));
+    }
+
+    private void send(final RequestTrace trace) {
+        try {
+            final byte[] payload = objectMapper.writeValueAsBytes(toOtlp(trace));
+
+            final HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(payload.length);
+
+            try (final OutputStream out = connection.getOutputStream()) {
+                out.write(payload);
+            }
+
+            final int status = connection.getResponseCode();
+            final InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (in != null) {
+                in.close();
+            }
+
+            if (status >= 400) {
+                LOGGER.warn("Collector at {} rejected trace {} with status {}", endpoint, trace.getTraceId(), status);
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to export trace {} to {} due to: {}", trace.getTraceId(), endpoint, e.getMessage());
+        }
+    }
+
+    /**
+     * @param trace a finished trace
+     * @return the ExportTraceServiceRequest for the trace in the OTLP JSON encoding
+     */
+    ObjectNode toOtlp(final RequestTrace trace) {
+        final ObjectNode request = objectMapper.createObjectNode();
+        final ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+
+        final ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        addAttribute(resourceAttributes, "service.name", SERVICE_NAME);
+
+        final ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", SCOPE_NAME);
+
+        final ArrayNode spans = scopeSpans.putArray("spans");
+        addSpan(trace, trace.getRoot(), spans);
+        return request;
+    }
+
+    private void addSpan(final RequestTrace trace, final Span span, final ArrayNode spans) {
+        final ObjectNode spanNode = spans.addObject();
+        spanNode.put("traceId", trace.getTraceId());
+        spanNode.put("spanId", span.getSpanId());
+
+        final String parentSpanId = span.getParent() == null ? trace.getRemoteParentSpanId() : span.getParent().getSpanId();
+        if (parentSpanId != null) {
+            spanNode.put("parentSpanId", parentSpanId);
+        }
+
+        spanNode.put("name", span.getName());
+        spanNode.put("kind", span.getParent() == null ? SPAN_KIND_SERVER : SPAN_KIND_INTERNAL);
+
+        // 64 bit integers are encoded as strings in the JSON encoding of protobuf
+        final long startNanos = trace.toEpochNanos(span.getStartNanos());
+        spanNode.put("startTimeUnixNano", String.valueOf(startNanos));
+        spanNode.put("endTimeUnixNano", String.valueOf(startNanos + span.getDurationNanos()));
+
+        final ArrayNode attributes = spanNode.putArray("attributes");
+        addAttribute(attributes, LAYER_ATTRIBUTE, span.getLayer());
+        for (final Map.Entry<String, String> attribute : span.getAttributes().entrySet()) {
+            addAttribute(attributes, attribute.getKey(), attribute.getValue());
+        }
+
+        for (final Span child : span.getChildren()) {
+            addSpan(trace, child, spans);
+        }
+    }
+
+    private static void addAttribute(final ArrayNode attributes, final String key, final String value) {
+        final ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        attribute.putObject("value").put("stringValue", value);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+}
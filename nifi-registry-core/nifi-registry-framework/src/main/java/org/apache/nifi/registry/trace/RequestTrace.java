@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A lightweight trace of a single request, made of a tree of spans rooted at the span of the request itself.
+ *
+ * The trace is bound to the thread handling the request, so layers add child spans with {@link #span(String, String)}
+ * without the trace being passed through every method. When no trace is active on the current thread, such as for
+ * background tasks, spans are not recorded.
+ */
+public class RequestTrace {
+
+    public static final String LAYER_REQUEST = "request";
+    public static final String LAYER_FACADE = "facade";
+    public static final String LAYER_SERVICE = "service";
+    public static final String LAYER_REVISION = "revision";
+    public static final String LAYER_METADATA = "metadata";
+    public static final String LAYER_AUTHORIZATION = "authorization";
+    public static final String LAYER_PROVIDER = "provider";
+    public static final String LAYER_SERIALIZATION = "serialization";
+    public static final String LAYER_RESPONSE = "response";
+
+    // W3C trace context, version-traceId-parentId-flags
+    private static final Pattern TRACE_PARENT_PATTERN = Pattern.compile("^00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}$");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final String remoteParentSpanId;
+    private final long startEpochNanos;
+    private final Span root;
+    private Span current;
+
+    private RequestTrace(final String name, final String traceParent) {
+        final String[] parent = parseTraceParent(traceParent);
+        this.traceId = parent == null ? randomHex(16) : parent[0];
+        this.remoteParentSpanId = parent == null ? null : parent[1];
+
+        final long startNanos = System.nanoTime();
+        this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        this.root = new Span(this, null, randomHex(8), LAYER_REQUEST, name, startNanos);
+        this.current = root;
+    }
+
+    /**
+     * Starts a trace for a request handled by the current thread, replacing any trace left on the thread.
+     *
+     * @param name the name of the request
+     * @param traceParent the W3C traceparent header of the request, or null
+     * @return the trace
+     */
+    public static RequestTrace start(final String name, final String traceParent) {
+        final RequestTrace trace = new RequestTrace(name, traceParent);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * @return the trace active on the current thread, or null
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Drops the trace active on the current thread without finishing it, for requests that are held open on purpose
+     * and would otherwise be reported as slow.
+     */
+    public static void discard() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Starts a span as a child of the innermost open span of the trace active on the current thread.
+     *
+     * @param layer the layer performing the operation
+     * @param name the name of the operation
+     * @return the span which must be closed when the operation completes
+     */
+    public static Span span(final String layer, final String name) {
+        final RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return Span.NOOP;
+        }
+        return trace.startSpan(layer, name);
+    }
+
+    private Span startSpan(final String layer, final String name) {
+        final Span span = new Span(this, current, randomHex(8), layer, name, System.nanoTime());
+        current.addChild(span);
+        current = span;
+        return span;
+    }
+
+    void endSpan(final Span span) {
+        if (span.isClosed()) {
+            return;
+        }
+
+        // open spans always form the path from the root to the current span, so closing a span also closes any of
+        // its children that were left open
+        final long endNanos = System.nanoTime();
+        while (current != null && current != span && current != root) {
+            current.end(endNanos);
+            current = current.getParent();
+        }
+
+        span.end(endNanos);
+        if (span != root && span.getParent() != null) {
+            current = span.getParent();
+        }
+    }
+
+    /**
+     * Closes the root span and unbinds the trace from the current thread.
+     */
+    public void finish() {
+        endSpan(root);
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * @return the span id of the caller when the request carried a traceparent header, otherwise null
+     */
+    public String getRemoteParentSpanId() {
+        return remoteParentSpanId;
+    }
+
+    public Span getRoot() {
+        return root;
+    }
+
+    public long getDurationNanos() {
+        return root.getDurationNanos();
+    }
+
+    /**
+     * @param nanos a value of System.nanoTime() taken during the trace
+     * @return the corresponding wall clock time in nanoseconds since the epoch
+     */
+    public long toEpochNanos(final long nanos) {
+        return startEpochNanos + (nanos - root.getStartNanos());
+    }
+
+    /**
+     * Returns the time spent in each layer, excluding the time spent in nested spans, in the order the layers were
+     * first entered. The durations of all layers add up to the duration of the trace.
+     *
+     * @return the duration in nanoseconds of each layer
+     */
+    public Map<String, Long> getLayerDurations() {
+        final Map<String, Long> layerDurations = new LinkedHashMap<>();
+        addLayerDurations(root, layerDurations);
+        return layerDurations;
+    }
+
+    private static void addLayerDurations(final Span span, final Map<String, Long> layerDurations) {
+        layerDurations.merge(span.getLayer(), span.getSelfDurationNanos(), Long::sum);
+        for (final Span child : span.getChildren()) {
+            addLayerDurations(child, layerDurations);
+        }
+    }
+
+    /**
+     * @return an indented description of the span tree for logging
+     */
+    public String describe() {
+        final StringBuilder builder = new StringBuilder();
+        describe(root, 0, builder);
+        return builder.toString();
+    }
+
+    private static void describe(final Span span, final int depth, final StringBuilder builder) {
+        builder.append(System.lineSeparator());
+        for (int i = 0; i < depth; i++) {
+            builder.append("    ");
+        }
+        builder.append(span.getLayer()).append(' ').append(span.getName())
+                .append(' ').append(formatMillis(span.getDurationNanos())).append(" ms");
+
+        for (final Span child : span.getChildren()) {
+            describe(child, depth + 1, builder);
+        }
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds
+     * @return the duration in milliseconds with one decimal place
+     */
+    public static String formatMillis(final long nanos) {
+        final long tenthsOfMillis = TimeUnit.NANOSECONDS.toMicros(nanos) / 100;
+        return (tenthsOfMillis / 10) + "." + (tenthsOfMillis % 10);
+    }
+
+    private static String[] parseTraceParent(final String traceParent) {
+        if (traceParent == null || !TRACE_PARENT_PATTERN.matcher(traceParent.trim()).matches()) {
+            return null;
+        }
+
+        final String[] fields = traceParent.trim().split("-");
+        if (INVALID_TRACE_ID.equals(fields[1]) || INVALID_SPAN_ID.equals(fields[2])) {
+            return null;
+        }
+        return new String[] {fields[1], fields[2]};
+    }
+
+    private static String randomHex(final int bytes) {
+        final StringBuilder builder = new StringBuilder(bytes * 2);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            final int value = random.nextInt(256);
+            builder.append(Character.forDigit(value >> 4, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+}
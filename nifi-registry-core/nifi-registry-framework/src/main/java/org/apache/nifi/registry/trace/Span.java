@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timed operation within a RequestTrace. Spans are closed with try-with-resources and form a tree under the root
+ * span of the trace, where the layer of each span identifies the part of the registry that performed the operation.
+ */
+public class Span implements AutoCloseable {
+
+    /**
+     * Returned when no trace is active on the current thread, closing it does nothing.
+     */
+    static final Span NOOP = new Span(null, null, null, null, null, 0);
+
+    private final RequestTrace trace;
+    private final Span parent;
+    private final String spanId;
+    private final String layer;
+    private final String name;
+    private final long startNanos;
+    private final List<Span> children = new ArrayList<>();
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private long endNanos = -1;
+
+    Span(final RequestTrace trace, final Span parent, final String spanId, final String layer, final String name, final long startNanos) {
+        this.trace = trace;
+        this.parent = parent;
+        this.spanId = spanId;
+        this.layer = layer;
+        this.name = name;
+        this.startNanos = startNanos;
+    }
+
+    public Span getParent() {
+        return parent;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public boolean isClosed() {
+        return endNanos >= 0;
+    }
+
+    /**
+     * @return the duration of this span, or the time elapsed so far if the span has not been closed
+     */
+    public long getDurationNanos() {
+        return (isClosed() ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * @return the duration of this span excluding the time spent in its children
+     */
+    public long getSelfDurationNanos() {
+        long selfNanos = getDurationNanos();
+        for (final Span child : children) {
+            selfNanos -= child.getDurationNanos();
+        }
+        return Math.max(selfNanos, 0);
+    }
+
+    public List<Span> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    public Span setAttribute(final String key, final String value) {
+        if (trace != null && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    void addChild(final Span child) {
+        children.add(child);
+    }
+
+    void end(final long endNanos) {
+        if (!isClosed()) {
+            this.endNanos = endNanos;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (trace != null) {
+            trace.endSpan(this);
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.trace;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Creates proxies that add a span for every call made through an interface while a trace is active.
+ */
+public final class TracingProxy {
+
+    private TracingProxy() {
+    }
+
+    /**
+     * @param type the interface to trace
+     * @param target the instance to delegate to
+     * @param layer the layer of the spans
+     * @param <T> the type of the interface
+     * @return a proxy implementing the interface
+     */
+    public static <T> T wrap(final Class<T> type, final T target, final String layer) {
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException(type.getName() + " is not an interface");
+        }
+
+        final String prefix = type.getSimpleName() + ".";
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (RequestTrace.current() == null || method.getDeclaringClass() == Object.class) {
+                        return invoke(target, method, args);
+                    }
+
+                    try (final Span span = RequestTrace.span(layer, prefix + method.getName())) {
+                        return invoke(target, method, args);
+                    }
+                }));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.db;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestConcurrencyLimitingDataSource {
+
+    private DataSource targetDataSource;
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @Before
+    public void setup() throws SQLException {
+        targetDataSource = mock(DataSource.class);
+        when(targetDataSource.getConnection()).then(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitingDataSource(targetDataSource, 2, 100);
+    }
+
+    @Test
+    public void testWaitsForConnectionToBeClosed() throws SQLException {
+        final Connection first = dataSource.getConnection();
+        final Connection second = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+
+        try {
+            dataSource.getConnection();
+            fail("Should have thrown SQLTransientConnectionException");
+        } catch (final SQLTransientConnectionException e) {
+            verify(targetDataSource, times(2)).getConnection();
+        }
+
+        first.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        final Connection third = dataSource.getConnection();
+        third.close();
+        second.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    public void testClosingTwiceReleasesOnce() throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    public void testFailedConnectionReleasesPermit() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("Pool is closed"));
+
+        try {
+            dataSource.getConnection();
+            fail("Should have thrown SQLException");
+        } catch (final SQLException e) {
+            assertEquals("Pool is closed", e.getMessage());
+        }
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.db;
+
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
+import org.apache.nifi.registry.extension.component.manifest.Property;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.serialization.ExtensionSerializer;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.flywaydb.core.Flyway;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test populating the metadata of existing extensions when the strategy runs against an already initialized database.
+ * Purposely not using Spring test annotations here to avoid interfering with the normal DB context/flyway.
+ */
+public class TestCustomFlywayMigrationStrategy {
+
+    private final Serializer<Extension> extensionSerializer = new ExtensionSerializer();
+
+    private JdbcTemplate jdbcTemplate;
+    private Flyway flyway;
+
+    @Before
+    public void setup() {
+        final DataSource dataSource = DataSourceBuilder.create()
+                .url("jdbc:h2:mem:" + UUID.randomUUID().toString())
+                .driverClassName("org.h2.Driver")
+                .build();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("db/migration/default")
+                .load();
+
+        flyway.migrate();
+
+        final Date created = new Date();
+        jdbcTemplate.update("INSERT INTO BUCKET (ID, NAME, CREATED) VALUES (?, ?, ?)", "b1", "Bucket 1", created);
+        jdbcTemplate.update("INSERT INTO BUCKET_ITEM (ID, NAME, CREATED, MODIFIED, ITEM_TYPE, BUCKET_ID) VALUES (?, ?, ?, ?, ?, ?)",
+                "eb1", "nifi-example-nar", created, created, "BUNDLE", "b1");
+        jdbcTemplate.update("INSERT INTO BUNDLE (ID, BUCKET_ID, BUNDLE_TYPE, GROUP_ID, ARTIFACT_ID) VALUES (?, ?, ?, ?, ?)",
+                "eb1", "b1", "NIFI_NAR", "org.apache.nifi", "nifi-example-nar");
+        jdbcTemplate.update("INSERT INTO BUNDLE_VERSION (ID, BUNDLE_ID, VERSION, CREATED, CREATED_BY, SHA_256_HEX, SHA_256_SUPPLIED, CONTENT_SIZE) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", "eb1-v1", "eb1", "1.0.0", created, "user1", "123456789", 1, 1024);
+    }
+
+    @Test(timeout = 30000)
+    public void testBackfillExtensionMetadata() {
+        // the undeserializable extension sorts first so that it ends up alone in the first batch
+        insertExtension("e1", "org.apache.nifi.BrokenProcessor", "not a serialized extension");
+        insertExtension("e2", "org.apache.nifi.ExampleProcessor", serialize(createExtension("org.apache.nifi.ExampleProcessor")));
+        insertExtension("e3", "org.apache.nifi.OtherProcessor", serialize(createExtension("org.apache.nifi.OtherProcessor")));
+
+        // a batch size of one would never get past e1 if extensions that failed were read again
+        final CustomFlywayMigrationStrategy strategy = new CustomFlywayMigrationStrategy(new NiFiRegistryProperties(), 1);
+        strategy.migrate(flyway);
+
+        assertNull(getMetadata("e1"));
+        assertMetadata("e2", "org.apache.nifi.ExampleProcessor");
+        assertMetadata("e3", "org.apache.nifi.OtherProcessor");
+    }
+
+    @Test
+    public void testBackfillExtensionMetadataLeavesExistingMetadata() {
+        insertExtension("e1", "org.apache.nifi.ExampleProcessor", serialize(createExtension("org.apache.nifi.ExampleProcessor")));
+        jdbcTemplate.update("UPDATE EXTENSION SET METADATA = ? WHERE ID = ?", "existing metadata", "e1");
+
+        final CustomFlywayMigrationStrategy strategy = new CustomFlywayMigrationStrategy(new NiFiRegistryProperties());
+        strategy.migrate(flyway);
+
+        assertEquals("existing metadata", getMetadata("e1"));
+    }
+
+    private void insertExtension(final String id, final String name, final String content) {
+        jdbcTemplate.update("INSERT INTO EXTENSION (ID, BUNDLE_VERSION_ID, NAME, DISPLAY_NAME, TYPE, CONTENT, HAS_ADDITIONAL_DETAILS) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", id, "eb1-v1", name, name.substring(name.lastIndexOf('.') + 1), "PROCESSOR", content, 0);
+    }
+
+    private String getMetadata(final String id) {
+        return jdbcTemplate.queryForObject("SELECT METADATA FROM EXTENSION WHERE ID = ?", String.class, id);
+    }
+
+    private void assertMetadata(final String id, final String name) {
+        final String metadata = getMetadata(id);
+        assertNotNull(metadata);
+
+        final Extension extension = extensionSerializer.deserialize(new ByteArrayInputStream(metadata.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(name, extension.getName());
+        assertEquals(ExtensionType.PROCESSOR, extension.getType());
+        assertEquals("Description of " + name, extension.getDescription());
+
+        // properties are only part of the full content
+        assertNull(extension.getProperties());
+    }
+
+    private Extension createExtension(final String name) {
+        final Property property = new Property();
+        property.setName("Example Property");
+
+        final Extension extension = new Extension();
+        extension.setName(name);
+        extension.setType(ExtensionType.PROCESSOR);
+        extension.setDescription("Description of " + name);
+        extension.setProperties(Collections.singletonList(property));
+        return extension;
+    }
+
+    private String serialize(final Extension extension) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        extensionSerializer.serialize(extension, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
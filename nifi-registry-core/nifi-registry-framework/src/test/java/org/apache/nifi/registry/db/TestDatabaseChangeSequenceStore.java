@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.db;
+
+import org.apache.nifi.registry.event.ChangeSequenceStore;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestDatabaseChangeSequenceStore extends DatabaseBaseTest {
+
+    @Autowired
+    private ChangeSequenceStore changeSequenceStore;
+
+    @Test
+    public void testReserveReturnsConsecutiveBlocks() {
+        final long first = changeSequenceStore.reserve(100);
+        assertTrue(first > 0);
+
+        final long second = changeSequenceStore.reserve(100);
+        assertEquals(first + 100, second);
+
+        final long third = changeSequenceStore.reserve(1);
+        assertEquals(second + 100, third);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReserveWithInvalidBlockSize() {
+        changeSequenceStore.reserve(0);
+    }
+
+}
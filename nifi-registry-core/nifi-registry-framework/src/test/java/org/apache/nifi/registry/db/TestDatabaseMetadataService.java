@@ -39,13 +39,16 @@ import org.apache.nifi.registry.service.MetadataService;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -264,6 +267,31 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(flow.getType(), createdFlow.getType());
     }
 
+    @Test
+    public void testCreateFlows() {
+        final List<FlowEntity> flows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final FlowEntity flow = new FlowEntity();
+            flow.setId(UUID.randomUUID().toString());
+            flow.setBucketId("2");
+            flow.setName("Batch Flow " + i);
+            flow.setCreated(new Date());
+            flow.setModified(new Date());
+            flow.setType(BucketItemEntityType.FLOW);
+            flows.add(flow);
+        }
+
+        final int existingFlows = metadataService.getFlowsByBucket("2").size();
+        metadataService.createFlows(flows);
+
+        assertEquals(existingFlows + 3, metadataService.getFlowsByBucket("2").size());
+        for (final FlowEntity flow : flows) {
+            final FlowEntity createdFlow = metadataService.getFlowById(flow.getId());
+            assertNotNull(createdFlow);
+            assertEquals(flow.getName(), createdFlow.getName());
+        }
+    }
+
     @Test
     public void testGetFlowByIdWithSnapshotCount() {
        final FlowEntity flowEntity = metadataService.getFlowByIdWithSnapshotCounts("1");
@@ -367,6 +395,26 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(flowSnapshot.getCreatedBy(), createdFlowSnapshot.getCreatedBy());
     }
 
+    @Test
+    public void testCreateFlowSnapshots() {
+        final List<FlowSnapshotEntity> flowSnapshots = new ArrayList<>();
+        for (int version = 4; version <= 6; version++) {
+            final FlowSnapshotEntity flowSnapshot = new FlowSnapshotEntity();
+            flowSnapshot.setFlowId("1");
+            flowSnapshot.setVersion(version);
+            flowSnapshot.setCreated(new Date());
+            flowSnapshot.setCreatedBy("test-user");
+            flowSnapshot.setComments("Comments " + version);
+            flowSnapshots.add(flowSnapshot);
+        }
+
+        metadataService.createFlowSnapshots(flowSnapshots);
+
+        final List<FlowSnapshotEntity> createdFlowSnapshots = metadataService.getSnapshots("1");
+        assertEquals(6, createdFlowSnapshots.size());
+        assertEquals("Comments 6", metadataService.getLatestSnapshot("1").getComments());
+    }
+
     @Test
     public void testGetLatestSnapshot() {
         final FlowSnapshotEntity latest = metadataService.getLatestSnapshot("1");
@@ -381,6 +429,42 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertNull(latest);
     }
 
+    @Test
+    public void testGetLatestSnapshotsForManyFlows() {
+        final FlowSnapshotEntity flow3Snapshot = new FlowSnapshotEntity();
+        flow3Snapshot.setFlowId("3");
+        flow3Snapshot.setVersion(1);
+        flow3Snapshot.setCreated(new Date());
+        flow3Snapshot.setCreatedBy("user1");
+        flow3Snapshot.setComments("This is flow 1 bucket 2 snapshot 1");
+        metadataService.createFlowSnapshot(flow3Snapshot);
+
+        final Set<String> bucketIds = new HashSet<>(Arrays.asList("1", "2"));
+        final Set<String> flowIds = new HashSet<>(Arrays.asList("1", "2", "3", "DOES-NOT-EXIST"));
+
+        final Map<String, List<FlowSnapshotEntity>> latestSnapshots = metadataService.getLatestSnapshots(bucketIds, flowIds);
+        assertEquals(2, latestSnapshots.size());
+
+        // flow 2 has no snapshots so only flow 1 is returned for bucket 1
+        final List<FlowSnapshotEntity> bucket1Snapshots = latestSnapshots.get("1");
+        assertEquals(1, bucket1Snapshots.size());
+        assertEquals("1", bucket1Snapshots.get(0).getFlowId());
+        assertEquals(3, bucket1Snapshots.get(0).getVersion().intValue());
+        assertEquals("This is flow 1 snapshot 3", bucket1Snapshots.get(0).getComments());
+
+        final List<FlowSnapshotEntity> bucket2Snapshots = latestSnapshots.get("2");
+        assertEquals(1, bucket2Snapshots.size());
+        assertEquals("3", bucket2Snapshots.get(0).getFlowId());
+        assertEquals(1, bucket2Snapshots.get(0).getVersion().intValue());
+    }
+
+    @Test
+    public void testGetLatestSnapshotsExcludesOtherBuckets() {
+        final Map<String, List<FlowSnapshotEntity>> latestSnapshots = metadataService.getLatestSnapshots(
+                Collections.singleton("2"), new HashSet<>(Arrays.asList("1", "3")));
+        assertTrue(latestSnapshots.isEmpty());
+    }
+
     @Test
     public void testGetFlowSnapshots() {
         final List<FlowSnapshotEntity> flowSnapshots = metadataService.getSnapshots( "1");
@@ -633,6 +717,33 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(bundleVersion.getBuilt().getTime(), createdBundleVersion.getBuilt().getTime());
     }
 
+    @Test
+    public void testCreateExtensionBundleVersions() {
+        final List<BundleVersionEntity> bundleVersions = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            final BundleVersionEntity bundleVersion = new BundleVersionEntity();
+            bundleVersion.setId(UUID.randomUUID().toString());
+            bundleVersion.setBundleId("eb1");
+            bundleVersion.setVersion("1." + i + ".0");
+            bundleVersion.setCreated(new Date());
+            bundleVersion.setCreatedBy("user2");
+            bundleVersion.setSha256Hex("123456789");
+            bundleVersion.setSha256Supplied(true);
+            bundleVersion.setContentSize(2048);
+            bundleVersion.setSystemApiVersion("2.0.0");
+            bundleVersions.add(bundleVersion);
+        }
+
+        metadataService.createBundleVersions(bundleVersions);
+
+        for (final BundleVersionEntity bundleVersion : bundleVersions) {
+            final BundleVersionEntity createdBundleVersion = metadataService.getBundleVersion("eb1", bundleVersion.getVersion());
+            assertNotNull(createdBundleVersion);
+            assertEquals(bundleVersion.getId(), createdBundleVersion.getId());
+            assertTrue(createdBundleVersion.getSha256Supplied());
+        }
+    }
+
     @Test
     public void testGetExtensionBundleVersionsWithEmptyBucketIdsAndEmptyFilterParams() {
         final List<BundleVersionEntity> versionEntities = metadataService.getBundleVersions(
@@ -829,6 +940,34 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(2, dependencies2.size());
     }
 
+    @Test
+    public void testCreateExtensionBundleVersionDependencies() {
+        final List<BundleVersionDependencyEntity> dependencyEntities = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final BundleVersionDependencyEntity dependencyEntity = new BundleVersionDependencyEntity();
+            dependencyEntity.setId(UUID.randomUUID().toString());
+            dependencyEntity.setExtensionBundleVersionId("eb1-v1");
+            dependencyEntity.setGroupId("com.foo");
+            dependencyEntity.setArtifactId("foo-nar-" + i);
+            dependencyEntity.setVersion("1.1.1");
+            dependencyEntities.add(dependencyEntity);
+        }
+
+        metadataService.createDependencies(dependencyEntities);
+
+        final List<BundleVersionDependencyEntity> dependencies = metadataService.getDependenciesForBundleVersion("eb1-v1");
+        assertNotNull(dependencies);
+        assertEquals(4, dependencies.size());
+    }
+
+    @Test
+    public void testCreateExtensionBundleVersionDependenciesWhenEmpty() {
+        metadataService.createDependencies(Collections.emptyList());
+
+        final List<BundleVersionDependencyEntity> dependencies = metadataService.getDependenciesForBundleVersion("eb1-v1");
+        assertEquals(1, dependencies.size());
+    }
+
     @Test
     public void testGetExtensionBundleVersionDependencies() {
         final List<BundleVersionDependencyEntity> dependencies = metadataService.getDependenciesForBundleVersion("eb1-v1");
@@ -850,6 +989,18 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(0, dependencies.size());
     }
 
+    @Test
+    public void testGetAllDependencies() {
+        final List<BundleVersionDependencyEntity> dependencies = metadataService.getAllDependencies();
+        assertNotNull(dependencies);
+        assertEquals(2, dependencies.size());
+
+        final Set<String> bundleVersionIds = dependencies.stream()
+                .map(BundleVersionDependencyEntity::getExtensionBundleVersionId)
+                .collect(Collectors.toSet());
+        assertEquals(new HashSet<>(Arrays.asList("eb1-v1", "eb2-v1")), bundleVersionIds);
+    }
+
     //----------------- Extensions ---------------------------------
 
     @Test
@@ -893,6 +1044,80 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(extension.getContent(), retrievedExtension.getContent());
     }
 
+    @Test
+    public void testCreateExtensions() {
+        final ExtensionRestrictionEntity restrictionEntity = new ExtensionRestrictionEntity();
+        restrictionEntity.setId(UUID.randomUUID().toString());
+        restrictionEntity.setExtensionId("batch1");
+        restrictionEntity.setRequiredPermission("read filesystem");
+        restrictionEntity.setExplanation("Reads filesystem");
+
+        final ExtensionProvidedServiceApiEntity serviceApiEntity = new ExtensionProvidedServiceApiEntity();
+        serviceApiEntity.setId(UUID.randomUUID().toString());
+        serviceApiEntity.setExtensionId("batch2");
+        serviceApiEntity.setClassName("com.foo.BatchService");
+        serviceApiEntity.setGroupId("com.foo");
+        serviceApiEntity.setArtifactId("foo-nar");
+        serviceApiEntity.setVersion("1.0.0");
+
+        final ExtensionEntity processor = new ExtensionEntity();
+        processor.setId("batch1");
+        processor.setBundleVersionId("eb1-v1");
+        processor.setName("com.example.BatchProcessor");
+        processor.setDisplayName("BatchProcessor");
+        processor.setExtensionType(ExtensionType.PROCESSOR);
+        processor.setTags(new HashSet<>(Arrays.asList("Batch", " batch ", "", "processor")));
+        processor.setRestrictions(Collections.singleton(restrictionEntity));
+        processor.setContent("{ \"name\" : \"com.example.BatchProcessor\", \"type\" : \"PROCESSOR\" }");
+
+        final ExtensionEntity service = new ExtensionEntity();
+        service.setId("batch2");
+        service.setBundleVersionId("eb1-v1");
+        service.setName("com.example.BatchServiceImpl");
+        service.setDisplayName("BatchServiceImpl");
+        service.setExtensionType(ExtensionType.CONTROLLER_SERVICE);
+        service.setTags(Collections.singleton("batch"));
+        service.setProvidedServiceApis(Collections.singleton(serviceApiEntity));
+        service.setContent("{ \"name\" : \"com.example.BatchServiceImpl\", \"type\" : \"CONTROLLER_SERVICE\" }");
+        service.setAdditionalDetails("DETAILS");
+
+        metadataService.createExtensions(Arrays.asList(processor, service));
+
+        final List<ExtensionEntity> extensions = metadataService.getExtensionsByBundleVersionId("eb1-v1");
+        assertEquals(4, extensions.size());
+
+        final ExtensionEntity retrievedProcessor = metadataService.getExtensionById("batch1");
+        assertNotNull(retrievedProcessor);
+        assertEquals(processor.getName(), retrievedProcessor.getName());
+        assertEquals(processor.getContent(), retrievedProcessor.getContent());
+        assertFalse(retrievedProcessor.getHasAdditionalDetails());
+
+        final ExtensionEntity retrievedService = metadataService.getExtensionById("batch2");
+        assertNotNull(retrievedService);
+        assertEquals(ExtensionType.CONTROLLER_SERVICE, retrievedService.getExtensionType());
+        assertTrue(retrievedService.getHasAdditionalDetails());
+
+        // the differently spelled "batch" tags were stored once per extension and the blank tag was skipped
+        final List<TagCountEntity> tags = metadataService.getAllExtensionTags();
+        assertEquals(5, tags.size());
+
+        final TagCountEntity batchTag = tags.stream().filter(t -> t.getTag().equals("batch")).findFirst().orElse(null);
+        assertNotNull(batchTag);
+        assertEquals(2, batchTag.getCount());
+
+        final Set<String> bucketIds = new HashSet<>(Arrays.asList("1", "2", "3"));
+
+        final ProvidedServiceAPI serviceAPI = new ProvidedServiceAPI();
+        serviceAPI.setClassName("com.foo.BatchService");
+        serviceAPI.setGroupId("com.foo");
+        serviceAPI.setArtifactId("foo-nar");
+        serviceAPI.setVersion("1.0.0");
+
+        final List<ExtensionEntity> implementations = metadataService.getExtensionsByProvidedServiceApi(bucketIds, serviceAPI);
+        assertEquals(1, implementations.size());
+        assertEquals("batch2", implementations.get(0).getId());
+    }
+
     @Test
     public void testGetExtensionById() {
         final ExtensionEntity extension = metadataService.getExtensionById("e1");
@@ -1045,6 +1270,38 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(2, extensions.size());
     }
 
+    @Test
+    public void testGetExtensionsWithMetadataDoesNotLoadContent() {
+        final ExtensionEntity extension = new ExtensionEntity();
+        extension.setId("5");
+        extension.setBundleVersionId("eb1-v1");
+        extension.setName("com.example.MetadataProcessor");
+        extension.setDisplayName("MetadataProcessor");
+        extension.setExtensionType(ExtensionType.PROCESSOR);
+        extension.setContent("{ \"name\" : \"com.example.MetadataProcessor\", \"type\" : \"PROCESSOR\", \"description\" : \"full\" }");
+        extension.setMetadata("{ \"name\" : \"com.example.MetadataProcessor\", \"type\" : \"PROCESSOR\" }");
+        metadataService.createExtension(extension);
+
+        final List<ExtensionEntity> extensions = metadataService.getExtensionsByBundleVersionId("eb1-v1");
+        assertEquals(3, extensions.size());
+
+        final ExtensionEntity withMetadata = extensions.stream().filter(e -> e.getId().equals("5")).findFirst().orElse(null);
+        assertNotNull(withMetadata);
+        assertNull(withMetadata.getContent());
+        assertEquals(extension.getMetadata(), withMetadata.getMetadata());
+
+        // extensions without metadata are still listed from their content
+        final ExtensionEntity withoutMetadata = extensions.stream().filter(e -> e.getId().equals("e1")).findFirst().orElse(null);
+        assertNotNull(withoutMetadata);
+        assertNull(withoutMetadata.getMetadata());
+        assertNotNull(withoutMetadata.getContent());
+
+        // retrieving a single extension always includes the content
+        final ExtensionEntity retrievedExtension = metadataService.getExtensionById("5");
+        assertEquals(extension.getContent(), retrievedExtension.getContent());
+        assertEquals(extension.getMetadata(), retrievedExtension.getMetadata());
+    }
+
     @Test
     public void testGetExtensionsByBundleVersionIdDoesNotExist() {
         final List<ExtensionEntity> extensions = metadataService.getExtensionsByBundleVersionId("does-not-exist");
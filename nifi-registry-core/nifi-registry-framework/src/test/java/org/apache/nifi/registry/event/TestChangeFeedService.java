@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event;
+
+import org.apache.nifi.registry.changes.ChangeEvent;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventFieldName;
+import org.apache.nifi.registry.hook.EventType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestChangeFeedService {
+
+    private AtomicLong storedSequence;
+    private ChangeSequenceStore sequenceStore;
+    private ChangeFeedService changeFeedService;
+
+    @Before
+    public void setup() {
+        storedSequence = new AtomicLong(1);
+        sequenceStore = storedSequence::getAndAdd;
+        changeFeedService = new ChangeFeedService(sequenceStore, 5);
+    }
+
+    @Test
+    public void testReadFromCursor() {
+        final ChangeFeedPage head = getChanges(null);
+        assertTrue(head.getEvents().isEmpty());
+        assertFalse(head.isReset());
+        assertEquals(0, head.getCursor());
+
+        changeFeedService.append(flowVersionCreated("b1", "f1", 1));
+        changeFeedService.append(flowVersionCreated("b1", "f1", 2));
+
+        final ChangeFeedPage page = getChanges(head.getCursor());
+        assertEquals(2, page.getEvents().size());
+        assertEquals(2, page.getCursor());
+        assertFalse(page.isReset());
+
+        final ChangeEvent change = page.getEvents().get(1);
+        assertEquals(2, change.getSequence());
+        assertEquals(EventType.CREATE_FLOW_VERSION.name(), change.getEventType());
+        assertEquals("b1", change.getBucketIdentifier());
+        assertEquals("f1", change.getFlowIdentifier());
+        assertEquals("2", change.getVersion());
+        assertEquals("user1", change.getUser());
+
+        assertTrue(getChanges(page.getCursor()).getEvents().isEmpty());
+    }
+
+    @Test
+    public void testIgnoresEventsOutsideOfBucketsFlowsAndBundles() {
+        changeFeedService.append(new StandardEvent.Builder()
+                .eventType(EventType.CREATE_USER)
+                .addField(EventFieldName.USER_ID, "u1")
+                .addField(EventFieldName.USER_IDENTITY, "user1")
+                .build());
+
+        final ChangeFeedPage page = getChanges(0L);
+        assertTrue(page.getEvents().isEmpty());
+        assertEquals(0, page.getCursor());
+    }
+
+    @Test
+    public void testResetWhenCursorFallsBehindRetainedChanges() {
+        for (int i = 1; i <= 7; i++) {
+            changeFeedService.append(flowVersionCreated("b1", "f1", i));
+        }
+
+        // the first two changes were evicted, so a consumer at cursor 2 has seen everything still needed
+        assertEquals(5, getChanges(2L).getEvents().size());
+
+        final ChangeFeedPage page = getChanges(1L);
+        assertTrue(page.isReset());
+        assertTrue(page.getEvents().isEmpty());
+        assertEquals(7, page.getCursor());
+    }
+
+    @Test
+    public void testResetAfterRestart() {
+        changeFeedService.append(flowVersionCreated("b1", "f1", 1));
+        final long cursor = getChanges(0L).getCursor();
+
+        final ChangeFeedService restarted = new ChangeFeedService(sequenceStore, 5);
+        restarted.append(flowVersionCreated("b1", "f1", 2));
+
+        final ChangeFeedPage page = restarted.getChanges(cursor, 10, 0, TimeUnit.MILLISECONDS, null);
+        assertTrue(page.isReset());
+
+        final List<ChangeEvent> changes = restarted.getChanges(page.getCursor() - 1, 10, 0, TimeUnit.MILLISECONDS, null).getEvents();
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).getSequence() > cursor);
+    }
+
+    @Test
+    public void testFilteredChangesAdvanceCursor() {
+        changeFeedService.append(flowVersionCreated("b1", "f1", 1));
+        changeFeedService.append(flowVersionCreated("b2", "f2", 1));
+        changeFeedService.append(flowVersionCreated("b1", "f1", 2));
+
+        final ChangeFeedPage page = changeFeedService.getChanges(0L, 10, 0, TimeUnit.MILLISECONDS, c -> "b2".equals(c.getBucketIdentifier()));
+        assertEquals(1, page.getEvents().size());
+        assertEquals("f2", page.getEvents().get(0).getFlowIdentifier());
+        assertEquals(3, page.getCursor());
+    }
+
+    @Test
+    public void testMaxChanges() {
+        changeFeedService.append(flowVersionCreated("b1", "f1", 1));
+        changeFeedService.append(flowVersionCreated("b1", "f1", 2));
+        changeFeedService.append(flowVersionCreated("b1", "f1", 3));
+
+        final ChangeFeedPage first = changeFeedService.getChanges(0L, 2, 0, TimeUnit.MILLISECONDS, null);
+        assertEquals(2, first.getEvents().size());
+        assertEquals(2, first.getCursor());
+
+        final ChangeFeedPage second = changeFeedService.getChanges(first.getCursor(), 2, 0, TimeUnit.MILLISECONDS, null);
+        assertEquals(1, second.getEvents().size());
+        assertEquals(3, second.getCursor());
+    }
+
+    @Test
+    public void testWaitsForChange() throws Exception {
+        final long cursor = getChanges(null).getCursor();
+
+        final CompletableFuture<ChangeFeedPage> waiting = CompletableFuture.supplyAsync(
+                () -> changeFeedService.getChanges(cursor, 10, 10, TimeUnit.SECONDS, null));
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        changeFeedService.append(flowVersionCreated("b1", "f1", 1));
+
+        final ChangeFeedPage page = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(1, page.getEvents().size());
+    }
+
+    @Test
+    public void testGapResetsEarlierCursors() {
+        changeFeedService.append(flowVersionCreated("b1", "f1", 1));
+        changeFeedService.append(flowVersionCreated("b1", "f1", 2));
+        changeFeedService.appendGap();
+        changeFeedService.append(flowVersionCreated("b1", "f1", 4));
+
+        final ChangeFeedPage page = getChanges(2L);
+        assertTrue(page.isReset());
+        assertTrue(page.getEvents().isEmpty());
+        assertEquals(4, page.getCursor());
+
+        // a consumer that has seen the gap continues with the changes after it
+        final ChangeFeedPage afterGap = getChanges(3L);
+        assertFalse(afterGap.isReset());
+        assertEquals(1, afterGap.getEvents().size());
+        assertEquals(4, afterGap.getEvents().get(0).getSequence());
+    }
+
+    @Test
+    public void testGapWakesWaitingConsumers() throws Exception {
+        final long cursor = getChanges(null).getCursor();
+
+        final CompletableFuture<ChangeFeedPage> waiting = CompletableFuture.supplyAsync(
+                () -> changeFeedService.getChanges(cursor, 10, 10, TimeUnit.SECONDS, null));
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        changeFeedService.appendGap();
+
+        final ChangeFeedPage page = waiting.get(5, TimeUnit.SECONDS);
+        assertTrue(page.isReset());
+        assertEquals(cursor + 1, page.getCursor());
+    }
+
+    @Test
+    public void testAwaitChange() throws Exception {
+        final long cursor = getChanges(null).getCursor();
+        assertEquals(cursor, changeFeedService.awaitChange(cursor, 0, TimeUnit.MILLISECONDS));
+
+        final CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return changeFeedService.awaitChange(cursor, 10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        changeFeedService.append(flowVersionCreated("b1", "f1", 1));
+        assertEquals(cursor + 1, waiting.get(5, TimeUnit.SECONDS).longValue());
+    }
+
+    private ChangeFeedPage getChanges(final Long after) {
+        return changeFeedService.getChanges(after, 100, 0, TimeUnit.MILLISECONDS, null);
+    }
+
+    private static Event flowVersionCreated(final String bucketId, final String flowId, final int version) {
+        return new StandardEvent.Builder()
+                .eventType(EventType.CREATE_FLOW_VERSION)
+                .addField(EventFieldName.BUCKET_ID, bucketId)
+                .addField(EventFieldName.FLOW_ID, flowId)
+                .addField(EventFieldName.VERSION, String.valueOf(version))
+                .addField(EventFieldName.USER, "user1")
+                .addField(EventFieldName.COMMENT, "")
+                .build();
+    }
+
+}
@@ -16,10 +16,14 @@
  */
 package org.apache.nifi.registry.event;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.nifi.registry.bucket.Bucket;
+import org.apache.nifi.registry.changes.ChangeEvent;
 import org.apache.nifi.registry.hook.Event;
 import org.apache.nifi.registry.hook.EventHookException;
 import org.apache.nifi.registry.hook.EventHookProvider;
+import org.apache.nifi.registry.hook.EventType;
+import org.apache.nifi.registry.metrics.RegistryMetrics;
 import org.apache.nifi.registry.provider.ProviderConfigurationContext;
 import org.apache.nifi.registry.provider.ProviderCreationException;
 import org.junit.After;
@@ -31,16 +35,20 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TestEventService {
 
     private CapturingEventHook eventHook;
+    private ChangeFeedService changeFeedService;
     private EventService eventService;
 
     @Before
     public void setup() {
         eventHook = new CapturingEventHook();
-        eventService = new EventService(Collections.singletonList(eventHook));
+        changeFeedService = new ChangeFeedService(new AtomicLong(1)::getAndAdd);
+        eventService = new EventService(Collections.singletonList(eventHook), changeFeedService, new RegistryMetrics(new SimpleMeterRegistry()));
         eventService.postConstruct();
     }
 
@@ -70,6 +78,12 @@ public class TestEventService {
 
         final Event secondEvent = events.get(1);
         Assert.assertEquals(bucketDeletedEvent.getEventType(), secondEvent.getEventType());
+
+        final List<ChangeEvent> changes = changeFeedService.getChanges(0L, 10, 0, TimeUnit.MILLISECONDS, null).getEvents();
+        Assert.assertEquals(2, changes.size());
+        Assert.assertEquals(EventType.CREATE_BUCKET.name(), changes.get(0).getEventType());
+        Assert.assertEquals(EventType.DELETE_BUCKET.name(), changes.get(1).getEventType());
+        Assert.assertEquals(bucket.getIdentifier(), changes.get(1).getBucketIdentifier());
     }
 
     /**
@@ -21,6 +21,7 @@ import org.apache.nifi.registry.extension.ExtensionClassLoader;
 import org.apache.nifi.registry.extension.ExtensionManager;
 import org.apache.nifi.registry.flow.FlowPersistenceProvider;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.provider.extension.CachingBundlePersistenceProvider;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -29,6 +30,7 @@ import java.net.URL;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.when;
 
@@ -65,6 +67,46 @@ public class TestStandardProviderFactory {
         assertEquals("extension bar", mockBundlePersistenceProvider.getProperties().get("Extension Property 2"));
     }
 
+    @Test
+    public void testGetBundleProviderWithDelegate() {
+        final NiFiRegistryProperties props = new NiFiRegistryProperties();
+        props.setProperty(NiFiRegistryProperties.PROVIDERS_CONFIGURATION_FILE, "src/test/resources/provider/providers-delegate.xml");
+
+        final ExtensionManager extensionManager = Mockito.mock(ExtensionManager.class);
+        when(extensionManager.getExtensionClassLoader(any(String.class)))
+                .thenReturn(new ExtensionClassLoader("/tmp", new URL[0],this.getClass().getClassLoader()));
+
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+
+        final ProviderFactory providerFactory = new StandardProviderFactory(props, extensionManager, dataSource);
+        providerFactory.initialize();
+
+        final BundlePersistenceProvider bundlePersistenceProvider = providerFactory.getBundlePersistenceProvider();
+        assertTrue(bundlePersistenceProvider instanceof CachingBundlePersistenceProvider);
+
+        final MockBundlePersistenceProvider delegate =
+                (MockBundlePersistenceProvider) ((CachingBundlePersistenceProvider) bundlePersistenceProvider).getDelegate();
+        assertNotNull(delegate.getProperties());
+        assertEquals("extension foo", delegate.getProperties().get("Extension Property 1"));
+        assertEquals("extension bar", delegate.getProperties().get("Extension Property 2"));
+    }
+
+    @Test(expected = ProviderFactoryException.class)
+    public void testGetBundleProviderWithDelegateNotSupported() {
+        final NiFiRegistryProperties props = new NiFiRegistryProperties();
+        props.setProperty(NiFiRegistryProperties.PROVIDERS_CONFIGURATION_FILE, "src/test/resources/provider/providers-delegate-not-supported.xml");
+
+        final ExtensionManager extensionManager = Mockito.mock(ExtensionManager.class);
+        when(extensionManager.getExtensionClassLoader(any(String.class)))
+                .thenReturn(new ExtensionClassLoader("/tmp", new URL[0],this.getClass().getClassLoader()));
+
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+
+        final ProviderFactory providerFactory = new StandardProviderFactory(props, extensionManager, dataSource);
+        providerFactory.initialize();
+        providerFactory.getBundlePersistenceProvider();
+    }
+
     @Test(expected = ProviderFactoryException.class)
     public void testGetFlowProviderBeforeInitializingShouldThrowException() {
         final NiFiRegistryProperties props = new NiFiRegistryProperties();
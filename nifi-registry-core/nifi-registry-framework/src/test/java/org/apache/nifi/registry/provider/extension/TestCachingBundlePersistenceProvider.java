@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.provider.extension;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.nifi.registry.extension.BundleCoordinate;
+import org.apache.nifi.registry.extension.BundlePersistenceContext;
+import org.apache.nifi.registry.extension.BundlePersistenceException;
+import org.apache.nifi.registry.extension.BundlePersistenceProvider;
+import org.apache.nifi.registry.extension.BundleVersionCoordinate;
+import org.apache.nifi.registry.extension.BundleVersionType;
+import org.apache.nifi.registry.provider.ProviderConfigurationContext;
+import org.apache.nifi.registry.provider.ProviderCreationException;
+import org.apache.nifi.registry.provider.StandardProviderConfigurationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestCachingBundlePersistenceProvider {
+
+    static final String CACHE_DIR = "target/extension_bundle_cache";
+
+    private File cacheDir;
+    private InMemoryBundlePersistenceProvider delegate;
+    private CachingBundlePersistenceProvider cachingProvider;
+
+    @Before
+    public void setup() throws IOException {
+        cacheDir = new File(CACHE_DIR);
+        if (cacheDir.exists()) {
+            org.apache.commons.io.FileUtils.cleanDirectory(cacheDir);
+        }
+
+        delegate = new InMemoryBundlePersistenceProvider();
+        cachingProvider = createCachingProvider("4 KB");
+    }
+
+    @After
+    public void teardown() {
+        cachingProvider.preDestruction();
+    }
+
+    @Test
+    public void testReadIsServedFromCache() {
+        final byte[] content = createContent(1024);
+        final BundleVersionCoordinate coordinate = createBundleVersion("b1", "1.0.0", content);
+
+        assertArrayEquals(content, read(coordinate));
+        assertArrayEquals(content, read(coordinate));
+        assertArrayEquals(content, read(coordinate));
+
+        assertEquals(1, delegate.readCount.get());
+        assertEquals(1, cachingProvider.getCachedCount());
+        assertEquals(1024, cachingProvider.getCacheSize());
+    }
+
+    @Test
+    public void testConcurrentColdReadsAreSingleFlighted() throws Exception {
+        final byte[] content = createContent(1024);
+        final BundleVersionCoordinate coordinate = createBundleVersion("b1", "1.0.0", content);
+
+        final int numReaders = 8;
+        delegate.readLatch = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(numReaders);
+        try {
+            final List<Future<byte[]>> reads = new ArrayList<>();
+            for (int i = 0; i < numReaders; i++) {
+                reads.add(executor.submit(() -> read(coordinate)));
+            }
+
+            // give every reader the chance to reach the cache before the first retrieval completes
+            Thread.sleep(200);
+            delegate.readLatch.countDown();
+
+            for (final Future<byte[]> read : reads) {
+                assertArrayEquals(content, read.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, delegate.readCount.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        final BundleVersionCoordinate v1 = createBundleVersion("b1", "1.0.0", createContent(1024));
+        final BundleVersionCoordinate v2 = createBundleVersion("b1", "2.0.0", createContent(1024));
+        final BundleVersionCoordinate v3 = createBundleVersion("b1", "3.0.0", createContent(1024));
+        final BundleVersionCoordinate v4 = createBundleVersion("b1", "4.0.0", createContent(1024));
+        final BundleVersionCoordinate v5 = createBundleVersion("b1", "5.0.0", createContent(1024));
+
+        read(v1);
+        read(v2);
+        read(v3);
+        read(v4);
+        read(v1);
+        assertEquals(4, delegate.readCount.get());
+
+        // caching v5 exceeds 4 KB, so v2 is evicted as it is the least recently used
+        read(v5);
+        assertEquals(5, delegate.readCount.get());
+        assertEquals(4, cachingProvider.getCachedCount());
+        assertEquals(4096, cachingProvider.getCacheSize());
+
+        read(v1);
+        assertEquals(5, delegate.readCount.get());
+
+        read(v2);
+        assertEquals(6, delegate.readCount.get());
+        assertEquals(4, getCacheFiles().length);
+    }
+
+    @Test
+    public void testBundleLargerThanCacheIsNotCached() {
+        final byte[] content = createContent(8192);
+        final BundleVersionCoordinate coordinate = createBundleVersion("b1", "1.0.0", content);
+
+        assertArrayEquals(content, read(coordinate));
+        assertArrayEquals(content, read(coordinate));
+
+        assertEquals(2, delegate.readCount.get());
+        assertEquals(0, cachingProvider.getCachedCount());
+        assertEquals(0, getCacheFiles().length);
+    }
+
+    @Test
+    public void testDeleteInvalidatesCache() {
+        final BundleVersionCoordinate coordinate = createBundleVersion("b1", "1.0.0", createContent(1024));
+        read(coordinate);
+        assertEquals(1, cachingProvider.getCachedCount());
+
+        cachingProvider.deleteBundleVersion(coordinate);
+        assertEquals(0, cachingProvider.getCachedCount());
+        assertEquals(0, getCacheFiles().length);
+
+        try {
+            read(coordinate);
+            fail("Should have thrown exception");
+        } catch (BundlePersistenceException e) {
+            assertEquals(2, delegate.readCount.get());
+        }
+    }
+
+    @Test
+    public void testDeleteAllBundleVersionsInvalidatesCache() {
+        read(createBundleVersion("b1", "1.0.0", createContent(1024)));
+        read(createBundleVersion("b1", "2.0.0", createContent(1024)));
+        read(createBundleVersion("b2", "1.0.0", createContent(1024)));
+        assertEquals(3, cachingProvider.getCachedCount());
+
+        final BundleCoordinate bundleCoordinate = new StandardBundleCoordinate.Builder()
+                .bucketId("b1")
+                .groupId("org.apache.nifi")
+                .artifactId("nifi-foo-nar")
+                .build();
+
+        cachingProvider.deleteAllBundleVersions(bundleCoordinate);
+        assertEquals(1, cachingProvider.getCachedCount());
+        assertEquals(1024, cachingProvider.getCacheSize());
+        assertEquals(1, getCacheFiles().length);
+    }
+
+    @Test
+    public void testUpdateInvalidatesCache() {
+        final BundleVersionCoordinate coordinate = createBundleVersion("b1", "1.0.0-SNAPSHOT", createContent(1024));
+        read(coordinate);
+
+        final byte[] updatedContent = createContent(2048);
+        final BundleVersionCoordinate updatedCoordinate = createCoordinate("b1", "1.0.0-SNAPSHOT", updatedContent);
+        cachingProvider.updateBundleVersion(createContext(updatedCoordinate, updatedContent), new ByteArrayInputStream(updatedContent));
+
+        assertArrayEquals(updatedContent, read(updatedCoordinate));
+        assertEquals(2, delegate.readCount.get());
+    }
+
+    @Test
+    public void testCachedContentIsReloadedWhenRecordedSha256Changes() {
+        final BundleVersionCoordinate coordinate = createBundleVersion("b1", "1.0.0-SNAPSHOT", createContent(1024));
+        read(coordinate);
+
+        // simulate another registry instance overwriting the content in the shared delegate
+        final byte[] updatedContent = createContent(2048);
+        final BundleVersionCoordinate updatedCoordinate = createCoordinate("b1", "1.0.0-SNAPSHOT", updatedContent);
+        delegate.updateBundleVersion(createContext(updatedCoordinate, updatedContent), new ByteArrayInputStream(updatedContent));
+
+        assertArrayEquals(updatedContent, read(updatedCoordinate));
+        assertEquals(2, delegate.readCount.get());
+        assertEquals(2048, cachingProvider.getCacheSize());
+        assertEquals(1, getCacheFiles().length);
+    }
+
+    @Test
+    public void testContentNotMatchingRecordedSha256IsNotCached() {
+        final BundleVersionCoordinate coordinate = createBundleVersion("b1", "1.0.0", createContent(1024));
+        final BundleVersionCoordinate wrongShaCoordinate = createCoordinate("b1", "1.0.0", createContent(10));
+
+        try {
+            read(wrongShaCoordinate);
+            fail("Should have thrown exception");
+        } catch (BundlePersistenceException e) {
+            assertEquals(0, cachingProvider.getCachedCount());
+            assertEquals(0, cacheDir.listFiles().length);
+        }
+
+        read(coordinate);
+        assertEquals(1, cachingProvider.getCachedCount());
+    }
+
+    @Test
+    public void testCacheIsClearedWhenConfigured() {
+        read(createBundleVersion("b1", "1.0.0", createContent(1024)));
+        assertEquals(1, getCacheFiles().length);
+
+        cachingProvider = createCachingProvider("4 KB");
+        assertEquals(0, getCacheFiles().length);
+    }
+
+    @Test(expected = ProviderCreationException.class)
+    public void testMissingDelegate() {
+        final Map<String,String> props = new HashMap<>();
+        props.put(CachingBundlePersistenceProvider.CACHE_DIR_PROP, CACHE_DIR);
+
+        final CachingBundlePersistenceProvider provider = new CachingBundlePersistenceProvider();
+        provider.onConfigured(new StandardProviderConfigurationContext(props));
+    }
+
+    @Test(expected = ProviderCreationException.class)
+    public void testInvalidMaxSize() {
+        createCachingProvider("ten gigabytes");
+    }
+
+    private CachingBundlePersistenceProvider createCachingProvider(final String maxSize) {
+        final Map<String,String> props = new HashMap<>();
+        props.put(CachingBundlePersistenceProvider.CACHE_DIR_PROP, CACHE_DIR);
+        props.put(CachingBundlePersistenceProvider.CACHE_MAX_SIZE_PROP, maxSize);
+        final ProviderConfigurationContext configurationContext = new StandardProviderConfigurationContext(props);
+
+        final CachingBundlePersistenceProvider provider = new CachingBundlePersistenceProvider();
+        provider.setDelegate(delegate);
+        provider.onConfigured(configurationContext);
+        return provider;
+    }
+
+    private BundleVersionCoordinate createBundleVersion(final String bucketId, final String version, final byte[] content) {
+        final BundleVersionCoordinate coordinate = createCoordinate(bucketId, version, content);
+        cachingProvider.createBundleVersion(createContext(coordinate, content), new ByteArrayInputStream(content));
+        return coordinate;
+    }
+
+    private static BundleVersionCoordinate createCoordinate(final String bucketId, final String version, final byte[] content) {
+        return new StandardBundleVersionCoordinate.Builder()
+                .bucketId(bucketId)
+                .groupId("org.apache.nifi")
+                .artifactId("nifi-foo-nar")
+                .version(version)
+                .type(BundleVersionType.NIFI_NAR)
+                .sha256(DigestUtils.sha256Hex(content))
+                .build();
+    }
+
+    private static BundlePersistenceContext createContext(final BundleVersionCoordinate coordinate, final byte[] content) {
+        return new StandardBundlePersistenceContext.Builder()
+                .coordinate(coordinate)
+                .bundleSize(content.length)
+                .author("user1")
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    private byte[] read(final BundleVersionCoordinate coordinate) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cachingProvider.getBundleVersionContent(coordinate, out);
+        return out.toByteArray();
+    }
+
+    private File[] getCacheFiles() {
+        return cacheDir.listFiles((dir, name) -> name.endsWith(CachingBundlePersistenceProvider.CACHE_FILE_EXTENSION));
+    }
+
+    private static byte[] createContent(final int size) {
+        final byte[] content = new byte[size];
+        new Random().nextBytes(content);
+        return content;
+    }
+
+    /**
+     * A delegate that keeps content in memory and counts how many times content is read.
+     */
+    private static class InMemoryBundlePersistenceProvider implements BundlePersistenceProvider {
+
+        private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+        private final AtomicInteger readCount = new AtomicInteger(0);
+        private volatile CountDownLatch readLatch;
+
+        @Override
+        public void createBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) {
+            contents.put(getKey(context.getCoordinate()), toBytes(contentStream));
+        }
+
+        @Override
+        public void updateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) {
+            contents.put(getKey(context.getCoordinate()), toBytes(contentStream));
+        }
+
+        @Override
+        public void getBundleVersionContent(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream) {
+            readCount.incrementAndGet();
+
+            final CountDownLatch latch = readLatch;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new BundlePersistenceException(e.getMessage(), e);
+                }
+            }
+
+            final byte[] content = contents.get(getKey(versionCoordinate));
+            if (content == null) {
+                throw new BundlePersistenceException("No content for " + versionCoordinate);
+            }
+
+            try {
+                outputStream.write(content);
+            } catch (IOException e) {
+                throw new BundlePersistenceException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void deleteBundleVersion(final BundleVersionCoordinate versionCoordinate) {
+            contents.remove(getKey(versionCoordinate));
+        }
+
+        @Override
+        public void deleteAllBundleVersions(final BundleCoordinate bundleCoordinate) {
+            final String prefix = bundleCoordinate.getBucketId() + "/" + bundleCoordinate.getGroupId() + "/" + bundleCoordinate.getArtifactId() + "/";
+            contents.keySet().removeIf(k -> k.startsWith(prefix));
+        }
+
+        @Override
+        public void onConfigured(final ProviderConfigurationContext configurationContext) {
+        }
+
+        private static String getKey(final BundleVersionCoordinate coordinate) {
+            return coordinate.getBucketId() + "/" + coordinate.getGroupId() + "/" + coordinate.getArtifactId() + "/" + coordinate.getVersion();
+        }
+
+        private static byte[] toBytes(final InputStream contentStream) {
+            try {
+                return IOUtils.toByteArray(contentStream);
+            } catch (IOException e) {
+                throw new BundlePersistenceException(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -26,6 +26,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.sql.DataSource;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -78,6 +80,22 @@ public class TestDatabaseFlowPersistenceProvider extends DatabaseBaseTest {
         assertNull(deletedContent2);
     }
 
+    @Test
+    public void testSaveBatch() {
+        final Map<FlowSnapshotContext, byte[]> contents = new LinkedHashMap<>();
+        for (int version = 1; version <= 3; version++) {
+            contents.put(getFlowSnapshotContext("b1", "f2", version), ("f2v" + version).getBytes(StandardCharsets.UTF_8));
+        }
+
+        ((DatabaseFlowPersistenceProvider) persistenceProvider).saveFlowContent(contents);
+
+        for (int version = 1; version <= 3; version++) {
+            final byte[] retrievedContent = persistenceProvider.getFlowContent("b1", "f2", version);
+            assertNotNull(retrievedContent);
+            assertEquals("f2v" + version, new String(retrievedContent, StandardCharsets.UTF_8));
+        }
+    }
+
     private FlowSnapshotContext getFlowSnapshotContext(final String bucketId, final String flowId, final int version) {
         final FlowSnapshotContext context = Mockito.mock(FlowSnapshotContext.class);
         when(context.getBucketId()).thenReturn(bucketId);
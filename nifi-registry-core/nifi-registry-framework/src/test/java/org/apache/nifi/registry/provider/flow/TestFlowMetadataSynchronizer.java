@@ -16,24 +16,46 @@
  */
 package org.apache.nifi.registry.provider.flow;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.nifi.registry.db.entity.BucketEntity;
 import org.apache.nifi.registry.db.entity.FlowEntity;
 import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoBucket;
 import org.apache.nifi.registry.flow.FlowPersistenceProvider;
 import org.apache.nifi.registry.flow.MetadataAwareFlowPersistenceProvider;
 import org.apache.nifi.registry.metadata.BucketMetadata;
 import org.apache.nifi.registry.metadata.FlowMetadata;
 import org.apache.nifi.registry.metadata.FlowSnapshotMetadata;
+import org.apache.nifi.registry.metrics.RegistryMetrics;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.extension.ExtensionRepoTree;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,8 +63,11 @@ import static org.mockito.Mockito.when;
 public class TestFlowMetadataSynchronizer {
 
     private MetadataService metadataService;
+    private PlatformTransactionManager transactionManager;
+    private NiFiRegistryProperties properties;
     private MetadataAwareFlowPersistenceProvider metadataAwareflowPersistenceProvider;
     private FlowPersistenceProvider standardFlowPersistenceProvider;
+    private ExtensionRepoTree extensionRepoTree;
     private List<BucketMetadata> metadata;
     private FlowMetadataSynchronizer synchronizer;
 
@@ -51,7 +76,10 @@ public class TestFlowMetadataSynchronizer {
         metadataService = mock(MetadataService.class);
         metadataAwareflowPersistenceProvider = mock(MetadataAwareFlowPersistenceProvider.class);
         standardFlowPersistenceProvider = mock(FlowPersistenceProvider.class);
-        synchronizer = new FlowMetadataSynchronizer(metadataService, metadataAwareflowPersistenceProvider);
+        transactionManager = mock(PlatformTransactionManager.class);
+        properties = new NiFiRegistryProperties();
+        extensionRepoTree = new ExtensionRepoTree(metadataService);
+        synchronizer = createSynchronizer(metadataAwareflowPersistenceProvider);
 
         final FlowSnapshotMetadata snapshotMetadata1 = new FlowSnapshotMetadata();
         snapshotMetadata1.setVersion(1);
@@ -89,10 +117,146 @@ public class TestFlowMetadataSynchronizer {
     public void testWhenMetadataAwareAndHasDataShouldSynchronize() {
         when(metadataService.getAllBuckets()).thenReturn(Collections.emptyList());
 
+        final List<FlowEntity> flows = new ArrayList<>();
+        doAnswer(invocation -> flows.addAll(invocation.<Collection<FlowEntity>>getArgument(0))).when(metadataService).createFlows(anyCollection());
+        final List<FlowSnapshotEntity> snapshots = new ArrayList<>();
+        doAnswer(invocation -> snapshots.addAll(invocation.<Collection<FlowSnapshotEntity>>getArgument(0))).when(metadataService).createFlowSnapshots(anyCollection());
+
+        synchronizer.synchronize();
+        verify(metadataService, times(1)).createBucket(any(BucketEntity.class));
+        verify(metadataService, times(1)).createFlows(anyCollection());
+        verify(metadataService, times(1)).createFlowSnapshots(anyCollection());
+        assertEquals(1, flows.size());
+        assertEquals(2, snapshots.size());
+        assertEquals(FlowMetadataSynchronizer.State.COMPLETE, synchronizer.getState());
+        assertEquals(2, synchronizer.getSynchronizedVersions());
+    }
+
+    @Test
+    public void testSynchronizeInBatches() {
+        when(metadataService.getAllBuckets()).thenReturn(Collections.emptyList());
+
+        final List<FlowSnapshotMetadata> snapshotMetadata = new ArrayList<>();
+        for (int version = 1; version <= FlowMetadataSynchronizer.BATCH_SIZE + 1; version++) {
+            final FlowSnapshotMetadata snapshot = new FlowSnapshotMetadata();
+            snapshot.setVersion(version);
+            snapshotMetadata.add(snapshot);
+        }
+        metadata.get(0).getFlowMetadata().get(0).setFlowSnapshotMetadata(snapshotMetadata);
+
+        synchronizer.synchronize();
+        verify(metadataService, times(2)).createFlowSnapshots(anyCollection());
+        assertEquals(FlowMetadataSynchronizer.BATCH_SIZE + 1, synchronizer.getSynchronizedVersions());
+    }
+
+    @Test
+    public void testWhenBucketFailsShouldDeleteSynchronizedBuckets() {
+        final Map<String, BucketEntity> createdBuckets = synchronizeWithFailingBucket();
+
+        assertEquals(FlowMetadataSynchronizer.State.FAILED, synchronizer.getState());
+        assertFalse(synchronizer.isAcceptingChanges());
+        verify(metadataService, times(1)).deleteBucket(createdBuckets.get("2"));
+    }
+
+    @Test
+    public void testWhenBucketFailsShouldNotDeleteModifiedBuckets() {
+        // a flow was added to the synchronized bucket before the synchronization failed
+        final FlowEntity addedFlow = new FlowEntity();
+        addedFlow.setId("3");
+        addedFlow.setModified(new Date());
+        when(metadataService.getFlowsByBucket("2")).thenReturn(Collections.singletonList(addedFlow));
+
+        synchronizeWithFailingBucket();
+
+        assertEquals(FlowMetadataSynchronizer.State.FAILED, synchronizer.getState());
+        verify(metadataService, never()).deleteBucket(any(BucketEntity.class));
+    }
+
+    private Map<String, BucketEntity> synchronizeWithFailingBucket() {
+        when(metadataService.getAllBuckets()).thenReturn(Collections.emptyList());
+
+        final Map<String, BucketEntity> createdBuckets = new ConcurrentHashMap<>();
+        doAnswer(invocation -> createdBuckets.put(invocation.<BucketEntity>getArgument(0).getId(), invocation.getArgument(0)))
+                .when(metadataService).createBucket(any(BucketEntity.class));
+        when(metadataService.getBucketById(anyString())).thenAnswer(invocation -> createdBuckets.get(invocation.<String>getArgument(0)));
+
+        final BucketMetadata bucketMetadata2 = new BucketMetadata();
+        bucketMetadata2.setIdentifier("2");
+        bucketMetadata2.setName("Bucket 2");
+        bucketMetadata2.setFlowMetadata(Collections.emptyList());
+        when(metadataAwareflowPersistenceProvider.getMetadata()).thenReturn(Arrays.asList(metadata.get(0), bucketMetadata2));
+
+        doAnswer(invocation -> {
+            if (!invocation.<Collection<FlowEntity>>getArgument(0).isEmpty()) {
+                throw new IllegalStateException("Duplicate flow");
+            }
+            return null;
+        }).when(metadataService).createFlows(anyCollection());
+
+        try {
+            synchronizer.synchronize();
+            fail("Expected the synchronization to fail");
+        } catch (IllegalStateException e) {
+            assertEquals("Duplicate flow", e.getCause().getMessage());
+        }
+
+        return createdBuckets;
+    }
+
+    @Test
+    public void testSynchronizeInBackground() throws InterruptedException {
+        when(metadataService.getAllBuckets()).thenReturn(Collections.emptyList());
+        properties.setProperty(NiFiRegistryProperties.PROVIDERS_METADATA_SYNC_BACKGROUND, "true");
+        synchronizer = createSynchronizer(metadataAwareflowPersistenceProvider);
+
+        // changes are not accepted until the synchronization in the background has completed
+        final CountDownLatch release = new CountDownLatch(1);
+        when(metadataAwareflowPersistenceProvider.getMetadata()).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return metadata;
+        });
+
         synchronizer.synchronize();
+        assertEquals(FlowMetadataSynchronizer.State.WARMING, synchronizer.getState());
+        assertFalse(synchronizer.isAcceptingChanges());
+        release.countDown();
+
+        final long timeout = System.currentTimeMillis() + 10000;
+        while (synchronizer.getState() == FlowMetadataSynchronizer.State.WARMING && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(FlowMetadataSynchronizer.State.COMPLETE, synchronizer.getState());
+        assertTrue(synchronizer.isAcceptingChanges());
         verify(metadataService, times(1)).createBucket(any(BucketEntity.class));
-        verify(metadataService, times(1)).createFlow(any(FlowEntity.class));
-        verify(metadataService, times(2)).createFlowSnapshot(any(FlowSnapshotEntity.class));
+        verify(metadataService, times(1)).createFlowSnapshots(anyCollection());
+    }
+
+    @Test
+    public void testExtensionRepoTreeContainsBucketsAfterBackgroundSync() throws InterruptedException {
+        final Map<String, BucketEntity> createdBuckets = new ConcurrentHashMap<>();
+        doAnswer(invocation -> createdBuckets.put(invocation.<BucketEntity>getArgument(0).getId(), invocation.getArgument(0)))
+                .when(metadataService).createBucket(any(BucketEntity.class));
+        when(metadataService.getAllBuckets()).thenAnswer(invocation -> new ArrayList<>(createdBuckets.values()));
+
+        properties.setProperty(NiFiRegistryProperties.PROVIDERS_METADATA_SYNC_BACKGROUND, "true");
+        synchronizer = createSynchronizer(metadataAwareflowPersistenceProvider);
+
+        // the tree is built when the context is refreshed, before the synchronization in the background has loaded anything
+        extensionRepoTree.rebuild();
+        assertTrue(extensionRepoTree.getBuckets(Collections.singleton("1")).isEmpty());
+
+        synchronizer.synchronize();
+
+        final long timeout = System.currentTimeMillis() + 10000;
+        while (synchronizer.getState() == FlowMetadataSynchronizer.State.WARMING && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(FlowMetadataSynchronizer.State.COMPLETE, synchronizer.getState());
+        final SortedSet<ExtensionRepoBucket> repoBuckets = extensionRepoTree.getBuckets(Collections.singleton("1"));
+        assertEquals(1, repoBuckets.size());
+        assertEquals("Bucket 1", repoBuckets.first().getBucketName());
     }
 
     @Test
@@ -103,18 +267,24 @@ public class TestFlowMetadataSynchronizer {
 
         synchronizer.synchronize();
         verify(metadataService, times(0)).createBucket(any(BucketEntity.class));
-        verify(metadataService, times(0)).createFlow(any(FlowEntity.class));
-        verify(metadataService, times(0)).createFlowSnapshot(any(FlowSnapshotEntity.class));
+        verify(metadataService, times(0)).createFlows(anyCollection());
+        verify(metadataService, times(0)).createFlowSnapshots(anyCollection());
+        assertEquals(FlowMetadataSynchronizer.State.SKIPPED, synchronizer.getState());
     }
 
     @Test
     public void testWhenNotMetadataAwareShouldNotSynchronize() {
         when(metadataService.getAllBuckets()).thenReturn(Collections.emptyList());
-        synchronizer = new FlowMetadataSynchronizer(metadataService, standardFlowPersistenceProvider);
+        synchronizer = createSynchronizer(standardFlowPersistenceProvider);
         synchronizer.synchronize();
 
         verify(metadataService, times(0)).createBucket(any(BucketEntity.class));
-        verify(metadataService, times(0)).createFlow(any(FlowEntity.class));
-        verify(metadataService, times(0)).createFlowSnapshot(any(FlowSnapshotEntity.class));
+        verify(metadataService, times(0)).createFlows(anyCollection());
+        verify(metadataService, times(0)).createFlowSnapshots(anyCollection());
+    }
+
+    private FlowMetadataSynchronizer createSynchronizer(final FlowPersistenceProvider persistenceProvider) {
+        return new FlowMetadataSynchronizer(metadataService, persistenceProvider, transactionManager, properties,
+                new RegistryMetrics(new SimpleMeterRegistry()), extensionRepoTree);
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization.shell;
+
+import org.apache.nifi.registry.security.authorization.AuthorizerConfigurationContext;
+import org.apache.nifi.registry.security.authorization.Group;
+import org.apache.nifi.registry.security.authorization.User;
+import org.apache.nifi.registry.security.authorization.UserAndGroups;
+import org.apache.nifi.registry.security.exception.SecurityProviderCreationException;
+import org.apache.nifi.registry.util.StandardPropertyValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestShellUserGroupProvider {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File passwdFile;
+    private File groupFile;
+    private ShellUserGroupProvider provider;
+
+    @Before
+    public void setup() throws IOException {
+        passwdFile = tempFolder.newFile("passwd");
+        groupFile = tempFolder.newFile("group");
+
+        Files.write(passwdFile.toPath(), Arrays.asList(
+                "# comment",
+                "root:x:0:0:root:/root:/bin/bash",
+                "alice:x:1000:1000:Alice:/home/alice:/bin/bash",
+                "bob:x:1001:1001:Bob:/home/bob:/bin/bash",
+                ""), StandardCharsets.UTF_8);
+
+        Files.write(groupFile.toPath(), Arrays.asList(
+                "root:x:0:",
+                "alice:x:1000:",
+                "bob:x:1001:",
+                "admins:x:2000:alice,bob"), StandardCharsets.UTF_8);
+
+        provider = new ShellUserGroupProvider();
+        provider.clearCaches();
+    }
+
+    @After
+    public void teardown() {
+        provider.preDestruction();
+        provider.clearCaches();
+    }
+
+    @Test
+    public void testReadPasswdFile() throws IOException {
+        final List<String> records = ShellUserGroupProvider.readPasswdFile(passwdFile);
+        assertEquals(Arrays.asList("root:0:0", "alice:1000:1000", "bob:1001:1001"), records);
+    }
+
+    @Test
+    public void testReadGroupFile() throws IOException {
+        final List<String> records = ShellUserGroupProvider.readGroupFile(groupFile);
+        assertEquals(Arrays.asList("root:0:", "alice:1000:", "bob:1001:", "admins:2000:alice,bob"), records);
+    }
+
+    @Test
+    public void testFilesEnumerationMode() {
+        provider.onConfigured(getConfiguration("files"));
+
+        assertEquals(ShellUserGroupProvider.EnumerationMode.FILES, provider.getEnumerationMode());
+        assertEquals(3, provider.userCacheSize());
+        assertEquals(4, provider.groupCacheSize());
+
+        final UserAndGroups userAndGroups = provider.getUserAndGroups("alice");
+        assertNotNull(userAndGroups.getUser());
+        assertEquals(2, userAndGroups.getGroups().size());
+        assertTrue(userAndGroups.getGroups().stream().map(Group::getName).anyMatch("admins"::equals));
+
+        final User unknown = provider.getUserByIdentity("mallory");
+        assertNull(unknown);
+    }
+
+    @Test
+    public void testRefreshReconcilesRemovedUsers() throws IOException {
+        provider.onConfigured(getConfiguration("files"));
+        assertNotNull(provider.getUserByIdentity("bob"));
+
+        Files.write(passwdFile.toPath(), Arrays.asList("alice:x:1000:1000:Alice:/home/alice:/bin/bash"), StandardCharsets.UTF_8);
+        provider.onConfigured(getConfiguration("files"));
+
+        assertEquals(1, provider.userCacheSize());
+        assertNull(provider.getUserByIdentity("bob"));
+        assertNotNull(provider.getUserByIdentity("alice"));
+    }
+
+    @Test(expected = SecurityProviderCreationException.class)
+    public void testInvalidEnumerationMode() {
+        provider.onConfigured(getConfiguration("not-a-mode"));
+    }
+
+    private AuthorizerConfigurationContext getConfiguration(final String enumerationMode) {
+        final AuthorizerConfigurationContext configurationContext = mock(AuthorizerConfigurationContext.class);
+        when(configurationContext.getProperty(anyString())).thenReturn(new StandardPropertyValue(null));
+        when(configurationContext.getProperty(ShellUserGroupProvider.ENUMERATION_MODE_PROPERTY)).thenReturn(new StandardPropertyValue(enumerationMode));
+        when(configurationContext.getProperty(ShellUserGroupProvider.PASSWD_FILE_PROPERTY)).thenReturn(new StandardPropertyValue(passwdFile.getAbsolutePath()));
+        when(configurationContext.getProperty(ShellUserGroupProvider.GROUP_FILE_PROPERTY)).thenReturn(new StandardPropertyValue(groupFile.getAbsolutePath()));
+        return configurationContext;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization.shell;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestUnknownIdentityCache {
+
+    private AtomicLong nanoTime;
+    private UnknownIdentityCache cache;
+
+    @Before
+    public void setup() {
+        nanoTime = new AtomicLong();
+        cache = new UnknownIdentityCache(2, nanoTime::get);
+        cache.setTimeToLive(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void testEntriesExpire() {
+        cache.add("mallory");
+        assertTrue(cache.contains("mallory"));
+
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertFalse(cache.contains("mallory"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        cache.add("mallory");
+        cache.add("trudy");
+        cache.add("eve");
+
+        assertEquals(2, cache.size());
+        assertFalse(cache.contains("eve"));
+    }
+
+    @Test
+    public void testExpiredEntriesMakeRoom() {
+        cache.add("mallory");
+        cache.add("trudy");
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        cache.add("eve");
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains("eve"));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.identity;
+
+import org.apache.nifi.registry.properties.util.IdentityMapping;
+import org.apache.nifi.registry.properties.util.IdentityMappingUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks mapping identities against a large number of identity mapping rules, comparing evaluating each rule in turn
+ * through {@link IdentityMappingUtil} with the prefiltered {@link CompiledIdentityMappings}, with and without its cache.
+ *
+ * Run from the module directory after compiling the tests:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.nifi.registry.security.identity.IdentityMapperBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IdentityMapperBenchmark {
+
+    @Param({"50"})
+    public int ruleCount;
+
+    @Param({"1000"})
+    public int identityCount;
+
+    private List<IdentityMapping> mappings;
+    private CompiledIdentityMappings uncachedMappings;
+    private CompiledIdentityMappings cachedMappings;
+    private String[] identities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mappings = createMappings(ruleCount);
+        uncachedMappings = new CompiledIdentityMappings(mappings, 0);
+        cachedMappings = new CompiledIdentityMappings(mappings, identityCount);
+        identities = createIdentities(ruleCount, identityCount);
+
+        for (final String identity : identities) {
+            final String expected = IdentityMappingUtil.mapIdentity(identity, mappings);
+            if (!expected.equals(uncachedMappings.map(identity)) || !expected.equals(cachedMappings.map(identity))) {
+                throw new IllegalStateException("Compiled mappings produced a different result for " + identity);
+            }
+        }
+    }
+
+    @Benchmark
+    public String mapIdentityUtil() {
+        return IdentityMappingUtil.mapIdentity(nextIdentity(), mappings);
+    }
+
+    @Benchmark
+    public String mapCompiledUncached() {
+        return uncachedMappings.map(nextIdentity());
+    }
+
+    @Benchmark
+    public String mapCompiledCached() {
+        return cachedMappings.map(nextIdentity());
+    }
+
+    private String nextIdentity() {
+        return identities[ThreadLocalRandom.current().nextInt(identities.length)];
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(IdentityMapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Creates DN style mappings, one per organizational unit, in the order IdentityMappingUtil would sort them.
+     */
+    static List<IdentityMapping> createMappings(final int ruleCount) {
+        final List<IdentityMapping> mappings = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            final String key = String.format("rule-%03d", i);
+            final Pattern pattern = Pattern.compile("^CN=(.*?), OU=unit-" + i + ", O=(.*?), C=(.*?)$");
+            final IdentityMapping.Transform transform = i % 2 == 0 ? IdentityMapping.Transform.NONE : IdentityMapping.Transform.LOWER;
+            mappings.add(new IdentityMapping(key, pattern, "$1@$2", transform));
+        }
+        return mappings;
+    }
+
+    /**
+     * Creates identities spread evenly over the mappings, with every fourth identity matching none of them.
+     */
+    static String[] createIdentities(final int ruleCount, final int identityCount) {
+        final String[] identities = new String[identityCount];
+        for (int i = 0; i < identityCount; i++) {
+            if (i % 4 == 0) {
+                identities[i] = "user-" + i + "@EXAMPLE.COM";
+            } else {
+                identities[i] = "CN=user-" + i + ", OU=unit-" + (i % ruleCount) + ", O=Apache, C=US";
+            }
+        }
+        return identities;
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.identity;
+
+import org.apache.nifi.registry.properties.util.IdentityMapping;
+import org.apache.nifi.registry.properties.util.IdentityMapping.Transform;
+import org.apache.nifi.registry.properties.util.IdentityMappingUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestCompiledIdentityMappings {
+
+    @Test
+    public void testFirstMatchingMappingIsApplied() {
+        final List<IdentityMapping> mappings = Arrays.asList(
+                new IdentityMapping("a", Pattern.compile("^CN=(.*?), OU=(.*?)$"), "$1@$2", Transform.NONE),
+                new IdentityMapping("b", Pattern.compile("^CN=(.*?), .*$"), "$1", Transform.UPPER),
+                new IdentityMapping("c", Pattern.compile("^(.*?)/instance@(.*?)$"), "$1@$2", Transform.LOWER));
+
+        final CompiledIdentityMappings compiledMappings = new CompiledIdentityMappings(mappings, 10);
+        assertEquals(3, compiledMappings.getPrefilteredCount());
+
+        assertEquals("localhost@Apache NiFi", compiledMappings.map("CN=localhost, OU=Apache NiFi"));
+        assertEquals("LOCALHOST", compiledMappings.map("CN=localhost, O=Apache"));
+        assertEquals("nifi@example.com", compiledMappings.map("nifi/instance@EXAMPLE.COM"));
+        assertEquals("unmapped", compiledMappings.map("unmapped"));
+    }
+
+    @Test
+    public void testMatchesIdentityMappingUtil() {
+        final List<IdentityMapping> mappings = IdentityMapperBenchmark.createMappings(50);
+        final String[] identities = IdentityMapperBenchmark.createIdentities(50, 200);
+
+        final CompiledIdentityMappings compiledMappings = new CompiledIdentityMappings(mappings, 0);
+        assertEquals(50, compiledMappings.getPrefilteredCount());
+
+        for (final String identity : identities) {
+            assertEquals(IdentityMappingUtil.mapIdentity(identity, mappings), compiledMappings.map(identity));
+        }
+    }
+
+    @Test
+    public void testLiteralBackReferences() {
+        final List<IdentityMapping> mappings = Arrays.asList(
+                new IdentityMapping("a", Pattern.compile("^other$"), "unused", Transform.NONE),
+                new IdentityMapping("b", Pattern.compile("^(.*)$"), "I owe $8 to $1", Transform.NONE));
+
+        final CompiledIdentityMappings compiledMappings = new CompiledIdentityMappings(mappings, 10);
+        assertEquals(IdentityMappingUtil.mapIdentity("him", mappings), compiledMappings.map("him"));
+        assertEquals("I owe $8 to him", compiledMappings.map("him"));
+    }
+
+    @Test
+    public void testRequiredLiteral() {
+        assertEquals(", OU=", CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("^CN=(.*?), OU=(.*?), O=(.*?)$")));
+        assertEquals("/instance@", CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("^(.*?)/instance@(.*?)$")));
+        assertEquals("ab.c", CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("ab\\.cd+ef")));
+        assertEquals("bc", CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("a{2}bc")));
+        assertEquals("xyz", CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("[^]a]xyz")));
+        assertNull(CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("^(.*)$")));
+        assertNull(CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("(?i)^CN=(.*)$")));
+        assertNull(CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("\\x41BC")));
+        assertNull(CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("^CN=(.*)|^UID=(.*)$")));
+        assertNull(CompiledIdentityMappings.getRequiredLiteral(Pattern.compile("^CN=(.*)$", Pattern.CASE_INSENSITIVE)));
+    }
+
+    @Test
+    public void testPatternsWithoutRequiredLiteral() {
+        final List<IdentityMapping> mappings = Arrays.asList(
+                new IdentityMapping("a", Pattern.compile("^(\\w+)-\\1$"), "$1", Transform.NONE),
+                new IdentityMapping("b", Pattern.compile("^(.*)@(.*)$"), "$2", Transform.NONE));
+
+        final CompiledIdentityMappings compiledMappings = new CompiledIdentityMappings(mappings, 10);
+        assertEquals(1, compiledMappings.getPrefilteredCount());
+
+        assertEquals("abc", compiledMappings.map("abc-abc"));
+        assertEquals("example.com", compiledMappings.map("user@example.com"));
+        assertEquals("abc-def", compiledMappings.map("abc-def"));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        final List<IdentityMapping> mappings = Collections.singletonList(
+                new IdentityMapping("a", Pattern.compile("^(.*)$"), "$1", Transform.UPPER));
+
+        final CompiledIdentityMappings compiledMappings = new CompiledIdentityMappings(mappings, 2);
+
+        final List<String> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(compiledMappings.map("user-" + (i % 3)));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("USER-" + (i % 3), results.get(i));
+        }
+
+        final String first = compiledMappings.map("user-9");
+        assertSame(first, compiledMappings.map("user-9"));
+    }
+
+    @Test
+    public void testNoMappings() {
+        final CompiledIdentityMappings compiledMappings = new CompiledIdentityMappings(Collections.emptyList(), 10);
+        assertEquals("user", compiledMappings.map("user"));
+    }
+
+}
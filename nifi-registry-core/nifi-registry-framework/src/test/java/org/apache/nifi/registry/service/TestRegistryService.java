@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.registry.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.nifi.registry.bucket.Bucket;
 import org.apache.nifi.registry.db.entity.BucketEntity;
 import org.apache.nifi.registry.db.entity.FlowEntity;
@@ -31,9 +32,14 @@ import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
 import org.apache.nifi.registry.flow.VersionedProcessGroup;
 import org.apache.nifi.registry.flow.VersionedProcessor;
+import org.apache.nifi.registry.metrics.RegistryMetrics;
 import org.apache.nifi.registry.serialization.FlowContent;
 import org.apache.nifi.registry.serialization.FlowContentSerializer;
 import org.apache.nifi.registry.service.alias.RegistryUrlAliasService;
+import org.apache.nifi.registry.service.extension.BundleDependencyIndex;
+import org.apache.nifi.registry.service.extension.ExtensionRepoTree;
+import org.apache.nifi.registry.service.extension.ExtensionSearchIndex;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocsCache;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -53,6 +59,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
@@ -78,6 +85,11 @@ public class TestRegistryService {
     private FlowContentSerializer flowContentSerializer;
     private Validator validator;
     private RegistryUrlAliasService registryUrlAliasService;
+    private ExtensionSearchIndex extensionSearchIndex;
+    private ExtensionRepoTree extensionRepoTree;
+    private BundleDependencyIndex bundleDependencyIndex;
+    private ExtensionDocsCache extensionDocsCache;
+    private SimpleMeterRegistry meterRegistry;
 
     private RegistryService registryService;
 
@@ -88,12 +100,18 @@ public class TestRegistryService {
         bundlePersistenceProvider = mock(BundlePersistenceProvider.class);
         flowContentSerializer = mock(FlowContentSerializer.class);
         registryUrlAliasService = mock(RegistryUrlAliasService.class);
+        extensionSearchIndex = mock(ExtensionSearchIndex.class);
+        extensionRepoTree = mock(ExtensionRepoTree.class);
+        bundleDependencyIndex = mock(BundleDependencyIndex.class);
+        extensionDocsCache = mock(ExtensionDocsCache.class);
+        meterRegistry = new SimpleMeterRegistry();
 
         final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
         validator = validatorFactory.getValidator();
 
         registryService = new RegistryService(metadataService, flowPersistenceProvider, bundlePersistenceProvider,
-                flowContentSerializer, validator, registryUrlAliasService);
+                flowContentSerializer, validator, registryUrlAliasService, extensionSearchIndex, extensionRepoTree, bundleDependencyIndex,
+                extensionDocsCache, new RegistryMetrics(meterRegistry));
     }
 
     // ---------------------- Test Bucket methods ---------------------------------------------
@@ -296,6 +314,11 @@ public class TestRegistryService {
 
         verify(flowPersistenceProvider, times(1))
                 .deleteAllFlowContent(eq(bucketToDelete.getId()), eq(flowToDelete.getId()));
+
+        verify(extensionSearchIndex, times(1)).removeBucket(eq(bucketToDelete.getId()));
+        verify(extensionRepoTree, times(1)).removeBucket(eq(bucketToDelete.getId()));
+        verify(bundleDependencyIndex, times(1)).removeBucket(eq(bucketToDelete.getId()));
+        verify(extensionDocsCache, times(1)).removeBucket(eq(bucketToDelete.getId()));
     }
 
     // ---------------------- Test VersionedFlow methods ---------------------------------------------
@@ -1129,6 +1152,39 @@ public class TestRegistryService {
         registryService.getFlowSnapshot(existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion());
     }
 
+    @Test
+    public void testGetLatestSnapshotMetadataForManyFlows() {
+        final Set<String> bucketIds = new HashSet<>(Arrays.asList("b1", "b2"));
+        final Set<String> flowIds = new HashSet<>(Arrays.asList("flow1", "flow2", "flow3"));
+
+        final FlowSnapshotEntity flow1Snapshot = new FlowSnapshotEntity();
+        flow1Snapshot.setFlowId("flow1");
+        flow1Snapshot.setVersion(4);
+        flow1Snapshot.setCreatedBy("user1");
+        flow1Snapshot.setCreated(new Date());
+
+        final FlowSnapshotEntity flow3Snapshot = new FlowSnapshotEntity();
+        flow3Snapshot.setFlowId("flow3");
+        flow3Snapshot.setVersion(2);
+        flow3Snapshot.setCreatedBy("user2");
+        flow3Snapshot.setCreated(new Date());
+
+        final Map<String, List<FlowSnapshotEntity>> latestSnapshots = new HashMap<>();
+        latestSnapshots.put("b1", Collections.singletonList(flow1Snapshot));
+        latestSnapshots.put("b2", Collections.singletonList(flow3Snapshot));
+        when(metadataService.getLatestSnapshots(bucketIds, flowIds)).thenReturn(latestSnapshots);
+
+        final List<VersionedFlowSnapshotMetadata> latestMetadata = registryService.getLatestFlowSnapshotMetadata(bucketIds, flowIds);
+        assertEquals(2, latestMetadata.size());
+
+        final Map<String, VersionedFlowSnapshotMetadata> metadataByFlow = new HashMap<>();
+        latestMetadata.forEach(m -> metadataByFlow.put(m.getFlowIdentifier(), m));
+        assertEquals("b1", metadataByFlow.get("flow1").getBucketIdentifier());
+        assertEquals(4, metadataByFlow.get("flow1").getVersion());
+        assertEquals("b2", metadataByFlow.get("flow3").getBucketIdentifier());
+        assertEquals(2, metadataByFlow.get("flow3").getVersion());
+    }
+
     @Test
     public void testGetSnapshotExists() {
         final BucketEntity existingBucket = createBucketEntity("b1");
@@ -1271,6 +1327,11 @@ public class TestRegistryService {
 
         assertTrue(removedComponent.isPresent());
         assertTrue(removedComponent.get().getDifferences().iterator().next().getDifferenceType().equals("COMPONENT_REMOVED"));
+
+        // both versions were retrieved and deserialized, then compared once
+        assertEquals(2, meterRegistry.timer(RegistryMetrics.FLOW_PERSISTENCE_TIMER, RegistryMetrics.OPERATION_TAG, "get").count());
+        assertEquals(2, meterRegistry.timer(RegistryMetrics.FLOW_SERIALIZATION_TIMER, RegistryMetrics.OPERATION_TAG, "deserialize").count());
+        assertEquals(1, meterRegistry.timer(RegistryMetrics.FLOW_COMPARISON_TIMER).count());
     }
 
     @Test
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionDependencyEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.exception.ResourceNotFoundException;
+import org.apache.nifi.registry.extension.bundle.BundleType;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependency;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
+import org.apache.nifi.registry.extension.bundle.ResolvedBundleVersionDependency;
+import org.apache.nifi.registry.service.MetadataService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestBundleDependencyIndex {
+
+    private static final String BUCKET_1 = "b1";
+    private static final String BUCKET_2 = "b2";
+    private static final String GROUP_ID = "org.apache.nifi";
+
+    private MetadataService metadataService;
+    private BundleDependencyIndex dependencyIndex;
+
+    private Map<String, BundleEntity> bundles;
+    private List<BundleVersionEntity> versions;
+    private List<BundleVersionDependencyEntity> dependencies;
+
+    @Before
+    public void setup() {
+        metadataService = mock(MetadataService.class);
+        bundles = new HashMap<>();
+        versions = new ArrayList<>();
+        dependencies = new ArrayList<>();
+
+        // app -> [services, util], services -> [api], util -> [api], api has no dependencies
+        addVersion(BUCKET_1, "nifi-app-nar", "1.0.0", "nifi-services-nar:1.0.0", "nifi-util-nar:1.0.0");
+        addVersion(BUCKET_1, "nifi-services-nar", "1.0.0", "nifi-api-nar:1.0.0");
+        addVersion(BUCKET_1, "nifi-util-nar", "1.0.0", "nifi-api-nar:1.0.0");
+        addVersion(BUCKET_1, "nifi-api-nar", "1.0.0");
+
+        // broken -> [does-not-exist, other], where other is only in bucket 2
+        addVersion(BUCKET_1, "nifi-broken-nar", "1.0.0", "nifi-does-not-exist-nar:1.0.0", "nifi-other-nar:1.0.0");
+        addVersion(BUCKET_2, "nifi-other-nar", "1.0.0");
+
+        // cycle-a -> cycle-b -> cycle-c -> cycle-a
+        addVersion(BUCKET_1, "nifi-cycle-a-nar", "1.0.0", "nifi-cycle-b-nar:1.0.0");
+        addVersion(BUCKET_1, "nifi-cycle-b-nar", "1.0.0", "nifi-cycle-c-nar:1.0.0");
+        addVersion(BUCKET_1, "nifi-cycle-c-nar", "1.0.0", "nifi-cycle-a-nar:1.0.0");
+
+        when(metadataService.getAllBuckets()).thenReturn(Arrays.asList(createBucketEntity(BUCKET_1), createBucketEntity(BUCKET_2)));
+        when(metadataService.getBundles(any(), isNull())).thenAnswer(invocation -> new ArrayList<>(bundles.values()));
+        when(metadataService.getBundleVersions(any(), isNull())).thenAnswer(invocation -> versions);
+        when(metadataService.getAllDependencies()).thenAnswer(invocation -> dependencies);
+
+        dependencyIndex = new BundleDependencyIndex(metadataService);
+        dependencyIndex.rebuild();
+    }
+
+    @Test
+    public void testRebuild() {
+        assertEquals(9, dependencyIndex.size());
+    }
+
+    @Test
+    public void testResolveTransitiveDependencies() {
+        final BundleVersionDependencyGraph graph = resolve("nifi-app-nar", BUCKET_1);
+        assertEquals("nifi-app-nar", graph.getBundle().getArtifactId());
+        assertFalse(graph.isCyclic());
+        assertTrue(graph.getMissingDependencies().isEmpty());
+
+        // the api is reached through both services and util but only listed once
+        assertEquals(Arrays.asList("nifi-services-nar", "nifi-util-nar", "nifi-api-nar"), getArtifactIds(graph));
+        assertEquals(Arrays.asList(1, 1, 2), graph.getDependencies().stream()
+                .map(ResolvedBundleVersionDependency::getDepth)
+                .collect(Collectors.toList()));
+
+        final ResolvedBundleVersionDependency services = graph.getDependencies().get(0);
+        assertEquals(BUCKET_1, services.getBundle().getBucketId());
+        assertEquals(BUCKET_1 + ":nifi-services-nar", services.getBundle().getBundleId());
+        assertEquals(BundleType.NIFI_NAR, services.getBundle().getBundleType());
+        assertEquals(Collections.singletonList(coordinate("nifi-api-nar:1.0.0")), services.getDependencies());
+    }
+
+    @Test
+    public void testResolveWithoutDependencies() {
+        final BundleVersionDependencyGraph graph = resolve("nifi-api-nar", BUCKET_1);
+        assertTrue(graph.getDependencies().isEmpty());
+        assertTrue(graph.getMissingDependencies().isEmpty());
+        assertFalse(graph.isCyclic());
+    }
+
+    @Test
+    public void testResolveMissingDependencies() {
+        final BundleVersionDependencyGraph graph = resolve("nifi-broken-nar", BUCKET_1);
+        assertEquals(Arrays.asList(coordinate("nifi-does-not-exist-nar:1.0.0"), coordinate("nifi-other-nar:1.0.0")),
+                graph.getMissingDependencies());
+
+        final ResolvedBundleVersionDependency missing = graph.getDependencies().get(0);
+        assertNull(missing.getBundle());
+        assertTrue(missing.getDependencies().isEmpty());
+    }
+
+    @Test
+    public void testResolveFromOtherAuthorizedBucket() {
+        final BundleVersionDependencyGraph graph = resolve("nifi-broken-nar", BUCKET_1, BUCKET_2);
+        assertEquals(Collections.singletonList(coordinate("nifi-does-not-exist-nar:1.0.0")), graph.getMissingDependencies());
+        assertEquals(BUCKET_2, graph.getDependencies().get(1).getBundle().getBucketId());
+    }
+
+    @Test
+    public void testResolvePrefersBucketOfRoot() {
+        addVersion(BUCKET_2, "nifi-api-nar", "1.0.0");
+        addVersion(BUCKET_2, "nifi-consumer-nar", "1.0.0", "nifi-api-nar:1.0.0");
+        dependencyIndex.rebuild();
+
+        final BundleVersionDependencyGraph graph = resolve("nifi-consumer-nar", BUCKET_2, BUCKET_1);
+        assertEquals(BUCKET_2, graph.getDependencies().get(0).getBundle().getBucketId());
+
+        final BundleVersionDependencyGraph otherGraph = resolve("nifi-app-nar", BUCKET_1, BUCKET_2);
+        assertEquals(BUCKET_1, otherGraph.getDependencies().get(2).getBundle().getBucketId());
+    }
+
+    @Test
+    public void testResolveCycle() {
+        final BundleVersionDependencyGraph graph = resolve("nifi-cycle-a-nar", BUCKET_1);
+        assertTrue(graph.isCyclic());
+        assertEquals(Arrays.asList("nifi-cycle-b-nar", "nifi-cycle-c-nar"), getArtifactIds(graph));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void testResolveUnknownBundleVersion() {
+        dependencyIndex.resolve("DOES-NOT-EXIST", Collections.singleton(BUCKET_1));
+    }
+
+    @Test
+    public void testResolveIsCachedUntilIndexChanges() {
+        final BundleVersionDependencyGraph graph = resolve("nifi-app-nar", BUCKET_1);
+        assertSame(graph, resolve("nifi-app-nar", BUCKET_1));
+
+        // a different set of buckets is cached separately
+        assertNotSame(graph, resolve("nifi-app-nar", BUCKET_1, BUCKET_2));
+
+        dependencyIndex.removeBundleVersion(getVersionId(BUCKET_1, "nifi-api-nar", "1.0.0"));
+
+        final BundleVersionDependencyGraph updatedGraph = resolve("nifi-app-nar", BUCKET_1);
+        assertNotSame(graph, updatedGraph);
+        assertEquals(Collections.singletonList(coordinate("nifi-api-nar:1.0.0")), updatedGraph.getMissingDependencies());
+    }
+
+    @Test
+    public void testAddBundleVersion() {
+        final BundleEntity bundleEntity = createBundleEntity(BUCKET_1, "nifi-does-not-exist-nar");
+        final BundleVersionEntity versionEntity = createVersionEntity(bundleEntity, "1.0.0");
+        dependencyIndex.addBundleVersion(versionEntity, bundleEntity, Collections.emptyList());
+
+        final BundleVersionDependencyGraph graph = resolve("nifi-broken-nar", BUCKET_1);
+        assertEquals(Collections.singletonList(coordinate("nifi-other-nar:1.0.0")), graph.getMissingDependencies());
+    }
+
+    @Test
+    public void testRemoveBundleAndBucket() {
+        dependencyIndex.removeBundle(BUCKET_1 + ":nifi-util-nar");
+        assertEquals(8, dependencyIndex.size());
+
+        dependencyIndex.removeBucket(BUCKET_2);
+        assertEquals(7, dependencyIndex.size());
+    }
+
+    // the bundle version being resolved is in the first of the given buckets
+    private BundleVersionDependencyGraph resolve(final String artifactId, final String... bucketIds) {
+        final Set<String> bucketIdentifiers = new HashSet<>(Arrays.asList(bucketIds));
+        return dependencyIndex.resolve(getVersionId(bucketIds[0], artifactId, "1.0.0"), bucketIdentifiers);
+    }
+
+    private static List<String> getArtifactIds(final BundleVersionDependencyGraph graph) {
+        return graph.getDependencies().stream()
+                .map(d -> d.getCoordinate().getArtifactId())
+                .collect(Collectors.toList());
+    }
+
+    private void addVersion(final String bucketId, final String artifactId, final String version, final String... dependencyCoordinates) {
+        final BundleEntity bundleEntity = bundles.computeIfAbsent(bucketId + ":" + artifactId, id -> createBundleEntity(bucketId, artifactId));
+        final BundleVersionEntity versionEntity = createVersionEntity(bundleEntity, version);
+        versions.add(versionEntity);
+
+        for (final String dependencyCoordinate : dependencyCoordinates) {
+            final BundleVersionDependency dependency = coordinate(dependencyCoordinate);
+
+            final BundleVersionDependencyEntity dependencyEntity = new BundleVersionDependencyEntity();
+            dependencyEntity.setId(versionEntity.getId() + "-" + dependency.getArtifactId());
+            dependencyEntity.setExtensionBundleVersionId(versionEntity.getId());
+            dependencyEntity.setGroupId(dependency.getGroupId());
+            dependencyEntity.setArtifactId(dependency.getArtifactId());
+            dependencyEntity.setVersion(dependency.getVersion());
+            dependencies.add(dependencyEntity);
+        }
+    }
+
+    private static BundleVersionDependency coordinate(final String artifactAndVersion) {
+        final String[] parts = artifactAndVersion.split(":");
+
+        final BundleVersionDependency dependency = new BundleVersionDependency();
+        dependency.setGroupId(GROUP_ID);
+        dependency.setArtifactId(parts[0]);
+        dependency.setVersion(parts[1]);
+        return dependency;
+    }
+
+    private static String getVersionId(final String bucketId, final String artifactId, final String version) {
+        return bucketId + ":" + artifactId + ":" + version;
+    }
+
+    private static BucketEntity createBucketEntity(final String bucketId) {
+        final BucketEntity entity = new BucketEntity();
+        entity.setId(bucketId);
+        entity.setName(bucketId);
+        return entity;
+    }
+
+    private static BundleEntity createBundleEntity(final String bucketId, final String artifactId) {
+        final BundleEntity entity = new BundleEntity();
+        entity.setId(bucketId + ":" + artifactId);
+        entity.setBucketId(bucketId);
+        entity.setGroupId(GROUP_ID);
+        entity.setArtifactId(artifactId);
+        entity.setBundleType(BundleType.NIFI_NAR);
+        return entity;
+    }
+
+    private static BundleVersionEntity createVersionEntity(final BundleEntity bundleEntity, final String version) {
+        final BundleVersionEntity entity = new BundleVersionEntity();
+        entity.setId(getVersionId(bundleEntity.getBucketId(), bundleEntity.getArtifactId(), version));
+        entity.setBundleId(bundleEntity.getId());
+        entity.setBucketId(bundleEntity.getBucketId());
+        entity.setGroupId(bundleEntity.getGroupId());
+        entity.setArtifactId(bundleEntity.getArtifactId());
+        entity.setVersion(version);
+        return entity;
+    }
+
+}
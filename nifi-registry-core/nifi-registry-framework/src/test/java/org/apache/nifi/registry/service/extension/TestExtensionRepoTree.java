@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.nifi.registry.bucket.Bucket;
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoArtifact;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoBucket;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoGroup;
+import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
+import org.apache.nifi.registry.service.MetadataService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestExtensionRepoTree {
+
+    private static final String GROUP_ID = "org.apache.nifi";
+
+    private MetadataService metadataService;
+    private ExtensionRepoTree repoTree;
+
+    private Bucket bucket1;
+    private Bucket bucket2;
+
+    @Before
+    public void setup() {
+        metadataService = mock(MetadataService.class);
+
+        bucket1 = createBucket("b1", "Bucket 1");
+        bucket2 = createBucket("b2", "Bucket 2");
+
+        when(metadataService.getAllBuckets()).thenReturn(Arrays.asList(
+                createBucketEntity(bucket1), createBucketEntity(bucket2)));
+
+        when(metadataService.getBundles(any(), isNull())).thenReturn(Arrays.asList(
+                createBundleEntity("b1", GROUP_ID, "nifi-foo-nar"),
+                createBundleEntity("b1", GROUP_ID, "nifi-bar-nar"),
+                createBundleEntity("b1", "com.example", "nifi-example-nar")));
+
+        when(metadataService.getBundleVersions(any(), isNull())).thenReturn(Arrays.asList(
+                createVersionEntity("b1", GROUP_ID, "nifi-foo-nar", "1.0.0"),
+                createVersionEntity("b1", GROUP_ID, "nifi-foo-nar", "1.1.0"),
+                createVersionEntity("b1", GROUP_ID, "nifi-bar-nar", "2.0.0")));
+
+        repoTree = new ExtensionRepoTree(metadataService);
+        repoTree.rebuild();
+    }
+
+    @Test
+    public void testRebuild() {
+        assertEquals(Arrays.asList("Bucket 1", "Bucket 2"), getBucketNames("b1", "b2"));
+        assertEquals(Arrays.asList("com.example", GROUP_ID), getGroupIds(bucket1));
+        assertEquals(Arrays.asList("nifi-bar-nar", "nifi-foo-nar"), getArtifactIds(bucket1, GROUP_ID));
+        assertEquals(Arrays.asList("1.0.0", "1.1.0"), getVersions(bucket1, GROUP_ID, "nifi-foo-nar"));
+
+        // a bundle without any versions is still listed as an artifact
+        assertEquals(Arrays.asList("nifi-example-nar"), getArtifactIds(bucket1, "com.example"));
+        assertTrue(repoTree.getVersions(bucket1, "com.example", "nifi-example-nar").isEmpty());
+
+        assertTrue(repoTree.getGroups(bucket2).isEmpty());
+    }
+
+    @Test
+    public void testGetVersionSummary() {
+        final ExtensionRepoVersionSummary summary = repoTree.getVersions(bucket1, GROUP_ID, "nifi-bar-nar").first();
+        assertEquals("Bucket 1", summary.getBucketName());
+        assertEquals(GROUP_ID, summary.getGroupId());
+        assertEquals("nifi-bar-nar", summary.getArtifactId());
+        assertEquals("2.0.0", summary.getVersion());
+        assertEquals("user-2.0.0", summary.getAuthor());
+        assertEquals(2000, summary.getTimestamp());
+    }
+
+    @Test
+    public void testGetBucketsOnlyReturnsRequestedBuckets() {
+        assertEquals(Arrays.asList("Bucket 2"), getBucketNames("b2", "does-not-exist"));
+    }
+
+    @Test
+    public void testUnknownPathsAreEmpty() {
+        assertTrue(repoTree.getGroups(createBucket("does-not-exist", "Unknown")).isEmpty());
+        assertTrue(repoTree.getArtifacts(bucket1, "does.not.exist").isEmpty());
+        assertTrue(repoTree.getVersions(bucket1, GROUP_ID, "does-not-exist").isEmpty());
+    }
+
+    @Test
+    public void testAddBundleVersion() {
+        repoTree.addBundleVersion("b2", "org.apache.nifi.minifi", "minifi-foo", "0.1.0", "user", 3000);
+        repoTree.addBundleVersion("b1", GROUP_ID, "nifi-foo-nar", "1.2.0", "user", 3000);
+
+        assertEquals(Arrays.asList("org.apache.nifi.minifi"), getGroupIds(bucket2));
+        assertEquals(Arrays.asList("minifi-foo"), getArtifactIds(bucket2, "org.apache.nifi.minifi"));
+        assertEquals(Arrays.asList("1.0.0", "1.1.0", "1.2.0"), getVersions(bucket1, GROUP_ID, "nifi-foo-nar"));
+    }
+
+    @Test
+    public void testRemoveBundleVersionKeepsArtifact() {
+        repoTree.removeBundleVersion("b1", GROUP_ID, "nifi-bar-nar", "2.0.0");
+
+        assertTrue(repoTree.getVersions(bucket1, GROUP_ID, "nifi-bar-nar").isEmpty());
+        assertEquals(Arrays.asList("nifi-bar-nar", "nifi-foo-nar"), getArtifactIds(bucket1, GROUP_ID));
+    }
+
+    @Test
+    public void testRemoveBundle() {
+        repoTree.removeBundle("b1", GROUP_ID, "nifi-bar-nar");
+        assertEquals(Arrays.asList("nifi-foo-nar"), getArtifactIds(bucket1, GROUP_ID));
+
+        // removing the last bundle of a group removes the group
+        repoTree.removeBundle("b1", "com.example", "nifi-example-nar");
+        assertEquals(Arrays.asList(GROUP_ID), getGroupIds(bucket1));
+    }
+
+    @Test
+    public void testPutBucket() {
+        repoTree.putBucket("b3", "Bucket 3");
+        repoTree.putBucket("b2", "Renamed Bucket");
+
+        assertEquals(Arrays.asList("Bucket 1", "Bucket 3", "Renamed Bucket"), getBucketNames("b1", "b2", "b3"));
+
+        // renaming a bucket keeps its bundles
+        repoTree.putBucket("b1", "Renamed Bucket 1");
+        assertEquals(Arrays.asList("com.example", GROUP_ID), getGroupIds(bucket1));
+    }
+
+    @Test
+    public void testRemoveBucket() {
+        repoTree.removeBucket("b1");
+
+        assertEquals(Arrays.asList("Bucket 2"), getBucketNames("b1", "b2"));
+        assertTrue(repoTree.getGroups(bucket1).isEmpty());
+    }
+
+    private List<String> getBucketNames(final String... bucketIds) {
+        return names(repoTree.getBuckets(new HashSet<>(Arrays.asList(bucketIds))).stream()
+                .map(ExtensionRepoBucket::getBucketName).collect(Collectors.toList()));
+    }
+
+    private List<String> getGroupIds(final Bucket bucket) {
+        return names(repoTree.getGroups(bucket).stream()
+                .map(ExtensionRepoGroup::getGroupId).collect(Collectors.toList()));
+    }
+
+    private List<String> getArtifactIds(final Bucket bucket, final String groupId) {
+        return names(repoTree.getArtifacts(bucket, groupId).stream()
+                .map(ExtensionRepoArtifact::getArtifactId).collect(Collectors.toList()));
+    }
+
+    private List<String> getVersions(final Bucket bucket, final String groupId, final String artifactId) {
+        return names(repoTree.getVersions(bucket, groupId, artifactId).stream()
+                .map(ExtensionRepoVersionSummary::getVersion).collect(Collectors.toList()));
+    }
+
+    private static List<String> names(final Collection<String> names) {
+        return names.stream().sorted().collect(Collectors.toList());
+    }
+
+    private static Bucket createBucket(final String id, final String name) {
+        final Bucket bucket = new Bucket();
+        bucket.setIdentifier(id);
+        bucket.setName(name);
+        return bucket;
+    }
+
+    private static BucketEntity createBucketEntity(final Bucket bucket) {
+        final BucketEntity entity = new BucketEntity();
+        entity.setId(bucket.getIdentifier());
+        entity.setName(bucket.getName());
+        return entity;
+    }
+
+    private static BundleEntity createBundleEntity(final String bucketId, final String groupId, final String artifactId) {
+        final BundleEntity entity = new BundleEntity();
+        entity.setId(bucketId + ":" + groupId + ":" + artifactId);
+        entity.setBucketId(bucketId);
+        entity.setGroupId(groupId);
+        entity.setArtifactId(artifactId);
+        return entity;
+    }
+
+    private static BundleVersionEntity createVersionEntity(final String bucketId, final String groupId, final String artifactId,
+                                                           final String version) {
+        final BundleVersionEntity entity = new BundleVersionEntity();
+        entity.setId(bucketId + ":" + groupId + ":" + artifactId + ":" + version);
+        entity.setBucketId(bucketId);
+        entity.setGroupId(groupId);
+        entity.setArtifactId(artifactId);
+        entity.setVersion(version);
+        entity.setCreatedBy("user-" + version);
+        entity.setCreated(new Date(Long.parseLong(version.substring(0, 1)) * 1000));
+        return entity;
+    }
+
+}
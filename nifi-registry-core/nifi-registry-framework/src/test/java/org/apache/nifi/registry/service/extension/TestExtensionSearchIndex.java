@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.extension.bundle.BundleType;
+import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
+import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
+import org.apache.nifi.registry.extension.component.FacetCount;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
+import org.apache.nifi.registry.extension.component.manifest.Property;
+import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.serialization.ExtensionSerializer;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class TestExtensionSearchIndex {
+
+    private static final String BUCKET_1 = "b1";
+    private static final String BUCKET_2 = "b2";
+
+    private Serializer<Extension> extensionSerializer;
+    private MetadataService metadataService;
+    private ExtensionSearchIndex searchIndex;
+    private List<ExtensionEntity> persistedExtensions;
+
+    @Before
+    public void setup() {
+        extensionSerializer = new ExtensionSerializer();
+        metadataService = mock(MetadataService.class);
+        persistedExtensions = new ArrayList<>();
+
+        doAnswer(invocation -> {
+            final Consumer<ExtensionEntity> handler = invocation.getArgument(0);
+            persistedExtensions.forEach(handler);
+            return null;
+        }).when(metadataService).forEachExtension(any());
+
+        persistedExtensions.add(createExtensionEntity("e1", "bv1", BUCKET_1, BundleType.NIFI_NAR,
+                createExtension("org.apache.nifi.processors.kafka.ConsumeKafka", ExtensionType.PROCESSOR,
+                        "Consumes messages from Apache Kafka", Arrays.asList("kafka", "consume"), "topic")));
+        persistedExtensions.add(createExtensionEntity("e2", "bv1", BUCKET_1, BundleType.NIFI_NAR,
+                createExtension("org.apache.nifi.processors.kafka.PublishKafka", ExtensionType.PROCESSOR,
+                        "Sends the contents of a FlowFile to Apache Kafka", Arrays.asList("kafka", "put"), "topic")));
+        persistedExtensions.add(createExtensionEntity("e3", "bv2", BUCKET_1, BundleType.NIFI_NAR,
+                createExtension("org.apache.nifi.processors.aws.s3.PutS3Object", ExtensionType.PROCESSOR,
+                        "Puts FlowFiles to an Amazon S3 Bucket", Arrays.asList("aws", "s3", "put"), "Bucket")));
+        persistedExtensions.add(createExtensionEntity("e4", "bv3", BUCKET_2, BundleType.MINIFI_CPP,
+                createExtension("org.apache.nifi.minifi.ConsumeMQTT", ExtensionType.PROCESSOR,
+                        "Receives messages from an MQTT broker", Arrays.asList("mqtt", "consume"), "Broker URI")));
+
+        final Extension controllerService = createExtension("org.apache.nifi.record.CSVReader", ExtensionType.CONTROLLER_SERVICE,
+                "Parses CSV-formatted data, returning each row as a separate record", Arrays.asList("csv", "parse"), "Schema Access Strategy");
+        final ProvidedServiceAPI serviceAPI = new ProvidedServiceAPI();
+        serviceAPI.setClassName("org.apache.nifi.serialization.RecordReaderFactory");
+        serviceAPI.setGroupId("org.apache.nifi");
+        serviceAPI.setArtifactId("nifi-standard-services-api-nar");
+        serviceAPI.setVersion("1.12.0");
+        controllerService.setProvidedServiceAPIs(Collections.singletonList(serviceAPI));
+        persistedExtensions.add(createExtensionEntity("e5", "bv4", BUCKET_1, BundleType.NIFI_NAR, controllerService));
+
+        searchIndex = new ExtensionSearchIndex(extensionSerializer, metadataService);
+        searchIndex.rebuild();
+    }
+
+    @Test
+    public void testRebuild() {
+        assertEquals(5, searchIndex.size());
+    }
+
+    @Test
+    public void testSearchByCamelCasePartOfName() {
+        final ExtensionSearchResults results = search("kafka");
+        assertEquals(2, results.getNumResults());
+        assertEquals(new HashSet<>(Arrays.asList("ConsumeKafka", "PublishKafka")), getDisplayNames(results));
+    }
+
+    @Test
+    public void testSearchRequiresAllTerms() {
+        final ExtensionSearchResults results = search("consume kafka");
+        assertEquals(1, results.getNumResults());
+        assertEquals("ConsumeKafka", results.getExtensions().get(0).getDisplayName());
+    }
+
+    @Test
+    public void testSearchByPrefix() {
+        final ExtensionSearchResults results = search("Publ");
+        assertEquals(1, results.getNumResults());
+        assertEquals("PublishKafka", results.getExtensions().get(0).getDisplayName());
+    }
+
+    @Test
+    public void testSearchByPropertyName() {
+        final ExtensionSearchResults results = search("schema access");
+        assertEquals(1, results.getNumResults());
+        assertEquals("CSVReader", results.getExtensions().get(0).getDisplayName());
+    }
+
+    @Test
+    public void testSearchByProvidedServiceApi() {
+        final ExtensionSearchResults results = search("RecordReaderFactory");
+        assertEquals(1, results.getNumResults());
+        assertEquals("CSVReader", results.getExtensions().get(0).getDisplayName());
+    }
+
+    @Test
+    public void testSearchRanksNameAboveDescription() {
+        // PutS3Object has "put" in its name and tags, PublishKafka only has it as a tag
+        final ExtensionSearchResults results = search("put");
+        assertEquals(2, results.getNumResults());
+        assertEquals("PutS3Object", results.getExtensions().get(0).getDisplayName());
+        assertEquals("PublishKafka", results.getExtensions().get(1).getDisplayName());
+    }
+
+    @Test
+    public void testSearchOnlyAuthorizedBuckets() {
+        final ExtensionSearchResults results = searchIndex.search("consume", Collections.singleton(BUCKET_2), null, 10);
+        assertEquals(1, results.getNumResults());
+        assertEquals("ConsumeMQTT", results.getExtensions().get(0).getDisplayName());
+    }
+
+    @Test
+    public void testSearchWithFilterParams() {
+        final ExtensionFilterParams filterParams = new ExtensionFilterParams.Builder()
+                .bundleType(BundleType.MINIFI_CPP)
+                .build();
+
+        final ExtensionSearchResults results = searchIndex.search("consume", getAllBuckets(), filterParams, 10);
+        assertEquals(1, results.getNumResults());
+        assertEquals("ConsumeMQTT", results.getExtensions().get(0).getDisplayName());
+    }
+
+    @Test
+    public void testBlankQueryMatchesAllWithFacets() {
+        final ExtensionSearchResults results = search(" ");
+        assertEquals(5, results.getNumResults());
+
+        assertEquals(Arrays.asList(new FacetCount(ExtensionType.PROCESSOR.name(), 4), new FacetCount(ExtensionType.CONTROLLER_SERVICE.name(), 1)),
+                results.getExtensionTypes());
+        assertEquals(Arrays.asList(new FacetCount(BundleType.NIFI_NAR.name(), 4), new FacetCount(BundleType.MINIFI_CPP.name(), 1)),
+                results.getBundleTypes());
+        assertEquals(new FacetCount("consume", 2), results.getTags().get(0));
+    }
+
+    @Test
+    public void testSearchLimitsExtensionsButCountsAllMatches() {
+        final ExtensionSearchResults results = searchIndex.search("", getAllBuckets(), null, 2);
+        assertEquals(5, results.getNumResults());
+        assertEquals(2, results.getExtensions().size());
+    }
+
+    @Test
+    public void testNoMatches() {
+        final ExtensionSearchResults results = search("kafka mqtt");
+        assertEquals(0, results.getNumResults());
+        assertTrue(results.getExtensions().isEmpty());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        final ExtensionEntity entity = createExtensionEntity("e6", "bv5", BUCKET_2, BundleType.NIFI_NAR,
+                createExtension("org.apache.nifi.processors.kafka.ConsumeKafkaRecord", ExtensionType.PROCESSOR,
+                        "Consumes records from Apache Kafka", Arrays.asList("kafka", "record"), "topic"));
+        searchIndex.addExtensions(Collections.singletonList(entity));
+        assertEquals(6, searchIndex.size());
+        assertEquals(3, search("kafka").getNumResults());
+
+        searchIndex.removeBundleVersion("bv5");
+        assertEquals(5, searchIndex.size());
+        assertEquals(2, search("kafka").getNumResults());
+
+        searchIndex.removeBucket(BUCKET_1);
+        assertEquals(1, searchIndex.size());
+        assertEquals(0, search("kafka").getNumResults());
+    }
+
+    @Test
+    public void testResultsAreCopies() {
+        final ExtensionMetadata first = search("mqtt").getExtensions().get(0);
+        first.getBundleInfo().setBucketName("Renamed");
+
+        final ExtensionMetadata second = search("mqtt").getExtensions().get(0);
+        assertEquals("Bucket " + BUCKET_2, second.getBundleInfo().getBucketName());
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Arrays.asList("puts3object", "put", "s3", "object"), ExtensionSearchIndex.tokenize("PutS3Object", true));
+        assertEquals(Arrays.asList("csvreader", "csv", "reader"), ExtensionSearchIndex.tokenize("CSVReader", true));
+        assertEquals(Arrays.asList("consumekafka", "consume", "kafka", "v2"), ExtensionSearchIndex.tokenize("ConsumeKafka_2_0 v2", true));
+        assertEquals(Arrays.asList("consumekafka"), ExtensionSearchIndex.tokenize("ConsumeKafka", false));
+    }
+
+    private ExtensionSearchResults search(final String query) {
+        return searchIndex.search(query, getAllBuckets(), null, 10);
+    }
+
+    private Set<String> getAllBuckets() {
+        return new HashSet<>(Arrays.asList(BUCKET_1, BUCKET_2));
+    }
+
+    private Set<String> getDisplayNames(final ExtensionSearchResults results) {
+        return results.getExtensions().stream().map(ExtensionMetadata::getDisplayName).collect(Collectors.toSet());
+    }
+
+    private Extension createExtension(final String name, final ExtensionType type, final String description,
+                                      final List<String> tags, final String propertyName) {
+        final Property property = new Property();
+        property.setName(propertyName);
+        property.setDisplayName(propertyName);
+
+        final Extension extension = new Extension();
+        extension.setName(name);
+        extension.setType(type);
+        extension.setDescription(description);
+        extension.setTags(tags);
+        extension.setProperties(Collections.singletonList(property));
+        return extension;
+    }
+
+    private ExtensionEntity createExtensionEntity(final String id, final String bundleVersionId, final String bucketId,
+                                                  final BundleType bundleType, final Extension extension) {
+        final ExtensionEntity entity = ExtensionMappings.map(extension, extensionSerializer);
+        entity.setId(id);
+        entity.setBundleVersionId(bundleVersionId);
+        entity.setBucketId(bucketId);
+        entity.setBucketName("Bucket " + bucketId);
+        entity.setBundleId("bundle-" + bundleVersionId);
+        entity.setGroupId("org.apache.nifi");
+        entity.setArtifactId("artifact-" + bundleVersionId);
+        entity.setVersion("1.0.0");
+        entity.setBundleType(bundleType);
+        return entity;
+    }
+}
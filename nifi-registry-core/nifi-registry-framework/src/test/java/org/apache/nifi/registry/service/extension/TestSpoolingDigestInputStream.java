@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class TestSpoolingDigestInputStream {
+
+    @Test
+    public void testPartialJarReadThenDrain() throws IOException, NoSuchAlgorithmException {
+        final byte[] jar = createJar();
+
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        final SpoolingDigestInputStream spoolingInputStream = new SpoolingDigestInputStream(new ByteArrayInputStream(jar), digest, copy);
+
+        // only read the manifest and the first entry, then close the jar stream like an extractor would
+        try (final JarInputStream jarInputStream = new JarInputStream(spoolingInputStream)) {
+            assertNotNull(jarInputStream.getManifest());
+            assertNotNull(jarInputStream.getNextJarEntry());
+        }
+
+        spoolingInputStream.drain();
+
+        assertEquals(jar.length, spoolingInputStream.getBytesRead());
+        assertArrayEquals(jar, copy.toByteArray());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(jar), digest.digest());
+    }
+
+    @Test
+    public void testSkipIsCopied() throws IOException, NoSuchAlgorithmException {
+        final byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        final SpoolingDigestInputStream spoolingInputStream = new SpoolingDigestInputStream(new ByteArrayInputStream(content), digest, copy);
+
+        assertEquals('0', spoolingInputStream.read());
+        assertEquals(5, spoolingInputStream.skip(5));
+        assertEquals('6', spoolingInputStream.read());
+        assertEquals(3, spoolingInputStream.skip(100));
+        assertEquals(-1, spoolingInputStream.read());
+
+        assertArrayEquals(content, copy.toByteArray());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(content), digest.digest());
+    }
+
+    private byte[] createJar() throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Nar-Id", "nifi-test-nar");
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final JarOutputStream jarOutputStream = new JarOutputStream(out, manifest)) {
+            for (int i = 0; i < 10; i++) {
+                jarOutputStream.putNextEntry(new JarEntry("entry-" + i + ".txt"));
+                for (int j = 0; j < 1000; j++) {
+                    jarOutputStream.write(("line " + j + " of entry " + i + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+                jarOutputStream.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
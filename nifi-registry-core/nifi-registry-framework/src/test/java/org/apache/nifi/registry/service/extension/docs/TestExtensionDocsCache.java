@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension.docs;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestExtensionDocsCache {
+
+    @Test
+    public void testRendersOncePerExtension() throws IOException {
+        final ExtensionDocsCache cache = new ExtensionDocsCache(1024 * 1024);
+        final AtomicInteger renderCount = new AtomicInteger();
+        final ExtensionDocs.Writer writer = out -> {
+            renderCount.incrementAndGet();
+            out.write("<html>docs</html>".getBytes(StandardCharsets.UTF_8));
+        };
+
+        final ExtensionDocs first = cache.get(version("bv1"), "org.apache.nifi.ProcessorA", false, writer);
+        final ExtensionDocs second = cache.get(version("bv1"), "org.apache.nifi.ProcessorA", false, writer);
+        assertSame(first, second);
+        assertEquals(1, renderCount.get());
+
+        // additional details are stored separately from the generated docs
+        cache.get(version("bv1"), "org.apache.nifi.ProcessorA", true, writer);
+        assertEquals(2, renderCount.get());
+    }
+
+    @Test
+    public void testDocsContentAndETag() throws IOException {
+        final ExtensionDocsCache cache = new ExtensionDocsCache(1024 * 1024);
+        final String content = "<html><body>Processor A</body></html>";
+
+        final ExtensionDocs docs = cache.get(version("bv1"), "org.apache.nifi.ProcessorA", false,
+                out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(DigestUtils.sha256Hex(content), docs.getETag());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        docs.writeTo(out);
+        assertEquals(content, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        final ByteArrayOutputStream compressedOut = new ByteArrayOutputStream();
+        docs.writeCompressedTo(compressedOut);
+        assertEquals(docs.getCompressedSize(), compressedOut.size());
+    }
+
+    @Test
+    public void testIdenticalDocsStoredOnce() throws IOException {
+        final ExtensionDocsCache cache = new ExtensionDocsCache(1024 * 1024);
+        final ExtensionDocs.Writer writer = out -> out.write("<html>same</html>".getBytes(StandardCharsets.UTF_8));
+
+        final ExtensionDocs docs1 = cache.get(version("bv1"), "org.apache.nifi.ProcessorA", false, writer);
+        final ExtensionDocs docs2 = cache.get(version("bv2"), "org.apache.nifi.ProcessorA", false, writer);
+        assertSame(docs1, docs2);
+        assertEquals(1, cache.getStoredCount());
+        assertEquals(docs1.getCompressedSize(), cache.getSize());
+
+        // the shared docs stay stored while one of the bundle versions still references them
+        cache.removeBundleVersion("bv1");
+        assertEquals(1, cache.getStoredCount());
+
+        cache.removeBundleVersion("bv2");
+        assertEquals(0, cache.getStoredCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testRemoveBundleAndBucket() throws IOException {
+        final ExtensionDocsCache cache = new ExtensionDocsCache(1024 * 1024);
+
+        cache.get(version("b1", "bundle1", "bv1"), "A", false, out -> out.write(content(0)));
+        cache.get(version("b1", "bundle2", "bv2"), "A", false, out -> out.write(content(1)));
+        cache.get(version("b2", "bundle3", "bv3"), "A", false, out -> out.write(content(2)));
+        assertEquals(3, cache.getStoredCount());
+
+        cache.removeBundle("bundle1");
+        assertEquals(2, cache.getStoredCount());
+
+        cache.removeBucket("b1");
+        assertEquals(1, cache.getStoredCount());
+
+        cache.removeBucket("b2");
+        assertEquals(0, cache.getStoredCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyRequested() throws IOException {
+        final ExtensionDocs sizing = ExtensionDocs.render(out -> out.write(content(0)));
+        final ExtensionDocsCache cache = new ExtensionDocsCache(sizing.getCompressedSize() * 2 + 1);
+
+        final ExtensionDocs docsA = cache.get(version("bv1"), "A", false, out -> out.write(content(0)));
+        cache.get(version("bv1"), "B", false, out -> out.write(content(1)));
+        assertEquals(2, cache.getStoredCount());
+
+        // request A again so that B becomes the least recently requested
+        assertSame(docsA, cache.get(version("bv1"), "A", false, out -> out.write(content(0))));
+        cache.get(version("bv1"), "C", false, out -> out.write(content(2)));
+        assertEquals(2, cache.getStoredCount());
+        assertTrue(cache.getSize() <= sizing.getCompressedSize() * 2 + 1);
+
+        assertSame(docsA, cache.get(version("bv1"), "A", false, out -> out.write(content(0))));
+        final AtomicInteger renderCount = new AtomicInteger();
+        cache.get(version("bv1"), "B", false, out -> {
+            renderCount.incrementAndGet();
+            out.write(content(1));
+        });
+        assertEquals(1, renderCount.get());
+    }
+
+    @Test
+    public void testDisabledWhenMaxSizeIsZero() throws IOException {
+        final ExtensionDocsCache cache = new ExtensionDocsCache(0);
+        final AtomicInteger renderCount = new AtomicInteger();
+        final ExtensionDocs.Writer writer = out -> {
+            renderCount.incrementAndGet();
+            out.write("<html>docs</html>".getBytes(StandardCharsets.UTF_8));
+        };
+
+        final ExtensionDocs first = cache.get(version("bv1"), "org.apache.nifi.ProcessorA", false, writer);
+        final ExtensionDocs second = cache.get(version("bv1"), "org.apache.nifi.ProcessorA", false, writer);
+        assertNotSame(first, second);
+        assertEquals(first.getETag(), second.getETag());
+        assertEquals(2, renderCount.get());
+        assertEquals(0, cache.getStoredCount());
+    }
+
+    private static BundleVersionMetadata version(final String bundleVersionId) {
+        return version("b1", "bundle1", bundleVersionId);
+    }
+
+    private static BundleVersionMetadata version(final String bucketId, final String bundleId, final String bundleVersionId) {
+        final BundleVersionMetadata versionMetadata = new BundleVersionMetadata();
+        versionMetadata.setBucketId(bucketId);
+        versionMetadata.setBundleId(bundleId);
+        versionMetadata.setId(bundleVersionId);
+        return versionMetadata;
+    }
+
+    private static byte[] content(final int index) {
+        return ("<html><body>Extension " + index + "</body></html>").getBytes(StandardCharsets.UTF_8);
+    }
+
+}
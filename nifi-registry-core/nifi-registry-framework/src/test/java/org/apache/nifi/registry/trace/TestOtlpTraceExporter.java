@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.trace;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestOtlpTraceExporter {
+
+    private HttpServer collector;
+    private BlockingQueue<byte[]> requests;
+    private OtlpTraceExporter exporter;
+
+    @Before
+    public void setup() throws IOException {
+        requests = new LinkedBlockingQueue<>();
+
+        // stands in for the OTLP/HTTP receiver of an OpenTelemetry collector
+        collector = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        collector.createContext("/v1/traces", exchange -> {
+            requests.add(IOUtils.toByteArray(exchange.getRequestBody()));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+
+        exporter = new OtlpTraceExporter("http://localhost:" + collector.getAddress().getPort() + "/v1/traces");
+    }
+
+    @After
+    public void teardown() {
+        exporter.destroy();
+        collector.stop(0);
+    }
+
+    @Test
+    public void testDisabledWithoutEndpoint() {
+        final OtlpTraceExporter disabled = new OtlpTraceExporter("  ");
+        assertFalse(disabled.isEnabled());
+
+        final RequestTrace trace = RequestTrace.start("GET /buckets", null);
+        trace.finish();
+        disabled.export(trace);
+        disabled.destroy();
+    }
+
+    @Test
+    public void testExportsTraceToCollector() throws Exception {
+        assertTrue(exporter.isEnabled());
+
+        final RequestTrace trace = RequestTrace.start("GET /buckets", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        try (final Span span = RequestTrace.span(RequestTrace.LAYER_FACADE, "ServiceFacade.getBuckets")) {
+            span.setAttribute("bucket.count", "2");
+        }
+        trace.finish();
+        exporter.export(trace);
+
+        final byte[] request = requests.poll(10, TimeUnit.SECONDS);
+        assertNotNull(request);
+
+        final JsonNode resourceSpans = new ObjectMapper().readTree(request).get("resourceSpans").get(0);
+        assertEquals("service.name", resourceSpans.get("resource").get("attributes").get(0).get("key").asText());
+        assertEquals(OtlpTraceExporter.SERVICE_NAME, resourceSpans.get("resource").get("attributes").get(0).get("value").get("stringValue").asText());
+
+        final JsonNode spans = resourceSpans.get("scopeSpans").get(0).get("spans");
+        assertEquals(2, spans.size());
+
+        final JsonNode root = spans.get(0);
+        assertEquals("0af7651916cd43dd8448eb211c80319c", root.get("traceId").asText());
+        assertEquals("b7ad6b7169203331", root.get("parentSpanId").asText());
+        assertEquals("GET /buckets", root.get("name").asText());
+        assertEquals(2, root.get("kind").asInt());
+
+        final JsonNode child = spans.get(1);
+        assertEquals(root.get("spanId").asText(), child.get("parentSpanId").asText());
+        assertEquals("ServiceFacade.getBuckets", child.get("name").asText());
+        assertEquals(1, child.get("kind").asInt());
+        assertTrue(Long.parseLong(child.get("endTimeUnixNano").asText()) >= Long.parseLong(child.get("startTimeUnixNano").asText()));
+        assertEquals(OtlpTraceExporter.LAYER_ATTRIBUTE, child.get("attributes").get(0).get("key").asText());
+        assertEquals(RequestTrace.LAYER_FACADE, child.get("attributes").get(0).get("value").get("stringValue").asText());
+        assertEquals("bucket.count", child.get("attributes").get(1).get("key").asText());
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.trace;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestRequestTrace {
+
+    @After
+    public void teardown() {
+        final RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.finish();
+        }
+    }
+
+    @Test
+    public void testSpansFormTree() {
+        final RequestTrace trace = RequestTrace.start("GET /buckets", null);
+        assertSame(trace, RequestTrace.current());
+
+        try (final Span facade = RequestTrace.span(RequestTrace.LAYER_FACADE, "ServiceFacade.getBuckets")) {
+            try (final Span metadata = RequestTrace.span(RequestTrace.LAYER_METADATA, "MetadataService.getBuckets")) {
+                metadata.setAttribute("count", "2");
+            }
+            try (final Span authorization = RequestTrace.span(RequestTrace.LAYER_AUTHORIZATION, "Authorizer.authorize")) {
+                assertFalse(authorization.isClosed());
+            }
+        }
+        trace.finish();
+
+        assertNull(RequestTrace.current());
+        assertTrue(trace.getRoot().isClosed());
+        assertEquals(1, trace.getRoot().getChildren().size());
+
+        final Span facade = trace.getRoot().getChildren().get(0);
+        assertEquals("ServiceFacade.getBuckets", facade.getName());
+        assertSame(trace.getRoot(), facade.getParent());
+        assertEquals(2, facade.getChildren().size());
+        assertEquals(RequestTrace.LAYER_METADATA, facade.getChildren().get(0).getLayer());
+        assertEquals("2", facade.getChildren().get(0).getAttributes().get("count"));
+        assertEquals(RequestTrace.LAYER_AUTHORIZATION, facade.getChildren().get(1).getLayer());
+
+        final String description = trace.describe();
+        assertTrue(description.contains("GET /buckets"));
+        assertTrue(description.contains("MetadataService.getBuckets"));
+    }
+
+    @Test
+    public void testClosingSpanClosesOpenChildren() {
+        final RequestTrace trace = RequestTrace.start("GET /buckets", null);
+        final Span facade = RequestTrace.span(RequestTrace.LAYER_FACADE, "ServiceFacade.getBuckets");
+        final Span metadata = RequestTrace.span(RequestTrace.LAYER_METADATA, "MetadataService.getBuckets");
+        facade.close();
+
+        assertTrue(metadata.isClosed());
+        assertTrue(facade.isClosed());
+
+        // new spans are children of the root again
+        try (final Span provider = RequestTrace.span(RequestTrace.LAYER_PROVIDER, "FlowPersistenceProvider.get")) {
+            assertSame(trace.getRoot(), provider.getParent());
+        }
+
+        // closing a span twice does not change its duration
+        final long duration = metadata.getDurationNanos();
+        metadata.close();
+        assertEquals(duration, metadata.getDurationNanos());
+    }
+
+    @Test
+    public void testLayerDurationsExcludeChildren() throws InterruptedException {
+        final RequestTrace trace = RequestTrace.start("GET /buckets", null);
+        try (final Span facade = RequestTrace.span(RequestTrace.LAYER_FACADE, "ServiceFacade.getBuckets")) {
+            try (final Span provider = RequestTrace.span(RequestTrace.LAYER_PROVIDER, "FlowPersistenceProvider.get")) {
+                Thread.sleep(20);
+            }
+        }
+        trace.finish();
+
+        final Map<String, Long> layerDurations = trace.getLayerDurations();
+        final long total = layerDurations.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(trace.getDurationNanos(), total);
+        assertTrue(layerDurations.get(RequestTrace.LAYER_PROVIDER) >= 20_000_000L);
+        assertTrue(layerDurations.get(RequestTrace.LAYER_FACADE) < layerDurations.get(RequestTrace.LAYER_PROVIDER));
+    }
+
+    @Test
+    public void testSpanWithoutTrace() {
+        assertNull(RequestTrace.current());
+        final Span span = RequestTrace.span(RequestTrace.LAYER_SERVICE, "RegistryService.getFlowDiff");
+        span.setAttribute("key", "value");
+        span.close();
+        assertTrue(span.getAttributes().isEmpty());
+    }
+
+    @Test
+    public void testTraceParent() {
+        final RequestTrace continued = RequestTrace.start("GET /buckets", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        assertEquals("0af7651916cd43dd8448eb211c80319c", continued.getTraceId());
+        assertEquals("b7ad6b7169203331", continued.getRemoteParentSpanId());
+        continued.finish();
+
+        final RequestTrace invalid = RequestTrace.start("GET /buckets", "00-00000000000000000000000000000000-b7ad6b7169203331-01");
+        assertNotEquals("00000000000000000000000000000000", invalid.getTraceId());
+        assertEquals(32, invalid.getTraceId().length());
+        assertNull(invalid.getRemoteParentSpanId());
+        invalid.finish();
+
+        final RequestTrace malformed = RequestTrace.start("GET /buckets", "not-a-trace-parent");
+        assertNull(malformed.getRemoteParentSpanId());
+        malformed.finish();
+    }
+
+    @Test
+    public void testTracingProxy() throws Exception {
+        final Callable<String> target = () -> "result";
+        @SuppressWarnings("unchecked")
+        final Callable<String> proxy = TracingProxy.wrap(Callable.class, target, RequestTrace.LAYER_SERVICE);
+
+        // calls made without an active trace are passed through
+        assertEquals("result", proxy.call());
+
+        final RequestTrace trace = RequestTrace.start("GET /buckets", null);
+        assertEquals("result", proxy.call());
+        trace.finish();
+
+        assertEquals(1, trace.getRoot().getChildren().size());
+        assertEquals("Callable.call", trace.getRoot().getChildren().get(0).getName());
+        assertEquals(RequestTrace.LAYER_SERVICE, trace.getRoot().getChildren().get(0).getLayer());
+    }
+
+    @Test
+    public void testTracingProxyRethrowsTargetException() throws Exception {
+        final Callable<String> target = () -> {
+            throw new IllegalStateException("failed");
+        };
+        @SuppressWarnings("unchecked")
+        final Callable<String> proxy = TracingProxy.wrap(Callable.class, target, RequestTrace.LAYER_SERVICE);
+
+        final RequestTrace trace = RequestTrace.start("GET /buckets", null);
+        try {
+            proxy.call();
+            fail("Should have thrown IllegalStateException");
+        } catch (final IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        trace.finish();
+
+        assertTrue(trace.getRoot().getChildren().get(0).isClosed());
+    }
+
+}
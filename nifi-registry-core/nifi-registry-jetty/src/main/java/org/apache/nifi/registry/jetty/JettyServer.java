@@ -23,7 +23,14 @@ import org.apache.nifi.registry.jetty.headers.XFrameOptionsFilter;
 import org.apache.nifi.registry.jetty.headers.XSSProtectionFilter;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.security.crypto.CryptoKeyProvider;
+import org.apache.nifi.registry.util.DataUnit;
+import org.apache.nifi.registry.util.VirtualThreads;
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
 import org.eclipse.jetty.annotations.AnnotationConfiguration;
+import org.eclipse.jetty.http2.HTTP2Cipher;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
+import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.HttpConfiguration;
@@ -33,6 +40,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.SslConnectionFactory;
 import org.eclipse.jetty.server.handler.HandlerCollection;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletHolder;
@@ -63,9 +71,12 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.IntSupplier;
 
 
 public class JettyServer {
@@ -73,6 +84,7 @@ public class JettyServer {
     private static final Logger logger = LoggerFactory.getLogger(JettyServer.class);
     private static final String WEB_DEFAULTS_XML = "org/apache/nifi-registry/web/webdefault.xml";
     private static final int HEADER_BUFFER_SIZE = 16 * 1024; // 16kb
+    private static final int INFLATE_BUFFER_SIZE = 8 * 1024; // 8kb
 
     private static final FileFilter WAR_FILTER = new FileFilter() {
         @Override
@@ -92,14 +104,17 @@ public class JettyServer {
     private WebAppContext webDocsContext;
 
     public JettyServer(final NiFiRegistryProperties properties, final CryptoKeyProvider cryptoKeyProvider, final String docsLocation) {
-        final QueuedThreadPool threadPool = new QueuedThreadPool(properties.getWebThreads());
-        threadPool.setName("NiFi Registry Web Server");
+        final QueuedThreadPool threadPool = createThreadPool(properties);
 
         this.properties = properties;
         this.masterKeyProvider = cryptoKeyProvider;
         this.docsLocation = docsLocation;
         this.server = new Server(threadPool);
 
+        if (threadPool instanceof VirtualThreadPool) {
+            ((VirtualThreadPool) threadPool).dispatchToVirtualThreadsOnceStarted(server);
+        }
+
         // enable the annotation based configuration to ensure the jsp container is initialized properly
         final Configuration.ClassList classlist = Configuration.ClassList.setServerDefault(server);
         classlist.addBefore(JettyWebXmlConfiguration.class.getName(), AnnotationConfiguration.class.getName());
@@ -122,6 +137,23 @@ public class JettyServer {
         this.docsLocation = null;
     }
 
+    static QueuedThreadPool createThreadPool(final NiFiRegistryProperties properties) {
+        final String name = "NiFi Registry Web Server";
+        if (properties.isVirtualThreadsEnabled()) {
+            if (VirtualThreads.isSupported()) {
+                logger.info("Running requests on virtual threads");
+                return new VirtualThreadPool(properties.getWebThreads(), name);
+            }
+
+            logger.warn("{} is true but virtual threads require Java 21 or later, running requests on {} platform threads",
+                    NiFiRegistryProperties.WEB_VIRTUAL_THREADS_ENABLED, properties.getWebThreads());
+        }
+
+        final QueuedThreadPool threadPool = new QueuedThreadPool(properties.getWebThreads());
+        threadPool.setName(name);
+        return threadPool;
+    }
+
     /**
      * Returns a File object for the directory containing NIFI documentation.
      * <p>
@@ -168,8 +200,14 @@ public class JettyServer {
 
             logger.info("Configuring Jetty for HTTP on port: " + port);
 
-            // create the connector
-            final ServerConnector http = new ServerConnector(server, new HttpConnectionFactory(httpConfiguration));
+            // create the connector, accepting cleartext HTTP/2 through an upgrade or prior knowledge when enabled
+            final List<ConnectionFactory> connectionFactories = new ArrayList<>();
+            connectionFactories.add(new HttpConnectionFactory(httpConfiguration));
+            if (properties.isHttp2Enabled()) {
+                logger.info("Enabling HTTP/2 (h2c) on port: " + port);
+                connectionFactories.add(new HTTP2CServerConnectionFactory(httpConfiguration));
+            }
+            final ServerConnector http = new ServerConnector(server, connectionFactories.toArray(new ConnectionFactory[0]));
 
             // set host and port
             if (StringUtils.isNotBlank(properties.getHttpHost())) {
@@ -199,9 +237,28 @@ public class JettyServer {
             httpsConfiguration.addCustomizer(new SecureRequestCustomizer());
 
             // build the connector
-            final ServerConnector https = new ServerConnector(server,
-                    new SslConnectionFactory(createSslContextFactory(), "http/1.1"),
-                    new HttpConnectionFactory(httpsConfiguration));
+            final SslContextFactory sslContextFactory = createSslContextFactory();
+            final ServerConnector https;
+            if (properties.isHttp2Enabled()) {
+                logger.info("Enabling HTTP/2 (h2) on port: " + port);
+
+                // negotiate HTTP/2 using ALPN, falling back to HTTP/1.1 for clients that do not support it
+                final ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory("h2", "http/1.1");
+                alpn.setDefaultProtocol("http/1.1");
+
+                // HTTP/2 forbids some ciphers that would otherwise be preferred
+                sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+
+                https = new ServerConnector(server,
+                        new SslConnectionFactory(sslContextFactory, alpn.getProtocol()),
+                        alpn,
+                        new HTTP2ServerConnectionFactory(httpsConfiguration),
+                        new HttpConnectionFactory(httpsConfiguration));
+            } else {
+                https = new ServerConnector(server,
+                        new SslConnectionFactory(sslContextFactory, "http/1.1"),
+                        new HttpConnectionFactory(httpsConfiguration));
+            }
 
             // set host and port
             if (StringUtils.isNotBlank(properties.getHttpsHost())) {
@@ -299,6 +356,8 @@ public class JettyServer {
         webApiContext.setAttribute("nifi-registry.properties", properties);
         logger.info("Adding {} object to ServletContext with key 'nifi-registry.key'", masterKeyProvider.getClass().getSimpleName());
         webApiContext.setAttribute("nifi-registry.key", masterKeyProvider);
+        logger.info("Adding thread pool statistics to ServletContext with key 'nifi-registry.thread.pool'");
+        webApiContext.setAttribute("nifi-registry.thread.pool", getThreadPoolStatistics());
 
         // there is an issue scanning the asm repackaged jar so narrow down what we are scanning
         webApiContext.setAttribute("org.eclipse.jetty.server.webapp.WebInfIncludeJarPattern", ".*/spring-[^/]*\\.jar$");
@@ -311,7 +370,42 @@ public class JettyServer {
         handlers.addHandler(webUiContext);
         handlers.addHandler(webApiContext);
         handlers.addHandler(webDocsContext);
-        server.setHandler(handlers);
+        server.setHandler(configureCompression(handlers));
+    }
+
+    /**
+     * Wraps the given handler so that responses are compressed for clients that accept gzip and so that request
+     * bodies sent with gzip content encoding are decompressed, unless compression is disabled.
+     *
+     * @param handler the handler to wrap
+     * @return the handler to install on the server
+     */
+    private Handler configureCompression(final Handler handler) {
+        if (!properties.isCompressionEnabled()) {
+            return handler;
+        }
+
+        final int minSize;
+        try {
+            minSize = DataUnit.parseDataSize(properties.getCompressionMinSize().trim(), DataUnit.B).intValue();
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid " + NiFiRegistryProperties.WEB_COMPRESSION_MIN_SIZE + ": " + properties.getCompressionMinSize(), e);
+        }
+
+        final String[] mimeTypes = Arrays.stream(properties.getCompressionMimeTypes().split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotBlank)
+                .toArray(String[]::new);
+
+        logger.info("Compressing responses of at least {} bytes of types {}", minSize, Arrays.toString(mimeTypes));
+
+        final GzipHandler gzipHandler = new GzipHandler();
+        gzipHandler.setMinGzipSize(minSize);
+        gzipHandler.setIncludedMimeTypes(mimeTypes);
+        gzipHandler.setIncludedMethods("GET", "POST", "PUT");
+        gzipHandler.setInflateBufferSize(INFLATE_BUFFER_SIZE);
+        gzipHandler.setHandler(handler);
+        return gzipHandler;
     }
 
     private WebAppContext loadWar(final File warFile, final String contextPath)
@@ -436,6 +530,26 @@ public class JettyServer {
         return resources.toArray(new URL[resources.size()]);
     }
 
+    /**
+     * Jetty classes are not visible to the web api, so the statistics of the thread pool are shared using JDK types.
+     */
+    private Map<String, IntSupplier> getThreadPoolStatistics() {
+        final Map<String, IntSupplier> statistics = new LinkedHashMap<>();
+        if (server.getThreadPool() instanceof QueuedThreadPool) {
+            final QueuedThreadPool threadPool = (QueuedThreadPool) server.getThreadPool();
+            statistics.put("min", threadPool::getMinThreads);
+            statistics.put("max", threadPool::getMaxThreads);
+            statistics.put("current", threadPool::getThreads);
+            statistics.put("busy", threadPool::getBusyThreads);
+            statistics.put("idle", threadPool::getIdleThreads);
+            statistics.put("queued", threadPool::getQueueSize);
+        }
+        if (server.getThreadPool() instanceof VirtualThreadPool) {
+            statistics.put("virtual", ((VirtualThreadPool) server.getThreadPool())::getActiveVirtualThreads);
+        }
+        return statistics;
+    }
+
     private void addDocsServlets(WebAppContext docsContext) {
         try {
             // Load the nifi-registry/docs directory
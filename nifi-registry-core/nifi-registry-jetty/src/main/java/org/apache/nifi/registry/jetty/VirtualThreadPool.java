@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.jetty;
+
+import org.apache.nifi.registry.util.VirtualThreads;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread pool that runs request handling on virtual threads.
+ *
+ * Jetty's acceptors and selectors run for the life of the server and are started along with it, so they remain on the
+ * platform threads of the pool. Once the server has started, every task submitted to the pool is run on a new virtual
+ * thread, so a request blocked on JDBC, git, S3, or LDAP holds a cheap virtual thread rather than one of a fixed number
+ * of platform threads.
+ *
+ * Tasks are never offered to reserved threads, which ensures that selectors hand each request off to the pool
+ * rather than running it on the selector's own platform thread.
+ */
+public class VirtualThreadPool extends QueuedThreadPool {
+
+    private final ThreadFactory virtualThreadFactory;
+    private final AtomicInteger activeVirtualThreads = new AtomicInteger();
+    private volatile boolean dispatchingToVirtualThreads = false;
+
+    /**
+     * @param maxThreads the maximum number of platform threads, which are used until the server has started
+     * @param name the name of the pool and the prefix of the names of its threads
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads
+     */
+    public VirtualThreadPool(final int maxThreads, final String name) {
+        super(maxThreads);
+        setName(name);
+        setReservedThreads(0);
+        this.virtualThreadFactory = VirtualThreads.newThreadFactory(name + "-virtual-");
+    }
+
+    /**
+     * Runs subsequently submitted tasks on virtual threads once the given component, normally the server, has started.
+     *
+     * @param component the component to wait on
+     */
+    public void dispatchToVirtualThreadsOnceStarted(final LifeCycle component) {
+        component.addLifeCycleListener(new AbstractLifeCycle.AbstractLifeCycleListener() {
+            @Override
+            public void lifeCycleStarted(final LifeCycle event) {
+                dispatchingToVirtualThreads = true;
+            }
+
+            @Override
+            public void lifeCycleStopping(final LifeCycle event) {
+                dispatchingToVirtualThreads = false;
+            }
+        });
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        if (!dispatchingToVirtualThreads) {
+            super.execute(task);
+            return;
+        }
+
+        final Thread thread = virtualThreadFactory.newThread(() -> {
+            try {
+                task.run();
+            } finally {
+                activeVirtualThreads.decrementAndGet();
+            }
+        });
+        activeVirtualThreads.incrementAndGet();
+        try {
+            thread.start();
+        } catch (final RuntimeException | Error e) {
+            activeVirtualThreads.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryExecute(final Runnable task) {
+        return false;
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+        return !dispatchingToVirtualThreads && super.isLowOnThreads();
+    }
+
+    /**
+     * @return the number of virtual threads currently running tasks
+     */
+    public int getActiveVirtualThreads() {
+        return activeVirtualThreads.get();
+    }
+
+}
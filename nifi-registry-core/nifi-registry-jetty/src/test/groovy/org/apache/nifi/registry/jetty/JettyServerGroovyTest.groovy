@@ -17,6 +17,11 @@
 package org.apache.nifi.registry.jetty
 
 import org.apache.nifi.registry.properties.NiFiRegistryProperties
+import org.eclipse.jetty.server.Handler
+import org.eclipse.jetty.server.ServerConnector
+import org.eclipse.jetty.server.handler.gzip.GzipHandler
+import org.eclipse.jetty.servlet.ServletContextHandler
+import org.eclipse.jetty.servlet.ServletHolder
 import org.eclipse.jetty.util.ssl.SslContextFactory
 import org.junit.Rule
 import org.junit.Test
@@ -27,6 +32,12 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.eclipse.jetty.server.Server
 
+import javax.servlet.http.HttpServlet
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPOutputStream
+
 @RunWith(MockitoJUnitRunner.class)
 class JettyServerGroovyTest extends GroovyTestCase {
 
@@ -133,4 +144,144 @@ class JettyServerGroovyTest extends GroovyTestCase {
         // Act but expect exception
         SslContextFactory sslContextFactory = testServer.createSslContextFactory()
     }
+
+    @Test
+    void testCompressionReducesBytesTransferred() throws Exception {
+
+        // Arrange
+        NiFiRegistryProperties properties = new NiFiRegistryProperties()
+        properties.setProperty(NiFiRegistryProperties.WEB_HTTP_HOST, "localhost")
+        properties.setProperty(NiFiRegistryProperties.WEB_HTTP_PORT, "0")
+
+        Server internalServer = startServer(properties)
+        String url = "http://localhost:${((ServerConnector) internalServer.getConnectors()[0]).getLocalPort()}/snapshot"
+
+        try {
+            // Act
+            HttpURLConnection uncompressed = (HttpURLConnection) new URL(url).openConnection()
+            byte[] uncompressedBytes = uncompressed.getInputStream().bytes
+
+            HttpURLConnection compressed = (HttpURLConnection) new URL(url).openConnection()
+            compressed.setRequestProperty("Accept-Encoding", "gzip")
+            byte[] compressedBytes = compressed.getInputStream().bytes
+
+            logger.info("Transferred ${uncompressedBytes.length} bytes uncompressed and ${compressedBytes.length} bytes compressed")
+
+            // Assert
+            assertNull(uncompressed.getHeaderField("Content-Encoding"))
+            assertEquals(snapshotJson().getBytes(StandardCharsets.UTF_8).length, uncompressedBytes.length)
+            assertEquals("gzip", compressed.getHeaderField("Content-Encoding"))
+            assertTrue(compressedBytes.length * 10 < uncompressedBytes.length)
+        } finally {
+            internalServer.stop()
+        }
+    }
+
+    @Test
+    void testCompressedRequestIsDecompressed() throws Exception {
+
+        // Arrange
+        NiFiRegistryProperties properties = new NiFiRegistryProperties()
+        properties.setProperty(NiFiRegistryProperties.WEB_HTTP_HOST, "localhost")
+        properties.setProperty(NiFiRegistryProperties.WEB_HTTP_PORT, "0")
+
+        Server internalServer = startServer(properties)
+        String url = "http://localhost:${((ServerConnector) internalServer.getConnectors()[0]).getLocalPort()}/snapshot"
+
+        ByteArrayOutputStream requestBody = new ByteArrayOutputStream()
+        new GZIPOutputStream(requestBody).withStream { it.write(snapshotJson().getBytes(StandardCharsets.UTF_8)) }
+
+        try {
+            // Act
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection()
+            connection.setRequestMethod("POST")
+            connection.setDoOutput(true)
+            connection.setRequestProperty("Content-Type", "application/json")
+            connection.setRequestProperty("Content-Encoding", "gzip")
+            connection.getOutputStream().withStream { it.write(requestBody.toByteArray()) }
+
+            // Assert
+            assertEquals(200, connection.getResponseCode())
+            assertEquals(String.valueOf(snapshotJson().length()), connection.getInputStream().text)
+        } finally {
+            internalServer.stop()
+        }
+    }
+
+    @Test
+    void testCompressionDisabled() throws Exception {
+
+        // Arrange
+        NiFiRegistryProperties properties = new NiFiRegistryProperties()
+        properties.setProperty(NiFiRegistryProperties.WEB_COMPRESSION_ENABLED, "false")
+
+        Server internalServer = new Server()
+        JettyServer testServer = new JettyServer(internalServer, properties)
+        ServletContextHandler context = new ServletContextHandler()
+
+        // Act
+        def handler = testServer.configureCompression(context)
+
+        // Assert
+        assertSame(context, handler)
+    }
+
+    @Test
+    void testHttp2CleartextConnector() throws Exception {
+
+        // Arrange
+        NiFiRegistryProperties properties = new NiFiRegistryProperties()
+        properties.setProperty(NiFiRegistryProperties.WEB_HTTP_PORT, "0")
+        properties.setProperty(NiFiRegistryProperties.WEB_HTTP2_ENABLED, "true")
+
+        Server internalServer = new Server()
+        JettyServer testServer = new JettyServer(internalServer, properties)
+
+        // Act
+        testServer.configureConnectors()
+
+        // Assert
+        ServerConnector connector = (ServerConnector) internalServer.getConnectors()[0]
+        assertEquals(["http/1.1", "h2c"], connector.getProtocols())
+    }
+
+    private static Server startServer(NiFiRegistryProperties properties) {
+        Server internalServer = new Server()
+        JettyServer testServer = new JettyServer(internalServer, properties)
+        testServer.configureConnectors()
+
+        // stands in for the REST API, returning a large flow snapshot and the size of any request body it receives
+        ServletContextHandler context = new ServletContextHandler()
+        context.addServlet(new ServletHolder(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setContentType("application/json")
+                response.getOutputStream().write(snapshotJson().getBytes(StandardCharsets.UTF_8))
+            }
+
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setContentType("text/plain")
+                response.getWriter().write(String.valueOf(request.getInputStream().bytes.length))
+            }
+        }), "/snapshot")
+
+        Handler handler = testServer.configureCompression(context)
+        assertTrue(handler instanceof GzipHandler)
+        internalServer.setHandler(handler)
+        internalServer.start()
+        return internalServer
+    }
+
+    static String snapshotJson() {
+        StringBuilder json = new StringBuilder('{"flowContents":{"processors":[')
+        for (int i = 0; i < 2000; i++) {
+            if (i > 0) {
+                json.append(',')
+            }
+            json.append('{"identifier":"processor-').append(i)
+                    .append('","name":"UpdateAttribute","type":"org.apache.nifi.processors.attributes.UpdateAttribute"}')
+        }
+        return json.append(']}}').toString()
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.jetty;
+
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.util.VirtualThreads;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the throughput of requests that block on I/O when they run on the platform threads of the web server's pool
+ * and when they run on virtual threads.
+ *
+ * The number of web server threads, clients, and the time each request blocks can be changed with the system
+ * properties below to model other workloads.
+ */
+public class ThreadPoolThroughputIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadPoolThroughputIT.class);
+
+    private static final int WEB_THREADS = Integer.getInteger("loadtest.web.threads", 16);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 64);
+    private static final long BLOCKING_MILLIS = Long.getLong("loadtest.blocking.millis", 50L);
+    private static final long DURATION_MILLIS = Long.getLong("loadtest.duration.millis", 5000L);
+
+    @BeforeClass
+    public static void setupClass() {
+        // keep a connection open for each client rather than opening one per request
+        System.setProperty("http.maxConnections", String.valueOf(CLIENTS));
+    }
+
+    @Test
+    public void testVirtualThreadThroughput() throws Exception {
+        final double platformThroughput = measureThroughput(false);
+        logger.info("Platform threads: {} requests/sec with {} threads and {} clients", platformThroughput, WEB_THREADS, CLIENTS);
+
+        Assume.assumeTrue("Virtual threads require Java 21 or later", VirtualThreads.isSupported());
+
+        final double virtualThroughput = measureThroughput(true);
+        logger.info("Virtual threads: {} requests/sec with {} clients", virtualThroughput, CLIENTS);
+
+        // platform threads are limited to one request per thread while the request blocks, virtual threads are not
+        assertTrue(virtualThroughput > platformThroughput);
+    }
+
+    private double measureThroughput(final boolean virtualThreads) throws Exception {
+        final NiFiRegistryProperties properties = new NiFiRegistryProperties();
+        properties.setProperty(NiFiRegistryProperties.WEB_THREADS, String.valueOf(WEB_THREADS));
+        properties.setProperty(NiFiRegistryProperties.WEB_VIRTUAL_THREADS_ENABLED, String.valueOf(virtualThreads));
+
+        final QueuedThreadPool threadPool = JettyServer.createThreadPool(properties);
+        assertEquals(virtualThreads, threadPool instanceof VirtualThreadPool);
+
+        final Server server = new Server(threadPool);
+        if (threadPool instanceof VirtualThreadPool) {
+            ((VirtualThreadPool) threadPool).dispatchToVirtualThreadsOnceStarted(server);
+        }
+
+        final ServerConnector connector = new ServerConnector(server);
+        connector.setHost("localhost");
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        // stands in for a request that waits on the database or a persistence provider
+        final ServletContextHandler context = new ServletContextHandler();
+        context.addServlet(new ServletHolder(new HttpServlet() {
+            @Override
+            protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+                try {
+                    Thread.sleep(BLOCKING_MILLIS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setContentType("text/plain");
+                response.getWriter().write("ok");
+            }
+        }), "/blocking");
+        server.setHandler(context);
+        server.start();
+
+        final URL url = new URL("http://localhost:" + connector.getLocalPort() + "/blocking");
+        final ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            final long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> {
+                    int completed = 0;
+                    while (System.currentTimeMillis() < deadline) {
+                        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                        assertEquals(200, connection.getResponseCode());
+                        try (final InputStream in = connection.getInputStream()) {
+                            while (in.read() != -1) {
+                                // read the response fully so the connection can be reused
+                            }
+                        }
+                        completed++;
+                    }
+                    return completed;
+                }));
+            }
+
+            int completed = 0;
+            for (final Future<Integer> result : results) {
+                completed += result.get(DURATION_MILLIS * 2, TimeUnit.MILLISECONDS);
+            }
+            return completed * 1000.0 / DURATION_MILLIS;
+        } finally {
+            clients.shutdownNow();
+            server.stop();
+        }
+    }
+
+}
@@ -44,6 +44,16 @@ public class NiFiRegistryProperties extends Properties {
     public static final String WEB_WORKING_DIR = "nifi.registry.web.jetty.working.directory";
     public static final String WEB_THREADS = "nifi.registry.web.jetty.threads";
     public static final String WEB_SHOULD_SEND_SERVER_VERSION = "nifi.registry.web.should.send.server.version";
+    public static final String WEB_SERVER_TIMING_ENABLED = "nifi.registry.web.server.timing.enabled";
+    public static final String WEB_SLOW_REQUEST_THRESHOLD = "nifi.registry.web.slow.request.threshold";
+    public static final String WEB_TRACE_EXPORTER_ENDPOINT = "nifi.registry.web.trace.exporter.endpoint";
+    public static final String WEB_COMPRESSION_ENABLED = "nifi.registry.web.compression.enabled";
+    public static final String WEB_COMPRESSION_MIN_SIZE = "nifi.registry.web.compression.min.size";
+    public static final String WEB_COMPRESSION_MIME_TYPES = "nifi.registry.web.compression.mime.types";
+    public static final String WEB_HTTP2_ENABLED = "nifi.registry.web.http2.enabled";
+    public static final String WEB_VIRTUAL_THREADS_ENABLED = "nifi.registry.web.virtual.threads.enabled";
+    public static final String WEB_CHANGES_STREAM_MAX_SUBSCRIBERS = "nifi.registry.web.changes.stream.max.subscribers";
+    public static final String WEB_CHANGES_STREAM_MAX_DURATION = "nifi.registry.web.changes.stream.max.duration";
 
     public static final String SECURITY_KEYSTORE = "nifi.registry.security.keystore";
     public static final String SECURITY_KEYSTORE_TYPE = "nifi.registry.security.keystoreType";
@@ -60,6 +70,7 @@ public class NiFiRegistryProperties extends Properties {
     public static final String SECURITY_IDENTITY_MAPPING_PATTERN_PREFIX = "nifi.registry.security.identity.mapping.pattern.";
     public static final String SECURITY_IDENTITY_MAPPING_VALUE_PREFIX = "nifi.registry.security.identity.mapping.value.";
     public static final String SECURITY_IDENTITY_MAPPING_TRANSFORM_PREFIX = "nifi.registry.security.identity.mapping.transform.";
+    public static final String SECURITY_IDENTITY_MAPPING_CACHE_SIZE = "nifi.registry.security.identity.mapping.cache.size";
     public static final String SECURITY_GROUP_MAPPING_PATTERN_PREFIX = "nifi.registry.security.group.mapping.pattern.";
     public static final String SECURITY_GROUP_MAPPING_VALUE_PREFIX = "nifi.registry.security.group.mapping.value.";
     public static final String SECURITY_GROUP_MAPPING_TRANSFORM_PREFIX = "nifi.registry.security.group.mapping.transform.";
@@ -67,9 +78,12 @@ public class NiFiRegistryProperties extends Properties {
     public static final String EXTENSION_DIR_PREFIX = "nifi.registry.extension.dir.";
 
     public static final String PROVIDERS_CONFIGURATION_FILE = "nifi.registry.providers.configuration.file";
+    public static final String PROVIDERS_METADATA_SYNC_BACKGROUND = "nifi.registry.providers.metadata.sync.background";
+    public static final String PROVIDERS_METADATA_SYNC_THREADS = "nifi.registry.providers.metadata.sync.threads";
     public static final String REGISTRY_ALIAS_CONFIGURATION_FILE = "nifi.registry.registry.alias.configuration.file";
 
     public static final String EXTENSIONS_WORKING_DIR = "nifi.registry.extensions.working.directory";
+    public static final String EXTENSION_DOCS_CACHE_SIZE = "nifi.registry.extensions.docs.cache.size";
 
     // Original DB properties
     public static final String DATABASE_DIRECTORY = "nifi.registry.db.directory";
@@ -109,12 +123,25 @@ public class NiFiRegistryProperties extends Properties {
     public static final String DEFAULT_WEB_WORKING_DIR = "./work/jetty";
     public static final String DEFAULT_WAR_DIR = "./lib";
     public static final String DEFAULT_PROVIDERS_CONFIGURATION_FILE = "./conf/providers.xml";
+    public static final String DEFAULT_PROVIDERS_METADATA_SYNC_BACKGROUND = "false";
+    public static final int DEFAULT_PROVIDERS_METADATA_SYNC_THREADS = 4;
     public static final String DEFAULT_REGISTRY_ALIAS_CONFIGURATION_FILE = "./conf/registry-aliases.xml";
     public static final String DEFAULT_SECURITY_AUTHORIZERS_CONFIGURATION_FILE = "./conf/authorizers.xml";
     public static final String DEFAULT_SECURITY_IDENTITY_PROVIDER_CONFIGURATION_FILE = "./conf/identity-providers.xml";
     public static final String DEFAULT_AUTHENTICATION_EXPIRATION = "12 hours";
+    public static final int DEFAULT_SECURITY_IDENTITY_MAPPING_CACHE_SIZE = 1000;
     public static final String DEFAULT_EXTENSIONS_WORKING_DIR = "./work/extensions";
+    public static final String DEFAULT_EXTENSION_DOCS_CACHE_SIZE = "64 MB";
     public static final String DEFAULT_WEB_SHOULD_SEND_SERVER_VERSION = "true";
+    public static final String DEFAULT_WEB_SERVER_TIMING_ENABLED = "false";
+    public static final String DEFAULT_WEB_SLOW_REQUEST_THRESHOLD = "5 secs";
+    public static final String DEFAULT_WEB_COMPRESSION_ENABLED = "true";
+    public static final String DEFAULT_WEB_COMPRESSION_MIN_SIZE = "1 KB";
+    public static final String DEFAULT_WEB_COMPRESSION_MIME_TYPES = "application/json,application/xml,text/html,text/plain,text/css,text/javascript,application/javascript,image/svg+xml";
+    public static final String DEFAULT_WEB_HTTP2_ENABLED = "false";
+    public static final String DEFAULT_WEB_VIRTUAL_THREADS_ENABLED = "false";
+    public static final int DEFAULT_WEB_CHANGES_STREAM_MAX_SUBSCRIBERS = 100;
+    public static final String DEFAULT_WEB_CHANGES_STREAM_MAX_DURATION = "5 mins";
     public static final String DEFAULT_SECURITY_USER_OIDC_CONNECT_TIMEOUT = "5 secs";
     public static final String DEFAULT_SECURITY_USER_OIDC_READ_TIMEOUT = "5 secs";
 
@@ -156,6 +183,52 @@ public class NiFiRegistryProperties extends Properties {
         return Boolean.parseBoolean(getProperty(WEB_SHOULD_SEND_SERVER_VERSION, DEFAULT_WEB_SHOULD_SEND_SERVER_VERSION));
     }
 
+    public boolean isServerTimingEnabled() {
+        return Boolean.parseBoolean(getProperty(WEB_SERVER_TIMING_ENABLED, DEFAULT_WEB_SERVER_TIMING_ENABLED));
+    }
+
+    public String getSlowRequestThreshold() {
+        return getProperty(WEB_SLOW_REQUEST_THRESHOLD, DEFAULT_WEB_SLOW_REQUEST_THRESHOLD);
+    }
+
+    public String getWebTraceExporterEndpoint() {
+        return getProperty(WEB_TRACE_EXPORTER_ENDPOINT);
+    }
+
+    public int getChangeStreamMaxSubscribers() {
+        int maxSubscribers = DEFAULT_WEB_CHANGES_STREAM_MAX_SUBSCRIBERS;
+        try {
+            maxSubscribers = Integer.parseInt(getProperty(WEB_CHANGES_STREAM_MAX_SUBSCRIBERS, String.valueOf(maxSubscribers)));
+        } catch (final NumberFormatException nfe) {
+            logger.warn(String.format("%s must be an integer value. Defaulting to %s", WEB_CHANGES_STREAM_MAX_SUBSCRIBERS, maxSubscribers));
+        }
+        return maxSubscribers;
+    }
+
+    public String getChangeStreamMaxDuration() {
+        return getProperty(WEB_CHANGES_STREAM_MAX_DURATION, DEFAULT_WEB_CHANGES_STREAM_MAX_DURATION);
+    }
+
+    public boolean isCompressionEnabled() {
+        return Boolean.parseBoolean(getProperty(WEB_COMPRESSION_ENABLED, DEFAULT_WEB_COMPRESSION_ENABLED));
+    }
+
+    public String getCompressionMinSize() {
+        return getProperty(WEB_COMPRESSION_MIN_SIZE, DEFAULT_WEB_COMPRESSION_MIN_SIZE);
+    }
+
+    public String getCompressionMimeTypes() {
+        return getProperty(WEB_COMPRESSION_MIME_TYPES, DEFAULT_WEB_COMPRESSION_MIME_TYPES);
+    }
+
+    public boolean isHttp2Enabled() {
+        return Boolean.parseBoolean(getProperty(WEB_HTTP2_ENABLED, DEFAULT_WEB_HTTP2_ENABLED));
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return Boolean.parseBoolean(getProperty(WEB_VIRTUAL_THREADS_ENABLED, DEFAULT_WEB_VIRTUAL_THREADS_ENABLED));
+    }
+
     public String getHttpsHost() {
         return getProperty(WEB_HTTPS_HOST);
     }
@@ -209,10 +282,23 @@ public class NiFiRegistryProperties extends Properties {
         return  new File(getProperty(EXTENSIONS_WORKING_DIR, DEFAULT_EXTENSIONS_WORKING_DIR));
     }
 
+    public String getExtensionDocsCacheSize() {
+        return getProperty(EXTENSION_DOCS_CACHE_SIZE, DEFAULT_EXTENSION_DOCS_CACHE_SIZE);
+    }
+
     public File getProvidersConfigurationFile() {
         return getPropertyAsFile(PROVIDERS_CONFIGURATION_FILE, DEFAULT_PROVIDERS_CONFIGURATION_FILE);
     }
 
+    public boolean isProvidersMetadataSyncInBackground() {
+        return Boolean.parseBoolean(getProperty(PROVIDERS_METADATA_SYNC_BACKGROUND, DEFAULT_PROVIDERS_METADATA_SYNC_BACKGROUND));
+    }
+
+    public int getProvidersMetadataSyncThreads() {
+        final Integer threads = getPropertyAsInteger(PROVIDERS_METADATA_SYNC_THREADS);
+        return threads == null ? DEFAULT_PROVIDERS_METADATA_SYNC_THREADS : threads;
+    }
+
     public File getRegistryAliasConfigurationFile() {
         return getPropertyAsFile(REGISTRY_ALIAS_CONFIGURATION_FILE, DEFAULT_REGISTRY_ALIAS_CONFIGURATION_FILE);
     }
@@ -267,6 +353,11 @@ public class NiFiRegistryProperties extends Properties {
         return getPropertyAsFile(SECURITY_IDENTITY_PROVIDERS_CONFIGURATION_FILE, DEFAULT_SECURITY_IDENTITY_PROVIDER_CONFIGURATION_FILE);
     }
 
+    public int getIdentityMappingCacheSize() {
+        final Integer cacheSize = getPropertyAsInteger(SECURITY_IDENTITY_MAPPING_CACHE_SIZE);
+        return cacheSize == null ? DEFAULT_SECURITY_IDENTITY_MAPPING_CACHE_SIZE : cacheSize;
+    }
+
     public File getKerberosConfigurationFile() {
         return getPropertyAsFile(KERBEROS_KRB5_FILE);
     }
@@ -167,10 +167,16 @@ public class IdentityMappingUtil {
         return identity;
     }
 
-    // If we find a back reference that is not valid, then we will treat it as a literal string. For example, if we have 3 capturing
-    // groups and the Replacement Value has the value is "I owe $8 to him", then we want to treat the $8 as a literal "$8", rather
-    // than attempting to use it as a back reference.
-    private static String escapeLiteralBackReferences(final String unescaped, final int numCapturingGroups) {
+    /**
+     * If we find a back reference that is not valid, then we will treat it as a literal string. For example, if we have 3 capturing
+     * groups and the Replacement Value has the value is "I owe $8 to him", then we want to treat the $8 as a literal "$8", rather
+     * than attempting to use it as a back reference.
+     *
+     * @param unescaped the replacement value
+     * @param numCapturingGroups the number of capturing groups in the pattern the replacement value is used with
+     * @return the replacement value with invalid back references escaped
+     */
+    public static String escapeLiteralBackReferences(final String unescaped, final int numCapturingGroups) {
         if (numCapturingGroups == 0) {
             return unescaped;
         }
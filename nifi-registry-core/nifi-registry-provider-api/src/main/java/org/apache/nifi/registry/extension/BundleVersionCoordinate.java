@@ -48,6 +48,13 @@ public interface BundleVersionCoordinate {
      */
     BundleVersionType getType();
 
+    /**
+     * @return the hex-encoded SHA-256 of the bundle content recorded by the registry, or null if it is not known
+     */
+    default String getSha256() {
+        return null;
+    }
+
     /**
      * @return the string representation of the coordinate
      */
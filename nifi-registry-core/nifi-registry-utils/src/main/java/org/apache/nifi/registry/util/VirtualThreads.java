@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides access to virtual threads when running on a JVM that supports them (Java 21 and later), while the
+ * registry itself continues to be built for Java 8.
+ */
+public final class VirtualThreads {
+
+    private static final ThreadFactory UNNAMED_FACTORY = createFactory(null);
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the running JVM supports virtual threads
+     */
+    public static boolean isSupported() {
+        return UNNAMED_FACTORY != null;
+    }
+
+    /**
+     * @param namePrefix the prefix of the names of created threads, which are suffixed with a counter
+     * @return a factory creating unstarted virtual threads
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads
+     */
+    public static ThreadFactory newThreadFactory(final String namePrefix) {
+        final ThreadFactory threadFactory = createFactory(namePrefix);
+        if (threadFactory == null) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later, but the JVM is Java "
+                    + System.getProperty("java.specification.version"));
+        }
+        return threadFactory;
+    }
+
+    private static ThreadFactory createFactory(final String namePrefix) {
+        try {
+            // equivalent to Thread.ofVirtual().name(namePrefix, 0).factory(), invoked through the public interfaces
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            if (namePrefix != null) {
+                final Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+                builder = nameMethod.invoke(builder, namePrefix, 0L);
+            }
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (final ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestVirtualThreads {
+
+    @Test
+    public void testNewThreadFactory() throws Exception {
+        final boolean supported = Double.parseDouble(System.getProperty("java.specification.version")) >= 21;
+        assertEquals(supported, VirtualThreads.isSupported());
+
+        if (!supported) {
+            try {
+                VirtualThreads.newThreadFactory("test-");
+                fail("Should have thrown UnsupportedOperationException");
+            } catch (final UnsupportedOperationException e) {
+                assertTrue(e.getMessage().contains("Java 21"));
+            }
+            return;
+        }
+
+        final ThreadFactory threadFactory = VirtualThreads.newThreadFactory("test-");
+        final AtomicReference<String> threadName = new AtomicReference<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        final Thread thread = threadFactory.newThread(() -> {
+            threadName.set(Thread.currentThread().getName());
+            finished.countDown();
+        });
+
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+
+        thread.start();
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals("test-0", threadName.get());
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry;
+
+import org.apache.nifi.registry.provider.flow.FlowMetadataSynchronizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the health as {@link #WARMING} while the metadata database is being synchronized in the background from a
+ * metadata-aware flow persistence provider, and as down if the synchronization failed.
+ */
+@Component
+public class FlowMetadataSynchronizerHealthIndicator implements HealthIndicator {
+
+    public static final Status WARMING = new Status("WARMING", "Synchronizing metadata from the flow persistence provider");
+
+    private final FlowMetadataSynchronizer flowMetadataSynchronizer;
+
+    @Autowired
+    public FlowMetadataSynchronizerHealthIndicator(final FlowMetadataSynchronizer flowMetadataSynchronizer) {
+        this.flowMetadataSynchronizer = flowMetadataSynchronizer;
+    }
+
+    @Override
+    public Health health() {
+        final FlowMetadataSynchronizer.State state = flowMetadataSynchronizer.getState();
+
+        final Health.Builder builder;
+        switch (state) {
+            case WARMING:
+                builder = Health.status(WARMING);
+                break;
+            case FAILED:
+                builder = Health.down();
+                break;
+            default:
+                builder = Health.up();
+                break;
+        }
+
+        return builder
+                .withDetail("state", state.name())
+                .withDetail("buckets", flowMetadataSynchronizer.getBucketCount())
+                .withDetail("synchronizedBuckets", flowMetadataSynchronizer.getSynchronizedBuckets())
+                .withDetail("synchronizedFlows", flowMetadataSynchronizer.getSynchronizedFlows())
+                .withDetail("synchronizedVersions", flowMetadataSynchronizer.getSynchronizedVersions())
+                .build();
+    }
+
+}
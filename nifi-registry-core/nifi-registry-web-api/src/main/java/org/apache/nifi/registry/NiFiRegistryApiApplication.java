@@ -22,6 +22,7 @@ import org.apache.nifi.registry.hook.Event;
 import org.apache.nifi.registry.hook.EventType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.autoconfigure.metrics.LogbackMetricsAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -40,18 +41,28 @@ import java.util.Properties;
  * configuring custom packages to scan in several different places.
  *
  * WebMvcAutoConfiguration is excluded because our web app is using Jersey in place of SpringMVC
+ *
+ * LogbackMetricsAutoConfiguration is excluded because logback is loaded by the server class loader rather than the web
+ * app class loader, which causes a class cast issue when the logback metrics are bound
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = LogbackMetricsAutoConfiguration.class)
 public class NiFiRegistryApiApplication extends SpringBootServletInitializer {
 
     public static final String NIFI_REGISTRY_PROPERTIES_ATTRIBUTE = "nifi-registry.properties";
     public static final String NIFI_REGISTRY_MASTER_KEY_ATTRIBUTE = "nifi-registry.key";
+    public static final String NIFI_REGISTRY_THREAD_POOL_ATTRIBUTE = "nifi-registry.thread.pool";
 
     @Autowired
     private EventService eventService;
 
     @Override
     protected SpringApplicationBuilder configure(SpringApplicationBuilder application) {
+        return application
+                .sources(NiFiRegistryApiApplication.class)
+                .properties(getDefaultProperties());
+    }
+
+    static Properties getDefaultProperties() {
         final Properties defaultProperties = new Properties();
 
         // Spring Boot 2.1.0 disabled bean overriding so this re-enables it
@@ -63,13 +74,16 @@ public class NiFiRegistryApiApplication extends SpringBootServletInitializer {
 
         // Enable Actuator Endpoints
         defaultProperties.setProperty("management.endpoints.web.expose", "*");
+        defaultProperties.setProperty("management.endpoints.web.exposure.include", "health,info,metrics,prometheus");
+
+        // Report a registry that is still synchronizing metadata in the background as unavailable to load balancers
+        defaultProperties.setProperty("management.endpoint.health.status.order", "DOWN,OUT_OF_SERVICE,WARMING,UP,UNKNOWN");
+        defaultProperties.setProperty("management.endpoint.health.status.http-mapping.WARMING", "503");
 
         // Run Jersey as a filter instead of a servlet so that requests can be forwarded to other handlers (e.g., actuator)
         defaultProperties.setProperty("spring.jersey.type", "filter");
 
-        return application
-                .sources(NiFiRegistryApiApplication.class)
-                .properties(defaultProperties);
+        return defaultProperties;
     }
 
     @Component
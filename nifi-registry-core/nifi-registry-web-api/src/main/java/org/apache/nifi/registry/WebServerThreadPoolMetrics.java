@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.ServletContextAware;
+
+import javax.servlet.ServletContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * The JettyServer puts the statistics of its thread pool into the ServletContext, this class binds them to the
+ * MeterRegistry using the same names as Micrometer's Jetty thread pool metrics.
+ *
+ * Nothing is bound when running in an embedded container which does not provide the statistics, such as in tests.
+ */
+@Component
+public class WebServerThreadPoolMetrics implements MeterBinder, ServletContextAware {
+
+    private static final Map<String, String> GAUGE_NAMES;
+    static {
+        final Map<String, String> gaugeNames = new HashMap<>();
+        gaugeNames.put("min", "jetty.threads.config.min");
+        gaugeNames.put("max", "jetty.threads.config.max");
+        gaugeNames.put("current", "jetty.threads.current");
+        gaugeNames.put("busy", "jetty.threads.busy");
+        gaugeNames.put("idle", "jetty.threads.idle");
+        gaugeNames.put("queued", "jetty.threads.jobs");
+        gaugeNames.put("virtual", "jetty.threads.virtual");
+        GAUGE_NAMES = Collections.unmodifiableMap(gaugeNames);
+    }
+
+    private Map<String, IntSupplier> statistics = Collections.emptyMap();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setServletContext(final ServletContext servletContext) {
+        final Object attribute = servletContext.getAttribute(NiFiRegistryApiApplication.NIFI_REGISTRY_THREAD_POOL_ATTRIBUTE);
+        if (attribute instanceof Map) {
+            statistics = (Map<String, IntSupplier>) attribute;
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        statistics.forEach((statistic, supplier) -> {
+            final String gaugeName = GAUGE_NAMES.get(statistic);
+            if (gaugeName != null) {
+                Gauge.builder(gaugeName, supplier, IntSupplier::getAsInt)
+                        .description("The " + statistic + " statistic of the web server thread pool")
+                        .register(registry);
+            }
+        });
+    }
+
+}
@@ -21,6 +21,7 @@ import org.apache.nifi.registry.web.api.AccessResource;
 import org.apache.nifi.registry.web.api.BucketBundleResource;
 import org.apache.nifi.registry.web.api.BucketFlowResource;
 import org.apache.nifi.registry.web.api.BucketResource;
+import org.apache.nifi.registry.web.api.ChangeFeedResource;
 import org.apache.nifi.registry.web.api.ConfigResource;
 import org.apache.nifi.registry.web.api.ExtensionRepoResource;
 import org.apache.nifi.registry.web.api.BundleResource;
@@ -28,6 +29,8 @@ import org.apache.nifi.registry.web.api.ExtensionResource;
 import org.apache.nifi.registry.web.api.FlowResource;
 import org.apache.nifi.registry.web.api.ItemResource;
 import org.apache.nifi.registry.web.api.TenantResource;
+import org.apache.nifi.registry.web.filter.MetadataSynchronizationFilter;
+import org.apache.nifi.registry.web.trace.RequestTracingFilter;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.ServerProperties;
@@ -53,6 +56,8 @@ public class NiFiRegistryResourceConfig extends ResourceConfig {
     public NiFiRegistryResourceConfig(@Context ServletContext servletContext) {
         // register filters
         register(HttpMethodOverrideFilter.class);
+        register(RequestTracingFilter.class);
+        register(MetadataSynchronizationFilter.class);
 
         // register the exception mappers & jackson object mapper resolver
         packages("org.apache.nifi.registry.web.mapper");
@@ -63,6 +68,7 @@ public class NiFiRegistryResourceConfig extends ResourceConfig {
         register(BucketResource.class);
         register(BucketFlowResource.class);
         register(BucketBundleResource.class);
+        register(ChangeFeedResource.class);
         register(BundleResource.class);
         register(ExtensionResource.class);
         register(ExtensionRepoResource.class);
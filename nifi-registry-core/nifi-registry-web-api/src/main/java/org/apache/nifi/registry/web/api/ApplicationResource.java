@@ -23,6 +23,7 @@ import org.apache.nifi.registry.hook.Event;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 import org.apache.nifi.registry.revision.web.ClientIdParameter;
 import org.apache.nifi.registry.revision.web.LongParameter;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocs;
 import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,7 +31,11 @@ import org.slf4j.LoggerFactory;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriBuilderException;
 import javax.ws.rs.core.UriInfo;
@@ -62,6 +67,9 @@ public class ApplicationResource {
     @Context
     private UriInfo uriInfo;
 
+    @Context
+    private Request request;
+
     protected final ServiceFacade serviceFacade;
     private final EventService eventService;
 
@@ -191,6 +199,67 @@ public class ApplicationResource {
         return Response.created(uri).entity(entity);
     }
 
+    /**
+     * Generates a response for rendered extension docs. The ETag of the docs is used to answer conditional requests
+     * with a 304, and the compressed form of the docs is sent as-is when the client accepts gzip. Each form has its own
+     * ETag, since the two representations are not byte-for-byte identical.
+     *
+     * @param docs the rendered docs
+     * @return the response
+     */
+    protected Response generateDocsResponse(final ExtensionDocs docs) {
+        final boolean gzip = acceptsGzip(httpServletRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        final EntityTag entityTag = new EntityTag(gzip ? docs.getETag() + "-gzip" : docs.getETag());
+
+        // authorization is performed on every request, so clients may keep the docs but must revalidate them
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+
+        Response.ResponseBuilder response = request.evaluatePreconditions(entityTag);
+        if (response == null) {
+            if (gzip) {
+                final StreamingOutput streamingOutput = docs::writeCompressedTo;
+                response = Response.ok(streamingOutput).header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            } else {
+                final StreamingOutput streamingOutput = docs::writeTo;
+                response = Response.ok(streamingOutput);
+            }
+        }
+
+        return response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .tag(entityTag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (StringUtils.isBlank(acceptEncoding)) {
+            return false;
+        }
+
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+
+            for (int i = 1; i < parts.length; i++) {
+                final String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (final NumberFormatException nfe) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        return false;
+    }
+
     /**
      * Returns the value for the first key discovered when inspecting the current request. Will
      * return null if there are no keys specified or if none of the specified keys are found.
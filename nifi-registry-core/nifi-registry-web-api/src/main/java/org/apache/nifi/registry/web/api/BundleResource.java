@@ -29,9 +29,11 @@ import org.apache.nifi.registry.event.EventService;
 import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocs;
 import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.apache.nifi.registry.web.service.StreamingContent;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,6 +49,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
 import java.util.List;
 import java.util.SortedSet;
 
@@ -367,6 +370,39 @@ public class BundleResource extends ApplicationResource {
         return Response.ok(extensions).build();
     }
 
+    @GET
+    @Path("{bundleId}/versions/{version}/dependencies")
+    @Consumes(MediaType.WILDCARD)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Get bundle version dependencies",
+            notes = "Resolves every direct and transitive dependency of the given extension bundle version against the buckets " +
+                    "the user is authorized to read, including any dependencies that could not be found. " + NON_GUARANTEED_ENDPOINT,
+            nickname = "globalGetBundleVersionDependencies",
+            response = BundleVersionDependencyGraph.class,
+            extensions = {
+                    @Extension(name = "access-policy", properties = {
+                            @ExtensionProperty(name = "action", value = "read"),
+                            @ExtensionProperty(name = "resource", value = "/buckets/{bucketId}") })
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401),
+            @ApiResponse(code = 403, message = HttpStatusMessages.MESSAGE_403),
+            @ApiResponse(code = 404, message = HttpStatusMessages.MESSAGE_404) })
+    public Response getBundleVersionDependencies(
+            @PathParam("bundleId")
+            @ApiParam("The extension bundle identifier")
+                final String bundleId,
+            @PathParam("version")
+            @ApiParam("The version of the bundle")
+                final String version) {
+
+        final BundleVersionDependencyGraph dependencyGraph = serviceFacade.getBundleVersionDependencyGraph(bundleId, version);
+        return Response.ok(dependencyGraph).build();
+    }
+
     @GET
     @Path("{bundleId}/versions/{version}/extensions/{name}")
     @Consumes(MediaType.WILDCARD)
@@ -436,9 +472,9 @@ public class BundleResource extends ApplicationResource {
             @PathParam("name")
             @ApiParam("The fully qualified name of the extension")
                 final String name
-    ) {
-        final StreamingOutput streamingOutput = serviceFacade.getExtensionDocs(bundleId, version, name);
-        return Response.ok(streamingOutput).build();
+    ) throws IOException {
+        final ExtensionDocs docs = serviceFacade.getExtensionDocs(bundleId, version, name);
+        return generateDocsResponse(docs);
     }
 
     @GET
@@ -471,9 +507,9 @@ public class BundleResource extends ApplicationResource {
             @PathParam("name")
             @ApiParam("The fully qualified name of the extension")
                 final String name
-    ) {
-        final StreamingOutput streamingOutput = serviceFacade.getAdditionalDetailsDocs(bundleId, version, name);
-        return Response.ok(streamingOutput).build();
+    ) throws IOException {
+        final ExtensionDocs docs = serviceFacade.getAdditionalDetailsDocs(bundleId, version, name);
+        return generateDocsResponse(docs);
     }
 
 }
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.api;
+
+import io.jsonwebtoken.JwtException;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import io.swagger.annotations.Authorization;
+import io.swagger.annotations.Extension;
+import io.swagger.annotations.ExtensionProperty;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.event.EventService;
+import org.apache.nifi.registry.trace.RequestTrace;
+import org.apache.nifi.registry.web.security.authentication.exception.InvalidAuthenticationException;
+import org.apache.nifi.registry.web.security.authentication.jwt.JwtService;
+import org.apache.nifi.registry.web.service.ChangeStreamService;
+import org.apache.nifi.registry.web.service.ServiceFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Path("/changes")
+@Api(
+        value = "changes",
+        description = "Follows the changes to buckets, flows and extension bundles without polling each resource.",
+        authorizations = { @Authorization("Authorization") }
+)
+public class ChangeFeedResource extends ApplicationResource {
+
+    public static final String SERVER_SENT_EVENTS = "text/event-stream";
+
+    static final int MAX_CHANGES_PER_PAGE = 1000;
+    static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long MAX_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final ChangeStreamService changeStreamService;
+    private final JwtService jwtService;
+
+    @Autowired
+    public ChangeFeedResource(final ServiceFacade serviceFacade, final EventService eventService, final ChangeStreamService changeStreamService,
+                              final JwtService jwtService) {
+        super(serviceFacade, eventService);
+        this.changeStreamService = changeStreamService;
+        this.jwtService = jwtService;
+    }
+
+    @GET
+    @Consumes(MediaType.WILDCARD)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Get changes",
+            notes = "Gets the changes after the given cursor, waiting up to the given timeout for a change when there are none yet. " +
+                    "Only changes in buckets the user is authorized to read are returned. Omitting the cursor starts from the newest change. " +
+                    "When the response is flagged as a reset, changes may have been missed and the consumer should re-read the state it tracks. " +
+                    "The feed only contains the changes made through the registry instance that serves the request.",
+            response = ChangeFeedPage.class,
+            extensions = {
+                    @Extension(name = "access-policy", properties = {
+                            @ExtensionProperty(name = "action", value = "read"),
+                            @ExtensionProperty(name = "resource", value = "/buckets/{bucketId}") })
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401) })
+    public Response getChanges(
+            @QueryParam("after")
+            @ApiParam("The cursor returned by the previous request")
+                final Long after,
+            @QueryParam("timeout")
+            @ApiParam("The maximum number of milliseconds to wait for a change, at most " + MAX_TIMEOUT_MILLIS)
+                final Long timeout) {
+
+        final long timeoutMillis = getTimeoutMillis(timeout);
+
+        // held open on purpose, so leave it out of the slow request log
+        RequestTrace.discard();
+
+        final ChangeFeedPage page = serviceFacade.getChanges(after, MAX_CHANGES_PER_PAGE, timeoutMillis);
+        return Response.status(Response.Status.OK).entity(page).build();
+    }
+
+    @GET
+    @Consumes(MediaType.WILDCARD)
+    @Produces(SERVER_SENT_EVENTS)
+    @ApiOperation(
+            value = "Stream changes",
+            notes = "Streams the changes in buckets the user is authorized to read as server-sent events. Each event carries its sequence as the id, " +
+                    "so a reconnecting client resumes from the Last-Event-ID header. A RESET event means changes may have been missed. " +
+                    "The stream is closed after a maximum duration, or when the user's token expires, and the client is expected to reconnect. " +
+                    "The number of open streams is limited, further requests are rejected until a stream closes.",
+            extensions = {
+                    @Extension(name = "access-policy", properties = {
+                            @ExtensionProperty(name = "action", value = "read"),
+                            @ExtensionProperty(name = "resource", value = "/buckets/{bucketId}") })
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401),
+            @ApiResponse(code = 503, message = HttpStatusMessages.MESSAGE_503) })
+    public void streamChanges(
+            @QueryParam("after")
+            @ApiParam("The cursor to start after, the Last-Event-ID header takes precedence")
+                final Long after,
+            @HeaderParam(LAST_EVENT_ID)
+            @ApiParam(hidden = true)
+                final Long lastEventId,
+            @HeaderParam(JwtService.AUTHORIZATION)
+            @ApiParam(hidden = true)
+                final String authorization,
+            @Context final SseEventSink sink,
+            @Context final Sse sse,
+            @Context final HttpServletResponse response) {
+
+        final Long start = lastEventId == null ? after : lastEventId;
+
+        // held open on purpose, so leave it out of the slow request log
+        RequestTrace.discard();
+
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        // the events are sent by the change stream service, so the request thread is released once this returns
+        changeStreamService.subscribe(sink, sse, start, getTokenExpiration(authorization));
+    }
+
+    private Long getTokenExpiration(final String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+
+        try {
+            return jwtService.getExpirationFromToken(JwtService.getTokenFromHeader(authorization));
+        } catch (final JwtException | InvalidAuthenticationException e) {
+            // the request was authenticated some other way, so the stream is only limited by its maximum duration
+            return null;
+        }
+    }
+
+    private static long getTimeoutMillis(final Long timeout) {
+        if (timeout == null) {
+            return DEFAULT_TIMEOUT_MILLIS;
+        }
+
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative.");
+        }
+
+        return Math.min(timeout, MAX_TIMEOUT_MILLIS);
+    }
+
+}
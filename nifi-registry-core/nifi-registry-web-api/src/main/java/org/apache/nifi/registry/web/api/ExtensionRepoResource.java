@@ -36,6 +36,7 @@ import org.apache.nifi.registry.extension.repo.ExtensionRepoExtensionMetadata;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoGroup;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoVersion;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocs;
 import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.apache.nifi.registry.web.service.StreamingContent;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +50,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
 import java.util.List;
 import java.util.SortedSet;
 
@@ -351,10 +353,10 @@ public class ExtensionRepoResource extends ApplicationResource {
             @PathParam("name")
             @ApiParam("The fully qualified name of the extension")
                 final String name
-    ) {
-        final StreamingOutput streamingOutput = serviceFacade.getExtensionRepoExtensionDocs(
+    ) throws IOException {
+        final ExtensionDocs docs = serviceFacade.getExtensionRepoExtensionDocs(
                 getBaseUri(), bucketName, groupId, artifactId, version, name);
-        return Response.ok(streamingOutput).build();
+        return generateDocsResponse(docs);
     }
 
     @GET
@@ -394,10 +396,10 @@ public class ExtensionRepoResource extends ApplicationResource {
             @PathParam("name")
             @ApiParam("The fully qualified name of the extension")
                 final String name
-    ) {
-        final StreamingOutput streamingOutput = serviceFacade.getExtensionRepoExtensionAdditionalDocs(
+    ) throws IOException {
+        final ExtensionDocs docs = serviceFacade.getExtensionRepoExtensionAdditionalDocs(
                 getBaseUri(), bucketName, groupId, artifactId, version, name);
-        return Response.ok(streamingOutput).build();
+        return generateDocsResponse(docs);
     }
 
     @GET
@@ -28,6 +28,7 @@ import org.apache.nifi.registry.extension.bundle.BundleTypeValues;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionMetadataContainer;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -35,6 +36,7 @@ import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.springframework.stereotype.Component;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -54,6 +56,8 @@ import java.util.SortedSet;
 )
 public class ExtensionResource extends ApplicationResource {
 
+    private static final String DEFAULT_SEARCH_LIMIT = "100";
+
     public ExtensionResource(final ServiceFacade serviceFacade, final EventService eventService) {
         super(serviceFacade, eventService);
     }
@@ -102,6 +106,57 @@ public class ExtensionResource extends ApplicationResource {
         return Response.status(Response.Status.OK).entity(container).build();
     }
 
+    @GET
+    @Path("search")
+    @Consumes(MediaType.WILDCARD)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Search extensions",
+            notes = "Searches the name, display name, description, tags, property names, and provided service APIs of extensions that " +
+                    "are part of bundles located in buckets the current user is authorized for. Every word of the query must match the " +
+                    "beginning of a word in one of these fields, and the results are ordered from most to least relevant. The results " +
+                    "include the number of matching extensions for each extension type, bundle type, and tag. If the user is not " +
+                    "authorized to any buckets, an empty result set will be returned." + NON_GUARANTEED_ENDPOINT,
+            response = ExtensionSearchResults.class
+    )
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401),
+            @ApiResponse(code = 403, message = HttpStatusMessages.MESSAGE_403),
+            @ApiResponse(code = 404, message = HttpStatusMessages.MESSAGE_404),
+            @ApiResponse(code = 409, message = HttpStatusMessages.MESSAGE_409) })
+    public Response searchExtensions(
+            @QueryParam("q")
+            @ApiParam(value = "The words to search for, if not specified all extensions are matched")
+                final String query,
+            @QueryParam("bundleType")
+            @ApiParam(value = "The type of bundles to return", allowableValues = BundleTypeValues.ALL_VALUES)
+                final BundleType bundleType,
+            @QueryParam("extensionType")
+            @ApiParam(value = "The type of extensions to return")
+                final ExtensionType extensionType,
+            @QueryParam("tag")
+            @ApiParam(value = "The tags to filter on, will be used in an OR statement")
+                final Set<String> tags,
+            @QueryParam("limit")
+            @DefaultValue(DEFAULT_SEARCH_LIMIT)
+            @ApiParam(value = "The maximum number of extensions to return")
+                final int limit
+    ) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+
+        final ExtensionFilterParams filterParams = new ExtensionFilterParams.Builder()
+                .bundleType(bundleType)
+                .extensionType(extensionType)
+                .addTags(tags == null ? Collections.emptyList() : tags)
+                .build();
+
+        final ExtensionSearchResults results = serviceFacade.searchExtensions(query, filterParams, limit);
+        return Response.status(Response.Status.OK).entity(results).build();
+    }
+
     @GET
     @Path("provided-service-api")
     @Consumes(MediaType.WILDCARD)
@@ -35,11 +35,13 @@ import org.springframework.stereotype.Component;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -52,6 +54,8 @@ import java.util.SortedSet;
 )
 public class FlowResource extends ApplicationResource {
 
+    static final int MAX_LATEST_METADATA_FLOWS = 1000;
+
     @Autowired
     public FlowResource(final ServiceFacade serviceFacade, final EventService eventService) {
         super(serviceFacade, eventService);
@@ -223,4 +227,42 @@ public class FlowResource extends ApplicationResource {
         return Response.status(Response.Status.OK).entity(latestMetadata).build();
     }
 
+    @POST
+    @Path("versions/latest/metadata")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Get latest flow version metadata for many flows",
+            notes = "Gets the metadata for the latest version of each of the given flows in a single request. " +
+                    "Flows that do not exist, have no versions, or are located in buckets the user is not authorized to read are omitted from the result. " +
+                    "At most " + MAX_LATEST_METADATA_FLOWS + " flow identifiers may be submitted per request.",
+            nickname = "globalGetLatestFlowVersionMetadataForFlows",
+            response = VersionedFlowSnapshotMetadata.class,
+            responseContainer = "List",
+            extensions = {
+                    @Extension(name = "access-policy", properties = {
+                            @ExtensionProperty(name = "action", value = "read"),
+                            @ExtensionProperty(name = "resource", value = "/buckets/{bucketId}") })
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401),
+            @ApiResponse(code = 403, message = HttpStatusMessages.MESSAGE_403) })
+    public Response getLatestFlowVersionMetadata(
+            @ApiParam(value = "The flow identifiers", required = true)
+                final Set<String> flowIds) {
+
+        if (flowIds == null || flowIds.isEmpty()) {
+            throw new IllegalArgumentException("Flow identifiers must be specified.");
+        }
+
+        if (flowIds.size() > MAX_LATEST_METADATA_FLOWS) {
+            throw new IllegalArgumentException("No more than " + MAX_LATEST_METADATA_FLOWS + " flow identifiers may be specified per request.");
+        }
+
+        final List<VersionedFlowSnapshotMetadata> latestMetadata = serviceFacade.getLatestFlowSnapshotMetadata(flowIds);
+        return Response.status(Response.Status.OK).entity(latestMetadata).build();
+    }
+
 }
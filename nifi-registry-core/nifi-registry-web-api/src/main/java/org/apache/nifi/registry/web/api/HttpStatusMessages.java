@@ -27,4 +27,5 @@ class HttpStatusMessages {
 
     /* 5xx messages */
     static final String MESSAGE_500 = "NiFi Registry was unable to complete the request because an unexpected error occurred.";
+    static final String MESSAGE_503 = "NiFi Registry is temporarily unable to handle the request. The request may be retried later.";
 }
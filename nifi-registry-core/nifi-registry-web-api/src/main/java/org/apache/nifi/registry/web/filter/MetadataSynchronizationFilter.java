@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.filter;
+
+import org.apache.nifi.registry.provider.flow.FlowMetadataSynchronizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.ext.Provider;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Rejects requests that modify the registry while the metadata database is being synchronized in the background from
+ * a metadata-aware flow persistence provider, or after that synchronization failed. Requests that only read, and
+ * requests to log in or out, are still served.
+ */
+@Component
+@Provider
+public class MetadataSynchronizationFilter implements ContainerRequestFilter {
+
+    static final long RETRY_AFTER_SECONDS = 30;
+
+    private static final Set<String> READ_METHODS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS)));
+    private static final String ACCESS_PATH = "access";
+
+    private final FlowMetadataSynchronizer flowMetadataSynchronizer;
+
+    @Autowired
+    public MetadataSynchronizationFilter(final FlowMetadataSynchronizer flowMetadataSynchronizer) {
+        this.flowMetadataSynchronizer = flowMetadataSynchronizer;
+    }
+
+    @Override
+    public void filter(final ContainerRequestContext requestContext) {
+        if (flowMetadataSynchronizer.isAcceptingChanges() || READ_METHODS.contains(requestContext.getMethod())) {
+            return;
+        }
+
+        final String path = requestContext.getUriInfo().getPath();
+        if (path.equals(ACCESS_PATH) || path.startsWith(ACCESS_PATH + "/")) {
+            return;
+        }
+
+        if (flowMetadataSynchronizer.getState() == FlowMetadataSynchronizer.State.FAILED) {
+            throw new ServiceUnavailableException("The synchronization of metadata from the flow persistence provider failed, "
+                    + "changes are not accepted until the registry has been restarted");
+        }
+        throw new ServiceUnavailableException("Metadata is being synchronized from the flow persistence provider, "
+                + "changes are not accepted until it has completed", RETRY_AFTER_SECONDS);
+    }
+
+}
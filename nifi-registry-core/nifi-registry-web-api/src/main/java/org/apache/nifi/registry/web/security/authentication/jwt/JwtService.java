@@ -89,6 +89,19 @@ public class JwtService {
         }
     }
 
+    /**
+     * @param base64EncodedToken a token issued by this service
+     * @return the time the token expires, in milliseconds since the epoch
+     * @throws JwtException if the token is not valid or has no expiration
+     */
+    public long getExpirationFromToken(final String base64EncodedToken) throws JwtException {
+        final Jws<Claims> jws = parseTokenFromBase64EncodedString(base64EncodedToken);
+        if (jws == null || jws.getBody().getExpiration() == null) {
+            throw new JwtException("No expiration available in token");
+        }
+        return jws.getBody().getExpiration().getTime();
+    }
+
     private Jws<Claims> parseTokenFromBase64EncodedString(final String base64EncodedToken) throws JwtException {
         try {
             return Jwts.parser().setSigningKeyResolver(new SigningKeyResolverAdapter() {
@@ -80,7 +80,7 @@ public class KerberosSpnegoIdentityProvider implements IdentityProvider {
 
         final String expirationFromProperties = properties.getKerberosSpnegoAuthenticationExpiration();
         if (expirationFromProperties != null) {
-            long expiration = FormatUtils.getTimeDuration(expirationFromProperties, TimeUnit.MILLISECONDS);
+            expiration = FormatUtils.getTimeDuration(expirationFromProperties, TimeUnit.MILLISECONDS);
         }
     }
 
@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.registry.changes.ChangeEvent;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.event.ChangeFeedService;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.serialization.jackson.ObjectMapperProvider;
+import org.apache.nifi.registry.util.FormatUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the change feed to the clients following it as server-sent events.
+ *
+ * Streams do not hold a request thread. A single dispatcher waits for changes and hands each open stream to a small
+ * pool of delivery threads, which read the changes and start sending them without waiting for the client to accept
+ * them, so a slow client only delays its own stream. A stream whose client has not accepted an event within the send
+ * timeout is closed. Deliveries read the feed through the facade as the stream's user, so bucket access is checked
+ * again for every delivery. The number of open streams is capped, and each stream is closed once it reaches its
+ * maximum duration or the user's token expires, so that the client reconnects from its Last-Event-ID and is
+ * authenticated again.
+ */
+@Service
+public class ChangeStreamService implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    public static final String RESET_EVENT = "RESET";
+
+    static final int MAX_CHANGES_PER_DELIVERY = 1000;
+    static final long HEARTBEAT_MILLIS = TimeUnit.SECONDS.toMillis(15);
+    static final long DISPATCH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    static final long RETRY_AFTER_SECONDS = 30;
+    static final long SEND_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final int DELIVERY_THREADS = 4;
+
+    private final ServiceFacade serviceFacade;
+    private final ChangeFeedService changeFeedService;
+    private final Semaphore streamPermits;
+    private final long maxDurationMillis;
+    private final long sendTimeoutMillis;
+    private final ObjectMapper objectMapper = ObjectMapperProvider.getMapper();
+
+    private final Set<ChangeStream> streams = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    private final ExecutorService deliveryExecutor = Executors.newFixedThreadPool(DELIVERY_THREADS);
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public ChangeStreamService(final ServiceFacade serviceFacade, final ChangeFeedService changeFeedService, final NiFiRegistryProperties properties) {
+        this(serviceFacade, changeFeedService, properties.getChangeStreamMaxSubscribers(), getMaxDurationMillis(properties.getChangeStreamMaxDuration()),
+                SEND_TIMEOUT_MILLIS);
+    }
+
+    ChangeStreamService(final ServiceFacade serviceFacade, final ChangeFeedService changeFeedService, final int maxStreams, final long maxDurationMillis,
+                        final long sendTimeoutMillis) {
+        this.serviceFacade = serviceFacade;
+        this.changeFeedService = changeFeedService;
+        this.streamPermits = new Semaphore(Math.max(maxStreams, 0));
+        this.maxDurationMillis = maxDurationMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    private static long getMaxDurationMillis(final String maxDuration) {
+        if (StringUtils.isBlank(maxDuration)) {
+            return FormatUtils.getTimeDuration(NiFiRegistryProperties.DEFAULT_WEB_CHANGES_STREAM_MAX_DURATION, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return FormatUtils.getTimeDuration(maxDuration.trim(), TimeUnit.MILLISECONDS);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("The property " + NiFiRegistryProperties.WEB_CHANGES_STREAM_MAX_DURATION
+                    + " must be a time period such as '5 mins'", e);
+        }
+    }
+
+    @PostConstruct
+    public void postConstruct() {
+        dispatcher.execute(this::dispatch);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        dispatcher.shutdownNow();
+        deliveryExecutor.shutdownNow();
+
+        for (final ChangeStream stream : new ArrayList<>(streams)) {
+            close(stream);
+        }
+    }
+
+    /**
+     * Starts streaming the changes after the given cursor to the given sink, as the user of the current request.
+     *
+     * @param sink the sink of the client's stream
+     * @param sse the factory for the events
+     * @param after the cursor to start after, or null to start from the newest change
+     * @param expiresAt when the user's credentials expire in milliseconds since the epoch, or null if they do not
+     * @throws ServiceUnavailableException if the maximum number of streams are already open
+     */
+    public void subscribe(final SseEventSink sink, final Sse sse, final Long after, final Long expiresAt) {
+        if (!running || !streamPermits.tryAcquire()) {
+            throw new ServiceUnavailableException("The maximum number of change streams are open, retry later or poll the change feed instead",
+                    RETRY_AFTER_SECONDS);
+        }
+
+        long closeAt = System.currentTimeMillis() + maxDurationMillis;
+        if (expiresAt != null) {
+            closeAt = Math.min(closeAt, expiresAt);
+        }
+
+        // the request's context is cleared once the request thread is released, so keep the user's authentication
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+
+        final ChangeStream stream = new ChangeStream(sink, sse, securityContext, after, closeAt);
+        streams.add(stream);
+        schedule(stream);
+    }
+
+    /**
+     * @return the number of open streams
+     */
+    public int getStreamCount() {
+        return streams.size();
+    }
+
+    private void dispatch() {
+        long lastSequence = Long.MIN_VALUE;
+        while (running) {
+            try {
+                lastSequence = changeFeedService.awaitChange(lastSequence, DISPATCH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // every stream is visited at least once per interval so that expired or stalled streams are closed and idle streams get heartbeats
+            final long now = System.currentTimeMillis();
+            for (final ChangeStream stream : streams) {
+                final long sendStartedAt = stream.sendStartedAt;
+                if (now >= stream.closeAt || (sendStartedAt > 0 && now - sendStartedAt >= sendTimeoutMillis)) {
+                    close(stream);
+                } else {
+                    schedule(stream);
+                }
+            }
+        }
+    }
+
+    private void schedule(final ChangeStream stream) {
+        // a stream still being delivered to picks up the newer changes on its next delivery
+        if (!stream.delivering.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            deliveryExecutor.execute(() -> deliver(stream));
+        } catch (final RejectedExecutionException e) {
+            stream.delivering.set(false);
+            close(stream);
+        }
+    }
+
+    private void deliver(final ChangeStream stream) {
+        final Delivery delivery;
+        try {
+            if (stream.sink.isClosed() || System.currentTimeMillis() >= stream.closeAt) {
+                close(stream);
+                stream.delivering.set(false);
+                return;
+            }
+
+            SecurityContextHolder.setContext(stream.securityContext);
+            try {
+                delivery = readChanges(stream);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        } catch (final Exception e) {
+            LOGGER.debug("Closing change stream after failing to read the changes for it", e);
+            close(stream);
+            stream.delivering.set(false);
+            return;
+        }
+
+        send(stream, delivery);
+    }
+
+    private Delivery readChanges(final ChangeStream stream) throws JsonProcessingException {
+        final List<OutboundSseEvent> events = new ArrayList<>();
+
+        final ChangeFeedPage page = serviceFacade.getChanges(stream.cursor, MAX_CHANGES_PER_DELIVERY, 0);
+        if (page.isReset()) {
+            events.add(stream.sse.newEventBuilder().id(String.valueOf(page.getCursor())).name(RESET_EVENT).data(String.class, "{}").build());
+        } else {
+            for (final ChangeEvent change : page.getEvents()) {
+                events.add(stream.sse.newEventBuilder()
+                        .id(String.valueOf(change.getSequence()))
+                        .name(change.getEventType())
+                        .data(String.class, objectMapper.writeValueAsString(change))
+                        .build());
+            }
+        }
+        stream.cursor = page.getCursor();
+
+        if (events.isEmpty() && System.currentTimeMillis() - stream.lastSentAt >= HEARTBEAT_MILLIS) {
+            events.add(stream.sse.newEventBuilder().comment("heartbeat").build());
+        }
+
+        return new Delivery(events.iterator(), !page.isReset() && page.getEvents().size() >= MAX_CHANGES_PER_DELIVERY);
+    }
+
+    private void send(final ChangeStream stream, final Delivery delivery) {
+        // sends are not waited for on a delivery thread, so a client that is slow to read only holds up its own stream
+        while (delivery.events.hasNext()) {
+            if (!streams.contains(stream)) {
+                stream.delivering.set(false);
+                return;
+            }
+
+            stream.sendStartedAt = System.currentTimeMillis();
+            final CompletableFuture<?> sent = stream.sink.send(delivery.events.next()).toCompletableFuture();
+            if (!sent.isDone()) {
+                sent.whenComplete((result, failure) -> {
+                    if (failure == null) {
+                        continueSending(stream, delivery);
+                    } else {
+                        failDelivery(stream, failure);
+                    }
+                });
+                return;
+            }
+
+            if (sent.isCompletedExceptionally()) {
+                failDelivery(stream, sent.handle((result, failure) -> failure).join());
+                return;
+            }
+            stream.lastSentAt = System.currentTimeMillis();
+        }
+
+        stream.sendStartedAt = 0;
+        stream.delivering.set(false);
+
+        // a full page means there are more changes waiting
+        if (delivery.more) {
+            schedule(stream);
+        }
+    }
+
+    private void continueSending(final ChangeStream stream, final Delivery delivery) {
+        stream.lastSentAt = System.currentTimeMillis();
+
+        // the send completed on the thread writing to the client, the rest of the delivery goes back to the delivery threads
+        try {
+            deliveryExecutor.execute(() -> send(stream, delivery));
+        } catch (final RejectedExecutionException e) {
+            close(stream);
+            stream.delivering.set(false);
+        }
+    }
+
+    private void failDelivery(final ChangeStream stream, final Throwable failure) {
+        LOGGER.debug("Closing change stream after failing to send to it", failure);
+        close(stream);
+        stream.delivering.set(false);
+    }
+
+    private void close(final ChangeStream stream) {
+        if (!streams.remove(stream)) {
+            return;
+        }
+
+        streamPermits.release();
+        try {
+            stream.sink.close();
+        } catch (final Exception e) {
+            LOGGER.debug("Failed to close change stream", e);
+        }
+    }
+
+    private static class Delivery {
+
+        private final Iterator<OutboundSseEvent> events;
+        private final boolean more;
+
+        private Delivery(final Iterator<OutboundSseEvent> events, final boolean more) {
+            this.events = events;
+            this.more = more;
+        }
+    }
+
+    private static class ChangeStream {
+
+        private final SseEventSink sink;
+        private final Sse sse;
+        private final SecurityContext securityContext;
+        private final long closeAt;
+        private final AtomicBoolean delivering = new AtomicBoolean();
+
+        private volatile Long cursor;
+        private volatile long lastSentAt;
+        private volatile long sendStartedAt;
+
+        private ChangeStream(final SseEventSink sink, final Sse sse, final SecurityContext securityContext, final Long cursor, final long closeAt) {
+            this.sink = sink;
+            this.sse = sse;
+            this.securityContext = securityContext;
+            this.cursor = cursor;
+            this.closeAt = closeAt;
+        }
+    }
+
+}
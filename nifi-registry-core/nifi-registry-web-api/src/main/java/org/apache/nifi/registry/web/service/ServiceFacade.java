@@ -24,15 +24,18 @@ import org.apache.nifi.registry.authorization.User;
 import org.apache.nifi.registry.authorization.UserGroup;
 import org.apache.nifi.registry.bucket.Bucket;
 import org.apache.nifi.registry.bucket.BucketItem;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
 import org.apache.nifi.registry.diff.VersionedFlowDifference;
 import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -47,8 +50,8 @@ import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 import org.apache.nifi.registry.security.authorization.RequestAction;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocs;
 
-import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -110,8 +113,14 @@ public interface ServiceFacade {
 
     VersionedFlowSnapshotMetadata getLatestFlowSnapshotMetadata(String flowIdentifier);
 
+    List<VersionedFlowSnapshotMetadata> getLatestFlowSnapshotMetadata(Set<String> flowIdentifiers);
+
     VersionedFlowDifference getFlowDiff(String bucketIdentifier, String flowIdentifier, Integer versionA, Integer versionB);
 
+    // ---------------------- Change feed methods ----------------------------------------------
+
+    ChangeFeedPage getChanges(Long after, int maxChanges, long timeoutMillis);
+
     // ---------------------- Bundle methods ----------------------------------------------
 
     List<Bundle> getBundles(BundleFilterParams filterParams);
@@ -136,19 +145,23 @@ public interface ServiceFacade {
 
     BundleVersion deleteBundleVersion(String bundleId, String version);
 
+    BundleVersionDependencyGraph getBundleVersionDependencyGraph(String bundleId, String version);
+
     // ---------------------- Extension methods ----------------------------------------------
 
     SortedSet<ExtensionMetadata> getExtensionMetadata(ExtensionFilterParams filterParams);
 
     SortedSet<ExtensionMetadata> getExtensionMetadata(ProvidedServiceAPI serviceAPI);
 
+    ExtensionSearchResults searchExtensions(String query, ExtensionFilterParams filterParams, int maxResults);
+
     SortedSet<ExtensionMetadata> getExtensionMetadata(String bundleIdentifier, String version);
 
     Extension getExtension(String bundleIdentifier, String version, String name);
 
-    StreamingOutput getExtensionDocs(String bundleIdentifier, String version, String name);
+    ExtensionDocs getExtensionDocs(String bundleIdentifier, String version, String name) throws IOException;
 
-    StreamingOutput getAdditionalDetailsDocs(String bundleIdentifier, String version, String name);
+    ExtensionDocs getAdditionalDetailsDocs(String bundleIdentifier, String version, String name) throws IOException;
 
     SortedSet<TagCount> getExtensionTags();
 
@@ -172,9 +185,11 @@ public interface ServiceFacade {
 
     Extension getExtensionRepoExtension(URI baseUri, String bucketName, String groupId, String artifactId, String version, String extensionName);
 
-    StreamingOutput getExtensionRepoExtensionDocs(URI baseUri, String bucketName, String groupId, String artifactId, String version, String extensionName);
+    ExtensionDocs getExtensionRepoExtensionDocs(URI baseUri, String bucketName, String groupId, String artifactId, String version, String extensionName)
+            throws IOException;
 
-    StreamingOutput getExtensionRepoExtensionAdditionalDocs(URI baseUri, String bucketName, String groupId, String artifactId, String version, String extensionName);
+    ExtensionDocs getExtensionRepoExtensionAdditionalDocs(URI baseUri, String bucketName, String groupId, String artifactId, String version, String extensionName)
+            throws IOException;
 
     // ---------------------- Field methods ---------------------------------------------
 
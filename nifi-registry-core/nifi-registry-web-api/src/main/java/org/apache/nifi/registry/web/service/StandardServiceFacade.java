@@ -25,15 +25,20 @@ import org.apache.nifi.registry.authorization.User;
 import org.apache.nifi.registry.authorization.UserGroup;
 import org.apache.nifi.registry.bucket.Bucket;
 import org.apache.nifi.registry.bucket.BucketItem;
+import org.apache.nifi.registry.changes.ChangeEvent;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
 import org.apache.nifi.registry.diff.VersionedFlowDifference;
+import org.apache.nifi.registry.event.ChangeFeedService;
 import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.bundle.BundleVersion;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependencyGraph;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -59,11 +64,13 @@ import org.apache.nifi.registry.security.authorization.user.NiFiUserUtils;
 import org.apache.nifi.registry.service.AuthorizationService;
 import org.apache.nifi.registry.service.RegistryService;
 import org.apache.nifi.registry.service.extension.ExtensionService;
+import org.apache.nifi.registry.service.extension.docs.ExtensionDocs;
 import org.apache.nifi.registry.web.link.LinkService;
 import org.apache.nifi.registry.web.security.PermissionsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.ws.rs.core.Link;
@@ -74,11 +81,14 @@ import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -108,6 +118,7 @@ public class StandardServiceFacade implements ServiceFacade {
     private final RevisionFeature revisionFeature;
     private final PermissionsService permissionsService;
     private final LinkService linkService;
+    private final ChangeFeedService changeFeedService;
 
     @Autowired
     public StandardServiceFacade(final RegistryService registryService,
@@ -117,7 +128,8 @@ public class StandardServiceFacade implements ServiceFacade {
                                  final RevisableEntityService entityService,
                                  final RevisionFeature revisionFeature,
                                  final PermissionsService permissionsService,
-                                 final LinkService linkService) {
+                                 final LinkService linkService,
+                                 final ChangeFeedService changeFeedService) {
         this.registryService = registryService;
         this.extensionService = extensionService;
         this.authorizationService = authorizationService;
@@ -126,6 +138,7 @@ public class StandardServiceFacade implements ServiceFacade {
         this.revisionFeature = revisionFeature;
         this.permissionsService = permissionsService;
         this.linkService = linkService;
+        this.changeFeedService = changeFeedService;
     }
 
     private String currentUserIdentity() {
@@ -398,6 +411,23 @@ public class StandardServiceFacade implements ServiceFacade {
         return latest;
     }
 
+    @Override
+    public List<VersionedFlowSnapshotMetadata> getLatestFlowSnapshotMetadata(final Set<String> flowIdentifiers) {
+        if (flowIdentifiers == null || flowIdentifiers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // authorize once for the whole request, flows in buckets the user can't read are left out like missing flows
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        if (authorizedBucketIds == null || authorizedBucketIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final List<VersionedFlowSnapshotMetadata> latest = registryService.getLatestFlowSnapshotMetadata(authorizedBucketIds, flowIdentifiers);
+        linkService.populateLinks(latest);
+        return latest;
+    }
+
     @Override
     public VersionedFlowDifference getFlowDiff(final String bucketIdentifier, final String flowIdentifier, final Integer versionA, final Integer versionB) {
         authorizeBucketAccess(RequestAction.READ, bucketIdentifier);
@@ -423,6 +453,33 @@ public class StandardServiceFacade implements ServiceFacade {
         }
     }
 
+    // ---------------------- Change feed methods ----------------------------------------------
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ChangeFeedPage getChanges(final Long after, final int maxChanges, final long timeoutMillis) {
+        // bucket access is decided per bucket so that deleted buckets are still authorized through the inherited policies
+        final Map<String, Boolean> readableBuckets = new HashMap<>();
+        return changeFeedService.getChanges(after, maxChanges, timeoutMillis, TimeUnit.MILLISECONDS,
+                change -> isBucketReadable(change, readableBuckets));
+    }
+
+    private boolean isBucketReadable(final ChangeEvent change, final Map<String, Boolean> readableBuckets) {
+        final String bucketIdentifier = change.getBucketIdentifier();
+        if (StringUtils.isBlank(bucketIdentifier)) {
+            return false;
+        }
+
+        return readableBuckets.computeIfAbsent(bucketIdentifier, id -> {
+            try {
+                authorizeBucketAccess(RequestAction.READ, id);
+                return true;
+            } catch (final AccessDeniedException e) {
+                return false;
+            }
+        });
+    }
+
     // ---------------------- Bundle methods ----------------------------------------------
 
     @Override
@@ -551,6 +608,19 @@ public class StandardServiceFacade implements ServiceFacade {
         return deletedBundleVersion;
     }
 
+    @Override
+    public BundleVersionDependencyGraph getBundleVersionDependencyGraph(final String bundleIdentifier, final String version) {
+        final Bundle bundle = extensionService.getBundle(bundleIdentifier);
+        authorizeBucketAccess(RequestAction.READ, bundle);
+
+        final String bucketIdentifier = bundle.getBucketIdentifier();
+        final BundleVersion bundleVersion = extensionService.getBundleVersion(bucketIdentifier, bundleIdentifier, version);
+
+        // dependencies may only be resolved from buckets the user can read
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        return extensionService.getBundleVersionDependencyGraph(bundleVersion, authorizedBucketIds);
+    }
+
     // ---------------------- Extension methods ----------------------------------------------
 
     @Override
@@ -579,6 +649,19 @@ public class StandardServiceFacade implements ServiceFacade {
         return metadata;
     }
 
+    @Override
+    public ExtensionSearchResults searchExtensions(final String query, final ExtensionFilterParams filterParams, final int maxResults) {
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        if (authorizedBucketIds == null || authorizedBucketIds.isEmpty()) {
+            // not authorized for any bucket, search nothing so the results are empty
+            return extensionService.searchExtensions(Collections.emptySet(), query, filterParams, maxResults);
+        }
+
+        final ExtensionSearchResults results = extensionService.searchExtensions(authorizedBucketIds, query, filterParams, maxResults);
+        linkService.populateLinks(results.getExtensions());
+        return results;
+    }
+
     @Override
     public SortedSet<ExtensionMetadata> getExtensionMetadata(final String bundleIdentifier, final String version) {
         final Bundle bundle = extensionService.getBundle(bundleIdentifier);
@@ -603,27 +686,25 @@ public class StandardServiceFacade implements ServiceFacade {
     }
 
     @Override
-    public StreamingOutput getExtensionDocs(final String bundleIdentifier, final String version, final String name) {
+    public ExtensionDocs getExtensionDocs(final String bundleIdentifier, final String version, final String name) throws IOException {
         final Bundle bundle = extensionService.getBundle(bundleIdentifier);
         authorizeBucketAccess(RequestAction.READ, bundle);
 
         final String bucketIdentifier = bundle.getBucketIdentifier();
         final BundleVersion bundleVersion = extensionService.getBundleVersion(bucketIdentifier, bundleIdentifier, version);
 
-        final StreamingOutput streamingOutput = (output) -> extensionService.writeExtensionDocs(bundleVersion, name, output);
-        return streamingOutput;
+        return extensionService.getExtensionDocs(bundleVersion, name);
     }
 
     @Override
-    public StreamingOutput getAdditionalDetailsDocs(final String bundleIdentifier, final String version, final String name) {
+    public ExtensionDocs getAdditionalDetailsDocs(final String bundleIdentifier, final String version, final String name) throws IOException {
         final Bundle bundle = extensionService.getBundle(bundleIdentifier);
         authorizeBucketAccess(RequestAction.READ, bundle);
 
         final String bucketIdentifier = bundle.getBucketIdentifier();
         final BundleVersion bundleVersion = extensionService.getBundleVersion(bucketIdentifier, bundleIdentifier, version);
 
-        final StreamingOutput streamingOutput = (output) -> extensionService.writeAdditionalDetailsDocs(bundleVersion, name, output);
-        return streamingOutput;
+        return extensionService.getAdditionalDetailsDocs(bundleVersion, name);
     }
 
     @Override
@@ -653,7 +734,7 @@ public class StandardServiceFacade implements ServiceFacade {
 
         final SortedSet<ExtensionRepoGroup> repoGroups = extensionService.getExtensionRepoGroups(bucket);
         linkService.populateFullLinks(repoGroups, baseUri);
-        return extensionService.getExtensionRepoGroups(bucket);
+        return repoGroups;
     }
 
     @Override
@@ -766,25 +847,25 @@ public class StandardServiceFacade implements ServiceFacade {
     }
 
     @Override
-    public StreamingOutput getExtensionRepoExtensionDocs(final URI baseUri, final String bucketName, final String groupId,
-                                                         final String artifactId, final String version, final String extensionName) {
+    public ExtensionDocs getExtensionRepoExtensionDocs(final URI baseUri, final String bucketName, final String groupId,
+                                                       final String artifactId, final String version, final String extensionName)
+            throws IOException {
         final Bucket bucket = registryService.getBucketByName(bucketName);
         authorizeBucketAccess(RequestAction.READ, bucket.getIdentifier());
 
         final BundleVersion bundleVersion = extensionService.getBundleVersion(bucket.getIdentifier(), groupId, artifactId, version);
-        final StreamingOutput streamingOutput = (output) -> extensionService.writeExtensionDocs(bundleVersion, extensionName, output);
-        return streamingOutput;
+        return extensionService.getExtensionDocs(bundleVersion, extensionName);
     }
 
     @Override
-    public StreamingOutput getExtensionRepoExtensionAdditionalDocs(final URI baseUri, final String bucketName, final String groupId,
-                                                                   final String artifactId, final String version, final String extensionName) {
+    public ExtensionDocs getExtensionRepoExtensionAdditionalDocs(final URI baseUri, final String bucketName, final String groupId,
+                                                                 final String artifactId, final String version, final String extensionName)
+            throws IOException {
         final Bucket bucket = registryService.getBucketByName(bucketName);
         authorizeBucketAccess(RequestAction.READ, bucket.getIdentifier());
 
         final BundleVersion bundleVersion = extensionService.getBundleVersion(bucket.getIdentifier(), groupId, artifactId, version);
-        final StreamingOutput streamingOutput = (output) -> extensionService.writeAdditionalDetailsDocs(bundleVersion, extensionName, output);
-        return streamingOutput;
+        return extensionService.getAdditionalDetailsDocs(bundleVersion, extensionName);
     }
 
 
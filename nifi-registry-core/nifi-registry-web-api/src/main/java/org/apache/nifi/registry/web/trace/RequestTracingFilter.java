@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.trace;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.trace.OtlpTraceExporter;
+import org.apache.nifi.registry.trace.RequestTrace;
+import org.apache.nifi.registry.trace.Span;
+import org.apache.nifi.registry.util.FormatUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces each REST API request from the time it is matched to a resource until its response has been written.
+ *
+ * The trace is bound to the request thread so that the facade, services, providers, and serializers can add spans
+ * for their own work. Once the response is complete, the time spent in each layer is reported in a Server-Timing
+ * header, logged if the request was slow, and exported to an OpenTelemetry collector if one is configured.
+ */
+@Component
+@Provider
+public class RequestTracingFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTracingFilter.class);
+
+    static final String TRACE_PARENT_HEADER = "traceparent";
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+    static final String TOTAL_METRIC = "total";
+
+    private final boolean serverTimingEnabled;
+    private final long slowRequestThresholdNanos;
+    private final OtlpTraceExporter exporter;
+
+    @Autowired
+    public RequestTracingFilter(final NiFiRegistryProperties properties, final OtlpTraceExporter exporter) {
+        this.serverTimingEnabled = properties.isServerTimingEnabled();
+        this.slowRequestThresholdNanos = getThresholdNanos(properties.getSlowRequestThreshold());
+        this.exporter = exporter;
+    }
+
+    private static long getThresholdNanos(final String threshold) {
+        if (StringUtils.isBlank(threshold)) {
+            return 0;
+        }
+
+        try {
+            return Math.round(FormatUtils.getPreciseTimeDuration(threshold.trim(), TimeUnit.NANOSECONDS));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("The property " + NiFiRegistryProperties.WEB_SLOW_REQUEST_THRESHOLD
+                    + " must be a time period such as '5 secs'", e);
+        }
+    }
+
+    @Override
+    public void filter(final ContainerRequestContext requestContext) {
+        final String target = "/" + requestContext.getUriInfo().getPath();
+        final RequestTrace trace = RequestTrace.start(requestContext.getMethod() + " " + target,
+                requestContext.getHeaderString(TRACE_PARENT_HEADER));
+        trace.getRoot().setAttribute("http.method", requestContext.getMethod());
+        trace.getRoot().setAttribute("http.target", target);
+    }
+
+    @Override
+    public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext) {
+        final RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return;
+        }
+
+        trace.getRoot().setAttribute("http.status_code", String.valueOf(responseContext.getStatus()));
+        if (serverTimingEnabled) {
+            responseContext.getHeaders().putSingle(SERVER_TIMING_HEADER, getServerTiming(trace));
+        }
+
+        // without an entity the writer interceptor is not invoked, so the request is complete
+        if (!responseContext.hasEntity()) {
+            complete(trace);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(final WriterInterceptorContext context) throws IOException {
+        final RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            context.proceed();
+            return;
+        }
+
+        try (final Span span = RequestTrace.span(RequestTrace.LAYER_RESPONSE, "write " + context.getType().getSimpleName())) {
+            context.proceed();
+        } finally {
+            complete(trace);
+        }
+    }
+
+    /**
+     * @param trace the trace of a request
+     * @return the value of the Server-Timing header reporting the time spent so far in each layer
+     */
+    static String getServerTiming(final RequestTrace trace) {
+        final StringBuilder serverTiming = new StringBuilder(TOTAL_METRIC).append(";dur=").append(RequestTrace.formatMillis(trace.getDurationNanos()));
+        for (final Map.Entry<String, Long> layerDuration : trace.getLayerDurations().entrySet()) {
+            serverTiming.append(", ").append(layerDuration.getKey()).append(";dur=").append(RequestTrace.formatMillis(layerDuration.getValue()));
+        }
+        return serverTiming.toString();
+    }
+
+    private void complete(final RequestTrace trace) {
+        trace.finish();
+
+        if (slowRequestThresholdNanos > 0 && trace.getDurationNanos() > slowRequestThresholdNanos) {
+            logger.warn(String.format("Slow request %s took %s ms [%s]%s", trace.getRoot().getName(),
+                    RequestTrace.formatMillis(trace.getDurationNanos()), getServerTiming(trace), trace.describe()));
+        }
+
+        exporter.export(trace);
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.trace;
+
+import org.apache.nifi.registry.revision.api.RevisionManager;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.extension.ExtensionService;
+import org.apache.nifi.registry.trace.RequestTrace;
+import org.apache.nifi.registry.trace.TracingProxy;
+import org.apache.nifi.registry.web.service.ServiceFacade;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a span to the current request's trace for each call made to the facade, extension service, metadata service,
+ * and revision manager.
+ *
+ * These beans are only ever injected by their interface, so they are wrapped in proxies of that interface. Since this
+ * post-processor is not ordered, it runs after the transaction proxies have been created and so the spans include the
+ * time spent committing transactions.
+ */
+@Component
+public class TracingBeanPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof ServiceFacade) {
+            return TracingProxy.wrap(ServiceFacade.class, (ServiceFacade) bean, RequestTrace.LAYER_FACADE);
+        } else if (bean instanceof ExtensionService) {
+            return TracingProxy.wrap(ExtensionService.class, (ExtensionService) bean, RequestTrace.LAYER_SERVICE);
+        } else if (bean instanceof MetadataService) {
+            return TracingProxy.wrap(MetadataService.class, (MetadataService) bean, RequestTrace.LAYER_METADATA);
+        } else if (bean instanceof RevisionManager) {
+            return TracingProxy.wrap(RevisionManager.class, (RevisionManager) bean, RequestTrace.LAYER_REVISION);
+        }
+        return bean;
+    }
+
+}
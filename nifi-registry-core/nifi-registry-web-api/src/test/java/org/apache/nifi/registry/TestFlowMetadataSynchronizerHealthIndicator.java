@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry;
+
+import org.apache.nifi.registry.provider.flow.FlowMetadataSynchronizer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.SimpleHttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.SimpleStatusAggregator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.health.StatusAggregator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestFlowMetadataSynchronizerHealthIndicator {
+
+    private static final String STATUS_ORDER = "management.endpoint.health.status.order";
+    private static final String WARMING_HTTP_MAPPING = "management.endpoint.health.status.http-mapping.WARMING";
+
+    private FlowMetadataSynchronizer flowMetadataSynchronizer;
+    private FlowMetadataSynchronizerHealthIndicator healthIndicator;
+
+    @Before
+    public void setup() {
+        flowMetadataSynchronizer = mock(FlowMetadataSynchronizer.class);
+        when(flowMetadataSynchronizer.getBucketCount()).thenReturn(4);
+        when(flowMetadataSynchronizer.getSynchronizedBuckets()).thenReturn(2L);
+        when(flowMetadataSynchronizer.getSynchronizedFlows()).thenReturn(5L);
+        when(flowMetadataSynchronizer.getSynchronizedVersions()).thenReturn(12L);
+
+        healthIndicator = new FlowMetadataSynchronizerHealthIndicator(flowMetadataSynchronizer);
+    }
+
+    @Test
+    public void testWarming() {
+        when(flowMetadataSynchronizer.getState()).thenReturn(FlowMetadataSynchronizer.State.WARMING);
+
+        final Health health = healthIndicator.health();
+        assertEquals(FlowMetadataSynchronizerHealthIndicator.WARMING, health.getStatus());
+        assertEquals("WARMING", health.getDetails().get("state"));
+        assertEquals(4, health.getDetails().get("buckets"));
+        assertEquals(2L, health.getDetails().get("synchronizedBuckets"));
+        assertEquals(5L, health.getDetails().get("synchronizedFlows"));
+        assertEquals(12L, health.getDetails().get("synchronizedVersions"));
+    }
+
+    @Test
+    public void testFailed() {
+        when(flowMetadataSynchronizer.getState()).thenReturn(FlowMetadataSynchronizer.State.FAILED);
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    public void testCompleteOrSkipped() {
+        when(flowMetadataSynchronizer.getState()).thenReturn(FlowMetadataSynchronizer.State.COMPLETE);
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+
+        when(flowMetadataSynchronizer.getState()).thenReturn(FlowMetadataSynchronizer.State.SKIPPED);
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    public void testWarmingIsReportedAsUnavailable() {
+        final Properties defaultProperties = NiFiRegistryApiApplication.getDefaultProperties();
+
+        // a registry that is warming is reported as warming even though every other indicator is up
+        final StatusAggregator statusAggregator = new SimpleStatusAggregator(defaultProperties.getProperty(STATUS_ORDER).split(","));
+        assertEquals(FlowMetadataSynchronizerHealthIndicator.WARMING,
+                statusAggregator.getAggregateStatus(new HashSet<>(Arrays.asList(Status.UP, FlowMetadataSynchronizerHealthIndicator.WARMING))));
+        assertEquals(Status.DOWN, statusAggregator.getAggregateStatus(new HashSet<>(Arrays.asList(Status.DOWN, FlowMetadataSynchronizerHealthIndicator.WARMING))));
+
+        final HttpCodeStatusMapper statusMapper = new SimpleHttpCodeStatusMapper(
+                Collections.singletonMap("WARMING", Integer.valueOf(defaultProperties.getProperty(WARMING_HTTP_MAPPING))));
+        assertEquals(503, statusMapper.getStatusCode(FlowMetadataSynchronizerHealthIndicator.WARMING));
+        assertEquals(200, statusMapper.getStatusCode(Status.UP));
+    }
+
+}
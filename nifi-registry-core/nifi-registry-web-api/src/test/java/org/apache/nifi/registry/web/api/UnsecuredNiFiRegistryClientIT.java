@@ -358,6 +358,14 @@ public class UnsecuredNiFiRegistryClientIT extends UnsecuredITBase {
         assertEquals(snapshotFlow.getIdentifier(), latestMetadataWithoutBucket.getFlowIdentifier());
         assertEquals(2, latestMetadataWithoutBucket.getVersion());
 
+        // get latest metadata for many flows at once, unknown flows are left out
+        final Set<String> latestFlowIds = new HashSet<>(Arrays.asList(snapshotFlow.getIdentifier(), "DOES-NOT-EXIST"));
+        final List<VersionedFlowSnapshotMetadata> latestMetadataForFlows = snapshotClient.getLatestMetadata(latestFlowIds);
+        assertEquals(1, latestMetadataForFlows.size());
+        assertEquals(snapshotFlow.getIdentifier(), latestMetadataForFlows.get(0).getFlowIdentifier());
+        assertEquals(snapshotFlow.getBucketIdentifier(), latestMetadataForFlows.get(0).getBucketIdentifier());
+        assertEquals(2, latestMetadataForFlows.get(0).getVersion());
+
         // ---------------------- TEST EXTENSIONS ----------------------//
 
         // verify we have no bundles yet
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.filter;
+
+import org.apache.nifi.registry.provider.flow.FlowMetadataSynchronizer;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.UriInfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestMetadataSynchronizationFilter {
+
+    private FlowMetadataSynchronizer flowMetadataSynchronizer;
+    private MetadataSynchronizationFilter filter;
+
+    @Before
+    public void setup() {
+        flowMetadataSynchronizer = mock(FlowMetadataSynchronizer.class);
+        filter = new MetadataSynchronizationFilter(flowMetadataSynchronizer);
+    }
+
+    private void setState(final FlowMetadataSynchronizer.State state) {
+        when(flowMetadataSynchronizer.getState()).thenReturn(state);
+        when(flowMetadataSynchronizer.isAcceptingChanges()).thenReturn(state != FlowMetadataSynchronizer.State.WARMING && state != FlowMetadataSynchronizer.State.FAILED);
+    }
+
+    private static ContainerRequestContext createRequest(final String method, final String path) {
+        final UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getPath()).thenReturn(path);
+
+        final ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getMethod()).thenReturn(method);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        return requestContext;
+    }
+
+    @Test
+    public void testRejectsChangesWhileWarming() {
+        setState(FlowMetadataSynchronizer.State.WARMING);
+
+        for (final String method : new String[]{"POST", "PUT", "DELETE"}) {
+            try {
+                filter.filter(createRequest(method, "buckets"));
+                fail("Expected " + method + " to be rejected while warming");
+            } catch (final ServiceUnavailableException e) {
+                assertEquals(String.valueOf(MetadataSynchronizationFilter.RETRY_AFTER_SECONDS), e.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsChangesAfterFailure() {
+        setState(FlowMetadataSynchronizer.State.FAILED);
+
+        try {
+            filter.filter(createRequest("POST", "buckets"));
+            fail("Expected the change to be rejected after the synchronization failed");
+        } catch (final ServiceUnavailableException e) {
+            assertNull(e.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
+        }
+    }
+
+    @Test
+    public void testAcceptsReadsAndAccessWhileWarming() {
+        setState(FlowMetadataSynchronizer.State.WARMING);
+
+        filter.filter(createRequest("GET", "buckets"));
+        filter.filter(createRequest("HEAD", "buckets"));
+        filter.filter(createRequest("OPTIONS", "buckets"));
+        filter.filter(createRequest("POST", "access/token"));
+        filter.filter(createRequest("DELETE", "access/logout"));
+    }
+
+    @Test
+    public void testAcceptsChangesOnceComplete() {
+        setState(FlowMetadataSynchronizer.State.COMPLETE);
+        filter.filter(createRequest("POST", "buckets"));
+
+        setState(FlowMetadataSynchronizer.State.SKIPPED);
+        filter.filter(createRequest("DELETE", "buckets/1"));
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.security.authentication.x509;
+
+import org.apache.nifi.registry.security.authentication.AuthenticationRequest;
+import org.apache.nifi.registry.security.authentication.AuthenticationResponse;
+import org.apache.nifi.registry.security.authentication.exception.InvalidCredentialsException;
+import org.junit.Test;
+import org.springframework.security.web.authentication.preauth.x509.X509PrincipalExtractor;
+
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.X509Certificate;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class X509IdentityProviderTest {
+
+    private static final String IDENTITY = "CN=user1, OU=nifi";
+
+    @Test
+    public void testCertificateIsValidatedOnEveryRequest() throws Exception {
+        final X509IdentityProvider identityProvider = createIdentityProvider();
+        final X509Certificate certificate = mock(X509Certificate.class);
+
+        final AuthenticationResponse first = identityProvider.authenticate(createRequest(certificate));
+        final AuthenticationResponse second = identityProvider.authenticate(createRequest(certificate));
+
+        assertEquals(IDENTITY, first.getIdentity());
+        assertEquals(IDENTITY, second.getIdentity());
+        verify(certificate, times(2)).checkValidity();
+    }
+
+    @Test(expected = InvalidCredentialsException.class)
+    public void testExpiredCertificateIsRejected() throws Exception {
+        final X509IdentityProvider identityProvider = createIdentityProvider();
+        final X509Certificate certificate = mock(X509Certificate.class);
+        doThrow(new CertificateExpiredException()).when(certificate).checkValidity();
+
+        identityProvider.authenticate(createRequest(certificate));
+    }
+
+    private X509IdentityProvider createIdentityProvider() {
+        return new X509IdentityProvider(mock(X509PrincipalExtractor.class), mock(X509CertificateExtractor.class));
+    }
+
+    private AuthenticationRequest createRequest(final X509Certificate certificate) {
+        return new AuthenticationRequest(IDENTITY, certificate, new X509AuthenticationRequestDetails(null, "GET"));
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.service;
+
+import org.apache.nifi.registry.changes.ChangeEvent;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.event.ChangeFeedService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestChangeStreamService {
+
+    private ServiceFacade serviceFacade;
+    private Sse sse;
+    private OutboundSseEvent.Builder eventBuilder;
+    private OutboundSseEvent event;
+    private ChangeStreamService changeStreamService;
+
+    @Before
+    public void setup() {
+        serviceFacade = mock(ServiceFacade.class);
+
+        event = mock(OutboundSseEvent.class);
+        eventBuilder = mock(OutboundSseEvent.Builder.class, RETURNS_SELF);
+        when(eventBuilder.build()).thenReturn(event);
+
+        sse = mock(Sse.class);
+        when(sse.newEventBuilder()).thenReturn(eventBuilder);
+    }
+
+    @After
+    public void teardown() {
+        if (changeStreamService != null) {
+            changeStreamService.destroy();
+        }
+    }
+
+    private void createService(final int maxStreams, final long maxDurationMillis) {
+        createService(maxStreams, maxDurationMillis, 60000);
+    }
+
+    private void createService(final int maxStreams, final long maxDurationMillis, final long sendTimeoutMillis) {
+        final ChangeFeedService changeFeedService = new ChangeFeedService(new AtomicLong(1)::getAndAdd);
+        changeStreamService = new ChangeStreamService(serviceFacade, changeFeedService, maxStreams, maxDurationMillis, sendTimeoutMillis);
+        changeStreamService.postConstruct();
+    }
+
+    private static SseEventSink createSink() {
+        final SseEventSink sink = mock(SseEventSink.class);
+        when(sink.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        return sink;
+    }
+
+    @Test
+    public void testSendsChangesAsEvents() {
+        final ChangeEvent change = new ChangeEvent();
+        change.setSequence(5);
+        change.setEventType("CREATE_FLOW_VERSION");
+        when(serviceFacade.getChanges(isNull(), anyInt(), anyLong())).thenReturn(createPage(5, false, change));
+        when(serviceFacade.getChanges(eq(5L), anyInt(), anyLong())).thenReturn(createPage(5, false));
+
+        createService(10, 60000);
+
+        final SseEventSink sink = createSink();
+        changeStreamService.subscribe(sink, sse, null, null);
+
+        verify(sink, timeout(5000)).send(event);
+        verify(eventBuilder).id("5");
+        verify(eventBuilder).name("CREATE_FLOW_VERSION");
+        verify(serviceFacade, timeout(5000)).getChanges(eq(5L), anyInt(), anyLong());
+        assertEquals(1, changeStreamService.getStreamCount());
+    }
+
+    @Test
+    public void testSendsResetEvent() {
+        when(serviceFacade.getChanges(eq(1L), anyInt(), anyLong())).thenReturn(createPage(9, true));
+        when(serviceFacade.getChanges(eq(9L), anyInt(), anyLong())).thenReturn(createPage(9, false));
+
+        createService(10, 60000);
+
+        final SseEventSink sink = createSink();
+        changeStreamService.subscribe(sink, sse, 1L, null);
+
+        verify(sink, timeout(5000)).send(event);
+        verify(eventBuilder).id("9");
+        verify(eventBuilder).name(ChangeStreamService.RESET_EVENT);
+    }
+
+    @Test
+    public void testRejectsStreamsOverLimit() {
+        when(serviceFacade.getChanges(any(), anyInt(), anyLong())).thenReturn(createPage(0, false));
+        createService(1, 60000);
+
+        changeStreamService.subscribe(createSink(), sse, null, null);
+
+        final SseEventSink rejected = createSink();
+        try {
+            changeStreamService.subscribe(rejected, sse, null, null);
+            fail("Expected the stream to be rejected");
+        } catch (final ServiceUnavailableException e) {
+            assertEquals(1, changeStreamService.getStreamCount());
+        }
+        verify(rejected, never()).send(any());
+    }
+
+    @Test
+    public void testClosesStreamWhenCredentialsExpire() {
+        when(serviceFacade.getChanges(any(), anyInt(), anyLong())).thenReturn(createPage(0, false));
+        createService(1, 60000);
+
+        final SseEventSink sink = createSink();
+        changeStreamService.subscribe(sink, sse, null, System.currentTimeMillis() + 200);
+        verify(sink, timeout(5000)).close();
+        assertEquals(0, changeStreamService.getStreamCount());
+
+        // the closed stream no longer counts towards the limit
+        changeStreamService.subscribe(createSink(), sse, null, null);
+        assertEquals(1, changeStreamService.getStreamCount());
+    }
+
+    @Test
+    public void testClosesStreamAtMaxDuration() {
+        when(serviceFacade.getChanges(any(), anyInt(), anyLong())).thenReturn(createPage(0, false));
+        createService(1, 200);
+
+        final SseEventSink sink = createSink();
+        changeStreamService.subscribe(sink, sse, null, null);
+        verify(sink, timeout(5000)).close();
+        assertEquals(0, changeStreamService.getStreamCount());
+    }
+
+    @Test
+    public void testClosesStreamWhenClientDisconnects() {
+        when(serviceFacade.getChanges(any(), anyInt(), anyLong())).thenReturn(createPage(0, false));
+        createService(1, 60000);
+
+        final CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("Broken pipe"));
+
+        final SseEventSink sink = mock(SseEventSink.class);
+        when(sink.send(any())).thenReturn(failed);
+
+        // the first delivery sends a heartbeat, which fails
+        changeStreamService.subscribe(sink, sse, null, null);
+        verify(sink, timeout(5000)).close();
+        assertEquals(0, changeStreamService.getStreamCount());
+    }
+
+    @Test
+    public void testStalledStreamDoesNotBlockOtherStreams() {
+        when(serviceFacade.getChanges(any(), anyInt(), anyLong())).thenReturn(createPage(0, false));
+        createService(10, 60000, 500);
+
+        // more stalled clients than there are delivery threads, none of them ever accepts an event
+        final List<SseEventSink> stalledSinks = new ArrayList<>();
+        for (int i = 0; i < ChangeStreamService.DELIVERY_THREADS + 1; i++) {
+            final SseEventSink stalled = mock(SseEventSink.class);
+            when(stalled.send(any())).thenReturn(new CompletableFuture<>());
+            changeStreamService.subscribe(stalled, sse, null, null);
+            stalledSinks.add(stalled);
+        }
+
+        final SseEventSink sink = createSink();
+        changeStreamService.subscribe(sink, sse, null, null);
+        verify(sink, timeout(5000)).send(event);
+
+        // the stalled streams are closed once the send timeout has passed
+        for (final SseEventSink stalled : stalledSinks) {
+            verify(stalled, timeout(5000)).close();
+        }
+        verify(sink, never()).close();
+        assertEquals(1, changeStreamService.getStreamCount());
+    }
+
+    private static ChangeFeedPage createPage(final long cursor, final boolean reset, final ChangeEvent... changes) {
+        final List<ChangeEvent> events = changes.length == 0 ? Collections.emptyList() : Arrays.asList(changes);
+        final ChangeFeedPage page = new ChangeFeedPage();
+        page.setCursor(cursor);
+        page.setReset(reset);
+        page.setEvents(events);
+        return page;
+    }
+
+}
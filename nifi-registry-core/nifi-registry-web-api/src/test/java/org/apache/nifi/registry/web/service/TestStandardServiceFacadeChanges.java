@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.service;
+
+import org.apache.nifi.registry.changes.ChangeEvent;
+import org.apache.nifi.registry.changes.ChangeFeedPage;
+import org.apache.nifi.registry.event.ChangeFeedService;
+import org.apache.nifi.registry.event.StandardEvent;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventFieldName;
+import org.apache.nifi.registry.hook.EventType;
+import org.apache.nifi.registry.revision.entity.RevisableEntityService;
+import org.apache.nifi.registry.security.authorization.AuthorizableLookup;
+import org.apache.nifi.registry.security.authorization.RequestAction;
+import org.apache.nifi.registry.security.authorization.exception.AccessDeniedException;
+import org.apache.nifi.registry.security.authorization.resource.Authorizable;
+import org.apache.nifi.registry.service.AuthorizationService;
+import org.apache.nifi.registry.service.RegistryService;
+import org.apache.nifi.registry.service.extension.ExtensionService;
+import org.apache.nifi.registry.web.link.LinkService;
+import org.apache.nifi.registry.web.security.PermissionsService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestStandardServiceFacadeChanges {
+
+    private AuthorizationService authorizationService;
+    private AuthorizableLookup authorizableLookup;
+    private ChangeFeedService changeFeedService;
+    private StandardServiceFacade serviceFacade;
+
+    private Authorizable readableBucket;
+    private Authorizable unreadableBucket;
+
+    @Before
+    public void setup() {
+        authorizationService = mock(AuthorizationService.class);
+        authorizableLookup = mock(AuthorizableLookup.class);
+        changeFeedService = new ChangeFeedService(new AtomicLong(1)::getAndAdd);
+
+        readableBucket = mock(Authorizable.class);
+        unreadableBucket = mock(Authorizable.class);
+        when(authorizableLookup.getBucketAuthorizable("readable")).thenReturn(readableBucket);
+        when(authorizableLookup.getBucketAuthorizable("unreadable")).thenReturn(unreadableBucket);
+        doThrow(new AccessDeniedException("Denied")).when(authorizationService).authorize(unreadableBucket, RequestAction.READ);
+
+        serviceFacade = new StandardServiceFacade(
+                mock(RegistryService.class),
+                mock(ExtensionService.class),
+                authorizationService,
+                authorizableLookup,
+                mock(RevisableEntityService.class),
+                mock(RevisionFeature.class),
+                mock(PermissionsService.class),
+                mock(LinkService.class),
+                changeFeedService);
+    }
+
+    @Test
+    public void testChangesInUnreadableBucketsAreFilteredOut() {
+        final long cursor = serviceFacade.getChanges(null, 10, 0).getCursor();
+
+        changeFeedService.append(flowVersionCreated("readable", "f1"));
+        changeFeedService.append(flowVersionCreated("unreadable", "f2"));
+        changeFeedService.append(flowVersionCreated("readable", "f3"));
+        changeFeedService.append(flowVersionCreated("unreadable", "f4"));
+
+        final ChangeFeedPage page = serviceFacade.getChanges(cursor, 10, 0);
+        assertFalse(page.isReset());
+        assertEquals(cursor + 4, page.getCursor());
+
+        final List<ChangeEvent> changes = page.getEvents();
+        assertEquals(2, changes.size());
+        assertEquals("f1", changes.get(0).getFlowIdentifier());
+        assertEquals("f3", changes.get(1).getFlowIdentifier());
+
+        // access is decided once per bucket for each request
+        verify(authorizationService, times(1)).authorize(readableBucket, RequestAction.READ);
+        verify(authorizationService, times(1)).authorize(unreadableBucket, RequestAction.READ);
+    }
+
+    @Test
+    public void testOnlyUnreadableChangesAdvancesCursor() {
+        final long cursor = serviceFacade.getChanges(null, 10, 0).getCursor();
+
+        changeFeedService.append(flowVersionCreated("unreadable", "f1"));
+        changeFeedService.append(flowVersionCreated("unreadable", "f2"));
+
+        final ChangeFeedPage page = serviceFacade.getChanges(cursor, 10, 0);
+        assertTrue(page.getEvents().isEmpty());
+        assertEquals(cursor + 2, page.getCursor());
+    }
+
+    @Test
+    public void testChangesWithoutBucketAreFilteredOut() {
+        final long cursor = serviceFacade.getChanges(null, 10, 0).getCursor();
+
+        changeFeedService.append(new StandardEvent.Builder()
+                .eventType(EventType.CREATE_EXTENSION_BUNDLE)
+                .addField(EventFieldName.BUCKET_ID, "")
+                .addField(EventFieldName.EXTENSION_BUNDLE_ID, "bundle1")
+                .addField(EventFieldName.USER, "user1")
+                .build());
+
+        assertTrue(serviceFacade.getChanges(cursor, 10, 0).getEvents().isEmpty());
+        verify(authorizationService, never()).authorize(any(Authorizable.class), any(RequestAction.class));
+    }
+
+    private static Event flowVersionCreated(final String bucketId, final String flowId) {
+        return new StandardEvent.Builder()
+                .eventType(EventType.CREATE_FLOW_VERSION)
+                .addField(EventFieldName.BUCKET_ID, bucketId)
+                .addField(EventFieldName.FLOW_ID, flowId)
+                .addField(EventFieldName.VERSION, "1")
+                .addField(EventFieldName.USER, "user1")
+                .addField(EventFieldName.COMMENT, "")
+                .build();
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.trace;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.trace.OtlpTraceExporter;
+import org.apache.nifi.registry.trace.RequestTrace;
+import org.apache.nifi.registry.trace.Span;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestRequestTracingFilter {
+
+    private OtlpTraceExporter exporter;
+    private ContainerRequestContext requestContext;
+    private ContainerResponseContext responseContext;
+    private MultivaluedMap<String, Object> responseHeaders;
+
+    private Logger filterLogger;
+    private ListAppender<ILoggingEvent> logAppender;
+
+    @Before
+    public void setup() {
+        exporter = mock(OtlpTraceExporter.class);
+
+        final UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getPath()).thenReturn("buckets");
+
+        requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+
+        responseHeaders = new MultivaluedHashMap<>();
+        responseContext = mock(ContainerResponseContext.class);
+        when(responseContext.getStatus()).thenReturn(200);
+        when(responseContext.getHeaders()).thenReturn(responseHeaders);
+        when(responseContext.hasEntity()).thenReturn(false);
+
+        filterLogger = (Logger) LoggerFactory.getLogger(RequestTracingFilter.class);
+        logAppender = new ListAppender<>();
+        logAppender.start();
+        filterLogger.addAppender(logAppender);
+    }
+
+    @After
+    public void teardown() {
+        filterLogger.detachAppender(logAppender);
+        RequestTrace.discard();
+    }
+
+    private RequestTracingFilter createFilter(final boolean serverTimingEnabled, final String slowRequestThreshold) {
+        final NiFiRegistryProperties properties = new NiFiRegistryProperties();
+        properties.setProperty(NiFiRegistryProperties.WEB_SERVER_TIMING_ENABLED, String.valueOf(serverTimingEnabled));
+        properties.setProperty(NiFiRegistryProperties.WEB_SLOW_REQUEST_THRESHOLD, slowRequestThreshold);
+        return new RequestTracingFilter(properties, exporter);
+    }
+
+    private void handleRequest(final RequestTracingFilter filter, final long sleepMillis) throws InterruptedException {
+        filter.filter(requestContext);
+        assertNotNull(RequestTrace.current());
+
+        try (final Span span = RequestTrace.span(RequestTrace.LAYER_FACADE, "ServiceFacade.getBuckets")) {
+            Thread.sleep(sleepMillis);
+        }
+
+        filter.filter(requestContext, responseContext);
+    }
+
+    @Test
+    public void testServerTimingHeaderWhenEnabled() throws InterruptedException {
+        handleRequest(createFilter(true, ""), 0);
+
+        final String serverTiming = (String) responseHeaders.getFirst(RequestTracingFilter.SERVER_TIMING_HEADER);
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.startsWith(RequestTracingFilter.TOTAL_METRIC + ";dur="));
+        assertTrue(serverTiming.contains(RequestTrace.LAYER_REQUEST + ";dur="));
+        assertTrue(serverTiming.contains(RequestTrace.LAYER_FACADE + ";dur="));
+
+        // the request had no entity so it is complete once the response filter runs
+        assertNull(RequestTrace.current());
+        verify(exporter).export(any(RequestTrace.class));
+    }
+
+    @Test
+    public void testServerTimingHeaderWhenDisabled() throws InterruptedException {
+        handleRequest(createFilter(false, ""), 0);
+
+        assertFalse(responseHeaders.containsKey(RequestTracingFilter.SERVER_TIMING_HEADER));
+        assertNull(RequestTrace.current());
+        verify(exporter).export(any(RequestTrace.class));
+    }
+
+    @Test
+    public void testSlowRequestIsLogged() throws InterruptedException {
+        handleRequest(createFilter(false, "1 ms"), 20);
+
+        assertEquals(1, logAppender.list.size());
+
+        final ILoggingEvent event = logAppender.list.get(0);
+        assertEquals(Level.WARN, event.getLevel());
+        assertTrue(event.getFormattedMessage().startsWith("Slow request GET /buckets took "));
+        assertTrue(event.getFormattedMessage().contains("ServiceFacade.getBuckets"));
+    }
+
+    @Test
+    public void testFastRequestIsNotLogged() throws InterruptedException {
+        handleRequest(createFilter(false, "1 hour"), 0);
+        assertTrue(logAppender.list.isEmpty());
+    }
+
+    @Test
+    public void testSlowRequestLoggingDisabledWithoutThreshold() throws InterruptedException {
+        handleRequest(createFilter(false, ""), 20);
+        assertTrue(logAppender.list.isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInvalidSlowRequestThreshold() {
+        createFilter(false, "not a duration");
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.trace;
+
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.trace.RequestTrace;
+import org.apache.nifi.registry.trace.Span;
+import org.apache.nifi.registry.web.service.ServiceFacade;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestTracingBeanPostProcessor {
+
+    private TracingBeanPostProcessor postProcessor;
+
+    @Before
+    public void setup() {
+        postProcessor = new TracingBeanPostProcessor();
+    }
+
+    @After
+    public void teardown() {
+        RequestTrace.discard();
+    }
+
+    @Test
+    public void testUntracedBeanIsNotWrapped() {
+        final Object bean = new Object();
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "bean"));
+    }
+
+    @Test
+    public void testFacadeIsWrapped() {
+        final ServiceFacade serviceFacade = mock(ServiceFacade.class);
+
+        final Object processed = postProcessor.postProcessAfterInitialization(serviceFacade, "serviceFacade");
+        assertNotSame(serviceFacade, processed);
+        assertTrue(Proxy.isProxyClass(processed.getClass()));
+        assertTrue(processed instanceof ServiceFacade);
+    }
+
+    @Test
+    public void testCallsAddSpansToCurrentTrace() {
+        final BucketEntity bucket = new BucketEntity();
+        final MetadataService metadataService = mock(MetadataService.class);
+        when(metadataService.getAllBuckets()).thenReturn(Collections.singletonList(bucket));
+
+        final MetadataService traced = (MetadataService) postProcessor.postProcessAfterInitialization(metadataService, "metadataService");
+
+        final RequestTrace trace = RequestTrace.start("GET /buckets", null);
+        final List<BucketEntity> buckets = traced.getAllBuckets();
+        trace.finish();
+
+        assertEquals(1, buckets.size());
+        assertSame(bucket, buckets.get(0));
+        verify(metadataService).getAllBuckets();
+
+        final List<Span> children = trace.getRoot().getChildren();
+        assertEquals(1, children.size());
+        assertEquals(RequestTrace.LAYER_METADATA, children.get(0).getLayer());
+        assertEquals("MetadataService.getAllBuckets", children.get(0).getName());
+        assertTrue(children.get(0).isClosed());
+    }
+
+    @Test
+    public void testCallsWithoutTraceAreDelegated() {
+        final MetadataService metadataService = mock(MetadataService.class);
+        when(metadataService.getAllBuckets()).thenReturn(Collections.emptyList());
+
+        final MetadataService traced = (MetadataService) postProcessor.postProcessAfterInitialization(metadataService, "metadataService");
+        assertTrue(traced.getAllBuckets().isEmpty());
+        verify(metadataService).getAllBuckets();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testExceptionsAreUnwrapped() {
+        final MetadataService metadataService = mock(MetadataService.class);
+        when(metadataService.getAllBuckets()).thenThrow(new IllegalStateException("failed"));
+
+        final MetadataService traced = (MetadataService) postProcessor.postProcessAfterInitialization(metadataService, "metadataService");
+
+        RequestTrace.start("GET /buckets", null);
+        traced.getAllBuckets();
+    }
+
+}
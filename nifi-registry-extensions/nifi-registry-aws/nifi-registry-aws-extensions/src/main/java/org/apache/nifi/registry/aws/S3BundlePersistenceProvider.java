@@ -24,6 +24,7 @@ import org.apache.nifi.registry.extension.BundleVersionCoordinate;
 import org.apache.nifi.registry.extension.BundleVersionType;
 import org.apache.nifi.registry.provider.ProviderConfigurationContext;
 import org.apache.nifi.registry.provider.ProviderCreationException;
+import org.apache.nifi.registry.util.DataUnit;
 import org.apache.nifi.registry.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,22 +38,53 @@ import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 import software.amazon.awssdk.utils.IoUtils;
 import software.amazon.awssdk.utils.StringUtils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * An {@link BundlePersistenceProvider} that uses AWS S3 for storage.
+ *
+ * Bundles larger than the multipart threshold are uploaded as a multipart upload, and bundles larger than a single part
+ * are downloaded with ranged GETs. In both cases up to the configured number of parts are transferred concurrently, and
+ * those parts are buffered in memory. The buffers of all transfers share a single budget, so concurrent transfers wait
+ * for buffers rather than exhausting the heap. The first range of a download is streamed without buffering, so bundles
+ * no larger than one part are never buffered.
  */
 public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
 
@@ -65,6 +97,21 @@ public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
     public static final String ACCESS_KEY_PROP = "Access Key";
     public static final String SECRET_ACCESS_KEY_PROP = "Secret Access Key";
     public static final String ENDPOINT_URL_PROP = "Endpoint URL";
+    public static final String MULTIPART_THRESHOLD_PROP = "Multipart Threshold";
+    public static final String MULTIPART_PART_SIZE_PROP = "Multipart Part Size";
+    public static final String TRANSFER_CONCURRENCY_PROP = "Transfer Concurrency";
+    public static final String TRANSFER_BUFFER_SIZE_PROP = "Transfer Buffer Size";
+
+    public static final String DEFAULT_MULTIPART_THRESHOLD = "16 MB";
+    public static final String DEFAULT_MULTIPART_PART_SIZE = "8 MB";
+    public static final int DEFAULT_TRANSFER_CONCURRENCY = 4;
+    public static final String DEFAULT_TRANSFER_BUFFER_SIZE = "64 MB";
+
+    // S3 rejects multipart uploads where any part other than the last is smaller than 5 MB
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    static final long MAX_PART_SIZE = Integer.MAX_VALUE;
+
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
 
     public static final String NAR_EXTENSION = ".nar";
     public static final String CPP_EXTENSION = ".cpp";
@@ -77,6 +124,11 @@ public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
     private volatile S3Client s3Client;
     private volatile String s3BucketName;
     private volatile String s3KeyPrefix;
+    private volatile long multipartThreshold;
+    private volatile int partSize;
+    private volatile int transferConcurrency;
+    private volatile Semaphore transferBuffers;
+    private volatile ExecutorService transferExecutor;
 
     @Override
     public void onConfigured(final ProviderConfigurationContext configurationContext) throws ProviderCreationException {
@@ -88,7 +140,55 @@ public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
         final String keyPrefixValue = configurationContext.getProperties().get(KEY_PREFIX_PROP);
         s3KeyPrefix = StringUtils.isBlank(keyPrefixValue) ? null : keyPrefixValue;
 
+        multipartThreshold = getDataSize(configurationContext, MULTIPART_THRESHOLD_PROP, DEFAULT_MULTIPART_THRESHOLD);
+
+        final long partSizeValue = getDataSize(configurationContext, MULTIPART_PART_SIZE_PROP, DEFAULT_MULTIPART_PART_SIZE);
+        if (partSizeValue < MIN_PART_SIZE || partSizeValue > MAX_PART_SIZE) {
+            throw new ProviderCreationException("The property '" + MULTIPART_PART_SIZE_PROP + "' must be between 5 MB and 2 GB");
+        }
+        partSize = (int) partSizeValue;
+
+        final String concurrencyValue = configurationContext.getProperties().get(TRANSFER_CONCURRENCY_PROP);
+        try {
+            transferConcurrency = StringUtils.isBlank(concurrencyValue) ? DEFAULT_TRANSFER_CONCURRENCY : Integer.parseInt(concurrencyValue.trim());
+        } catch (NumberFormatException e) {
+            throw new ProviderCreationException("The property '" + TRANSFER_CONCURRENCY_PROP + "' must be a positive integer");
+        }
+        if (transferConcurrency < 1) {
+            throw new ProviderCreationException("The property '" + TRANSFER_CONCURRENCY_PROP + "' must be a positive integer");
+        }
+
+        // each permit is a buffer of one part, shared by all transfers
+        final long transferBufferSize = getDataSize(configurationContext, TRANSFER_BUFFER_SIZE_PROP, DEFAULT_TRANSFER_BUFFER_SIZE);
+        if (transferBufferSize < partSize) {
+            throw new ProviderCreationException("The property '" + TRANSFER_BUFFER_SIZE_PROP + "' must be at least the '" + MULTIPART_PART_SIZE_PROP + "'");
+        }
+        transferBuffers = new Semaphore((int) Math.min(Integer.MAX_VALUE, transferBufferSize / partSize));
+
         s3Client = createS3Client(configurationContext);
+        transferExecutor = createTransferExecutor(transferConcurrency);
+    }
+
+    private long getDataSize(final ProviderConfigurationContext configurationContext, final String propertyName, final String defaultValue) {
+        final String value = configurationContext.getProperties().get(propertyName);
+        try {
+            return DataUnit.parseDataSize(StringUtils.isBlank(value) ? defaultValue : value.trim(), DataUnit.B).longValue();
+        } catch (IllegalArgumentException e) {
+            throw new ProviderCreationException("The property '" + propertyName + "' must be a data size such as '8 MB'", e);
+        }
+    }
+
+    private static ExecutorService createTransferExecutor(final int concurrency) {
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        return Executors.newFixedThreadPool(concurrency, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread t = Executors.defaultThreadFactory().newThread(runnable);
+                t.setDaemon(true);
+                t.setName("S3 Bundle Transfer " + threadCount.incrementAndGet());
+                return t;
+            }
+        });
     }
 
     protected S3Client createS3Client(final ProviderConfigurationContext configurationContext) {
@@ -179,21 +279,26 @@ public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
     }
 
     @Override
-    public synchronized void createBundleVersion(final BundlePersistenceContext context, final InputStream contentStream)
+    public void createBundleVersion(final BundlePersistenceContext context, final InputStream contentStream)
             throws BundlePersistenceException {
         createOrUpdateBundleVersion(context, contentStream);
     }
 
     @Override
-    public synchronized void updateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) throws BundlePersistenceException {
+    public void updateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream) throws BundlePersistenceException {
         createOrUpdateBundleVersion(context, contentStream);
     }
 
-    private synchronized void createOrUpdateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream)
+    private void createOrUpdateBundleVersion(final BundlePersistenceContext context, final InputStream contentStream)
             throws BundlePersistenceException {
         final String key = getKey(context.getCoordinate());
         LOGGER.debug("Saving bundle version to S3 in bucket '{}' with key '{}'", new Object[]{s3BucketName, key});
 
+        if (context.getSize() > multipartThreshold) {
+            createOrUpdateBundleVersionMultipart(key, contentStream);
+            return;
+        }
+
         final PutObjectRequest request = PutObjectRequest.builder()
                 .bucket(s3BucketName)
                 .key(key)
@@ -208,27 +313,266 @@ public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
         }
     }
 
+    private void createOrUpdateBundleVersionMultipart(final String key, final InputStream contentStream) throws BundlePersistenceException {
+        final CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(s3BucketName)
+                .key(key)
+                .build();
+
+        final String uploadId;
+        try {
+            final CreateMultipartUploadResponse createResponse = s3Client.createMultipartUpload(createRequest);
+            uploadId = createResponse.uploadId();
+        } catch (Exception e) {
+            throw new BundlePersistenceException("Error saving bundle version to S3 due to: " + e.getMessage(), e);
+        }
+
+        // the permits bound how many parts of this upload are buffered in memory while waiting for, or in the middle
+        // of, an upload, in addition to the buffers shared by all transfers
+        final Semaphore bufferedParts = new Semaphore(transferConcurrency);
+        final List<Future<CompletedPart>> partFutures = new ArrayList<>();
+        final AtomicBoolean aborted = new AtomicBoolean(false);
+
+        try {
+            int partNumber = 1;
+            while (true) {
+                bufferedParts.acquire();
+                transferBuffers.acquire();
+
+                boolean submitted = false;
+                try {
+                    failOnCompletedError(partFutures);
+
+                    final byte[] partContent = readPart(contentStream);
+                    if (partContent.length == 0 && partNumber > 1) {
+                        break;
+                    }
+
+                    final int currentPartNumber = partNumber++;
+                    partFutures.add(transferExecutor.submit(() -> {
+                        try {
+                            return aborted.get() ? null : uploadPart(key, uploadId, currentPartNumber, partContent);
+                        } finally {
+                            bufferedParts.release();
+                            transferBuffers.release();
+                        }
+                    }));
+                    submitted = true;
+
+                    if (partContent.length < partSize) {
+                        break;
+                    }
+                } finally {
+                    if (!submitted) {
+                        bufferedParts.release();
+                        transferBuffers.release();
+                    }
+                }
+            }
+
+            final List<CompletedPart> completedParts = new ArrayList<>(partFutures.size());
+            for (final Future<CompletedPart> partFuture : partFutures) {
+                completedParts.add(partFuture.get());
+            }
+
+            final CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                    .bucket(s3BucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build();
+
+            s3Client.completeMultipartUpload(completeRequest);
+            LOGGER.debug("Successfully saved bundle version to S3 bucket '{}' with key '{}' in {} parts",
+                    new Object[]{s3BucketName, key, completedParts.size()});
+        } catch (Exception e) {
+            // queued parts are skipped rather than cancelled, so that every part returns its buffer
+            aborted.set(true);
+            awaitParts(partFutures);
+            abortMultipartUpload(key, uploadId);
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new BundlePersistenceException("Error saving bundle version to S3 due to: " + e.getMessage(), e);
+        }
+    }
+
+    private static void awaitParts(final List<Future<CompletedPart>> partFutures) {
+        for (final Future<CompletedPart> partFuture : partFutures) {
+            try {
+                partFuture.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // the failure of the upload is reported by the caller
+            }
+        }
+    }
+
+    private byte[] readPart(final InputStream contentStream) throws IOException {
+        final byte[] buffer = new byte[partSize];
+        int length = 0;
+        int read;
+        while (length < partSize && (read = contentStream.read(buffer, length, partSize - length)) != -1) {
+            length += read;
+        }
+
+        if (length == partSize) {
+            return buffer;
+        }
+
+        final byte[] lastPart = new byte[length];
+        System.arraycopy(buffer, 0, lastPart, 0, length);
+        return lastPart;
+    }
+
+    private CompletedPart uploadPart(final String key, final String uploadId, final int partNumber, final byte[] partContent) {
+        final UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(s3BucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) partContent.length)
+                .build();
+
+        final UploadPartResponse response = s3Client.uploadPart(request, RequestBody.fromBytes(partContent));
+        LOGGER.debug("Uploaded part {} of S3 multipart upload with key '{}'", new Object[]{partNumber, key});
+
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .build();
+    }
+
+    private void abortMultipartUpload(final String key, final String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(s3BucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (Exception e) {
+            LOGGER.warn("Unable to abort S3 multipart upload for key '{}', the uploaded parts may need to be removed by a bucket " +
+                    "lifecycle rule: {}", new Object[]{key, e.getMessage()});
+        }
+    }
+
     @Override
-    public synchronized void getBundleVersionContent(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream)
+    public void getBundleVersionContent(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream)
             throws BundlePersistenceException {
         final String key = getKey(versionCoordinate);
         LOGGER.debug("Retrieving bundle version from S3 bucket '{}' with key '{}'", new Object[]{s3BucketName, key});
 
-        final GetObjectRequest request = GetObjectRequest.builder()
-                .bucket(s3BucketName)
-                .key(key)
-                .build();
+        try {
+            // the first part is requested as a range so the response reveals the total size without a separate HEAD
+            // request, and it is streamed directly to the output stream without being buffered
+            final ResponseInputStream<GetObjectResponse> firstPart;
+            try {
+                firstPart = s3Client.getObject(createRangeRequest(key, 0, null));
+            } catch (S3Exception e) {
+                if (e.statusCode() == 416) {
+                    // the requested range is not satisfiable which means the object is empty
+                    return;
+                }
+                throw e;
+            }
+
+            final GetObjectResponse firstPartResponse = firstPart.response();
+            final long firstPartSize;
+            try (final InputStream firstPartStream = firstPart) {
+                firstPartSize = IoUtils.copy(firstPartStream, outputStream);
+            }
+
+            // a negative total size means the range was ignored so the whole object has already been written
+            final long totalSize = getTotalSize(firstPartResponse);
+            if (totalSize > firstPartSize) {
+                getBundleVersionContentRanges(key, firstPartResponse.eTag(), firstPartSize, totalSize, outputStream);
+            }
 
-        try (final ResponseInputStream<GetObjectResponse> response = s3Client.getObject(request)) {
-            IoUtils.copy(response, outputStream);
             LOGGER.debug("Successfully retrieved bundle version from S3 bucket '{}' with key '{}'", new Object[]{s3BucketName, key});
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             throw new BundlePersistenceException("Error retrieving bundle version from S3 due to: " + e.getMessage(), e);
         }
     }
 
+    private void getBundleVersionContentRanges(final String key, final String eTag, final long firstRangeStart, final long totalSize,
+                                               final OutputStream outputStream) throws IOException, InterruptedException, ExecutionException {
+        // the remaining ranges are pinned to the version of the object that was read first, so an overwrite during the
+        // download fails the request instead of mixing the content of two versions
+        long nextRangeStart = firstRangeStart;
+        final Deque<Future<byte[]>> pendingRanges = new ArrayDeque<>();
+        try {
+            while (nextRangeStart < totalSize || !pendingRanges.isEmpty()) {
+                // the buffers of pending ranges are only released by this thread, so only wait for a buffer when none are pending
+                while (nextRangeStart < totalSize && pendingRanges.size() < transferConcurrency && acquireTransferBuffer(pendingRanges.isEmpty())) {
+                    final GetObjectRequest rangeRequest = createRangeRequest(key, nextRangeStart, eTag);
+                    pendingRanges.add(transferExecutor.submit(() -> s3Client.getObjectAsBytes(rangeRequest).asByteArray()));
+                    nextRangeStart += partSize;
+                }
+
+                // ranges are written in order, while the ranges after it continue to download
+                final Future<byte[]> nextRange = pendingRanges.remove();
+                try {
+                    outputStream.write(nextRange.get());
+                } finally {
+                    transferBuffers.release();
+                }
+            }
+        } finally {
+            pendingRanges.forEach(f -> f.cancel(true));
+            transferBuffers.release(pendingRanges.size());
+        }
+    }
+
+    private boolean acquireTransferBuffer(final boolean wait) throws InterruptedException {
+        if (wait) {
+            transferBuffers.acquire();
+            return true;
+        }
+        return transferBuffers.tryAcquire();
+    }
+
+    int getAvailableTransferBuffers() {
+        return transferBuffers.availablePermits();
+    }
+
+    private GetObjectRequest createRangeRequest(final String key, final long rangeStart, final String eTag) {
+        return GetObjectRequest.builder()
+                .bucket(s3BucketName)
+                .key(key)
+                .range("bytes=" + rangeStart + "-" + (rangeStart + partSize - 1))
+                .ifMatch(eTag)
+                .build();
+    }
+
+    private static long getTotalSize(final GetObjectResponse response) {
+        final String contentRange = response.contentRange();
+        if (contentRange == null) {
+            return -1;
+        }
+
+        final Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        return Long.parseLong(matcher.group(3));
+    }
+
+    private static void failOnCompletedError(final List<Future<CompletedPart>> partFutures) throws ExecutionException, InterruptedException {
+        for (final Future<CompletedPart> partFuture : partFutures) {
+            if (partFuture.isDone()) {
+                partFuture.get();
+            }
+        }
+    }
+
     @Override
-    public synchronized void deleteBundleVersion(final BundleVersionCoordinate versionCoordinate) throws BundlePersistenceException {
+    public void deleteBundleVersion(final BundleVersionCoordinate versionCoordinate) throws BundlePersistenceException {
         final String key = getKey(versionCoordinate);
         LOGGER.debug("Deleting bundle version from S3 bucket '{}' with key '{}'", new Object[]{s3BucketName, key});
 
@@ -246,7 +590,7 @@ public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
     }
 
     @Override
-    public synchronized void deleteAllBundleVersions(final BundleCoordinate bundleCoordinate) throws BundlePersistenceException {
+    public void deleteAllBundleVersions(final BundleCoordinate bundleCoordinate) throws BundlePersistenceException {
         final String basePrefix = s3KeyPrefix == null ? "" : s3KeyPrefix + "/";
         final String bundlePrefix = getBundlePrefix(bundleCoordinate.getBucketId(), bundleCoordinate.getGroupId(), bundleCoordinate.getArtifactId());
 
@@ -281,6 +625,12 @@ public class S3BundlePersistenceProvider implements BundlePersistenceProvider {
 
     @Override
     public void preDestruction() {
+        transferExecutor.shutdownNow();
+        try {
+            transferExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         s3Client.close();
     }
 
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.aws;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * An in-process stand-in for S3 that supports the operations used by {@link S3BundlePersistenceProvider}, including
+ * multipart uploads and ranged GETs, and records how they were used.
+ */
+class InMemoryS3Client implements S3Client {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+
+    final AtomicInteger putObjectCount = new AtomicInteger(0);
+    final AtomicInteger uploadPartCount = new AtomicInteger(0);
+    final AtomicInteger abortedUploadCount = new AtomicInteger(0);
+    final AtomicInteger getObjectCount = new AtomicInteger(0);
+
+    volatile int failingPartNumber = -1;
+    volatile CountDownLatch putObjectLatch;
+
+    byte[] getContent(final String key) {
+        final StoredObject storedObject = objects.get(key);
+        return storedObject == null ? null : storedObject.content;
+    }
+
+    int getPendingUploadCount() {
+        return multipartUploads.size();
+    }
+
+    void replaceContent(final String key, final byte[] content) {
+        objects.put(key, new StoredObject(content));
+    }
+
+    @Override
+    public PutObjectResponse putObject(final PutObjectRequest request, final RequestBody requestBody) {
+        putObjectCount.incrementAndGet();
+        awaitOtherPuts();
+        final StoredObject storedObject = new StoredObject(read(requestBody));
+        objects.put(request.key(), storedObject);
+        return PutObjectResponse.builder().eTag(storedObject.eTag).build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(final CreateMultipartUploadRequest request) {
+        final String uploadId = UUID.randomUUID().toString();
+        multipartUploads.put(uploadId, new ConcurrentSkipListMap<>());
+        return CreateMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).uploadId(uploadId).build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(final UploadPartRequest request, final RequestBody requestBody) {
+        uploadPartCount.incrementAndGet();
+        if (request.partNumber() == failingPartNumber) {
+            throw S3Exception.builder().statusCode(500).message("Simulated failure of part " + request.partNumber()).build();
+        }
+
+        final Map<Integer, byte[]> parts = getUpload(request.uploadId());
+        parts.put(request.partNumber(), read(requestBody));
+        return UploadPartResponse.builder().eTag("part-" + request.partNumber()).build();
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(final CompleteMultipartUploadRequest request) {
+        final Map<Integer, byte[]> parts = getUpload(request.uploadId());
+
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (final CompletedPart completedPart : request.multipartUpload().parts()) {
+            final byte[] part = parts.get(completedPart.partNumber());
+            if (part == null || !("part-" + completedPart.partNumber()).equals(completedPart.eTag())) {
+                throw S3Exception.builder().statusCode(400).message("Invalid part " + completedPart.partNumber()).build();
+            }
+            content.write(part, 0, part.length);
+        }
+
+        multipartUploads.remove(request.uploadId());
+        objects.put(request.key(), new StoredObject(content.toByteArray()));
+        return CompleteMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(final AbortMultipartUploadRequest request) {
+        abortedUploadCount.incrementAndGet();
+        multipartUploads.remove(request.uploadId());
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    @Override
+    public <ReturnT> ReturnT getObject(final GetObjectRequest request, final ResponseTransformer<GetObjectResponse, ReturnT> transformer) {
+        getObjectCount.incrementAndGet();
+
+        final StoredObject storedObject = objects.get(request.key());
+        if (storedObject == null) {
+            throw S3Exception.builder().statusCode(404).message("No object with key " + request.key()).build();
+        }
+        if (request.ifMatch() != null && !request.ifMatch().equals(storedObject.eTag)) {
+            throw S3Exception.builder().statusCode(412).message("Precondition failed").build();
+        }
+
+        final byte[] content = storedObject.content;
+        int start = 0;
+        int end = content.length - 1;
+        String contentRange = null;
+
+        if (request.range() != null) {
+            final Matcher matcher = RANGE_PATTERN.matcher(request.range());
+            if (!matcher.matches()) {
+                throw S3Exception.builder().statusCode(400).message("Unsupported range " + request.range()).build();
+            }
+
+            start = Integer.parseInt(matcher.group(1));
+            if (start >= content.length) {
+                throw S3Exception.builder().statusCode(416).message("Range not satisfiable").build();
+            }
+            end = (int) Math.min(Long.parseLong(matcher.group(2)), content.length - 1);
+            contentRange = "bytes " + start + "-" + end + "/" + content.length;
+        }
+
+        final GetObjectResponse response = GetObjectResponse.builder()
+                .eTag(storedObject.eTag)
+                .contentLength((long) (end - start + 1))
+                .contentRange(contentRange)
+                .build();
+
+        final InputStream rangeStream = new ByteArrayInputStream(content, start, end - start + 1);
+        try {
+            return transformer.transform(response, AbortableInputStream.create(rangeStream));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public DeleteObjectResponse deleteObject(final DeleteObjectRequest request) {
+        objects.remove(request.key());
+        return DeleteObjectResponse.builder().build();
+    }
+
+    @Override
+    public ListObjectsResponse listObjects(final ListObjectsRequest request) {
+        return ListObjectsResponse.builder()
+                .contents(objects.keySet().stream()
+                        .filter(k -> k.startsWith(request.prefix()))
+                        .map(k -> S3Object.builder().key(k).build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return "s3";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void awaitOtherPuts() {
+        final CountDownLatch latch = putObjectLatch;
+        if (latch == null) {
+            return;
+        }
+
+        latch.countDown();
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw S3Exception.builder().statusCode(500).message("Timed out waiting for concurrent puts").build();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Map<Integer, byte[]> getUpload(final String uploadId) {
+        final Map<Integer, byte[]> parts = multipartUploads.get(uploadId);
+        if (parts == null) {
+            throw S3Exception.builder().statusCode(404).message("No upload with id " + uploadId).build();
+        }
+        return parts;
+    }
+
+    private static byte[] read(final RequestBody requestBody) {
+        try (final InputStream in = requestBody.contentStreamProvider().newStream()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class StoredObject {
+        private final byte[] content;
+        private final String eTag = UUID.randomUUID().toString();
+
+        StoredObject(final byte[] content) {
+            this.content = content;
+        }
+    }
+}
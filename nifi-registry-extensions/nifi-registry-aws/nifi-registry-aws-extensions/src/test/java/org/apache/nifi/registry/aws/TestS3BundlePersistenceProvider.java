@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.aws;
+
+import org.apache.nifi.registry.extension.BundleCoordinate;
+import org.apache.nifi.registry.extension.BundlePersistenceContext;
+import org.apache.nifi.registry.extension.BundlePersistenceException;
+import org.apache.nifi.registry.extension.BundleVersionCoordinate;
+import org.apache.nifi.registry.extension.BundleVersionType;
+import org.apache.nifi.registry.provider.ProviderConfigurationContext;
+import org.apache.nifi.registry.provider.ProviderCreationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestS3BundlePersistenceProvider {
+
+    private static final int MB = 1024 * 1024;
+
+    private InMemoryS3Client s3Client;
+    private S3BundlePersistenceProvider provider;
+    private Map<String, String> properties;
+
+    @Before
+    public void setup() {
+        s3Client = new InMemoryS3Client();
+
+        properties = new HashMap<>();
+        properties.put(S3BundlePersistenceProvider.REGION_PROP, "us-east-1");
+        properties.put(S3BundlePersistenceProvider.BUCKET_NAME_PROP, "bundles");
+        properties.put(S3BundlePersistenceProvider.CREDENTIALS_PROVIDER_PROP, S3BundlePersistenceProvider.CredentialProvider.DEFAULT_CHAIN.name());
+        properties.put(S3BundlePersistenceProvider.MULTIPART_THRESHOLD_PROP, "5 MB");
+        properties.put(S3BundlePersistenceProvider.MULTIPART_PART_SIZE_PROP, "5 MB");
+        properties.put(S3BundlePersistenceProvider.TRANSFER_CONCURRENCY_PROP, "2");
+
+        provider = createProvider(properties);
+    }
+
+    @After
+    public void teardown() {
+        provider.preDestruction();
+    }
+
+    @Test
+    public void testSmallBundleUsesSingleRequests() throws Exception {
+        final BundleVersionCoordinate coordinate = createCoordinate("1.0.0");
+        final byte[] content = createContent(1024);
+
+        saveBundleVersion(coordinate, content);
+        assertEquals(1, s3Client.putObjectCount.get());
+        assertEquals(0, s3Client.uploadPartCount.get());
+        assertArrayEquals(content, s3Client.getContent(getExpectedKey("1.0.0")));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.getBundleVersionContent(coordinate, out);
+        assertArrayEquals(content, out.toByteArray());
+        assertEquals(1, s3Client.getObjectCount.get());
+    }
+
+    @Test
+    public void testLargeBundleUsesMultipartUploadAndRangedDownload() throws Exception {
+        final BundleVersionCoordinate coordinate = createCoordinate("1.0.0");
+        final byte[] content = createContent(12 * MB + 123);
+
+        saveBundleVersion(coordinate, content);
+        assertEquals(0, s3Client.putObjectCount.get());
+        assertEquals(3, s3Client.uploadPartCount.get());
+        assertEquals(0, s3Client.getPendingUploadCount());
+        assertArrayEquals(content, s3Client.getContent(getExpectedKey("1.0.0")));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.getBundleVersionContent(coordinate, out);
+        assertArrayEquals(content, out.toByteArray());
+        assertEquals(3, s3Client.getObjectCount.get());
+    }
+
+    @Test
+    public void testMultipartUploadWithExactMultipleOfPartSize() throws Exception {
+        final BundleVersionCoordinate coordinate = createCoordinate("1.0.0");
+        final byte[] content = createContent(10 * MB);
+
+        saveBundleVersion(coordinate, content);
+        assertEquals(2, s3Client.uploadPartCount.get());
+        assertArrayEquals(content, s3Client.getContent(getExpectedKey("1.0.0")));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.getBundleVersionContent(coordinate, out);
+        assertArrayEquals(content, out.toByteArray());
+    }
+
+    @Test
+    public void testMultipartUploadIsAbortedWhenPartFails() throws Exception {
+        final BundleVersionCoordinate coordinate = createCoordinate("1.0.0");
+        s3Client.failingPartNumber = 2;
+
+        try {
+            saveBundleVersion(coordinate, createContent(12 * MB));
+            fail("Should have thrown exception");
+        } catch (BundlePersistenceException e) {
+            assertEquals(1, s3Client.abortedUploadCount.get());
+            assertEquals(0, s3Client.getPendingUploadCount());
+            assertNull(s3Client.getContent(getExpectedKey("1.0.0")));
+        }
+    }
+
+    @Test
+    public void testRangedDownloadFailsWhenObjectIsReplaced() throws Exception {
+        final BundleVersionCoordinate coordinate = createCoordinate("1.0.0");
+        saveBundleVersion(coordinate, createContent(12 * MB));
+
+        // replace the object as soon as the first range starts to be written, simulating a concurrent overwrite
+        final String key = getExpectedKey("1.0.0");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            private boolean replaced;
+
+            @Override
+            public synchronized void write(final byte[] b, final int off, final int len) {
+                super.write(b, off, len);
+                if (!replaced) {
+                    s3Client.replaceContent(key, createContent(12 * MB));
+                    replaced = true;
+                }
+            }
+        };
+
+        try {
+            provider.getBundleVersionContent(coordinate, out);
+            fail("Should have thrown exception");
+        } catch (BundlePersistenceException e) {
+            assertEquals(5 * MB, out.size());
+        }
+    }
+
+    @Test
+    public void testTransfersWithSinglePartBuffer() throws Exception {
+        provider.preDestruction();
+        properties.put(S3BundlePersistenceProvider.TRANSFER_BUFFER_SIZE_PROP, "5 MB");
+        provider = createProvider(properties);
+        assertEquals(1, provider.getAvailableTransferBuffers());
+
+        final BundleVersionCoordinate coordinate = createCoordinate("1.0.0");
+        final byte[] content = createContent(12 * MB + 123);
+
+        saveBundleVersion(coordinate, content);
+        assertEquals(3, s3Client.uploadPartCount.get());
+        assertEquals(1, provider.getAvailableTransferBuffers());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.getBundleVersionContent(coordinate, out);
+        assertArrayEquals(content, out.toByteArray());
+        assertEquals(1, provider.getAvailableTransferBuffers());
+    }
+
+    @Test
+    public void testTransferBuffersAreReleasedWhenTransfersFail() throws Exception {
+        final int availableBuffers = provider.getAvailableTransferBuffers();
+        s3Client.failingPartNumber = 1;
+
+        try {
+            saveBundleVersion(createCoordinate("1.0.0"), createContent(22 * MB));
+            fail("Should have thrown exception");
+        } catch (BundlePersistenceException e) {
+            assertEquals(availableBuffers, provider.getAvailableTransferBuffers());
+        }
+
+        s3Client.failingPartNumber = -1;
+        saveBundleVersion(createCoordinate("2.0.0"), createContent(22 * MB));
+
+        try {
+            provider.getBundleVersionContent(createCoordinate("2.0.0"), new ByteArrayOutputStream() {
+                @Override
+                public synchronized void write(final byte[] b) {
+                    throw new IllegalStateException("Simulated failure writing a range");
+                }
+            });
+            fail("Should have thrown exception");
+        } catch (BundlePersistenceException e) {
+            assertEquals(availableBuffers, provider.getAvailableTransferBuffers());
+        }
+    }
+
+    @Test
+    public void testTransfersAreNotSerialized() throws Exception {
+        // each put waits until the other put has started, so this only completes if the uploads run concurrently
+        s3Client.putObjectLatch = new CountDownLatch(2);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> first = executor.submit(() -> {
+                saveBundleVersion(createCoordinate("1.0.0"), createContent(1024));
+                return null;
+            });
+            final Future<?> second = executor.submit(() -> {
+                saveBundleVersion(createCoordinate("2.0.0"), createContent(1024));
+                return null;
+            });
+
+            first.get();
+            second.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, s3Client.putObjectCount.get());
+    }
+
+    @Test
+    public void testDeleteAllBundleVersions() throws Exception {
+        saveBundleVersion(createCoordinate("1.0.0"), createContent(1024));
+        saveBundleVersion(createCoordinate("2.0.0"), createContent(6 * MB));
+
+        final BundleCoordinate bundleCoordinate = mock(BundleCoordinate.class);
+        when(bundleCoordinate.getBucketId()).thenReturn("b1");
+        when(bundleCoordinate.getGroupId()).thenReturn("org.apache.nifi");
+        when(bundleCoordinate.getArtifactId()).thenReturn("nifi-foo-nar");
+
+        provider.deleteAllBundleVersions(bundleCoordinate);
+        assertNull(s3Client.getContent(getExpectedKey("1.0.0")));
+        assertNull(s3Client.getContent(getExpectedKey("2.0.0")));
+    }
+
+    @Test(expected = ProviderCreationException.class)
+    public void testPartSizeBelowMinimum() {
+        properties.put(S3BundlePersistenceProvider.MULTIPART_PART_SIZE_PROP, "1 MB");
+        createProvider(properties);
+    }
+
+    @Test(expected = ProviderCreationException.class)
+    public void testInvalidTransferConcurrency() {
+        properties.put(S3BundlePersistenceProvider.TRANSFER_CONCURRENCY_PROP, "0");
+        createProvider(properties);
+    }
+
+    @Test(expected = ProviderCreationException.class)
+    public void testTransferBufferSizeBelowPartSize() {
+        properties.put(S3BundlePersistenceProvider.TRANSFER_BUFFER_SIZE_PROP, "4 MB");
+        createProvider(properties);
+    }
+
+    private S3BundlePersistenceProvider createProvider(final Map<String, String> properties) {
+        final ProviderConfigurationContext configurationContext = mock(ProviderConfigurationContext.class);
+        when(configurationContext.getProperties()).thenReturn(properties);
+
+        final S3BundlePersistenceProvider s3Provider = new S3BundlePersistenceProvider() {
+            @Override
+            protected S3Client createS3Client(final ProviderConfigurationContext configurationContext) {
+                return s3Client;
+            }
+        };
+        s3Provider.onConfigured(configurationContext);
+        return s3Provider;
+    }
+
+    private void saveBundleVersion(final BundleVersionCoordinate coordinate, final byte[] content) throws Exception {
+        final BundlePersistenceContext context = mock(BundlePersistenceContext.class);
+        when(context.getCoordinate()).thenReturn(coordinate);
+        when(context.getSize()).thenReturn((long) content.length);
+
+        try (final InputStream in = new ByteArrayInputStream(content)) {
+            provider.createBundleVersion(context, in);
+        }
+    }
+
+    private static BundleVersionCoordinate createCoordinate(final String version) {
+        final BundleVersionCoordinate coordinate = mock(BundleVersionCoordinate.class);
+        when(coordinate.getBucketId()).thenReturn("b1");
+        when(coordinate.getGroupId()).thenReturn("org.apache.nifi");
+        when(coordinate.getArtifactId()).thenReturn("nifi-foo-nar");
+        when(coordinate.getVersion()).thenReturn(version);
+        when(coordinate.getType()).thenReturn(BundleVersionType.NIFI_NAR);
+        return coordinate;
+    }
+
+    private static String getExpectedKey(final String version) {
+        return "b1/org.apache.nifi/nifi-foo-nar/" + version + "/nifi-foo-nar-" + version + ".nar";
+    }
+
+    private static byte[] createContent(final int size) {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
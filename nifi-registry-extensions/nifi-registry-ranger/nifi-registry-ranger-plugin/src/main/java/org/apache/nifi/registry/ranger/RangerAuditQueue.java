@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.ranger;
+
+import org.apache.nifi.registry.security.authorization.AuthorizationRequest;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.apache.ranger.plugin.audit.RangerDefaultAuditHandler;
+import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands audit events off to Ranger on a background thread so that request threads never wait on the audit
+ * destinations, and never contend on a shared lock to record or retrieve the results being audited.
+ *
+ * Both the results awaiting an audit call and the queued audit events are bounded. When either limit is reached,
+ * further entries are dropped and counted rather than blocking the request thread.
+ */
+class RangerAuditQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(RangerAuditQueue.class);
+
+    // results that are never audited, such as resource not found, are purged after this long
+    private static final long PENDING_RESULT_EXPIRATION_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final RangerDefaultAuditHandler auditHandler;
+    private final String resourceType;
+    private final int capacity;
+
+    private final Map<AuthorizationRequest, PendingResult> pendingResults = new ConcurrentHashMap<>();
+    private final Queue<AuditEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    RangerAuditQueue(final RangerDefaultAuditHandler auditHandler, final String resourceType, final int capacity) {
+        this.auditHandler = auditHandler;
+        this.resourceType = resourceType;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Starts the background thread that writes the queued audit events.
+     */
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::run, "Ranger Audit Queue");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the background thread after writing any audit events that are still queued.
+     */
+    synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(worker);
+
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        worker = null;
+        pendingResults.clear();
+    }
+
+    /**
+     * Records the Ranger result for the given request so that it can be audited once the final decision is known.
+     *
+     * @param request the authorization request
+     * @param rangerResult the result from Ranger
+     */
+    void recordResult(final AuthorizationRequest request, final RangerAccessResult rangerResult) {
+        if (rangerResult == null) {
+            return;
+        }
+
+        if (pendingResults.size() >= capacity) {
+            purgeExpiredResults();
+
+            if (pendingResults.size() >= capacity) {
+                drop();
+                return;
+            }
+        }
+
+        pendingResults.put(request, new PendingResult(rangerResult));
+    }
+
+    /**
+     * Queues an audit event for the given request if a result was recorded for it and Ranger indicated it should
+     * be audited.
+     *
+     * @param request the authorization request
+     */
+    void audit(final AuthorizationRequest request) {
+        final PendingResult pendingResult = pendingResults.remove(request);
+        if (pendingResult == null || !pendingResult.rangerResult.getIsAudited()) {
+            return;
+        }
+
+        if (queueSize.incrementAndGet() > capacity) {
+            queueSize.decrementAndGet();
+            drop();
+            return;
+        }
+
+        queue.offer(new AuditEntry(pendingResult, request.getRequestedResource().getIdentifier()));
+    }
+
+    /**
+     * @return the number of audit events waiting to be written
+     */
+    int getQueueSize() {
+        return queueSize.get();
+    }
+
+    /**
+     * @return the number of results and audit events dropped because the queue was full
+     */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void drop() {
+        final long dropped = droppedCount.incrementAndGet();
+        if (dropped == 1 || dropped % 1000 == 0) {
+            logger.warn("Ranger audit queue is full, {} audit events have been dropped", dropped);
+        }
+    }
+
+    private void run() {
+        long lastPurge = System.currentTimeMillis();
+
+        while (running || !queue.isEmpty()) {
+            final AuditEntry entry = queue.poll();
+
+            if (entry == null) {
+                final long now = System.currentTimeMillis();
+                if (now - lastPurge > PENDING_RESULT_EXPIRATION_MILLIS) {
+                    purgeExpiredResults();
+                    lastPurge = now;
+                }
+
+                if (running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                continue;
+            }
+
+            queueSize.decrementAndGet();
+
+            try {
+                final AuthzAuditEvent event = auditHandler.getAuthzEvents(entry.rangerResult);
+                if (event == null) {
+                    continue;
+                }
+
+                // update the event with the originally requested resource and the time of the request, since the
+                // Ranger result may have been cached from an earlier request
+                event.setResourceType(resourceType);
+                event.setResourcePath(entry.resourcePath);
+                event.setEventTime(new Date(entry.timestamp));
+
+                auditHandler.logAuthzAudit(event);
+            } catch (final Exception e) {
+                logger.error("Unable to write Ranger audit event for " + entry.resourcePath, e);
+            }
+        }
+    }
+
+    private void purgeExpiredResults() {
+        final long expiration = System.currentTimeMillis() - PENDING_RESULT_EXPIRATION_MILLIS;
+        pendingResults.values().removeIf(pendingResult -> pendingResult.timestamp < expiration);
+    }
+
+    private static class PendingResult {
+        private final RangerAccessResult rangerResult;
+        private final long timestamp;
+
+        private PendingResult(final RangerAccessResult rangerResult) {
+            this.rangerResult = rangerResult;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+
+    private static class AuditEntry {
+        private final RangerAccessResult rangerResult;
+        private final long timestamp;
+        private final String resourcePath;
+
+        private AuditEntry(final PendingResult pendingResult, final String resourcePath) {
+            this.rangerResult = pendingResult.rangerResult;
+            this.timestamp = pendingResult.timestamp;
+            this.resourcePath = resourcePath;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.ranger;
+
+import org.apache.nifi.registry.security.authorization.AuthorizationResult;
+import org.apache.nifi.registry.security.authorization.RequestAction;
+import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A short lived cache of authorization decisions made by Ranger, keyed by the identity, groups, client address,
+ * resource, and action of the request.
+ *
+ * Entries expire after the configured duration, and are invalidated whenever the Ranger plugin receives new
+ * policies, which is tracked through the policy generation of {@link RangerBasePluginWithPolicies}.
+ */
+class RangerAuthorizationCache {
+
+    private final long expirationNanos;
+    private final int maxEntries;
+    private final Map<Key, Decision> decisions = new ConcurrentHashMap<>();
+
+    RangerAuthorizationCache(final long expirationNanos, final int maxEntries) {
+        this.expirationNanos = expirationNanos;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return true if decisions are cached, false if caching is disabled
+     */
+    boolean isEnabled() {
+        return expirationNanos > 0 && maxEntries > 0;
+    }
+
+    /**
+     * Retrieves the cached decision for the given key.
+     *
+     * @param key the key of the decision
+     * @param policyGeneration the current policy generation of the Ranger plugin
+     * @return the cached decision, or null if there is no decision for the key or it is no longer valid
+     */
+    Decision get(final Key key, final long policyGeneration) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        final Decision decision = decisions.get(key);
+        if (decision == null) {
+            return null;
+        }
+
+        if (decision.policyGeneration != policyGeneration || System.nanoTime() - decision.createdNanos > expirationNanos) {
+            decisions.remove(key, decision);
+            return null;
+        }
+
+        return decision;
+    }
+
+    /**
+     * Caches the given decision.
+     *
+     * @param key the key of the decision
+     * @param decision the decision
+     */
+    void put(final Key key, final Decision decision) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (decisions.size() >= maxEntries) {
+            evict(decision.policyGeneration);
+        }
+
+        decisions.put(key, decision);
+    }
+
+    /**
+     * Removes all cached decisions.
+     */
+    void clear() {
+        decisions.clear();
+    }
+
+    int size() {
+        return decisions.size();
+    }
+
+    private void evict(final long policyGeneration) {
+        final long now = System.nanoTime();
+        decisions.values().removeIf(d -> d.policyGeneration != policyGeneration || now - d.createdNanos > expirationNanos);
+
+        // if every entry is still valid then start over rather than growing beyond the limit
+        if (decisions.size() >= maxEntries) {
+            decisions.clear();
+        }
+    }
+
+    /**
+     * The values of an authorization request that determine the decision made by Ranger.
+     */
+    static final class Key {
+        private final String identity;
+        private final Set<String> groups;
+        private final String clientAddress;
+        private final String resourceIdentifier;
+        private final RequestAction action;
+        private final int hashCode;
+
+        Key(final String identity, final Set<String> groups, final String clientAddress, final String resourceIdentifier, final RequestAction action) {
+            this.identity = identity;
+            this.groups = groups == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(groups));
+            this.clientAddress = clientAddress;
+            this.resourceIdentifier = resourceIdentifier;
+            this.action = action;
+            this.hashCode = Objects.hash(identity, this.groups, clientAddress, resourceIdentifier, action);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+            return Objects.equals(identity, other.identity)
+                    && Objects.equals(groups, other.groups)
+                    && Objects.equals(clientAddress, other.clientAddress)
+                    && Objects.equals(resourceIdentifier, other.resourceIdentifier)
+                    && action == other.action;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * An authorization decision along with the Ranger result it was derived from, which is retained for auditing.
+     */
+    static final class Decision {
+        private final AuthorizationResult.Result result;
+        private final RangerAccessResult rangerResult;
+        private final long policyGeneration;
+        private final long createdNanos;
+
+        Decision(final AuthorizationResult.Result result, final RangerAccessResult rangerResult, final long policyGeneration) {
+            this.result = result;
+            this.rangerResult = rangerResult;
+            this.policyGeneration = policyGeneration;
+            this.createdNanos = System.nanoTime();
+        }
+
+        AuthorizationResult.Result getResult() {
+            return result;
+        }
+
+        RangerAccessResult getRangerResult() {
+            return rangerResult;
+        }
+    }
+}
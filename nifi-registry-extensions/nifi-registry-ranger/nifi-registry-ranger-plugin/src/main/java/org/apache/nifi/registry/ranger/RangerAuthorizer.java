@@ -38,8 +38,8 @@ import org.apache.nifi.registry.security.authorization.annotation.AuthorizerCont
 import org.apache.nifi.registry.security.authorization.exception.AuthorizationAccessException;
 import org.apache.nifi.registry.security.authorization.exception.UninheritableAuthorizationsException;
 import org.apache.nifi.registry.security.exception.SecurityProviderCreationException;
+import org.apache.nifi.registry.util.FormatUtils;
 import org.apache.nifi.registry.util.PropertyValue;
-import org.apache.ranger.audit.model.AuthzAuditEvent;
 import org.apache.ranger.authorization.hadoop.config.RangerConfiguration;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
 import org.apache.ranger.plugin.audit.RangerDefaultAuditHandler;
@@ -69,9 +69,8 @@ import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Authorizer implementation that uses Apache Ranger to make authorization decisions.
@@ -92,18 +91,23 @@ public class RangerAuthorizer implements ManagedAuthorizer, AuthorizationAuditor
     static final String RANGER_ADMIN_IDENTITY_PROP = "Ranger Admin Identity";
     static final String RANGER_SERVICE_TYPE_PROP = "Ranger Service Type";
     static final String RANGER_APP_ID_PROP = "Ranger Application Id";
+    static final String RANGER_AUTHORIZATION_CACHE_EXPIRATION_PROP = "Ranger Authorization Cache Expiration";
+    static final String RANGER_AUTHORIZATION_CACHE_SIZE_PROP = "Ranger Authorization Cache Size";
+    static final String RANGER_AUDIT_QUEUE_SIZE_PROP = "Ranger Audit Queue Size";
 
     static final String RANGER_NIFI_REG_RESOURCE_NAME = "nifi-registry-resource";
     private static final String DEFAULT_SERVICE_TYPE = "nifi-registry";
     private static final String DEFAULT_APP_ID = "nifi-registry";
+    private static final String DEFAULT_AUTHORIZATION_CACHE_EXPIRATION = "0 secs";
+    private static final String DEFAULT_AUTHORIZATION_CACHE_SIZE = "10000";
+    private static final String DEFAULT_AUDIT_QUEUE_SIZE = "10000";
     static final String RESOURCES_RESOURCE = "/policies";
     static final String HADOOP_SECURITY_AUTHENTICATION = "hadoop.security.authentication";
     private static final String KERBEROS_AUTHENTICATION = "kerberos";
 
-    private final Map<AuthorizationRequest, RangerAccessResult> resultLookup = new WeakHashMap<>();
-
     private volatile RangerBasePluginWithPolicies rangerPlugin = null;
-    private volatile RangerDefaultAuditHandler defaultAuditHandler = null;
+    private volatile RangerAuditQueue auditQueue = null;
+    private volatile RangerAuthorizationCache authorizationCache = new RangerAuthorizationCache(0, 0);
     private volatile String rangerAdminIdentity = null;
     private volatile NiFiRegistryProperties registryProperties;
 
@@ -168,7 +172,21 @@ public class RangerAuthorizer implements ManagedAuthorizer, AuthorizationAuditor
 
                 rangerPlugin.init();
 
-                defaultAuditHandler = new RangerDefaultAuditHandler();
+                final int auditQueueSize = getIntegerConfigValue(configurationContext, RANGER_AUDIT_QUEUE_SIZE_PROP, DEFAULT_AUDIT_QUEUE_SIZE);
+                auditQueue = new RangerAuditQueue(new RangerDefaultAuditHandler(), RANGER_NIFI_REG_RESOURCE_NAME, auditQueueSize);
+                auditQueue.start();
+
+                final String cacheExpiration = getConfigValue(configurationContext, RANGER_AUTHORIZATION_CACHE_EXPIRATION_PROP, DEFAULT_AUTHORIZATION_CACHE_EXPIRATION);
+                final long cacheExpirationNanos;
+                try {
+                    cacheExpirationNanos = FormatUtils.getTimeDuration(cacheExpiration, TimeUnit.NANOSECONDS);
+                } catch (final IllegalArgumentException e) {
+                    throw new SecurityProviderCreationException(String.format("The %s '%s' is not a valid time duration.",
+                            RANGER_AUTHORIZATION_CACHE_EXPIRATION_PROP, cacheExpiration));
+                }
+                final int cacheSize = getIntegerConfigValue(configurationContext, RANGER_AUTHORIZATION_CACHE_SIZE_PROP, DEFAULT_AUTHORIZATION_CACHE_SIZE);
+                authorizationCache = new RangerAuthorizationCache(cacheExpirationNanos, cacheSize);
+
                 rangerAdminIdentity = getConfigValue(configurationContext, RANGER_ADMIN_IDENTITY_PROP, null);
 
             } else {
@@ -203,6 +221,17 @@ public class RangerAuthorizer implements ManagedAuthorizer, AuthorizationAuditor
             clientIp = null;
         }
 
+        // reuse a recent decision for the same user, groups, address, resource, and action if one is available
+        final RangerAuthorizationCache.Key cacheKey = new RangerAuthorizationCache.Key(identity, userGroups, clientIp, resourceIdentifier, request.getAction());
+        final long policyGeneration = rangerPlugin.getPolicyGeneration();
+        final RangerAuthorizationCache.Decision cachedDecision = authorizationCache.get(cacheKey, policyGeneration);
+        if (cachedDecision != null) {
+            if (request.isAccessAttempt()) {
+                auditQueue.recordResult(request, cachedDecision.getRangerResult());
+            }
+            return toAuthorizationResult(cachedDecision.getResult(), request);
+        }
+
         final RangerAccessResourceImpl resource = new RangerAccessResourceImpl();
         resource.setValue(RANGER_NIFI_REG_RESOURCE_NAME, resourceIdentifier);
 
@@ -222,14 +251,13 @@ public class RangerAuthorizer implements ManagedAuthorizer, AuthorizationAuditor
 
         // store the result for auditing purposes later if appropriate
         if (request.isAccessAttempt()) {
-            synchronized (resultLookup) {
-                resultLookup.put(request, result);
-            }
+            auditQueue.recordResult(request, result);
         }
 
+        final AuthorizationResult.Result decision;
         if (result != null && result.getIsAllowed()) {
-            // return approved
-            return AuthorizationResult.approved();
+            // approved
+            decision = AuthorizationResult.Result.Approved;
         } else {
             // if result.getIsAllowed() is false, then we need to determine if it was because no policy exists for the
             // given resource, or if it was because a policy exists but not for the given user or action
@@ -242,34 +270,45 @@ public class RangerAuthorizer implements ManagedAuthorizer, AuthorizationAuditor
                 }
 
                 // a policy does exist for the resource so we were really denied access here
-                return AuthorizationResult.denied(request.getExplanationSupplier().get());
+                decision = AuthorizationResult.Result.Denied;
             } else {
                 // a policy doesn't exist so return resource not found so NiFi Registry can work back up the resource hierarchy
-                return AuthorizationResult.resourceNotFound();
+                decision = AuthorizationResult.Result.ResourceNotFound;
             }
         }
+
+        authorizationCache.put(cacheKey, new RangerAuthorizationCache.Decision(decision, result, policyGeneration));
+        return toAuthorizationResult(decision, request);
     }
 
-    @Override
-    public void auditAccessAttempt(final AuthorizationRequest request, final AuthorizationResult result) {
-        final RangerAccessResult rangerResult;
-        synchronized (resultLookup) {
-            rangerResult = resultLookup.remove(request);
+    private AuthorizationResult toAuthorizationResult(final AuthorizationResult.Result decision, final AuthorizationRequest request) {
+        switch (decision) {
+            case Approved:
+                return AuthorizationResult.approved();
+            case Denied:
+                return AuthorizationResult.denied(request.getExplanationSupplier().get());
+            default:
+                return AuthorizationResult.resourceNotFound();
         }
+    }
 
-        if (rangerResult != null && rangerResult.getIsAudited()) {
-            AuthzAuditEvent event = defaultAuditHandler.getAuthzEvents(rangerResult);
-
-            // update the event with the originally requested resource
-            event.setResourceType(RANGER_NIFI_REG_RESOURCE_NAME);
-            event.setResourcePath(request.getRequestedResource().getIdentifier());
-
-            defaultAuditHandler.logAuthzAudit(event);
+    @Override
+    public void auditAccessAttempt(final AuthorizationRequest request, final AuthorizationResult result) {
+        final RangerAuditQueue queue = auditQueue;
+        if (queue != null) {
+            queue.audit(request);
         }
     }
 
     @Override
     public void preDestruction() throws SecurityProviderCreationException {
+        if (auditQueue != null) {
+            auditQueue.shutdown();
+            auditQueue = null;
+        }
+
+        authorizationCache.clear();
+
         if (rangerPlugin != null) {
             try {
                 rangerPlugin.cleanup();
@@ -310,6 +349,15 @@ public class RangerAuthorizer implements ManagedAuthorizer, AuthorizationAuditor
         }
     }
 
+    private int getIntegerConfigValue(final AuthorizerConfigurationContext context, final String name, final String defaultValue) {
+        final String value = getConfigValue(context, name, defaultValue);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (final NumberFormatException e) {
+            throw new SecurityProviderCreationException(String.format("The %s '%s' is not a valid integer.", name, value));
+        }
+    }
+
     private String getConfigValue(final AuthorizerConfigurationContext context, final String name, final String defaultValue) {
         final PropertyValue configValue = context.getProperty(name);
 
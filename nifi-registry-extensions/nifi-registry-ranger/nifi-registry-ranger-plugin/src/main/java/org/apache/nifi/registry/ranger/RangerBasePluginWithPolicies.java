@@ -29,11 +29,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -49,6 +53,7 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
 
     private UserGroupProvider userGroupProvider;
     private AtomicReference<PolicyLookup> policies = new AtomicReference<>(new PolicyLookup());
+    private final AtomicLong policyGeneration = new AtomicLong();
 
     public RangerBasePluginWithPolicies(final String serviceType, final String appId) {
         this(serviceType, appId, null);
@@ -68,6 +73,19 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
         } else {
             this.policies.set(createPolicyLookup(policies));
         }
+
+        // signal that any decisions made against the previous policies are no longer valid
+        policyGeneration.incrementAndGet();
+    }
+
+    /**
+     * Returns a counter that is incremented every time new policies are received. Callers that cache decisions
+     * made with the current policies can compare generations to detect when those decisions are no longer valid.
+     *
+     * @return the current policy generation
+     */
+    public long getPolicyGeneration() {
+        return policyGeneration.get();
     }
 
     /**
@@ -103,6 +121,10 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
         final Map<String, Map<RequestAction, AccessPolicy>> policiesByResource = new HashMap<>();
 
         logger.debug("Converting Ranger ServicePolicies model into NiFi Registry policy model for viewing purposes in NiFi Registry UI.");
+        final long start = System.nanoTime();
+
+        // resolve each user and group at most once, rather than once per policy item that references them
+        final TenantLookup tenantLookup = new TenantLookup();
 
         servicePolicies.getPolicies().stream().forEach(policy -> {
             // only consider policies that are enabled
@@ -147,14 +169,14 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
                 policy.getPolicyItems().forEach(policyItem -> {
                     // get all the users for this policy item, excluding unknown users
                     final Set<String> userIds = policyItem.getUsers().stream()
-                            .map(userIdentity -> getUser(userIdentity))
+                            .map(tenantLookup::getUser)
                             .filter(Objects::nonNull)
                             .map(user -> user.getIdentifier())
                             .collect(Collectors.toSet());
 
                     // get all groups for this policy item, excluding unknown groups
                     final Set<String> groupIds = policyItem.getGroups().stream()
-                            .map(groupName -> getGroup(groupName))
+                            .map(tenantLookup::getGroup)
                             .filter(Objects::nonNull)
                             .map(group -> group.getIdentifier())
                             .collect(Collectors.toSet());
@@ -180,7 +202,7 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
                                 // create the access policy for the specified resource
                                 final AccessPolicy accessPolicy = createPolicy.apply(resource);
                                 policiesByIdentifier.put(accessPolicy.getIdentifier(), accessPolicy);
-                                policiesByResource.computeIfAbsent(resource, r -> new HashMap<>()).put(action, accessPolicy);
+                                policiesByResource.computeIfAbsent(resource, r -> new EnumMap<>(RequestAction.class)).put(action, accessPolicy);
 
                                 // if this is a delegate admin, also create the admin policy for the specified resource
                                 if (isDelegateAdmin) {
@@ -194,7 +216,7 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
 
                                     final AccessPolicy adminAccessPolicy = createPolicy.apply(adminResource);
                                     policiesByIdentifier.put(adminAccessPolicy.getIdentifier(), adminAccessPolicy);
-                                    policiesByResource.computeIfAbsent(adminResource, ar -> new HashMap<>()).put(action, adminAccessPolicy);
+                                    policiesByResource.computeIfAbsent(adminResource, ar -> new EnumMap<>(RequestAction.class)).put(action, adminAccessPolicy);
                                 }
                             });
                         } catch (final IllegalArgumentException e) {
@@ -205,32 +227,40 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
             }
         });
 
-        return new PolicyLookup(policiesByIdentifier, policiesByResource);
+        final PolicyLookup policyLookup = new PolicyLookup(policiesByIdentifier, policiesByResource);
+        logger.debug("Converted {} Ranger policies into {} NiFi Registry access policies in {} ms", servicePolicies.getPolicies().size(),
+                policiesByIdentifier.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return policyLookup;
     }
 
-    private User getUser(final String identity) {
-        if (userGroupProvider == null) {
-            // generate the user deterministically when running outside of the ManagedRangerAuthorizer
-            return new User.Builder().identifierGenerateFromSeed(identity).identity(identity).build();
-        } else {
-            // find the user in question
-            final User user = userGroupProvider.getUserByIdentity(identity);
+    /**
+     * Resolves the users and groups referenced by Ranger policy items while a policy lookup is being created. Each
+     * identity and group name is resolved at most once, and the groups of the configured User Group Provider are
+     * retrieved once and indexed by name instead of being scanned for every group reference.
+     */
+    private class TenantLookup {
 
-            if (user == null) {
-                logger.warn(String.format("Cannot find user '%s' in the configured User Group Provider. Skipping user for viewing purposes. Will still be used for access decisions.", identity));
-            }
+        private final Map<String, Optional<User>> usersByIdentity = new HashMap<>();
+        private Map<String, Group> groupsByName;
 
-            return user;
+        private User getUser(final String identity) {
+            return usersByIdentity.computeIfAbsent(identity, i -> Optional.ofNullable(resolveUser(i))).orElse(null);
         }
-    }
 
-    private Group getGroup(final String name) {
-        if (userGroupProvider == null) {
-            // generate the group deterministically when running outside of the ManagedRangerAuthorizer
-            return new Group.Builder().identifierGenerateFromSeed(name).name(name).build();
-        } else {
+        private Group getGroup(final String name) {
+            if (userGroupProvider == null) {
+                // generate the group deterministically when running outside of the ManagedRangerAuthorizer
+                return new Group.Builder().identifierGenerateFromSeed(name).name(name).build();
+            }
+
+            if (groupsByName == null) {
+                groupsByName = new HashMap<>();
+                userGroupProvider.getGroups().forEach(g -> groupsByName.putIfAbsent(g.getName(), g));
+            }
+
             // find the group in question
-            final Group group = userGroupProvider.getGroups().stream().filter(g -> g.getName().equals(name)).findFirst().orElse(null);
+            final Group group = groupsByName.get(name);
 
             if (group == null) {
                 logger.warn(String.format("Cannot find group '%s' in the configured User Group Provider. Skipping group for viewing purposes. Will still be used for access decisions.", name));
@@ -238,6 +268,22 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
 
             return group;
         }
+
+        private User resolveUser(final String identity) {
+            if (userGroupProvider == null) {
+                // generate the user deterministically when running outside of the ManagedRangerAuthorizer
+                return new User.Builder().identifierGenerateFromSeed(identity).identity(identity).build();
+            } else {
+                // find the user in question
+                final User user = userGroupProvider.getUserByIdentity(identity);
+
+                if (user == null) {
+                    logger.warn(String.format("Cannot find user '%s' in the configured User Group Provider. Skipping user for viewing purposes. Will still be used for access decisions.", identity));
+                }
+
+                return user;
+            }
+        }
     }
 
     private static class PolicyLookup {
@@ -257,8 +303,9 @@ public class RangerBasePluginWithPolicies extends RangerBasePlugin {
                 allPolicies = Collections.unmodifiableSet(new HashSet<>(policiesByIdentifier.values()));
             }
 
-            this.policiesByIdentifier = policiesByIdentifier;
-            this.policiesByResource = policiesByResource;
+            // the lookup is never modified once created, so it may be shared freely across threads
+            this.policiesByIdentifier = policiesByIdentifier == null ? null : Collections.unmodifiableMap(policiesByIdentifier);
+            this.policiesByResource = policiesByResource == null ? null : Collections.unmodifiableMap(policiesByResource);
         }
 
         private Set<AccessPolicy> getAccessPolicies() throws AuthorizationAccessException {
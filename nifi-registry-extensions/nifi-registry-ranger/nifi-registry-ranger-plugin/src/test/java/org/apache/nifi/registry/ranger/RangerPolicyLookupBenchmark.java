@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.ranger;
+
+import org.apache.nifi.registry.security.authorization.RequestAction;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building and querying the policy lookup of {@link RangerBasePluginWithPolicies} with a large number of
+ * Ranger policies, resolved against a User Group Provider with many users and groups.
+ *
+ * Run from the module directory after compiling the tests:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.nifi.registry.ranger.RangerPolicyLookupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RangerPolicyLookupBenchmark {
+
+    @Param({"50000"})
+    public int policyCount;
+
+    @Param({"1000"})
+    public int tenantCount;
+
+    private ServicePolicies servicePolicies;
+    private RangerBasePluginWithPolicies plugin;
+    private String[] resources;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        servicePolicies = RangerPolicyTestUtils.createServicePolicies(policyCount, tenantCount);
+        resources = new String[policyCount];
+        for (int i = 0; i < policyCount; i++) {
+            resources[i] = "/buckets/bucket-" + i;
+        }
+
+        plugin = new RangerBasePluginWithPolicies("nifi-registry", "nifi-registry", new RangerPolicyTestUtils.StaticUserGroupProvider(tenantCount));
+        plugin.setPolicies(servicePolicies);
+        RangerPolicyTestUtils.verifyAccessPolicies(plugin, policyCount);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void setPolicies() {
+        plugin.setPolicies(servicePolicies);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void getAccessPolicy(final Blackhole blackhole) {
+        final String resource = resources[ThreadLocalRandom.current().nextInt(resources.length)];
+        blackhole.consume(plugin.getAccessPolicy(resource, RequestAction.READ));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void doesPolicyExist(final Blackhole blackhole) {
+        final String resource = resources[ThreadLocalRandom.current().nextInt(resources.length)];
+        blackhole.consume(plugin.doesPolicyExist(resource, RequestAction.WRITE));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(RangerPolicyLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.ranger;
+
+import org.apache.nifi.registry.security.authorization.AccessPolicy;
+import org.apache.nifi.registry.security.authorization.AuthorizerConfigurationContext;
+import org.apache.nifi.registry.security.authorization.Group;
+import org.apache.nifi.registry.security.authorization.RequestAction;
+import org.apache.nifi.registry.security.authorization.User;
+import org.apache.nifi.registry.security.authorization.UserAndGroups;
+import org.apache.nifi.registry.security.authorization.UserGroupProvider;
+import org.apache.nifi.registry.security.authorization.UserGroupProviderInitializationContext;
+import org.apache.nifi.registry.security.authorization.exception.AuthorizationAccessException;
+import org.apache.nifi.registry.security.exception.SecurityProviderCreationException;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerServiceDef;
+import org.apache.ranger.plugin.util.ServicePolicies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates large sets of Ranger policies, users and groups for the tests and benchmarks of {@link RangerBasePluginWithPolicies}.
+ */
+final class RangerPolicyTestUtils {
+
+    private RangerPolicyTestUtils() {
+    }
+
+    /**
+     * Creates Ranger policies granting READ and WRITE on distinct bucket resources, each to a handful of users and groups.
+     */
+    static ServicePolicies createServicePolicies(final int policyCount, final int tenantCount) {
+        final List<RangerPolicy> policies = new ArrayList<>(policyCount);
+        for (int i = 0; i < policyCount; i++) {
+            final String resourceIdentifier = "/buckets/bucket-" + i;
+
+            final Map<String, RangerPolicy.RangerPolicyResource> policyResources = new HashMap<>();
+            policyResources.put(RangerAuthorizer.RANGER_NIFI_REG_RESOURCE_NAME, new RangerPolicy.RangerPolicyResource(resourceIdentifier));
+
+            final RangerPolicy.RangerPolicyItem policyItem = new RangerPolicy.RangerPolicyItem();
+            policyItem.setAccesses(Arrays.asList(new RangerPolicy.RangerPolicyItemAccess("READ"), new RangerPolicy.RangerPolicyItemAccess("WRITE")));
+            policyItem.setUsers(Arrays.asList("user-" + (i % tenantCount), "user-" + ((i + 1) % tenantCount)));
+            policyItem.setGroups(Arrays.asList("group-" + (i % tenantCount), "group-" + ((i + 7) % tenantCount)));
+
+            final RangerPolicy policy = new RangerPolicy();
+            policy.setId((long) i);
+            policy.setResources(policyResources);
+            policy.setPolicyItems(Collections.singletonList(policyItem));
+            policies.add(policy);
+        }
+
+        final RangerServiceDef serviceDef = new RangerServiceDef();
+        serviceDef.setName("nifi-registry");
+
+        final ServicePolicies servicePolicies = new ServicePolicies();
+        servicePolicies.setPolicies(policies);
+        servicePolicies.setServiceDef(serviceDef);
+        return servicePolicies;
+    }
+
+    /**
+     * A User Group Provider with a fixed set of users and groups that, like most providers, returns a copy of its
+     * groups on every call to getGroups().
+     */
+    static class StaticUserGroupProvider implements UserGroupProvider {
+
+        private final Map<String, User> usersByIdentity = new HashMap<>();
+        private final Map<String, Group> groupsById = new HashMap<>();
+
+        StaticUserGroupProvider(final int tenantCount) {
+            for (int i = 0; i < tenantCount; i++) {
+                final String identity = "user-" + i;
+                usersByIdentity.put(identity, new User.Builder().identifierGenerateFromSeed(identity).identity(identity).build());
+
+                final String name = "group-" + i;
+                final Group group = new Group.Builder().identifierGenerateFromSeed(name).name(name).build();
+                groupsById.put(group.getIdentifier(), group);
+            }
+        }
+
+        @Override
+        public Set<User> getUsers() throws AuthorizationAccessException {
+            return new HashSet<>(usersByIdentity.values());
+        }
+
+        @Override
+        public User getUser(String identifier) throws AuthorizationAccessException {
+            return usersByIdentity.values().stream().filter(u -> u.getIdentifier().equals(identifier)).findFirst().orElse(null);
+        }
+
+        @Override
+        public User getUserByIdentity(String identity) throws AuthorizationAccessException {
+            return usersByIdentity.get(identity);
+        }
+
+        @Override
+        public Set<Group> getGroups() throws AuthorizationAccessException {
+            return new HashSet<>(groupsById.values());
+        }
+
+        @Override
+        public Group getGroup(String identifier) throws AuthorizationAccessException {
+            return groupsById.get(identifier);
+        }
+
+        @Override
+        public UserAndGroups getUserAndGroups(String identity) throws AuthorizationAccessException {
+            final User user = getUserByIdentity(identity);
+            return new UserAndGroups() {
+                @Override
+                public User getUser() {
+                    return user;
+                }
+
+                @Override
+                public Set<Group> getGroups() {
+                    return Collections.emptySet();
+                }
+            };
+        }
+
+        @Override
+        public void initialize(UserGroupProviderInitializationContext initializationContext) throws SecurityProviderCreationException {
+        }
+
+        @Override
+        public void onConfigured(AuthorizerConfigurationContext configurationContext) throws SecurityProviderCreationException {
+        }
+
+        @Override
+        public void preDestruction() throws SecurityProviderCreationException {
+        }
+    }
+
+    /**
+     * Verifies the lookup built from the policies of createServicePolicies, so callers know they exercise real lookups.
+     */
+    static void verifyAccessPolicies(final RangerBasePluginWithPolicies plugin, final int policyCount) {
+        for (int i = 0; i < policyCount; i += Math.max(1, policyCount / 100)) {
+            final AccessPolicy policy = plugin.getAccessPolicy("/buckets/bucket-" + i, RequestAction.READ);
+            if (policy == null || policy.getUsers().isEmpty() || policy.getGroups().isEmpty()) {
+                throw new IllegalStateException("Missing access policy for bucket-" + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.ranger;
+
+import org.apache.nifi.registry.security.authorization.AuthorizationRequest;
+import org.apache.nifi.registry.security.authorization.RequestAction;
+import org.apache.nifi.registry.security.authorization.Resource;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.apache.ranger.plugin.audit.RangerDefaultAuditHandler;
+import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestRangerAuditQueue {
+
+    private static final String RESOURCE_TYPE = "nifi-registry-resource";
+
+    private RangerDefaultAuditHandler auditHandler;
+    private RangerAuditQueue auditQueue;
+
+    @Before
+    public void setup() {
+        auditHandler = mock(RangerDefaultAuditHandler.class);
+        when(auditHandler.getAuthzEvents(any(RangerAccessResult.class))).thenAnswer(invocation -> new AuthzAuditEvent());
+    }
+
+    @After
+    public void teardown() {
+        if (auditQueue != null) {
+            auditQueue.shutdown();
+        }
+    }
+
+    @Test
+    public void testAuditEventIsWrittenWithRequestedResource() {
+        auditQueue = new RangerAuditQueue(auditHandler, RESOURCE_TYPE, 10);
+        auditQueue.start();
+
+        final AuthorizationRequest request = createRequest("/buckets/1");
+        auditQueue.recordResult(request, createResult(true));
+        auditQueue.audit(request);
+
+        final ArgumentCaptor<AuthzAuditEvent> eventCaptor = ArgumentCaptor.forClass(AuthzAuditEvent.class);
+        verify(auditHandler, timeout(5000)).logAuthzAudit(eventCaptor.capture());
+
+        final AuthzAuditEvent event = eventCaptor.getValue();
+        assertEquals(RESOURCE_TYPE, event.getResourceType());
+        assertEquals("/buckets/1", event.getResourcePath());
+        assertEquals(0, auditQueue.getQueueSize());
+    }
+
+    @Test
+    public void testResultNotAuditedIsNotQueued() {
+        auditQueue = new RangerAuditQueue(auditHandler, RESOURCE_TYPE, 10);
+
+        final AuthorizationRequest request = createRequest("/buckets/1");
+        auditQueue.recordResult(request, createResult(false));
+        auditQueue.audit(request);
+
+        assertEquals(0, auditQueue.getQueueSize());
+        assertEquals(0, auditQueue.getDroppedCount());
+    }
+
+    @Test
+    public void testAuditWithoutRecordedResultIsIgnored() {
+        auditQueue = new RangerAuditQueue(auditHandler, RESOURCE_TYPE, 10);
+        auditQueue.audit(createRequest("/buckets/1"));
+
+        assertEquals(0, auditQueue.getQueueSize());
+        assertEquals(0, auditQueue.getDroppedCount());
+    }
+
+    @Test
+    public void testResultsAreDroppedWhenPendingResultsAreFull() {
+        auditQueue = new RangerAuditQueue(auditHandler, RESOURCE_TYPE, 1);
+
+        final AuthorizationRequest first = createRequest("/buckets/1");
+        final AuthorizationRequest second = createRequest("/buckets/2");
+        auditQueue.recordResult(first, createResult(true));
+        auditQueue.recordResult(second, createResult(true));
+        assertEquals(1, auditQueue.getDroppedCount());
+
+        // the first result is still pending and can be audited, the second was never recorded
+        auditQueue.audit(first);
+        auditQueue.audit(second);
+        assertEquals(1, auditQueue.getQueueSize());
+        assertEquals(1, auditQueue.getDroppedCount());
+    }
+
+    @Test
+    public void testEventsAreDroppedWhenQueueIsFull() {
+        auditQueue = new RangerAuditQueue(auditHandler, RESOURCE_TYPE, 1);
+
+        final AuthorizationRequest first = createRequest("/buckets/1");
+        auditQueue.recordResult(first, createResult(true));
+        auditQueue.audit(first);
+
+        final AuthorizationRequest second = createRequest("/buckets/2");
+        auditQueue.recordResult(second, createResult(true));
+        auditQueue.audit(second);
+
+        assertEquals(1, auditQueue.getQueueSize());
+        assertEquals(1, auditQueue.getDroppedCount());
+        verify(auditHandler, never()).logAuthzAudit(any(AuthzAuditEvent.class));
+    }
+
+    @Test
+    public void testShutdownDrainsQueuedEvents() throws Exception {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(auditHandler.getAuthzEvents(any(RangerAccessResult.class))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new AuthzAuditEvent();
+        });
+
+        auditQueue = new RangerAuditQueue(auditHandler, RESOURCE_TYPE, 10);
+        auditQueue.start();
+
+        for (int i = 0; i < 3; i++) {
+            final AuthorizationRequest request = createRequest("/buckets/" + i);
+            auditQueue.recordResult(request, createResult(true));
+            auditQueue.audit(request);
+        }
+
+        // hold the worker on the first event until shutdown is waiting for it, so the rest are written after shutdown
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final Thread shutdownThread = new Thread(auditQueue::shutdown);
+        shutdownThread.start();
+        while (shutdownThread.getState() != Thread.State.TIMED_WAITING && shutdownThread.isAlive()) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        shutdownThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        verify(auditHandler, times(3)).logAuthzAudit(any(AuthzAuditEvent.class));
+        assertEquals(0, auditQueue.getQueueSize());
+    }
+
+    private AuthorizationRequest createRequest(final String resourceIdentifier) {
+        final Resource resource = mock(Resource.class);
+        when(resource.getIdentifier()).thenReturn(resourceIdentifier);
+        when(resource.getName()).thenReturn(resourceIdentifier);
+
+        return new AuthorizationRequest.Builder()
+                .resource(resource)
+                .action(RequestAction.READ)
+                .identity("user-1")
+                .accessAttempt(true)
+                .anonymous(false)
+                .build();
+    }
+
+    private RangerAccessResult createResult(final boolean audited) {
+        final RangerAccessResult result = mock(RangerAccessResult.class);
+        when(result.getIsAudited()).thenReturn(audited);
+        return result;
+    }
+}
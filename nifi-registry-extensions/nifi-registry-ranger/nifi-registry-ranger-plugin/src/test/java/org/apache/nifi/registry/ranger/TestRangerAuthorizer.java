@@ -436,6 +436,63 @@ public class TestRangerAuthorizer {
         assertEquals(AuthorizationResult.denied().getResult(), result.getResult());
     }
 
+    @Test
+    public void testCachedDecision() {
+        final AuthorizerConfigurationContext configurationContext = createMockConfigContext();
+        when(configurationContext.getProperty(eq(RangerAuthorizer.RANGER_AUTHORIZATION_CACHE_EXPIRATION_PROP)))
+                .thenReturn(new StandardPropertyValue("1 min"));
+
+        setup(mock(NiFiRegistryProperties.class), mock(UserGroupProvider.class), configurationContext);
+
+        final String systemResource = "/system";
+        final RequestAction action = RequestAction.WRITE;
+
+        when(rangerBasePlugin.isAccessAllowed(any(RangerAccessRequest.class))).thenReturn(notAllowedResult);
+        when(rangerBasePlugin.doesPolicyExist(systemResource, action)).thenReturn(true);
+        when(rangerBasePlugin.getPolicyGeneration()).thenReturn(1L);
+
+        final AuthorizationResult first = authorizer.authorize(createRequest(systemResource, action, "admin"));
+        final AuthorizationResult second = authorizer.authorize(createRequest(systemResource, action, "admin"));
+        assertEquals(AuthorizationResult.denied().getResult(), first.getResult());
+        assertEquals(AuthorizationResult.denied().getResult(), second.getResult());
+        verify(rangerBasePlugin, times(1)).isAccessAllowed(any(RangerAccessRequest.class));
+
+        // a different identity is not served from the cache
+        authorizer.authorize(createRequest(systemResource, action, "other"));
+        verify(rangerBasePlugin, times(2)).isAccessAllowed(any(RangerAccessRequest.class));
+
+        // receiving new policies invalidates previous decisions
+        when(rangerBasePlugin.getPolicyGeneration()).thenReturn(2L);
+        when(rangerBasePlugin.isAccessAllowed(any(RangerAccessRequest.class))).thenReturn(allowedResult);
+
+        final AuthorizationResult third = authorizer.authorize(createRequest(systemResource, action, "admin"));
+        assertEquals(AuthorizationResult.approved().getResult(), third.getResult());
+        verify(rangerBasePlugin, times(3)).isAccessAllowed(any(RangerAccessRequest.class));
+    }
+
+    @Test
+    public void testDecisionsNotCachedByDefault() {
+        final AuthorizerConfigurationContext configurationContext = createMockConfigContext();
+        setup(mock(NiFiRegistryProperties.class), mock(UserGroupProvider.class), configurationContext);
+
+        when(rangerBasePlugin.isAccessAllowed(any(RangerAccessRequest.class))).thenReturn(allowedResult);
+
+        authorizer.authorize(createRequest("/system", RequestAction.READ, "admin"));
+        authorizer.authorize(createRequest("/system", RequestAction.READ, "admin"));
+        verify(rangerBasePlugin, times(2)).isAccessAllowed(any(RangerAccessRequest.class));
+    }
+
+    private AuthorizationRequest createRequest(final String resourceIdentifier, final RequestAction action, final String identity) {
+        return new AuthorizationRequest.Builder()
+                .resource(new MockResource(resourceIdentifier, resourceIdentifier))
+                .action(action)
+                .identity(identity)
+                .resourceContext(new HashMap<>())
+                .accessAttempt(true)
+                .anonymous(false)
+                .build();
+    }
+
     @Test
     public void testRangerAdminApproved() {
         runRangerAdminTest(RangerAuthorizer.RESOURCES_RESOURCE, AuthorizationResult.approved().getResult());
@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -375,6 +376,38 @@ public class TestRangerBasePluginWithPolicies {
         assertNotNull(pluginWithPolicies.getAccessPolicy("/policies" + resourceIdentifier1, RequestAction.WRITE));
     }
 
+    @Test
+    public void testLargeNumberOfPolicies() {
+        // enough policies to share group references, the lookup at scale is measured by RangerPolicyLookupBenchmark
+        final int policyCount = 300;
+        final int tenantCount = 50;
+        final AtomicInteger getGroupsCount = new AtomicInteger();
+
+        final UserGroupProvider userGroupProvider = new RangerPolicyTestUtils.StaticUserGroupProvider(tenantCount) {
+            @Override
+            public Set<Group> getGroups() throws AuthorizationAccessException {
+                getGroupsCount.incrementAndGet();
+                return super.getGroups();
+            }
+        };
+
+        final RangerBasePluginWithPolicies pluginWithPolicies = new RangerBasePluginWithPolicies("nifi-registry", "nifi-registry", userGroupProvider);
+        pluginWithPolicies.setPolicies(RangerPolicyTestUtils.createServicePolicies(policyCount, tenantCount));
+
+        // one read and one write policy per resource
+        assertEquals(policyCount * 2, pluginWithPolicies.getAccessPolicies().size());
+        RangerPolicyTestUtils.verifyAccessPolicies(pluginWithPolicies, policyCount);
+
+        // the groups are retrieved once per set of policies rather than once per group reference
+        assertEquals(1, getGroupsCount.get());
+
+        final AccessPolicy writePolicy = pluginWithPolicies.getAccessPolicy("/buckets/bucket-42", RequestAction.WRITE);
+        assertNotNull(writePolicy);
+        assertEquals(2, writePolicy.getUsers().size());
+        assertEquals(2, writePolicy.getGroups().size());
+        assertFalse(pluginWithPolicies.doesPolicyExist("/buckets/bucket-" + policyCount, RequestAction.READ));
+    }
+
     @Test
     public void testPoliciesWithUserGroupProvider() {
         final String user1 = "user-1"; // unknown according to user group provider
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.bucket;
+
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependency;
+import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The metadata of a bundle version in a bucket archive. The SHA-256 of the content entry that follows it is the one in
+ * the version metadata.
+ */
+public class ArchivedBundleVersion {
+
+    private BundleVersionMetadata versionMetadata;
+    private List<BundleVersionDependency> dependencies = new ArrayList<>();
+    private List<Extension> extensions = new ArrayList<>();
+    private Map<String, String> additionalDetails = new LinkedHashMap<>();
+
+    public BundleVersionMetadata getVersionMetadata() {
+        return versionMetadata;
+    }
+
+    public void setVersionMetadata(BundleVersionMetadata versionMetadata) {
+        this.versionMetadata = versionMetadata;
+    }
+
+    public List<BundleVersionDependency> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<BundleVersionDependency> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    public List<Extension> getExtensions() {
+        return extensions;
+    }
+
+    public void setExtensions(List<Extension> extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * @return the additional details documentation keyed by extension name
+     */
+    public Map<String, String> getAdditionalDetails() {
+        return additionalDetails;
+    }
+
+    public void setAdditionalDetails(Map<String, String> additionalDetails) {
+        this.additionalDetails = additionalDetails;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.bucket;
+
+import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+
+/**
+ * The metadata of a flow version in a bucket archive, along with the SHA-256 of the content entry that follows it.
+ */
+public class ArchivedFlowVersion {
+
+    private VersionedFlowSnapshotMetadata snapshotMetadata;
+    private String sha256;
+
+    public ArchivedFlowVersion() {
+    }
+
+    public ArchivedFlowVersion(VersionedFlowSnapshotMetadata snapshotMetadata, String sha256) {
+        this.snapshotMetadata = snapshotMetadata;
+        this.sha256 = sha256;
+    }
+
+    public VersionedFlowSnapshotMetadata getSnapshotMetadata() {
+        return snapshotMetadata;
+    }
+
+    public void setSnapshotMetadata(VersionedFlowSnapshotMetadata snapshotMetadata) {
+        this.snapshotMetadata = snapshotMetadata;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+}
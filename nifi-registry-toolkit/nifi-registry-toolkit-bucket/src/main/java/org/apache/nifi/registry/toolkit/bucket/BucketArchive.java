@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.bucket;
+
+import org.apache.nifi.registry.extension.BundleVersionType;
+import org.apache.nifi.registry.extension.bundle.BundleType;
+
+import java.util.regex.Pattern;
+
+/**
+ * Layout of a bucket archive.
+ *
+ * An archive is a zip file whose entries are written in the following order so that it can be read in a single pass:
+ *
+ * <pre>
+ * manifest.json
+ * bucket.json
+ * flows/&lt;flowId&gt;/flow.json
+ * flows/&lt;flowId&gt;/versions/&lt;version&gt;.json
+ * flows/&lt;flowId&gt;/versions/&lt;version&gt;.content
+ * bundles/&lt;bundleId&gt;/bundle.json
+ * bundles/&lt;bundleId&gt;/versions/&lt;bundleVersionId&gt;.json
+ * bundles/&lt;bundleId&gt;/versions/&lt;bundleVersionId&gt;.content
+ * </pre>
+ *
+ * The metadata entries contain the same JSON representation used by the REST API, and every content entry is preceded
+ * by the metadata entry holding its SHA-256.
+ */
+final class BucketArchive {
+
+    static final int FORMAT_VERSION = 1;
+
+    static final String FORMAT_VERSION_KEY = "formatVersion";
+    static final String BUCKET_ID_KEY = "bucketId";
+    static final String EXPORTED_KEY = "exported";
+
+    static final String MANIFEST_ENTRY = "manifest.json";
+    static final String BUCKET_ENTRY = "bucket.json";
+
+    static final Pattern FLOW_ENTRY = Pattern.compile("flows/([^/]+)/flow\\.json");
+    static final Pattern FLOW_VERSION_ENTRY = Pattern.compile("flows/([^/]+)/versions/(\\d+)\\.json");
+    static final Pattern FLOW_CONTENT_ENTRY = Pattern.compile("flows/([^/]+)/versions/(\\d+)\\.content");
+    static final Pattern BUNDLE_ENTRY = Pattern.compile("bundles/([^/]+)/bundle\\.json");
+    static final Pattern BUNDLE_VERSION_ENTRY = Pattern.compile("bundles/([^/]+)/versions/([^/]+)\\.json");
+    static final Pattern BUNDLE_CONTENT_ENTRY = Pattern.compile("bundles/([^/]+)/versions/([^/]+)\\.content");
+
+    private BucketArchive() {
+    }
+
+    static String flowEntry(String flowId) {
+        return "flows/" + flowId + "/flow.json";
+    }
+
+    static String flowVersionEntry(String flowId, int version) {
+        return "flows/" + flowId + "/versions/" + version + ".json";
+    }
+
+    static String flowContentEntry(String flowId, int version) {
+        return "flows/" + flowId + "/versions/" + version + ".content";
+    }
+
+    static String bundleEntry(String bundleId) {
+        return "bundles/" + bundleId + "/bundle.json";
+    }
+
+    static String bundleVersionEntry(String bundleId, String bundleVersionId) {
+        return "bundles/" + bundleId + "/versions/" + bundleVersionId + ".json";
+    }
+
+    static String bundleContentEntry(String bundleId, String bundleVersionId) {
+        return "bundles/" + bundleId + "/versions/" + bundleVersionId + ".content";
+    }
+
+    static BundleVersionType getProviderBundleType(BundleType bundleType) {
+        switch (bundleType) {
+            case NIFI_NAR:
+                return BundleVersionType.NIFI_NAR;
+            case MINIFI_CPP:
+                return BundleVersionType.MINIFI_CPP;
+            default:
+                throw new IllegalArgumentException("Unknown bundle type: " + bundleType);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.bucket;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.nifi.registry.NiFiRegistry;
+import org.apache.nifi.registry.bucket.Bucket;
+import org.apache.nifi.registry.db.DataSourceFactory;
+import org.apache.nifi.registry.db.DatabaseMetadataService;
+import org.apache.nifi.registry.extension.ExtensionManager;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.provider.StandardProviderFactory;
+import org.apache.nifi.registry.serialization.ExtensionSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Exports a bucket of the configured registry to a bucket archive, or imports a bucket archive into it.
+ *
+ * The registry should not be running while a bucket is imported, the imported items are picked up when it is started.
+ */
+public class BucketArchiveTool {
+    private static final Logger log = LoggerFactory.getLogger(BucketArchiveTool.class);
+    public static final int PARSE_EXCEPTION = 1;
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options();
+        options.addOption("x", "export", true, "Id of the bucket to export.");
+        options.addOption("i", "import", false, "Import the bucket in the archive.");
+        options.addOption("f", "file", true, "Bucket archive to write to or read from.");
+        options.addOption("c", "concurrency", true, "Number of threads writing content when importing (default " + BucketImporter.DEFAULT_CONCURRENCY + ").");
+        options.addOption("b", "batchSize", true, "Number of versions inserted per batch when importing (default " + BucketImporter.DEFAULT_BATCH_SIZE + ").");
+        CommandLineParser parser = new DefaultParser();
+
+        CommandLine commandLine = null;
+        int concurrency = BucketImporter.DEFAULT_CONCURRENCY;
+        int batchSize = BucketImporter.DEFAULT_BATCH_SIZE;
+        try {
+            commandLine = parser.parse(options, args);
+            if (commandLine.hasOption('x') == commandLine.hasOption('i')) {
+                throw new ParseException("Exactly one of export or import must be specified");
+            }
+            if (!commandLine.hasOption('f')) {
+                throw new ParseException("The bucket archive file must be specified");
+            }
+            if (commandLine.hasOption('c')) {
+                concurrency = Integer.parseInt(commandLine.getOptionValue('c'));
+            }
+            if (commandLine.hasOption('b')) {
+                batchSize = Integer.parseInt(commandLine.getOptionValue('b'));
+            }
+        } catch (ParseException | NumberFormatException e) {
+            log.error("Unable to parse command line.", e);
+
+            new HelpFormatter().printHelp("bucket-toolkit [args]", options);
+
+            System.exit(PARSE_EXCEPTION);
+        }
+
+        File archiveFile = new File(commandLine.getOptionValue('f'));
+
+        NiFiRegistryProperties properties = NiFiRegistry.initializeProperties(NiFiRegistry.getMasterKeyProvider());
+
+        DataSource dataSource = new DataSourceFactory(properties).getDataSource();
+        DatabaseMetadataService metadataService = new DatabaseMetadataService(new JdbcTemplate(dataSource));
+
+        ExtensionManager extensionManager = new ExtensionManager(properties);
+        extensionManager.discoverExtensions();
+        StandardProviderFactory providerFactory = new StandardProviderFactory(properties, extensionManager, dataSource);
+        providerFactory.initialize();
+
+        if (commandLine.hasOption('x')) {
+            BucketExporter exporter = new BucketExporter(metadataService, providerFactory.getFlowPersistenceProvider(),
+                    providerFactory.getBundlePersistenceProvider(), new ExtensionSerializer());
+
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(archiveFile))) {
+                exporter.exportBucket(commandLine.getOptionValue('x'), out);
+            }
+        } else {
+            BucketImporter importer = new BucketImporter(metadataService, providerFactory.getFlowPersistenceProvider(),
+                    providerFactory.getBundlePersistenceProvider(), new ExtensionSerializer(), concurrency, batchSize);
+
+            // the metadata of a failed import is rolled back, the importer removes the content it wrote
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            Bucket bucket;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(archiveFile))) {
+                bucket = importer.importBucket(in, transactionTemplate);
+            }
+            log.info("Imported bucket {} with id {}", bucket.getName(), bucket.getIdentifier());
+        }
+    }
+}
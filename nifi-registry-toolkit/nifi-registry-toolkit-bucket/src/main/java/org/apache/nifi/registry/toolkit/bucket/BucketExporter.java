@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.bucket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionDependencyEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.db.entity.ExtensionAdditionalDetailsEntity;
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.db.entity.FlowEntity;
+import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
+import org.apache.nifi.registry.extension.BundlePersistenceProvider;
+import org.apache.nifi.registry.extension.BundleVersionCoordinate;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.flow.FlowPersistenceProvider;
+import org.apache.nifi.registry.provider.extension.StandardBundleVersionCoordinate;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.apache.nifi.registry.serialization.jackson.ObjectMapperProvider;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.BucketMappings;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.apache.nifi.registry.service.mapper.FlowMappings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a bucket, including all of its flow versions and bundle versions, to a bucket archive.
+ *
+ * The archive is streamed, only one flow version or one bundle version's metadata is held in memory at a time and
+ * bundle content is copied straight from the persistence provider into the archive.
+ */
+public class BucketExporter {
+    private static final Logger log = LoggerFactory.getLogger(BucketExporter.class);
+
+    private final MetadataService metadataService;
+    private final FlowPersistenceProvider flowPersistenceProvider;
+    private final BundlePersistenceProvider bundlePersistenceProvider;
+    private final Serializer<Extension> extensionSerializer;
+    private final ObjectMapper objectMapper = ObjectMapperProvider.getMapper();
+
+    public BucketExporter(MetadataService metadataService, FlowPersistenceProvider flowPersistenceProvider,
+                          BundlePersistenceProvider bundlePersistenceProvider, Serializer<Extension> extensionSerializer) {
+        this.metadataService = metadataService;
+        this.flowPersistenceProvider = flowPersistenceProvider;
+        this.bundlePersistenceProvider = bundlePersistenceProvider;
+        this.extensionSerializer = extensionSerializer;
+    }
+
+    /**
+     * Writes the given bucket to the given stream. The stream is not closed.
+     *
+     * @param bucketId the id of the bucket to export
+     * @param out the stream to write the archive to
+     * @throws IOException if the archive could not be written
+     */
+    public void exportBucket(String bucketId, OutputStream out) throws IOException {
+        BucketEntity bucket = metadataService.getBucketById(bucketId);
+        if (bucket == null) {
+            throw new IllegalArgumentException("Bucket does not exist: " + bucketId);
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new NonClosingOutputStream(out)));
+
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put(BucketArchive.FORMAT_VERSION_KEY, BucketArchive.FORMAT_VERSION);
+        manifest.put(BucketArchive.BUCKET_ID_KEY, bucket.getId());
+        manifest.put(BucketArchive.EXPORTED_KEY, System.currentTimeMillis());
+        writeJson(zip, BucketArchive.MANIFEST_ENTRY, manifest);
+        writeJson(zip, BucketArchive.BUCKET_ENTRY, BucketMappings.map(bucket));
+
+        int flowVersions = 0;
+        for (FlowEntity flow : metadataService.getFlowsByBucket(bucketId)) {
+            writeJson(zip, BucketArchive.flowEntry(flow.getId()), FlowMappings.map(bucket, flow));
+            for (FlowSnapshotEntity snapshot : metadataService.getSnapshots(flow.getId())) {
+                exportFlowVersion(zip, bucket, flow, snapshot);
+                flowVersions++;
+            }
+            log.debug("Exported flow {}", flow.getName());
+        }
+
+        int bundleVersions = 0;
+        for (BundleEntity bundle : metadataService.getBundlesByBucket(bucketId)) {
+            writeJson(zip, BucketArchive.bundleEntry(bundle.getId()), ExtensionMappings.map(bucket, bundle));
+            for (BundleVersionEntity bundleVersion : metadataService.getBundleVersions(bundle.getId())) {
+                exportBundleVersion(zip, bundle, bundleVersion);
+                bundleVersions++;
+            }
+            log.debug("Exported bundle {}:{}", bundle.getGroupId(), bundle.getArtifactId());
+        }
+
+        zip.finish();
+        zip.flush();
+
+        log.info("Exported bucket {} with {} flow versions and {} bundle versions", bucket.getName(), flowVersions, bundleVersions);
+    }
+
+    private void exportFlowVersion(ZipOutputStream zip, BucketEntity bucket, FlowEntity flow, FlowSnapshotEntity snapshot) throws IOException {
+        int version = snapshot.getVersion();
+        byte[] content = flowPersistenceProvider.getFlowContent(bucket.getId(), flow.getId(), version);
+        if (content == null) {
+            throw new IllegalStateException(String.format("No content found for flow %s version %d", flow.getName(), version));
+        }
+
+        ArchivedFlowVersion archivedVersion = new ArchivedFlowVersion(FlowMappings.map(bucket, snapshot), DigestUtils.sha256Hex(content));
+        writeJson(zip, BucketArchive.flowVersionEntry(flow.getId(), version), archivedVersion);
+
+        zip.putNextEntry(new ZipEntry(BucketArchive.flowContentEntry(flow.getId(), version)));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private void exportBundleVersion(ZipOutputStream zip, BundleEntity bundle, BundleVersionEntity bundleVersion) throws IOException {
+        ArchivedBundleVersion archivedVersion = new ArchivedBundleVersion();
+        archivedVersion.setVersionMetadata(ExtensionMappings.map(bundleVersion));
+
+        for (BundleVersionDependencyEntity dependency : metadataService.getDependenciesForBundleVersion(bundleVersion.getId())) {
+            archivedVersion.getDependencies().add(ExtensionMappings.map(dependency));
+        }
+
+        // the extensions returned for a bundle version only hold the metadata, so retrieve the full content of each one
+        for (ExtensionEntity extensionMetadata : metadataService.getExtensionsByBundleVersionId(bundleVersion.getId())) {
+            String name = extensionMetadata.getName();
+            ExtensionEntity extension = metadataService.getExtensionByName(bundleVersion.getId(), name);
+            archivedVersion.getExtensions().add(ExtensionMappings.map(extension, extensionSerializer));
+
+            ExtensionAdditionalDetailsEntity additionalDetails = metadataService.getExtensionAdditionalDetails(bundleVersion.getId(), name);
+            if (additionalDetails != null && additionalDetails.getAdditionalDetails().isPresent()) {
+                archivedVersion.getAdditionalDetails().put(name, additionalDetails.getAdditionalDetails().get());
+            }
+        }
+
+        writeJson(zip, BucketArchive.bundleVersionEntry(bundle.getId(), bundleVersion.getId()), archivedVersion);
+
+        BundleVersionCoordinate coordinate = new StandardBundleVersionCoordinate.Builder()
+                .bucketId(bundle.getBucketId())
+                .groupId(bundle.getGroupId())
+                .artifactId(bundle.getArtifactId())
+                .version(bundleVersion.getVersion())
+                .type(BucketArchive.getProviderBundleType(bundle.getBundleType()))
+                .sha256(bundleVersion.getSha256Hex())
+                .build();
+
+        zip.putNextEntry(new ZipEntry(BucketArchive.bundleContentEntry(bundle.getId(), bundleVersion.getId())));
+        bundlePersistenceProvider.getBundleVersionContent(coordinate, new NonClosingOutputStream(zip));
+        zip.closeEntry();
+    }
+
+    private void writeJson(ZipOutputStream zip, String entryName, Object value) throws IOException {
+        zip.putNextEntry(new ZipEntry(entryName));
+        // write through a byte array since the mapper closes the stream it writes to
+        zip.write(objectMapper.writeValueAsBytes(value));
+        zip.closeEntry();
+    }
+
+    /**
+     * Prevents a persistence provider or the zip stream from closing the stream it is given.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
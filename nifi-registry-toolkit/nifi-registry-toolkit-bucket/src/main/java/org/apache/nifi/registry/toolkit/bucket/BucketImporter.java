@@ -0,0 +1,560 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.bucket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.nifi.registry.bucket.Bucket;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionDependencyEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
+import org.apache.nifi.registry.extension.BundleCoordinate;
+import org.apache.nifi.registry.extension.BundlePersistenceContext;
+import org.apache.nifi.registry.extension.BundlePersistenceProvider;
+import org.apache.nifi.registry.extension.BundleVersionCoordinate;
+import org.apache.nifi.registry.extension.bundle.Bundle;
+import org.apache.nifi.registry.extension.bundle.BundleVersionDependency;
+import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.flow.FlowPersistenceProvider;
+import org.apache.nifi.registry.flow.FlowSnapshotContext;
+import org.apache.nifi.registry.flow.VersionedFlow;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+import org.apache.nifi.registry.provider.extension.FileSystemBundlePersistenceProvider;
+import org.apache.nifi.registry.provider.extension.StandardBundleCoordinate;
+import org.apache.nifi.registry.provider.extension.StandardBundlePersistenceContext;
+import org.apache.nifi.registry.provider.extension.StandardBundleVersionCoordinate;
+import org.apache.nifi.registry.provider.flow.DatabaseFlowPersistenceProvider;
+import org.apache.nifi.registry.provider.flow.StandardFlowSnapshotContext;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.apache.nifi.registry.serialization.jackson.ObjectMapperProvider;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.BucketMappings;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.apache.nifi.registry.service.mapper.FlowMappings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads a bucket archive written by {@link BucketExporter} and recreates the bucket, keeping the ids of all of its items.
+ *
+ * The archive is read in a single pass. Metadata is inserted in batches, while flow and bundle content is verified
+ * against its SHA-256 and handed to a bounded pool of threads that write it to the persistence providers, so only a
+ * small number of items are held in memory regardless of the size of the bucket. Providers that are not thread-safe,
+ * such as the git flow provider, are written by one thread at a time.
+ *
+ * The metadata is written in the transaction the import is run in. If the import or the commit of that transaction
+ * fails, the content that was written to the persistence providers is removed, since the providers can not take part
+ * in the transaction.
+ */
+public class BucketImporter {
+    private static final Logger log = LoggerFactory.getLogger(BucketImporter.class);
+
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final MetadataService metadataService;
+    private final FlowPersistenceProvider flowPersistenceProvider;
+    private final BundlePersistenceProvider bundlePersistenceProvider;
+    private final Serializer<Extension> extensionSerializer;
+    private final int concurrency;
+    private final int batchSize;
+    private final boolean flowProviderThreadSafe;
+    private final boolean bundleProviderThreadSafe;
+    private final Object flowWriteLock = new Object();
+    private final Object bundleWriteLock = new Object();
+    private final ObjectMapper objectMapper = ObjectMapperProvider.getMapper();
+
+    public BucketImporter(MetadataService metadataService, FlowPersistenceProvider flowPersistenceProvider,
+                          BundlePersistenceProvider bundlePersistenceProvider, Serializer<Extension> extensionSerializer) {
+        this(metadataService, flowPersistenceProvider, bundlePersistenceProvider, extensionSerializer, DEFAULT_CONCURRENCY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param concurrency the number of threads writing content to the persistence providers
+     * @param batchSize the number of flow versions or bundle versions inserted per batch
+     */
+    public BucketImporter(MetadataService metadataService, FlowPersistenceProvider flowPersistenceProvider,
+                          BundlePersistenceProvider bundlePersistenceProvider, Serializer<Extension> extensionSerializer,
+                          int concurrency, int batchSize) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be greater than zero");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than zero");
+        }
+
+        this.metadataService = metadataService;
+        this.flowPersistenceProvider = flowPersistenceProvider;
+        this.bundlePersistenceProvider = bundlePersistenceProvider;
+        this.extensionSerializer = extensionSerializer;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.flowProviderThreadSafe = flowPersistenceProvider instanceof DatabaseFlowPersistenceProvider;
+        this.bundleProviderThreadSafe = bundlePersistenceProvider instanceof FileSystemBundlePersistenceProvider;
+    }
+
+    /**
+     * Imports the bucket archive read from the given stream. The stream is not closed.
+     *
+     * @param in the stream to read the archive from
+     * @return the imported bucket
+     * @throws IOException if the archive could not be read
+     */
+    public Bucket importBucket(InputStream in) throws IOException {
+        return importBucket(in, TransactionOperations.withoutTransaction());
+    }
+
+    /**
+     * Imports the bucket archive read from the given stream, writing the metadata in a transaction. The stream is not closed.
+     *
+     * @param in the stream to read the archive from
+     * @param transactionOperations the transaction to write the metadata in
+     * @return the imported bucket
+     * @throws IOException if the archive could not be read
+     */
+    public Bucket importBucket(InputStream in, TransactionOperations transactionOperations) throws IOException {
+        BucketImport bucketImport = new BucketImport();
+        try {
+            return transactionOperations.execute(status -> {
+                try {
+                    return bucketImport.run(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            bucketImport.deleteContent();
+            throw e.getCause();
+        } catch (RuntimeException | Error e) {
+            // the import itself removes its content when it fails, this covers the commit failing afterwards
+            bucketImport.deleteContent();
+            throw e;
+        }
+    }
+
+    private void saveFlowContent(FlowSnapshotContext context, byte[] content) {
+        if (flowProviderThreadSafe) {
+            flowPersistenceProvider.saveFlowContent(context, content);
+        } else {
+            synchronized (flowWriteLock) {
+                flowPersistenceProvider.saveFlowContent(context, content);
+            }
+        }
+    }
+
+    private void createBundleVersion(BundlePersistenceContext context, InputStream content) {
+        if (bundleProviderThreadSafe) {
+            bundlePersistenceProvider.createBundleVersion(context, content);
+        } else {
+            synchronized (bundleWriteLock) {
+                bundlePersistenceProvider.createBundleVersion(context, content);
+            }
+        }
+    }
+
+    private interface ContentWrite {
+        void write() throws Exception;
+    }
+
+    /**
+     * The state of a single import.
+     */
+    private class BucketImport {
+        private final ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency), new ImportThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        private final AtomicReference<Throwable> writeFailure = new AtomicReference<>();
+
+        private final List<String> importedFlowIds = new ArrayList<>();
+        private final List<BundleEntity> importedBundles = new ArrayList<>();
+        private final List<File> spoolFiles = new ArrayList<>();
+
+        private final List<FlowSnapshotEntity> pendingSnapshots = new ArrayList<>();
+        private final List<BundleVersionEntity> pendingBundleVersions = new ArrayList<>();
+        private final List<BundleVersionDependencyEntity> pendingDependencies = new ArrayList<>();
+        private final List<ExtensionEntity> pendingExtensions = new ArrayList<>();
+
+        private boolean manifestRead;
+        private Bucket bucket;
+        private VersionedFlow flow;
+        private ArchivedFlowVersion flowVersion;
+        private Bundle bundle;
+        private ArchivedBundleVersion bundleVersion;
+
+        private int flowVersionCount;
+        private int bundleVersionCount;
+
+        Bucket run(InputStream in) throws IOException {
+            try {
+                ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in));
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    importEntry(entry.getName(), zip);
+                    checkWriteFailure();
+                }
+
+                if (bucket == null) {
+                    throw new IllegalArgumentException("The archive does not contain a bucket");
+                }
+
+                flushSnapshots();
+                flushBundleVersions();
+
+                executor.shutdown();
+                awaitTermination();
+                checkWriteFailure();
+            } catch (IOException | RuntimeException e) {
+                executor.shutdownNow();
+                awaitTermination();
+                deleteContent();
+                throw e;
+            }
+
+            log.info("Imported bucket {} with {} flow versions and {} bundle versions", bucket.getName(), flowVersionCount, bundleVersionCount);
+            return bucket;
+        }
+
+        private void importEntry(String name, ZipInputStream zip) throws IOException {
+            if (BucketArchive.MANIFEST_ENTRY.equals(name)) {
+                importManifest(readJson(zip, Map.class));
+                return;
+            }
+            require(manifestRead, "The archive does not start with a manifest");
+
+            if (BucketArchive.BUCKET_ENTRY.equals(name)) {
+                require(bucket == null, "The archive contains more than one bucket");
+                importBucket(readJson(zip, Bucket.class));
+                return;
+            }
+            require(bucket != null, "The archive does not contain a bucket before " + name);
+
+            Matcher matcher;
+            if ((matcher = BucketArchive.FLOW_ENTRY.matcher(name)).matches()) {
+                importFlow(readJson(zip, VersionedFlow.class));
+            } else if ((matcher = BucketArchive.FLOW_VERSION_ENTRY.matcher(name)).matches()) {
+                require(flow != null && flow.getIdentifier().equals(matcher.group(1)), "Unexpected flow version " + name);
+                flowVersion = readJson(zip, ArchivedFlowVersion.class);
+            } else if ((matcher = BucketArchive.FLOW_CONTENT_ENTRY.matcher(name)).matches()) {
+                require(flowVersion != null && flowVersion.getSnapshotMetadata().getFlowIdentifier().equals(matcher.group(1))
+                        && flowVersion.getSnapshotMetadata().getVersion() == Integer.parseInt(matcher.group(2)), "Unexpected flow content " + name);
+                importFlowContent(zip);
+            } else if ((matcher = BucketArchive.BUNDLE_ENTRY.matcher(name)).matches()) {
+                importBundle(readJson(zip, Bundle.class));
+            } else if ((matcher = BucketArchive.BUNDLE_VERSION_ENTRY.matcher(name)).matches()) {
+                require(bundle != null && bundle.getIdentifier().equals(matcher.group(1)), "Unexpected bundle version " + name);
+                bundleVersion = readJson(zip, ArchivedBundleVersion.class);
+            } else if ((matcher = BucketArchive.BUNDLE_CONTENT_ENTRY.matcher(name)).matches()) {
+                require(bundleVersion != null && bundleVersion.getVersionMetadata().getBundleId().equals(matcher.group(1))
+                        && bundleVersion.getVersionMetadata().getId().equals(matcher.group(2)), "Unexpected bundle content " + name);
+                importBundleContent(zip);
+            } else {
+                throw new IllegalArgumentException("Unexpected entry in bucket archive: " + name);
+            }
+        }
+
+        private void importManifest(Map<?, ?> manifest) {
+            Object formatVersion = manifest.get(BucketArchive.FORMAT_VERSION_KEY);
+            if (!Integer.valueOf(BucketArchive.FORMAT_VERSION).equals(formatVersion)) {
+                throw new IllegalArgumentException("Unsupported bucket archive format version: " + formatVersion);
+            }
+            manifestRead = true;
+        }
+
+        private void importBucket(Bucket archivedBucket) {
+            if (metadataService.getBucketById(archivedBucket.getIdentifier()) != null) {
+                throw new IllegalStateException("A bucket with the id " + archivedBucket.getIdentifier() + " already exists");
+            }
+            if (!metadataService.getBucketsByName(archivedBucket.getName()).isEmpty()) {
+                throw new IllegalStateException("A bucket with the name " + archivedBucket.getName() + " already exists");
+            }
+
+            metadataService.createBucket(BucketMappings.map(archivedBucket));
+            bucket = archivedBucket;
+        }
+
+        private void importFlow(VersionedFlow archivedFlow) {
+            require(bucket.getIdentifier().equals(archivedFlow.getBucketIdentifier()), "Flow " + archivedFlow.getName() + " belongs to a different bucket");
+
+            metadataService.createFlow(FlowMappings.map(archivedFlow));
+            importedFlowIds.add(archivedFlow.getIdentifier());
+            flow = archivedFlow;
+        }
+
+        private void importFlowContent(ZipInputStream zip) throws IOException {
+            VersionedFlowSnapshotMetadata snapshotMetadata = flowVersion.getSnapshotMetadata();
+            byte[] content = readEntry(zip);
+
+            String sha256 = DigestUtils.sha256Hex(content);
+            if (!sha256.equalsIgnoreCase(flowVersion.getSha256())) {
+                throw new IllegalStateException(String.format("Flow %s version %d does not match its checksum, expected SHA-256 %s but found %s",
+                        flow.getName(), snapshotMetadata.getVersion(), flowVersion.getSha256(), sha256));
+            }
+
+            pendingSnapshots.add(FlowMappings.map(snapshotMetadata));
+            if (pendingSnapshots.size() >= batchSize) {
+                flushSnapshots();
+            }
+
+            FlowSnapshotContext context = new StandardFlowSnapshotContext.Builder(bucket, flow, snapshotMetadata).build();
+            submit(() -> saveFlowContent(context, content));
+
+            flowVersion = null;
+            flowVersionCount++;
+        }
+
+        private void importBundle(Bundle archivedBundle) {
+            require(bucket.getIdentifier().equals(archivedBundle.getBucketIdentifier()), "Bundle " + archivedBundle.getName() + " belongs to a different bucket");
+
+            BundleEntity bundleEntity = ExtensionMappings.map(archivedBundle);
+            metadataService.createBundle(bundleEntity);
+            importedBundles.add(bundleEntity);
+            bundle = archivedBundle;
+        }
+
+        private void importBundleContent(ZipInputStream zip) throws IOException {
+            BundleVersionMetadata versionMetadata = bundleVersion.getVersionMetadata();
+
+            // bundles may be large so the content is spooled to disk while its checksum is verified
+            File spoolFile = File.createTempFile("bucket-import-", ".content");
+            spoolFiles.add(spoolFile);
+
+            MessageDigest digest = DigestUtils.getSha256Digest();
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(spoolFile))) {
+                byte[] buffer = new byte[8192];
+                int len;
+                while ((len = zip.read(buffer)) != -1) {
+                    digest.update(buffer, 0, len);
+                    out.write(buffer, 0, len);
+                }
+            }
+
+            String sha256 = Hex.encodeHexString(digest.digest());
+            if (!sha256.equalsIgnoreCase(versionMetadata.getSha256())) {
+                throw new IllegalStateException(String.format("Bundle %s version %s does not match its checksum, expected SHA-256 %s but found %s",
+                        bundle.getName(), versionMetadata.getVersion(), versionMetadata.getSha256(), sha256));
+            }
+
+            addBundleVersion(bundleVersion);
+            if (pendingBundleVersions.size() >= batchSize) {
+                flushBundleVersions();
+            }
+
+            BundleVersionCoordinate coordinate = new StandardBundleVersionCoordinate.Builder()
+                    .bucketId(bundle.getBucketIdentifier())
+                    .groupId(bundle.getGroupId())
+                    .artifactId(bundle.getArtifactId())
+                    .version(versionMetadata.getVersion())
+                    .type(BucketArchive.getProviderBundleType(bundle.getBundleType()))
+                    .sha256(versionMetadata.getSha256())
+                    .build();
+
+            BundlePersistenceContext context = new StandardBundlePersistenceContext.Builder()
+                    .coordinate(coordinate)
+                    .bundleSize(versionMetadata.getContentSize())
+                    .author(versionMetadata.getAuthor())
+                    .timestamp(versionMetadata.getTimestamp())
+                    .build();
+
+            submit(() -> {
+                try (InputStream spoolIn = new BufferedInputStream(new FileInputStream(spoolFile))) {
+                    createBundleVersion(context, spoolIn);
+                } finally {
+                    spoolFile.delete();
+                }
+            });
+
+            bundleVersion = null;
+            bundleVersionCount++;
+        }
+
+        private void addBundleVersion(ArchivedBundleVersion archivedVersion) {
+            BundleVersionEntity versionEntity = ExtensionMappings.map(archivedVersion.getVersionMetadata());
+            pendingBundleVersions.add(versionEntity);
+
+            for (BundleVersionDependency dependency : archivedVersion.getDependencies()) {
+                BundleVersionDependencyEntity dependencyEntity = ExtensionMappings.map(dependency);
+                dependencyEntity.setId(UUID.randomUUID().toString());
+                dependencyEntity.setExtensionBundleVersionId(versionEntity.getId());
+                pendingDependencies.add(dependencyEntity);
+            }
+
+            for (Extension extension : archivedVersion.getExtensions()) {
+                ExtensionEntity extensionEntity = ExtensionMappings.map(extension, extensionSerializer);
+                extensionEntity.setId(UUID.randomUUID().toString());
+                extensionEntity.setBundleVersionId(versionEntity.getId());
+
+                if (extensionEntity.getRestrictions() != null) {
+                    extensionEntity.getRestrictions().forEach(r -> {
+                        r.setId(UUID.randomUUID().toString());
+                        r.setExtensionId(extensionEntity.getId());
+                    });
+                }
+
+                extensionEntity.getProvidedServiceApis().forEach(p -> {
+                    p.setId(UUID.randomUUID().toString());
+                    p.setExtensionId(extensionEntity.getId());
+                });
+
+                extensionEntity.setAdditionalDetails(archivedVersion.getAdditionalDetails().get(extensionEntity.getName()));
+                pendingExtensions.add(extensionEntity);
+            }
+        }
+
+        private void flushSnapshots() {
+            if (!pendingSnapshots.isEmpty()) {
+                metadataService.createFlowSnapshots(pendingSnapshots);
+                pendingSnapshots.clear();
+            }
+        }
+
+        private void flushBundleVersions() {
+            if (pendingBundleVersions.isEmpty()) {
+                return;
+            }
+
+            // the dependencies and extensions reference the bundle versions so those have to be inserted first
+            metadataService.createBundleVersions(pendingBundleVersions);
+            metadataService.createDependencies(pendingDependencies);
+            metadataService.createExtensions(pendingExtensions);
+
+            pendingBundleVersions.clear();
+            pendingDependencies.clear();
+            pendingExtensions.clear();
+        }
+
+        private void submit(ContentWrite contentWrite) {
+            // the bounded queue makes the reading thread write the content itself when all writers are busy
+            executor.execute(() -> {
+                if (writeFailure.get() != null) {
+                    return;
+                }
+                try {
+                    contentWrite.write();
+                } catch (Throwable t) {
+                    writeFailure.compareAndSet(null, t);
+                }
+            });
+        }
+
+        private void checkWriteFailure() {
+            Throwable failure = writeFailure.get();
+            if (failure != null) {
+                throw new IllegalStateException("Unable to write content to the persistence provider", failure);
+            }
+        }
+
+        private void awaitTermination() {
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while writing content", e);
+            }
+        }
+
+        private void deleteContent() {
+            for (String flowId : importedFlowIds) {
+                try {
+                    flowPersistenceProvider.deleteAllFlowContent(bucket.getIdentifier(), flowId);
+                } catch (Exception e) {
+                    log.warn("Unable to delete the content of flow {} after the import failed", flowId, e);
+                }
+            }
+
+            for (BundleEntity bundleEntity : importedBundles) {
+                BundleCoordinate coordinate = new StandardBundleCoordinate.Builder()
+                        .bucketId(bundleEntity.getBucketId())
+                        .groupId(bundleEntity.getGroupId())
+                        .artifactId(bundleEntity.getArtifactId())
+                        .build();
+                try {
+                    bundlePersistenceProvider.deleteAllBundleVersions(coordinate);
+                } catch (Exception e) {
+                    log.warn("Unable to delete the content of bundle {} after the import failed", coordinate, e);
+                }
+            }
+
+            spoolFiles.forEach(File::delete);
+
+            // the content is only removed once, whether the import or the transaction it ran in failed
+            importedFlowIds.clear();
+            importedBundles.clear();
+            spoolFiles.clear();
+        }
+
+        private <T> T readJson(ZipInputStream zip, Class<T> type) throws IOException {
+            // read through a byte array since the mapper closes the stream it reads from
+            return objectMapper.readValue(readEntry(zip), type);
+        }
+
+        private byte[] readEntry(ZipInputStream zip) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = zip.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        }
+
+        private void require(boolean condition, String message) {
+            if (!condition) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+
+    private static class ImportThreadFactory implements ThreadFactory {
+        private static final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Bucket Importer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
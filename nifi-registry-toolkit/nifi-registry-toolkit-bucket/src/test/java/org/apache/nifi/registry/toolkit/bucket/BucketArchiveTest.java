@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.bucket;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.nifi.registry.bucket.Bucket;
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionDependencyEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.db.entity.ExtensionAdditionalDetailsEntity;
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.db.entity.FlowEntity;
+import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
+import org.apache.nifi.registry.extension.BundleCoordinate;
+import org.apache.nifi.registry.extension.BundlePersistenceException;
+import org.apache.nifi.registry.extension.BundlePersistenceContext;
+import org.apache.nifi.registry.extension.BundlePersistenceProvider;
+import org.apache.nifi.registry.extension.BundleVersionCoordinate;
+import org.apache.nifi.registry.extension.bundle.BundleType;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
+import org.apache.nifi.registry.flow.FlowPersistenceProvider;
+import org.apache.nifi.registry.flow.FlowSnapshotContext;
+import org.apache.nifi.registry.serialization.ExtensionSerializer;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BucketArchiveTest {
+    private static final String BUCKET_ID = "bucket1";
+    private static final String FLOW_ID = "flow1";
+    private static final String BUNDLE_ID = "bundle1";
+    private static final String BUNDLE_VERSION_ID = "bundle1-v1";
+    private static final String EXTENSION_NAME = "org.apache.nifi.ExampleProcessor";
+
+    private final Serializer<Extension> extensionSerializer = new ExtensionSerializer();
+    private final byte[] bundleContent = "bundle-content".getBytes(StandardCharsets.UTF_8);
+
+    private MetadataService exportMetadataService;
+    private FlowPersistenceProvider exportFlowProvider;
+    private BundlePersistenceProvider exportBundleProvider;
+
+    private MetadataService importMetadataService;
+    private FlowPersistenceProvider importFlowProvider;
+    private BundlePersistenceProvider importBundleProvider;
+
+    private List<FlowSnapshotEntity> importedSnapshots;
+    private List<BundleVersionEntity> importedBundleVersions;
+    private List<BundleVersionDependencyEntity> importedDependencies;
+    private List<ExtensionEntity> importedExtensions;
+    private Map<Integer, byte[]> importedFlowContent;
+    private Map<String, byte[]> importedBundleContent;
+
+    @Before
+    public void setup() throws IOException {
+        exportMetadataService = mock(MetadataService.class);
+        exportFlowProvider = mock(FlowPersistenceProvider.class);
+        exportBundleProvider = mock(BundlePersistenceProvider.class);
+
+        BucketEntity bucket = new BucketEntity();
+        bucket.setId(BUCKET_ID);
+        bucket.setName("Bucket 1");
+        bucket.setCreated(new Date());
+        when(exportMetadataService.getBucketById(BUCKET_ID)).thenReturn(bucket);
+
+        FlowEntity flow = new FlowEntity();
+        flow.setId(FLOW_ID);
+        flow.setName("Flow 1");
+        flow.setBucketId(BUCKET_ID);
+        flow.setCreated(new Date());
+        flow.setModified(new Date());
+        when(exportMetadataService.getFlowsByBucket(BUCKET_ID)).thenReturn(Collections.singletonList(flow));
+
+        List<FlowSnapshotEntity> snapshots = new ArrayList<>();
+        for (int version = 1; version <= 3; version++) {
+            FlowSnapshotEntity snapshot = new FlowSnapshotEntity();
+            snapshot.setFlowId(FLOW_ID);
+            snapshot.setVersion(version);
+            snapshot.setCreated(new Date());
+            snapshot.setCreatedBy("user1");
+            snapshot.setComments("Comments " + version);
+            snapshots.add(snapshot);
+
+            when(exportFlowProvider.getFlowContent(BUCKET_ID, FLOW_ID, version)).thenReturn(getFlowContent(version));
+        }
+        when(exportMetadataService.getSnapshots(FLOW_ID)).thenReturn(snapshots);
+
+        BundleEntity bundle = new BundleEntity();
+        bundle.setId(BUNDLE_ID);
+        bundle.setName("example-nar");
+        bundle.setBucketId(BUCKET_ID);
+        bundle.setGroupId("org.apache.nifi");
+        bundle.setArtifactId("example-nar");
+        bundle.setBundleType(BundleType.NIFI_NAR);
+        bundle.setCreated(new Date());
+        bundle.setModified(new Date());
+        when(exportMetadataService.getBundlesByBucket(BUCKET_ID)).thenReturn(Collections.singletonList(bundle));
+
+        BundleVersionEntity bundleVersion = new BundleVersionEntity();
+        bundleVersion.setId(BUNDLE_VERSION_ID);
+        bundleVersion.setBundleId(BUNDLE_ID);
+        bundleVersion.setBucketId(BUCKET_ID);
+        bundleVersion.setGroupId("org.apache.nifi");
+        bundleVersion.setArtifactId("example-nar");
+        bundleVersion.setVersion("1.0.0");
+        bundleVersion.setCreated(new Date());
+        bundleVersion.setCreatedBy("user1");
+        bundleVersion.setSha256Hex(DigestUtils.sha256Hex(bundleContent));
+        bundleVersion.setContentSize(bundleContent.length);
+        bundleVersion.setBuilt(new Date());
+        when(exportMetadataService.getBundleVersions(BUNDLE_ID)).thenReturn(Collections.singletonList(bundleVersion));
+
+        BundleVersionDependencyEntity dependency = new BundleVersionDependencyEntity();
+        dependency.setId("dependency1");
+        dependency.setExtensionBundleVersionId(BUNDLE_VERSION_ID);
+        dependency.setGroupId("org.apache.nifi");
+        dependency.setArtifactId("nifi-standard-services-api-nar");
+        dependency.setVersion("1.0.0");
+        when(exportMetadataService.getDependenciesForBundleVersion(BUNDLE_VERSION_ID)).thenReturn(Collections.singletonList(dependency));
+
+        Extension extension = new Extension();
+        extension.setName(EXTENSION_NAME);
+        extension.setType(ExtensionType.PROCESSOR);
+        ExtensionEntity extensionEntity = ExtensionMappings.map(extension, extensionSerializer);
+        extensionEntity.setId("extension1");
+        extensionEntity.setBundleVersionId(BUNDLE_VERSION_ID);
+        when(exportMetadataService.getExtensionsByBundleVersionId(BUNDLE_VERSION_ID)).thenReturn(Collections.singletonList(extensionEntity));
+        when(exportMetadataService.getExtensionByName(BUNDLE_VERSION_ID, EXTENSION_NAME)).thenReturn(extensionEntity);
+
+        ExtensionAdditionalDetailsEntity additionalDetails = new ExtensionAdditionalDetailsEntity();
+        additionalDetails.setExtensionId("extension1");
+        additionalDetails.setAdditionalDetails(Optional.of("<html></html>"));
+        when(exportMetadataService.getExtensionAdditionalDetails(BUNDLE_VERSION_ID, EXTENSION_NAME)).thenReturn(additionalDetails);
+
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(bundleContent);
+            return null;
+        }).when(exportBundleProvider).getBundleVersionContent(any(BundleVersionCoordinate.class), any(OutputStream.class));
+
+        importMetadataService = mock(MetadataService.class);
+        importFlowProvider = mock(FlowPersistenceProvider.class);
+        importBundleProvider = mock(BundlePersistenceProvider.class);
+
+        importedSnapshots = new ArrayList<>();
+        importedBundleVersions = new ArrayList<>();
+        importedDependencies = new ArrayList<>();
+        importedExtensions = new ArrayList<>();
+        importedFlowContent = Collections.synchronizedMap(new HashMap<>());
+        importedBundleContent = Collections.synchronizedMap(new HashMap<>());
+
+        when(importMetadataService.getBucketsByName(anyString())).thenReturn(Collections.emptyList());
+        doAnswer(invocation -> importedSnapshots.addAll(invocation.<Collection<FlowSnapshotEntity>>getArgument(0)))
+                .when(importMetadataService).createFlowSnapshots(any());
+        doAnswer(invocation -> importedBundleVersions.addAll(invocation.<Collection<BundleVersionEntity>>getArgument(0)))
+                .when(importMetadataService).createBundleVersions(any());
+        doAnswer(invocation -> importedDependencies.addAll(invocation.<Collection<BundleVersionDependencyEntity>>getArgument(0)))
+                .when(importMetadataService).createDependencies(any());
+        doAnswer(invocation -> importedExtensions.addAll(invocation.<Collection<ExtensionEntity>>getArgument(0)))
+                .when(importMetadataService).createExtensions(any());
+        doAnswer(invocation -> importedFlowContent.put(invocation.<FlowSnapshotContext>getArgument(0).getVersion(), invocation.getArgument(1)))
+                .when(importFlowProvider).saveFlowContent(any(FlowSnapshotContext.class), any(byte[].class));
+        doAnswer(invocation -> importedBundleContent.put(invocation.<BundlePersistenceContext>getArgument(0).getCoordinate().getVersion(),
+                IOUtils.toByteArray(invocation.<InputStream>getArgument(1))))
+                .when(importBundleProvider).createBundleVersion(any(BundlePersistenceContext.class), any(InputStream.class));
+    }
+
+    private byte[] getFlowContent(int version) {
+        return ("flow-content-" + version).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testExportAndImport() throws IOException {
+        Bucket bucket = importBucket(exportBucket(), 1);
+
+        assertEquals(BUCKET_ID, bucket.getIdentifier());
+        verify(importMetadataService).createBucket(any(BucketEntity.class));
+        verify(importMetadataService).createFlow(any(FlowEntity.class));
+        verify(importMetadataService).createBundle(any(BundleEntity.class));
+
+        assertEquals(3, importedSnapshots.size());
+        for (int version = 1; version <= 3; version++) {
+            FlowSnapshotEntity snapshot = importedSnapshots.get(version - 1);
+            assertEquals(FLOW_ID, snapshot.getFlowId());
+            assertEquals(version, snapshot.getVersion().intValue());
+            assertEquals("Comments " + version, snapshot.getComments());
+            assertArrayEquals(getFlowContent(version), importedFlowContent.get(version));
+        }
+
+        assertEquals(1, importedBundleVersions.size());
+        assertEquals(BUNDLE_VERSION_ID, importedBundleVersions.get(0).getId());
+        assertEquals(DigestUtils.sha256Hex(bundleContent), importedBundleVersions.get(0).getSha256Hex());
+        assertArrayEquals(bundleContent, importedBundleContent.get("1.0.0"));
+
+        assertEquals(1, importedDependencies.size());
+        assertEquals(BUNDLE_VERSION_ID, importedDependencies.get(0).getExtensionBundleVersionId());
+        assertEquals("nifi-standard-services-api-nar", importedDependencies.get(0).getArtifactId());
+        assertNotNull(importedDependencies.get(0).getId());
+
+        assertEquals(1, importedExtensions.size());
+        ExtensionEntity extension = importedExtensions.get(0);
+        assertEquals(EXTENSION_NAME, extension.getName());
+        assertEquals(BUNDLE_VERSION_ID, extension.getBundleVersionId());
+        assertEquals("<html></html>", extension.getAdditionalDetails());
+        assertEquals(ExtensionType.PROCESSOR, ExtensionMappings.map(extension, extensionSerializer).getType());
+    }
+
+    @Test
+    public void testImportInBatches() throws IOException {
+        importBucket(exportBucket(), 2);
+
+        verify(importMetadataService, times(2)).createFlowSnapshots(any());
+        assertEquals(3, importedSnapshots.size());
+    }
+
+    @Test
+    public void testImportExistingBucket() throws IOException {
+        when(importMetadataService.getBucketById(BUCKET_ID)).thenReturn(new BucketEntity());
+
+        try {
+            importBucket(exportBucket(), 1);
+            fail("Expected the import of an existing bucket to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains(BUCKET_ID));
+        }
+
+        verify(importMetadataService, never()).createBucket(any(BucketEntity.class));
+    }
+
+    @Test
+    public void testImportDetectsMismatchedContent() throws IOException {
+        byte[] archive = replaceEntry(exportBucket(), BucketArchive.flowContentEntry(FLOW_ID, 2), "modified".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            importBucket(archive, 1);
+            fail("Expected the import of modified content to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("checksum"));
+        }
+
+        assertNull(importedFlowContent.get(2));
+        verify(importFlowProvider).deleteAllFlowContent(BUCKET_ID, FLOW_ID);
+        verify(importBundleProvider, never()).deleteAllBundleVersions(any(BundleCoordinate.class));
+    }
+
+    @Test
+    public void testImportRemovesContentWhenWriteFails() throws IOException {
+        doAnswer(invocation -> {
+            throw new BundlePersistenceException("Disk full");
+        }).when(importBundleProvider).createBundleVersion(any(BundlePersistenceContext.class), any(InputStream.class));
+
+        try {
+            importBucket(exportBucket(), 1);
+            fail("Expected the import to fail when the content could not be written");
+        } catch (IllegalStateException e) {
+            assertEquals("Disk full", e.getCause().getMessage());
+        }
+
+        verify(importFlowProvider).deleteAllFlowContent(BUCKET_ID, FLOW_ID);
+        verify(importBundleProvider).deleteAllBundleVersions(any(BundleCoordinate.class));
+    }
+
+    @Test
+    public void testImportRemovesContentWhenCommitFails() throws IOException {
+        TransactionOperations failingCommit = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                action.doInTransaction(null);
+                throw new TransactionSystemException("Commit failed");
+            }
+        };
+
+        BucketImporter importer = new BucketImporter(importMetadataService, importFlowProvider, importBundleProvider, extensionSerializer, 2, 1);
+        try {
+            importer.importBucket(new ByteArrayInputStream(exportBucket()), failingCommit);
+            fail("Expected the import to fail when the transaction could not be committed");
+        } catch (TransactionSystemException e) {
+            assertEquals("Commit failed", e.getMessage());
+        }
+
+        assertEquals(3, importedFlowContent.size());
+        verify(importFlowProvider).deleteAllFlowContent(BUCKET_ID, FLOW_ID);
+        verify(importBundleProvider).deleteAllBundleVersions(any(BundleCoordinate.class));
+    }
+
+    @Test
+    public void testImportSerializesWritesToProviderThatIsNotThreadSafe() throws IOException {
+        AtomicInteger activeWrites = new AtomicInteger();
+        AtomicInteger maxActiveWrites = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxActiveWrites.accumulateAndGet(activeWrites.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                return importedFlowContent.put(invocation.<FlowSnapshotContext>getArgument(0).getVersion(), invocation.getArgument(1));
+            } finally {
+                activeWrites.decrementAndGet();
+            }
+        }).when(importFlowProvider).saveFlowContent(any(FlowSnapshotContext.class), any(byte[].class));
+
+        BucketImporter importer = new BucketImporter(importMetadataService, importFlowProvider, importBundleProvider, extensionSerializer, 4, 1);
+        importer.importBucket(new ByteArrayInputStream(exportBucket()));
+
+        assertEquals(3, importedFlowContent.size());
+        assertEquals(1, maxActiveWrites.get());
+    }
+
+    private byte[] exportBucket() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BucketExporter(exportMetadataService, exportFlowProvider, exportBundleProvider, extensionSerializer).exportBucket(BUCKET_ID, out);
+        return out.toByteArray();
+    }
+
+    private Bucket importBucket(byte[] archive, int batchSize) throws IOException {
+        BucketImporter importer = new BucketImporter(importMetadataService, importFlowProvider, importBundleProvider, extensionSerializer, 2, batchSize);
+        return importer.importBucket(new ByteArrayInputStream(archive));
+    }
+
+    private byte[] replaceEntry(byte[] archive, String entryName, byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(archive));
+             ZipOutputStream zipOut = new ZipOutputStream(out)) {
+            ZipEntry entry;
+            while ((entry = zipIn.getNextEntry()) != null) {
+                zipOut.putNextEntry(new ZipEntry(entry.getName()));
+                zipOut.write(entry.getName().equals(entryName) ? content : IOUtils.toByteArray(zipIn));
+                zipOut.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.nifi.registry.NiFiRegistry;
 import org.apache.nifi.registry.db.DataSourceFactory;
 import org.apache.nifi.registry.db.DatabaseMetadataService;
@@ -29,9 +30,12 @@ import org.apache.nifi.registry.db.entity.BucketEntity;
 import org.apache.nifi.registry.db.entity.FlowEntity;
 import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
 import org.apache.nifi.registry.extension.ExtensionManager;
+import org.apache.nifi.registry.flow.FlowPersistenceException;
 import org.apache.nifi.registry.flow.FlowPersistenceProvider;
+import org.apache.nifi.registry.flow.FlowSnapshotContext;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.provider.StandardProviderFactory;
+import org.apache.nifi.registry.provider.flow.DatabaseFlowPersistenceProvider;
 import org.apache.nifi.registry.provider.flow.StandardFlowSnapshotContext;
 import org.apache.nifi.registry.service.MetadataService;
 import org.apache.nifi.registry.service.mapper.BucketMappings;
@@ -41,39 +45,328 @@ import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class FlowPersistenceProviderMigrator {
     private static final Logger log = LoggerFactory.getLogger(FlowPersistenceProviderMigrator.class);
     public static final int PARSE_EXCEPTION = 1;
 
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    static final long PROGRESS_INTERVAL_SECONDS = 10;
+
+    private final int concurrency;
+    private final int batchSize;
+    private final File checkpointFile;
+    private final boolean verify;
+
+    public FlowPersistenceProviderMigrator() {
+        this(1, DEFAULT_BATCH_SIZE, null, false);
+    }
+
+    /**
+     * @param concurrency the number of flows migrated at the same time, which can only be greater than one when the
+     *                    target provider is thread-safe
+     * @param batchSize the number of versions written per batch when migrating to the database provider
+     * @param checkpointFile the file recording the migrated flows so an interrupted migration can be resumed, or null
+     * @param verify whether to compare the content hash of every version in both providers after copying
+     */
+    public FlowPersistenceProviderMigrator(int concurrency, int batchSize, File checkpointFile, boolean verify) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be greater than zero");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than zero");
+        }
+
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.checkpointFile = checkpointFile;
+        this.verify = verify;
+    }
+
+    /**
+     * Providers such as the git provider keep state shared by all flows, so they are only written from one thread.
+     *
+     * @param provider a flow persistence provider
+     * @return true if the provider can save the content of several flows at the same time
+     */
+    static boolean isThreadSafe(FlowPersistenceProvider provider) {
+        return provider instanceof DatabaseFlowPersistenceProvider;
+    }
+
     public void doMigrate(MetadataService fromMetadata, FlowPersistenceProvider fromProvider, FlowPersistenceProvider toProvider) {
+        if (concurrency > 1 && !isThreadSafe(toProvider)) {
+            throw new IllegalArgumentException("Concurrency must be 1 when migrating to " + toProvider.getClass().getSimpleName()
+                    + ", only the database provider can be migrated to concurrently");
+        }
+
+        List<MigrationFlow> flows = new ArrayList<>();
         for (BucketEntity bucket : fromMetadata.getAllBuckets()) {
             for (FlowEntity flow : fromMetadata.getFlowsByBucket(bucket.getId())) {
-                for (FlowSnapshotEntity flowSnapshot : fromMetadata.getSnapshots(flow.getId())) {
-                    StandardFlowSnapshotContext context = new StandardFlowSnapshotContext.Builder(
-                            BucketMappings.map(bucket),
-                            FlowMappings.map(bucket, flow),
-                            FlowMappings.map(bucket, flowSnapshot)).build();
+                flows.add(new MigrationFlow(bucket, flow));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, new MigrationThreadFactory());
+        ScheduledExecutorService progressReporter = Executors.newSingleThreadScheduledExecutor(new MigrationThreadFactory());
+        try (MigrationCheckpoint checkpoint = MigrationCheckpoint.open(checkpointFile)) {
+            if (checkpoint.isResuming()) {
+                log.info("Resuming migration, {} of {} flows were already migrated", checkpoint.getCompletedCount(), flows.size());
+            }
+
+            MigrationProgress copyProgress = new MigrationProgress("Migrated");
+            ScheduledFuture<?> copyReport = progressReporter.scheduleAtFixedRate(copyProgress::report,
+                    PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            int failedFlows = runAll(executor, flows, "migrate", flow -> {
+                if (!checkpoint.isComplete(flow.getId())) {
+                    copyFlow(flow, fromMetadata, fromProvider, toProvider, checkpoint, copyProgress);
+                }
+            });
+            copyReport.cancel(false);
+            copyProgress.report();
+
+            int mismatchedVersions = 0;
+            if (verify) {
+                MigrationProgress verifyProgress = new MigrationProgress("Verified");
+                progressReporter.scheduleAtFixedRate(verifyProgress::report, PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+                AtomicInteger mismatches = new AtomicInteger();
+                failedFlows += runAll(executor, flows, "verify", flow -> mismatches.addAndGet(verifyFlow(flow, fromMetadata, fromProvider, toProvider, verifyProgress)));
+                verifyProgress.report();
+                mismatchedVersions = mismatches.get();
+            }
 
-                    int version = flowSnapshot.getVersion();
+            if (failedFlows > 0 || mismatchedVersions > 0) {
+                String retry = checkpointFile == null
+                        ? "Run the migration again to retry the failed flows, versions already in the target are skipped."
+                        : "Run the migration again with the same checkpoint file to retry the failed flows.";
+                if (mismatchedVersions > 0) {
+                    retry += " Versions that did not match must be deleted from the target before they can be migrated again.";
+                }
+                throw new IllegalStateException(String.format("Migration did not complete, %d flows failed and %d versions did not match. %s",
+                        failedFlows, mismatchedVersions, retry));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to access checkpoint file " + checkpointFile, e);
+        } finally {
+            progressReporter.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    private int runAll(ExecutorService executor, List<MigrationFlow> flows, String stepName, MigrationStep step) {
+        List<Future<?>> futures = new ArrayList<>(flows.size());
+        for (MigrationFlow flow : flows) {
+            futures.add(executor.submit(() -> {
+                step.run(flow);
+                return null;
+            }));
+        }
 
-                    toProvider.saveFlowContent(context, fromProvider.getFlowContent(bucket.getId(), flow.getId(), version));
+        int failures = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (ExecutionException e) {
+                failures++;
+                log.error("Unable to {} flow {}", stepName, flows.get(i).getName(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while migrating flows", e);
+            }
+        }
+        return failures;
+    }
 
-                    log.info("Migrated flow {} version {}", flow.getName(), version);
+    private void copyFlow(MigrationFlow flow, MetadataService fromMetadata, FlowPersistenceProvider fromProvider, FlowPersistenceProvider toProvider,
+                          MigrationCheckpoint checkpoint, MigrationProgress progress) throws IOException {
+        Map<FlowSnapshotContext, byte[]> batch = new LinkedHashMap<>();
+
+        for (FlowSnapshotEntity flowSnapshot : fromMetadata.getSnapshots(flow.getId())) {
+            int version = flowSnapshot.getVersion();
+
+            // an earlier run, with or without a checkpoint, may have copied some of the versions of this flow already
+            if (getTargetContent(toProvider, flow, version) != null) {
+                continue;
+            }
+
+            StandardFlowSnapshotContext context = new StandardFlowSnapshotContext.Builder(
+                    BucketMappings.map(flow.bucket),
+                    FlowMappings.map(flow.bucket, flow.flow),
+                    FlowMappings.map(flow.bucket, flowSnapshot)).build();
+
+            byte[] content = fromProvider.getFlowContent(flow.getBucketId(), flow.getId(), version);
+
+            if (toProvider instanceof DatabaseFlowPersistenceProvider) {
+                batch.put(context, content);
+                if (batch.size() >= batchSize) {
+                    saveBatch((DatabaseFlowPersistenceProvider) toProvider, batch, progress);
                 }
+            } else {
+                toProvider.saveFlowContent(context, content);
+                progress.versionMigrated(content);
             }
+
+            log.debug("Migrated flow {} version {}", flow.getName(), version);
+        }
+
+        if (!batch.isEmpty()) {
+            saveBatch((DatabaseFlowPersistenceProvider) toProvider, batch, progress);
+        }
+
+        checkpoint.complete(flow.getId());
+        progress.flowMigrated();
+    }
+
+    private void saveBatch(DatabaseFlowPersistenceProvider toProvider, Map<FlowSnapshotContext, byte[]> batch, MigrationProgress progress) {
+        toProvider.saveFlowContent(batch);
+        for (byte[] content : batch.values()) {
+            progress.versionMigrated(content);
+        }
+        batch.clear();
+    }
+
+    private int verifyFlow(MigrationFlow flow, MetadataService fromMetadata, FlowPersistenceProvider fromProvider, FlowPersistenceProvider toProvider,
+                           MigrationProgress progress) {
+        int mismatches = 0;
+        for (FlowSnapshotEntity flowSnapshot : fromMetadata.getSnapshots(flow.getId())) {
+            int version = flowSnapshot.getVersion();
+            byte[] fromContent = fromProvider.getFlowContent(flow.getBucketId(), flow.getId(), version);
+            byte[] toContent = getTargetContent(toProvider, flow, version);
+
+            String fromHash = fromContent == null ? null : DigestUtils.sha256Hex(fromContent);
+            String toHash = toContent == null ? null : DigestUtils.sha256Hex(toContent);
+            if (!Objects.equals(fromHash, toHash)) {
+                mismatches++;
+                log.error("Flow {} version {} does not match after migration, expected SHA-256 {} but found {}", flow.getName(), version, fromHash, toHash);
+            }
+
+            progress.versionMigrated(fromContent);
+        }
+
+        progress.flowMigrated();
+        return mismatches;
+    }
+
+    /**
+     * Some providers return null for a version they do not have, while others, such as the git provider, throw.
+     *
+     * @return the content of the version in the target provider, or null if the target does not have it
+     */
+    private byte[] getTargetContent(FlowPersistenceProvider toProvider, MigrationFlow flow, int version) {
+        try {
+            return toProvider.getFlowContent(flow.getBucketId(), flow.getId(), version);
+        } catch (FlowPersistenceException e) {
+            log.debug("Flow {} version {} was not found in the target provider", flow.getName(), version, e);
+            return null;
+        }
+    }
+
+    private interface MigrationStep {
+        void run(MigrationFlow flow) throws Exception;
+    }
+
+    private static class MigrationFlow {
+        private final BucketEntity bucket;
+        private final FlowEntity flow;
+
+        MigrationFlow(BucketEntity bucket, FlowEntity flow) {
+            this.bucket = bucket;
+            this.flow = flow;
+        }
+
+        String getBucketId() {
+            return bucket.getId();
+        }
+
+        String getId() {
+            return flow.getId();
+        }
+
+        String getName() {
+            return flow.getName();
+        }
+    }
+
+    private static class MigrationProgress {
+        private final String action;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong flows = new AtomicLong();
+        private final AtomicLong versions = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        MigrationProgress(String action) {
+            this.action = action;
+        }
+
+        void versionMigrated(byte[] content) {
+            versions.incrementAndGet();
+            bytes.addAndGet(content == null ? 0 : content.length);
+        }
+
+        void flowMigrated() {
+            flows.incrementAndGet();
+        }
+
+        void report() {
+            double seconds = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), 1) / 1000.0;
+            log.info(String.format("%s %d versions of %d flows in %.1f seconds (%.1f versions/s, %.1f KB/s)",
+                    action, versions.get(), flows.get(), seconds, versions.get() / seconds, bytes.get() / 1024.0 / seconds));
+        }
+    }
+
+    private static class MigrationThreadFactory implements ThreadFactory {
+        private static final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Flow Persistence Migrator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 
     public static void main(String[] args) {
         Options options = new Options();
         options.addOption("t", "to", true, "Providers xml to migrate to.");
+        options.addOption("c", "concurrency", true, "Number of flows to migrate at the same time, only supported when migrating to the database provider (default "
+                + DEFAULT_CONCURRENCY + " for the database provider, otherwise 1).");
+        options.addOption("b", "batchSize", true, "Number of versions per batch when migrating to the database provider (default " + DEFAULT_BATCH_SIZE + ").");
+        options.addOption("k", "checkpoint", true, "File recording the migrated flows, an interrupted migration resumes from it when run again.");
+        options.addOption("v", "verify", false, "Compare the content hash of every version in both providers after migrating.");
         CommandLineParser parser = new DefaultParser();
 
         CommandLine commandLine = null;
+        Integer concurrency = null;
+        int batchSize = DEFAULT_BATCH_SIZE;
         try {
             commandLine = parser.parse(options, args);
-        } catch (ParseException e) {
+            if (commandLine.hasOption('c')) {
+                concurrency = Integer.parseInt(commandLine.getOptionValue('c'));
+            }
+            if (commandLine.hasOption('b')) {
+                batchSize = Integer.parseInt(commandLine.getOptionValue('b'));
+            }
+        } catch (ParseException | NumberFormatException e) {
             log.error("Unable to parse command line.", e);
 
             new HelpFormatter().printHelp("persistence-toolkit [args]", options);
@@ -81,6 +374,8 @@ public class FlowPersistenceProviderMigrator {
             System.exit(PARSE_EXCEPTION);
         }
 
+        File checkpointFile = commandLine.hasOption('k') ? new File(commandLine.getOptionValue('k')) : null;
+
         NiFiRegistryProperties fromProperties = NiFiRegistry.initializeProperties(NiFiRegistry.getMasterKeyProvider());
 
         DataSource dataSource = new DataSourceFactory(fromProperties).getDataSource();
@@ -88,7 +383,19 @@ public class FlowPersistenceProviderMigrator {
         FlowPersistenceProvider fromPersistenceProvider = createFlowPersistenceProvider(fromProperties, dataSource);
         FlowPersistenceProvider toPersistenceProvider = createFlowPersistenceProvider(createToProperties(commandLine, fromProperties), dataSource);
 
-        new FlowPersistenceProviderMigrator().doMigrate(fromMetadataService, fromPersistenceProvider, toPersistenceProvider);
+        if (concurrency == null) {
+            concurrency = isThreadSafe(toPersistenceProvider) ? DEFAULT_CONCURRENCY : 1;
+        } else if (concurrency > 1 && !isThreadSafe(toPersistenceProvider)) {
+            log.error("Concurrency must be 1 when migrating to {}, only the database provider can be migrated to concurrently",
+                    toPersistenceProvider.getClass().getSimpleName());
+
+            new HelpFormatter().printHelp("persistence-toolkit [args]", options);
+
+            System.exit(PARSE_EXCEPTION);
+        }
+
+        new FlowPersistenceProviderMigrator(concurrency, batchSize, checkpointFile, commandLine.hasOption('v'))
+                .doMigrate(fromMetadataService, fromPersistenceProvider, toPersistenceProvider);
     }
 
     private static NiFiRegistryProperties createToProperties(CommandLine commandLine, NiFiRegistryProperties fromProperties) {
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.toolkit.persistence;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Records the flows whose versions have all been migrated, one flow identifier per line, so that a migration that
+ * was interrupted can be restarted without copying those flows again.
+ */
+class MigrationCheckpoint implements Closeable {
+
+    private final Set<String> completedFlowIds;
+    private final boolean resuming;
+    private final BufferedWriter writer;
+
+    private MigrationCheckpoint(final Set<String> completedFlowIds, final boolean resuming, final BufferedWriter writer) {
+        this.completedFlowIds = completedFlowIds;
+        this.resuming = resuming;
+        this.writer = writer;
+    }
+
+    /**
+     * @param file the checkpoint file, created if it does not exist, or null to not keep a checkpoint
+     * @return the checkpoint
+     * @throws IOException if the file could not be read or opened for writing
+     */
+    static MigrationCheckpoint open(final File file) throws IOException {
+        if (file == null) {
+            return new MigrationCheckpoint(Collections.synchronizedSet(new HashSet<>()), false, null);
+        }
+
+        final Set<String> completedFlowIds = Collections.synchronizedSet(new HashSet<>());
+        final boolean resuming = file.exists();
+        if (resuming) {
+            for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    completedFlowIds.add(line.trim());
+                }
+            }
+        }
+
+        final BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new MigrationCheckpoint(completedFlowIds, resuming, writer);
+    }
+
+    /**
+     * @return true if the checkpoint existed before this run, in which case flows that are not complete may have been
+     * partially migrated
+     */
+    boolean isResuming() {
+        return resuming;
+    }
+
+    boolean isComplete(final String flowId) {
+        return completedFlowIds.contains(flowId);
+    }
+
+    int getCompletedCount() {
+        return completedFlowIds.size();
+    }
+
+    synchronized void complete(final String flowId) throws IOException {
+        completedFlowIds.add(flowId);
+        if (writer != null) {
+            // flushed per flow so that the checkpoint survives the process being killed
+            writer.write(flowId);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+}
@@ -19,18 +19,26 @@ package org.apache.nifi.registry.toolkit.persistence;
 import org.apache.nifi.registry.db.entity.BucketEntity;
 import org.apache.nifi.registry.db.entity.FlowEntity;
 import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
+import org.apache.nifi.registry.flow.FlowPersistenceException;
 import org.apache.nifi.registry.flow.FlowPersistenceProvider;
+import org.apache.nifi.registry.provider.flow.DatabaseFlowPersistenceProvider;
 import org.apache.nifi.registry.provider.flow.StandardFlowSnapshotContext;
 import org.apache.nifi.registry.service.MetadataService;
 import org.apache.nifi.registry.service.mapper.BucketMappings;
 import org.apache.nifi.registry.service.mapper.FlowMappings;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.AdditionalMatchers;
 
+import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -38,16 +46,26 @@ import java.util.Map;
 import java.util.TreeMap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 public class FlowPersistenceProviderMigratorTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private MetadataService metadataService;
     private FlowPersistenceProvider fromProvider;
     private FlowPersistenceProvider toProvider;
@@ -109,9 +127,126 @@ public class FlowPersistenceProviderMigratorTest {
             verifyMigrate(snapshot);
         }
 
+        verify(toProvider, times(snapshots.size())).getFlowContent(anyString(), anyString(), anyInt());
         verifyNoMoreInteractions(toProvider);
     }
 
+    @Test
+    public void testResumeFromCheckpoint() throws IOException {
+        BucketEntity bucket = createBucket("bucket1");
+        FlowEntity flow1 = createFlow(bucket, "flow1");
+        FlowEntity flow2 = createFlow(bucket, "flow2");
+
+        createSnapshot(flow1, 1);
+        createSnapshot(flow2, 1);
+        FlowSnapshotEntity flow2Version2 = createSnapshot(flow2, 2);
+
+        // flow1 was completed and version 1 of flow2 was copied before the previous run stopped
+        File checkpointFile = temporaryFolder.newFile("checkpoint");
+        Files.write(checkpointFile.toPath(), Collections.singletonList(flow1.getId()), StandardCharsets.UTF_8);
+        when(toProvider.getFlowContent(bucket.getId(), flow2.getId(), 1)).thenReturn(getContent(bucket.getId(), flow2.getId(), 1));
+
+        new FlowPersistenceProviderMigrator(1, 10, checkpointFile, false).doMigrate(metadataService, fromProvider, toProvider);
+
+        verifyMigrate(flow2Version2);
+        verify(toProvider).saveFlowContent(any(), any());
+        assertEquals(Arrays.asList(flow1.getId(), flow2.getId()), Files.readAllLines(checkpointFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testVerifyDetectsMismatchedContent() {
+        BucketEntity bucket = createBucket("bucket1");
+        FlowEntity flow = createFlow(bucket, "flow1");
+        createSnapshot(flow, 1);
+        createSnapshot(flow, 2);
+
+        when(toProvider.getFlowContent(bucket.getId(), flow.getId(), 1)).thenReturn(getContent(bucket.getId(), flow.getId(), 1));
+        when(toProvider.getFlowContent(bucket.getId(), flow.getId(), 2)).thenReturn("corrupted".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            new FlowPersistenceProviderMigrator(1, 10, null, true).doMigrate(metadataService, fromProvider, toProvider);
+            fail("Expected the mismatched version to fail the migration");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("1 versions did not match"));
+        }
+    }
+
+    @Test
+    public void testRerunWithoutCheckpointSkipsExistingVersions() {
+        BucketEntity bucket = createBucket("bucket1");
+        FlowEntity flow = createFlow(bucket, "flow1");
+        createSnapshot(flow, 1);
+        FlowSnapshotEntity version2 = createSnapshot(flow, 2);
+
+        when(toProvider.getFlowContent(bucket.getId(), flow.getId(), 1)).thenReturn(getContent(bucket.getId(), flow.getId(), 1));
+
+        new FlowPersistenceProviderMigrator().doMigrate(metadataService, fromProvider, toProvider);
+
+        verifyMigrate(version2);
+        verify(toProvider).saveFlowContent(any(), any());
+    }
+
+    @Test
+    public void testMigrationToProviderThatThrowsOnMissingContent() {
+        BucketEntity bucket = createBucket("bucket1");
+        FlowEntity flow = createFlow(bucket, "flow1");
+        FlowSnapshotEntity version1 = createSnapshot(flow, 1);
+        FlowSnapshotEntity version2 = createSnapshot(flow, 2);
+
+        // like the git provider, the target throws for a version it does not have
+        when(toProvider.getFlowContent(anyString(), anyString(), anyInt())).thenThrow(new FlowPersistenceException("Flow version was not found"));
+
+        new FlowPersistenceProviderMigrator().doMigrate(metadataService, fromProvider, toProvider);
+
+        verifyMigrate(version1);
+        verifyMigrate(version2);
+    }
+
+    @Test
+    public void testFailureWithoutCheckpoint() {
+        BucketEntity bucket = createBucket("bucket1");
+        FlowEntity flow = createFlow(bucket, "flow1");
+        createSnapshot(flow, 1);
+
+        doThrow(new IllegalStateException("Unable to save")).when(toProvider).saveFlowContent(any(), any());
+
+        try {
+            new FlowPersistenceProviderMigrator().doMigrate(metadataService, fromProvider, toProvider);
+            fail("Expected the failed flow to fail the migration");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("1 flows failed"));
+            assertFalse(e.getMessage().contains("checkpoint"));
+        }
+    }
+
+    @Test
+    public void testRejectsConcurrencyForProviderThatIsNotThreadSafe() {
+        BucketEntity bucket = createBucket("bucket1");
+        createSnapshot(createFlow(bucket, "flow1"), 1);
+
+        try {
+            new FlowPersistenceProviderMigrator(2, 10, null, false).doMigrate(metadataService, fromProvider, toProvider);
+            fail("Expected concurrency to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Concurrency must be 1"));
+        }
+
+        verifyNoMoreInteractions(toProvider);
+    }
+
+    @Test
+    public void testConcurrentMigrationToDatabaseProvider() {
+        BucketEntity bucket = createBucket("bucket1");
+        createSnapshot(createFlow(bucket, "flow1"), 1);
+        createSnapshot(createFlow(bucket, "flow2"), 1);
+
+        DatabaseFlowPersistenceProvider databaseProvider = mock(DatabaseFlowPersistenceProvider.class);
+
+        new FlowPersistenceProviderMigrator(2, 10, null, false).doMigrate(metadataService, fromProvider, databaseProvider);
+
+        verify(databaseProvider, times(2)).saveFlowContent(anyMap());
+    }
+
     private BucketEntity createBucket(String id) {
         BucketEntity bucketEntity = new BucketEntity();
         bucketEntity.setId(id);